@@ -0,0 +1,216 @@
+package com.example.reactive.RxJava2Demo;
+
+import com.example.reactive.RxJava2Demo.assembly.AssemblyOptimizer;
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.Observable;
+import io.reactivex.functions.Function;
+import io.reactivex.functions.Predicate;
+import io.reactivex.schedulers.Schedulers;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @description : 组装期优化测试
+ * @author: liuchuang
+ * @date: 2026/10/18 下午7:50
+ * @modified by:
+ */
+@Slf4j
+public class AssemblyDemo {
+
+    private static final Function<Integer, Integer> PLUS_ONE = new Function<Integer, Integer>() {
+        @Override
+        public Integer apply(Integer integer) throws Exception {
+            return integer + 1;
+        }
+    };
+
+    private static final Predicate<Integer> EVEN = new Predicate<Integer>() {
+        @Override
+        public boolean test(Integer integer) throws Exception {
+            return integer % 2 == 0;
+        }
+    };
+
+    /**
+     * map().map()、distinct().filter().map()
+     * 安装AssemblyOptimizer后，连续的map/filter在组装时合并为一个阶段，结果不变
+     */
+    @Test
+    public void assembly_fusion() {
+        AssemblyOptimizer.install();
+        try {
+            Flowable<Integer> flowable = Flowable.range(0, 10)
+                    .map(PLUS_ONE)
+                    .map(PLUS_ONE)
+                    .filter(EVEN)
+                    .map(PLUS_ONE);
+            System.out.println("Flowable组装结果：" + flowable.getClass().getSimpleName());
+            flowable.test().assertResult(3, 5, 7, 9, 11);
+
+            Observable<Integer> observable = Observable.just(1, 1, 2, 3, 1, 2, 2, 4, 5)
+                    .distinct()
+                    .filter(EVEN)
+                    .map(PLUS_ONE);
+            System.out.println("Observable组装结果：" + observable.getClass().getSimpleName());
+            observable.test().assertResult(3, 5);
+
+            System.out.println("合并阶段数：" + AssemblyOptimizer.fusedStages());
+        } finally {
+            AssemblyOptimizer.uninstall();
+        }
+    }
+
+    /**
+     * 单条数据的开销对比
+     * 6个阶段（map*4 + filter*2）的管道，分别在未安装/安装AssemblyOptimizer时组装，各执行5轮取最后一轮
+     */
+    @Test
+    public void assembly_fusion_benchmark() {
+        final int count = 5_000_000;
+        for (int round = 1; round <= 5; round++) {
+            double plain = nanosPerItem(pipeline(count), count);
+
+            AssemblyOptimizer.install();
+            Flowable<Integer> fused;
+            try {
+                fused = pipeline(count);
+            } finally {
+                AssemblyOptimizer.uninstall();
+            }
+            double optimized = nanosPerItem(fused, count);
+            System.out.println(String.format("第%d轮 未合并: %.2f ns/条, 合并后: %.2f ns/条, 节省: %.2f ns/条",
+                    round, plain, optimized, plain - optimized));
+        }
+    }
+
+    /**
+     * observeOn(io()).observeOn(io())之间没有操作，前一次切换被去掉；SchedulerDemo.demo2的observeOn(io()).observeOn(newThread())
+     * 调度器不同，io上的切换负责在io线程上向上游请求数据，保持不变；
+     * SchedulerDemo.demo5：observeOn(single()).map().observeOn(single())，第二个observeOn换成直接执行版本，
+     * 数据已经在single线程上时直接交给下游。结果与线程都与优化前一致。
+     */
+    @Test
+    public void assembly_observeOn() {
+        AssemblyOptimizer.install();
+        try {
+            final Set<String> threads = ConcurrentHashMap.newKeySet();
+            long removed = AssemblyOptimizer.removedHops();
+            Observable<Integer> same = Observable.range(0, 5)
+                    .observeOn(Schedulers.io())
+                    .observeOn(Schedulers.io())
+                    .map(i -> {
+                        threads.add(Thread.currentThread().getName());
+                        return i;
+                    });
+            same.test().awaitDone(5, TimeUnit.SECONDS).assertResult(0, 1, 2, 3, 4);
+            assertEquals(removed + 1, AssemblyOptimizer.removedHops());
+
+            Observable<Integer> demo2 = Observable.range(0, 5)
+                    .observeOn(Schedulers.io())
+                    .observeOn(Schedulers.newThread())
+                    .map(i -> {
+                        threads.add(Thread.currentThread().getName());
+                        return i;
+                    });
+            demo2.test().awaitDone(5, TimeUnit.SECONDS).assertResult(0, 1, 2, 3, 4);
+            assertEquals(removed + 1, AssemblyOptimizer.removedHops());
+            System.out.println("处理线程: " + threads);
+
+            Flowable<Integer> demo5 = Flowable.range(0, 1000)
+                    .observeOn(Schedulers.single())
+                    .map(PLUS_ONE)
+                    .observeOn(Schedulers.single());
+            System.out.println("demo5组装结果: " + demo5.getClass().getSimpleName());
+            List<Integer> values = demo5.doOnNext(i -> threads.add(Thread.currentThread().getName()))
+                    .toList().blockingGet();
+            assertEquals(1000, values.size());
+            assertEquals(Integer.valueOf(1000), values.get(999));
+
+            System.out.println("去掉的observeOn: " + AssemblyOptimizer.removedHops()
+                    + ", 直接执行的observeOn: " + AssemblyOptimizer.directHops() + ", 线程: " + threads);
+        } finally {
+            AssemblyOptimizer.uninstall();
+        }
+    }
+
+    /**
+     * observeOn(single()).map().observeOn(single())单条数据的开销对比
+     */
+    @Test
+    public void assembly_observeOn_benchmark() {
+        final int count = 1_000_000;
+        for (int round = 1; round <= 5; round++) {
+            long start = System.nanoTime();
+            hops(count).blockingLast();
+            double plain = (double) (System.nanoTime() - start) / count;
+
+            AssemblyOptimizer.install();
+            Flowable<Integer> optimized;
+            try {
+                optimized = hops(count);
+            } finally {
+                AssemblyOptimizer.uninstall();
+            }
+            start = System.nanoTime();
+            optimized.blockingLast();
+            double direct = (double) (System.nanoTime() - start) / count;
+            System.out.println(String.format("第%d轮 优化前: %.2f ns/条, 优化后: %.2f ns/条", round, plain, direct));
+        }
+    }
+
+    private static Flowable<Integer> hops(int count) {
+        return Flowable.range(0, count)
+                .observeOn(Schedulers.single())
+                .observeOn(Schedulers.single())
+                .map(PLUS_ONE)
+                .observeOn(Schedulers.single());
+    }
+
+    private static Flowable<Integer> pipeline(int count) {
+        return Flowable.range(0, count)
+                .map(PLUS_ONE)
+                .filter(EVEN)
+                .map(PLUS_ONE)
+                .map(PLUS_ONE)
+                .filter(EVEN)
+                .map(PLUS_ONE);
+    }
+
+    private static double nanosPerItem(Flowable<Integer> flowable, int count) {
+        final long[] received = {0L};
+        long start = System.nanoTime();
+        flowable.subscribe(new FlowableSubscriber<Integer>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                s.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(Integer integer) {
+                received[0]++;
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                t.printStackTrace();
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        long elapsed = System.nanoTime() - start;
+        assertEquals(count / 2, received[0]);
+        return (double) elapsed / count;
+    }
+}
@@ -1,14 +1,25 @@
 package com.example.reactive.RxJava2Demo;
 
+import com.example.reactive.RxJava2Demo.scheduler.HashedWheelTimerScheduler;
 import io.reactivex.Completable;
 import io.reactivex.CompletableEmitter;
 import io.reactivex.CompletableObserver;
 import io.reactivex.CompletableOnSubscribe;
+import io.reactivex.Scheduler;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.schedulers.Schedulers;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
 /**
  * @description : Completable测试
  * @author: liuchuang
@@ -118,4 +129,62 @@ public class CompletableDemo {
                 });
     }
 
+    /**
+     * 时间轮调度器
+     * timer()、delay()、timeout()都可以指定Scheduler。10万个同时存在、到期前就取消的timeout，
+     * 提交与取消在时间轮上都是O(1)，computation则要在每个Worker的延时堆里插入、删除；
+     * 另外1万个timeout实际到期，检查全部在tick精度内触发。
+     */
+    @Test
+    public void completable_hashed_wheel_timer() throws InterruptedException {
+        HashedWheelTimerScheduler wheel = new HashedWheelTimerScheduler(10, TimeUnit.MILLISECONDS);
+        try {
+            long start = System.nanoTime();
+            Completable.timer(100, TimeUnit.MILLISECONDS, wheel).blockingAwait();
+            System.out.println("timer(100ms)实际耗时: "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+
+            for (int round = 1; round <= 3; round++) {
+                long computation = scheduleAndCancel(Schedulers.computation(), 100_000);
+                long hashedWheel = scheduleAndCancel(wheel, 100_000);
+                System.out.println("第" + round + "轮 10万个timeout提交并取消 computation: "
+                        + TimeUnit.NANOSECONDS.toMillis(computation) + "ms, 时间轮: "
+                        + TimeUnit.NANOSECONDS.toMillis(hashedWheel) + "ms");
+            }
+
+            final int count = 10_000;
+            final CountDownLatch latch = new CountDownLatch(count);
+            final AtomicInteger timeouts = new AtomicInteger();
+            start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                Completable.never()
+                        .timeout(50, TimeUnit.MILLISECONDS, wheel)
+                        .subscribe(() -> latch.countDown(), e -> {
+                            if (e instanceof TimeoutException) {
+                                timeouts.incrementAndGet();
+                            }
+                            latch.countDown();
+                        });
+            }
+            latch.await();
+            System.out.println(count + "个timeout(50ms)全部触发耗时: "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms, 剩余: " + wheel.pendingTimeouts());
+            assertEquals(count, timeouts.get());
+        } finally {
+            wheel.shutdown();
+        }
+    }
+
+    private static long scheduleAndCancel(Scheduler scheduler, int count) {
+        List<Disposable> disposables = new ArrayList<>(count);
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            disposables.add(Completable.never().timeout(5, TimeUnit.SECONDS, scheduler).subscribe());
+        }
+        for (Disposable d : disposables) {
+            d.dispose();
+        }
+        return System.nanoTime() - start;
+    }
+
 }
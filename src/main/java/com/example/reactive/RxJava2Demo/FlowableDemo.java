@@ -1,18 +1,63 @@
 package com.example.reactive.RxJava2Demo;
 
+import com.example.reactive.RxJava2Demo.backpressure.AdaptiveRequestSubscriber;
+import com.example.reactive.RxJava2Demo.backpressure.SpillBackpressure;
+import com.example.reactive.RxJava2Demo.backpressure.SpillCodecs;
+import com.example.reactive.RxJava2Demo.backpressure.WaitStrategies;
+import com.example.reactive.RxJava2Demo.backpressure.WaitStrategy;
+import com.example.reactive.RxJava2Demo.backpressure.WaitingEmitter;
+import com.example.reactive.RxJava2Demo.backpressure.WaitingFlowable;
+import com.example.reactive.RxJava2Demo.backpressure.WaitingFlowableOnSubscribe;
+import com.example.reactive.RxJava2Demo.file.FileSource;
+import com.example.reactive.RxJava2Demo.journal.FsyncPolicy;
+import com.example.reactive.RxJava2Demo.journal.Journal;
+import com.example.reactive.RxJava2Demo.operator.AdaptiveLookahead;
+import com.example.reactive.RxJava2Demo.operator.AdaptiveObserveOn;
+import com.example.reactive.RxJava2Demo.operator.AdaptivePrefetch;
+import com.example.reactive.RxJava2Demo.operator.BoundedZip;
+import com.example.reactive.RxJava2Demo.operator.ConcatMapEager;
+import com.example.reactive.RxJava2Demo.operator.ParallelMap;
+import com.example.reactive.RxJava2Demo.operator.ZipMetrics;
+import com.example.reactive.RxJava2Demo.replay.OffHeapReplay;
+import com.example.reactive.RxJava2Demo.replay.OffHeapReplayProcessor;
 import io.reactivex.*;
 import io.reactivex.annotations.NonNull;
 import io.reactivex.disposables.Disposable;
+import io.reactivex.flowables.ConnectableFlowable;
 import io.reactivex.functions.Action;
+import io.reactivex.functions.BiFunction;
 import io.reactivex.functions.Consumer;
 import io.reactivex.functions.Function;
+import io.reactivex.functions.LongConsumer;
+import io.reactivex.processors.ReplayProcessor;
 import io.reactivex.schedulers.Schedulers;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subscribers.TestSubscriber;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.Test;
+import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @description : Flowable
@@ -119,6 +164,296 @@ public class FlowableDemo {
                 });
     }
 
+    /**
+     * 堆外replay
+     * replay()把历史数据保存为堆上的链表节点；OffHeapReplay把历史序列化到堆外的段中，堆上只剩每段一个对象。
+     * 先比较两者重放200万条Long后的堆占用，再演示按字节数、按时长限制的历史，以及迟到订阅者按request(n)读取自己的游标。
+     */
+    @Test
+    public void flowable_replay_offheap() {
+        final int count = 2_000_000;
+        long before = usedHeap();
+        ReplayProcessor<Long> onHeap = ReplayProcessor.create();
+        Flowable.rangeLong(0, count).subscribe(onHeap);
+        long onHeapBytes = usedHeap() - before;
+        assertEquals(count, onHeap.getValues().length);
+        onHeap = null;
+
+        before = usedHeap();
+        OffHeapReplayProcessor<Long> offHeap = OffHeapReplayProcessor.create(SpillCodecs.longs());
+        Flowable.rangeLong(0, count).subscribe(offHeap);
+        long offHeapBytes = usedHeap() - before;
+        System.out.println("ReplayProcessor堆占用: " + onHeapBytes / 1024 + "KB, OffHeapReplayProcessor堆占用: "
+                + offHeapBytes / 1024 + "KB, 堆外: " + offHeap.retainedBytes() / 1024 + "KB");
+        assertTrue(offHeapBytes < onHeapBytes / 10);
+        assertEquals(count, Flowable.fromPublisher(offHeap).count().blockingGet().intValue());
+
+        // 段大小1KB，最多保留4KB：迟到的订阅者只能重放最近的数据，且顺序连续
+        ConnectableFlowable<String> replayed = OffHeapReplay.replay(
+                Flowable.range(0, 1000).map(new Function<Integer, String>() {
+                    @Override
+                    public String apply(@NonNull Integer integer) throws Exception {
+                        return "event-" + integer;
+                    }
+                }),
+                OffHeapReplayProcessor.create(SpillCodecs.string(), 1024, 4096,
+                        Long.MAX_VALUE, TimeUnit.MILLISECONDS, Schedulers.computation()));
+        TestSubscriber<String> early = replayed.test(0L);
+        replayed.connect();
+        early.assertValueCount(0);
+        early.request(10);
+        early.assertValueCount(10).assertValueAt(9, "event-9");
+        early.request(Long.MAX_VALUE);
+        early.assertValueCount(1000).assertComplete();
+        TestSubscriber<String> late = replayed.test();
+        late.assertComplete();
+        int replayedCount = late.valueCount();
+        System.out.println("迟到的订阅者重放了" + replayedCount + "条: " + late.values().get(0) + " ~ "
+                + late.values().get(replayedCount - 1));
+        assertTrue(replayedCount > 0 && replayedCount < 1000);
+        assertEquals("event-" + (1000 - replayedCount), late.values().get(0));
+        assertEquals("event-999", late.values().get(replayedCount - 1));
+
+        // 保留最近1秒的数据
+        TestScheduler clock = new TestScheduler();
+        OffHeapReplayProcessor<Integer> timed = OffHeapReplayProcessor.createWithTime(SpillCodecs.integer(),
+                1, TimeUnit.SECONDS, clock);
+        timed.onNext(1);
+        clock.advanceTimeBy(600, TimeUnit.MILLISECONDS);
+        timed.onNext(2);
+        clock.advanceTimeBy(600, TimeUnit.MILLISECONDS);
+        timed.onNext(3);
+        timed.test().assertValues(2, 3).assertNotComplete();
+        timed.onComplete();
+        timed.test().assertResult(2, 3);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * 持久化日志
+     * create()产生的数据只在内存中，进程重启就丢失。先把1000条数据写入Journal，再用新的Journal实例
+     * 模拟重启后打开同一目录，从偏移量500开始读取；request(n)恰好读取n条；tail在读完已有数据后继续跟随新写入的数据。
+     */
+    @Test
+    public void flowable_journal() throws IOException {
+        File directory = Files.createTempDirectory("journal").toFile();
+        try {
+            Journal<String> journal = Journal.open(directory, 4096, SpillCodecs.string());
+            Flowable.range(0, 1000)
+                    .map(new Function<Integer, String>() {
+                        @Override
+                        public String apply(@NonNull Integer integer) throws Exception {
+                            return "order-" + integer;
+                        }
+                    })
+                    .compose(journal.appender(FsyncPolicy.everyRecords(100)))
+                    .test()
+                    .assertValueCount(1000)
+                    .assertValueAt(999, 999L);
+            System.out.println("写入1000条, 刷盘" + journal.syncs() + "次, 段文件: " + directory.list().length);
+
+            Journal<String> reopened = Journal.open(directory, 4096, SpillCodecs.string());
+            assertEquals(1000L, reopened.nextOffset());
+            TestSubscriber<String> replay = reopened.read(500).test(0L);
+            replay.assertNoValues();
+            replay.request(3);
+            replay.assertValues("order-500", "order-501", "order-502").assertNotComplete();
+            replay.request(Long.MAX_VALUE);
+            replay.assertValueCount(500).assertComplete();
+
+            TestSubscriber<String> tail = reopened.tail(998).test();
+            Flowable.just("order-1000", "order-1001")
+                    .compose(reopened.appender(FsyncPolicy.everyRecord()))
+                    .blockingSubscribe();
+            tail.awaitCount(4);
+            tail.assertValues("order-998", "order-999", "order-1000", "order-1001").assertNotComplete();
+            tail.cancel();
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * 日志吞吐：每条100字节，分别按不同的刷盘策略写入50万条，再从头读取（SpillCodecs.byteBuffer()不复制数据），执行3轮
+     */
+    @Test
+    public void flowable_journal_benchmark() throws IOException {
+        final int count = 500_000;
+        final ByteBuffer payload = ByteBuffer.allocate(100);
+        FsyncPolicy[] policies = {
+                FsyncPolicy.never(),
+                FsyncPolicy.interval(10, TimeUnit.MILLISECONDS),
+                FsyncPolicy.everyRecords(10_000)
+        };
+        for (int round = 1; round <= 3; round++) {
+            for (FsyncPolicy policy : policies) {
+                File directory = Files.createTempDirectory("journal").toFile();
+                try {
+                    Journal<ByteBuffer> journal = Journal.open(directory, SpillCodecs.byteBuffer());
+                    long start = System.nanoTime();
+                    long last = Flowable.range(0, count)
+                            .map(new Function<Integer, ByteBuffer>() {
+                                @Override
+                                public ByteBuffer apply(@NonNull Integer integer) throws Exception {
+                                    return payload.duplicate();
+                                }
+                            })
+                            .compose(journal.appender(policy))
+                            .blockingLast();
+                    long writeNanos = System.nanoTime() - start;
+                    assertEquals(count - 1, last);
+
+                    start = System.nanoTime();
+                    long read = journal.read(0).count().blockingGet();
+                    long readNanos = System.nanoTime() - start;
+                    assertEquals(count, read);
+                    System.out.println(String.format("第%d轮 %s 写入: %.0f 条/秒 (%.1f MB/秒, 刷盘%d次), 读取: %.0f 条/秒",
+                            round, policy, count * 1e9 / writeNanos, count * 104 * 1e9 / writeNanos / (1 << 20),
+                            journal.syncs(), count * 1e9 / readNanos));
+                } finally {
+                    deleteRecursively(directory);
+                }
+            }
+        }
+    }
+
+    /**
+     * 读取文件
+     * 生成300万行（约43MB）的文件，分别用Flowable.create(BUFFER)循环readLine()与FileSource.lines读取。
+     * 下游在另一个线程上，收到第一行后暂停：readLine不受下游约束，整个文件都以String的形式积压在堆中；
+     * FileSource只切出下游请求的行数（observeOn的预取量），堆占用不随文件大小增长。
+     * 随后比较两者不切换线程时的读取速度，并验证按块读取、跨窗口的行以及request(n)恰好读取n行。
+     */
+    @Test
+    public void flowable_file_source() throws Exception {
+        final int count = 3_000_000;
+        final File file = File.createTempFile("lines", ".txt");
+        try {
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+                for (int i = 0; i < count; i++) {
+                    writer.write("line-");
+                    writer.write(String.format("%08d", i));
+                    writer.write(i % 2 == 0 ? "\n" : "\r\n");
+                }
+            }
+            final long bytes = file.length();
+            final CountDownLatch produced = new CountDownLatch(1);
+            Flowable<String> readLine = Flowable.create(new FlowableOnSubscribe<String>() {
+                @Override
+                public void subscribe(FlowableEmitter<String> e) throws Exception {
+                    try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+                        String line;
+                        while ((line = reader.readLine()) != null && !e.isCancelled()) {
+                            e.onNext(line);
+                        }
+                    }
+                    produced.countDown();
+                    e.onComplete();
+                }
+            }, BackpressureStrategy.BUFFER);
+
+            long before = usedHeap();
+            long backlog = pausedConsumer(readLine.subscribeOn(Schedulers.io()), produced, count);
+            System.out.println("readLine: 下游暂停时堆占用增加" + (backlog - before) / 1024 + "KB");
+            before = usedHeap();
+            long bounded = pausedConsumer(FileSource.lines(file).subscribeOn(Schedulers.io()), null, count);
+            System.out.println("FileSource.lines: 下游暂停时堆占用增加" + Math.max(0L, bounded - before) / 1024 + "KB");
+            assertTrue(bounded - before < (backlog - before) / 10);
+
+            for (int round = 1; round <= 3; round++) {
+                long start = System.nanoTime();
+                assertEquals(count, readLine.count().blockingGet().intValue());
+                long readLineNanos = System.nanoTime() - start;
+                start = System.nanoTime();
+                assertEquals(count, FileSource.lines(file).count().blockingGet().intValue());
+                long mappedNanos = System.nanoTime() - start;
+                System.out.println(String.format("第%d轮 readLine: %.0f MB/秒, FileSource.lines: %.0f MB/秒", round,
+                        bytes * 1e9 / readLineNanos / (1 << 20), bytes * 1e9 / mappedNanos / (1 << 20)));
+            }
+
+            long chunked = FileSource.chunks(file, 1 << 20)
+                    .map(new Function<ByteBuffer, Integer>() {
+                        @Override
+                        public Integer apply(@NonNull ByteBuffer buffer) throws Exception {
+                            return buffer.remaining();
+                        }
+                    })
+                    .reduce(0L, new BiFunction<Long, Integer, Long>() {
+                        @Override
+                        public Long apply(@NonNull Long sum, @NonNull Integer size) throws Exception {
+                            return sum + size;
+                        }
+                    })
+                    .blockingGet();
+            assertEquals(bytes, chunked);
+
+            Function<ByteBuffer, String> decode = new Function<ByteBuffer, String>() {
+                @Override
+                public String apply(@NonNull ByteBuffer buffer) throws Exception {
+                    return StandardCharsets.UTF_8.decode(buffer).toString();
+                }
+            };
+            TestSubscriber<String> lines = FileSource.lines(file, 100).map(decode).test(0L);
+            lines.assertNoValues();
+            lines.request(2);
+            lines.assertValues("line-00000000", "line-00000001");
+            lines.request(5);
+            lines.assertValueCount(7).assertValueAt(6, "line-00000006").assertNotComplete();
+            lines.cancel();
+            assertEquals("line-" + String.format("%08d", count - 1),
+                    FileSource.lines(file, 100).map(decode).blockingLast());
+        } finally {
+            deleteRecursively(file);
+        }
+    }
+
+    /**
+     * 下游在收到第一条数据后暂停，等上游写完（produced为null时等待1秒）后记录堆占用，再放行并确认条数
+     */
+    private static <T> long pausedConsumer(Flowable<T> source, CountDownLatch produced, int count)
+            throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        Single<Long> counted = source
+                .observeOn(Schedulers.computation())
+                .doOnNext(new Consumer<T>() {
+                    @Override
+                    public void accept(T t) throws Exception {
+                        release.await();
+                    }
+                })
+                .count()
+                .cache();
+        counted.subscribe();
+        if (produced != null) {
+            assertTrue(produced.await(30, TimeUnit.SECONDS));
+        } else {
+            Thread.sleep(1000);
+        }
+        long heap = usedHeap();
+        release.countDown();
+        assertEquals(count, counted.blockingGet().intValue());
+        return heap;
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        if (!file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
     /**
      * ERROR
      * ERROR策略下，如果放入Flowable的异步缓存池中的数据超限了，则会抛出MissingBackpressureException异常。
@@ -569,6 +904,107 @@ public class FlowableDemo {
                 });
     }
 
+    /**
+     * SPILL
+     * 内存中只保留128条数据，放不下的数据按顺序溢写到内存映射文件，下游读完内存后再按顺序从磁盘读取，
+     * 突发量超过堆大小也不会OOM，且不丢数据。
+     */
+    @Test
+    public void flowable_spill() {
+        final int total = 2_000_000;
+        TestSubscriber<Integer> ts = Flowable
+                .create(new FlowableOnSubscribe<Integer>() {
+                    @Override
+                    public void subscribe(FlowableEmitter<Integer> e) throws Exception {
+                        for (int i = 1; i <= total; i++) {
+                            e.onNext(i);
+                        }
+                        System.out.println(Thread.currentThread().getName() + "发射完成");
+                        e.onComplete();
+                    }
+                }, BackpressureStrategy.MISSING)
+                .compose(SpillBackpressure.spill(128, 8 * 1024 * 1024,
+                        new File(System.getProperty("java.io.tmpdir")), SpillCodecs.integer()))
+                .subscribeOn(Schedulers.io())
+                .observeOn(Schedulers.newThread())
+                // 顺序校验放在map中，失败时以onError交给TestSubscriber，而不是抛到RxJavaPlugins
+                .map(new Function<Integer, Integer>() {
+                    private int expected = 1;
+
+                    @Override
+                    public Integer apply(Integer integer) throws Exception {
+                        if (integer != expected) {
+                            throw new IllegalStateException("期望 " + expected + "，实际接收 " + integer);
+                        }
+                        expected++;
+                        if (integer % 200_000 == 0) {
+                            System.out.println(Thread.currentThread().getName() + "接收---->" + integer);
+                        }
+                        return integer;
+                    }
+                })
+                .test();
+        ts.awaitDone(60, TimeUnit.SECONDS);
+        ts.assertNoErrors();
+        ts.assertComplete();
+        ts.assertValueCount(total);
+        System.out.println("接收完成，共" + ts.valueCount() + "条");
+    }
+
+    /**
+     * SPILL顺序压力测试
+     * 内存队列取最小容量，observeOn每次只请求1条，drain频繁在消费者线程上运行；生产者成批发射后让出CPU，消费者反复追平，
+     * 不断经过"磁盘读完、生产者切回内存"的临界点。多条流水线并发，线程数远多于CPU核数，消费者会在"取内存"与"取磁盘"之间被切走，
+     * 生产者趁机切回内存、填满后再次溢写，用来检验两步读取之间的顺序。
+     */
+    @Test
+    public void flowable_spill_stress() {
+        final int total = 200_000;
+        final int pipelines = Runtime.getRuntime().availableProcessors() * 4;
+        List<TestSubscriber<Integer>> subscribers = new ArrayList<TestSubscriber<Integer>>();
+        for (int p = 0; p < pipelines; p++) {
+            TestSubscriber<Integer> ts = Flowable
+                    .create(new FlowableOnSubscribe<Integer>() {
+                        @Override
+                        public void subscribe(FlowableEmitter<Integer> e) throws Exception {
+                            for (int i = 1; i <= total; i++) {
+                                e.onNext(i);
+                                // 成批发射后让出CPU，消费者得以追平，频繁经过"磁盘读完、切回内存"的临界点
+                                if ((i & 15) == 0) {
+                                    Thread.yield();
+                                }
+                            }
+                            e.onComplete();
+                        }
+                    }, BackpressureStrategy.MISSING)
+                    .subscribeOn(Schedulers.newThread())
+                    .compose(SpillBackpressure.spill(1, 64 * 1024,
+                            new File(System.getProperty("java.io.tmpdir")), SpillCodecs.integer()))
+                    .observeOn(Schedulers.newThread(), false, 1)
+                    .map(new Function<Integer, Integer>() {
+                        private int expected = 1;
+
+                        @Override
+                        public Integer apply(Integer v) throws Exception {
+                            if (v != expected) {
+                                throw new IllegalStateException("期望 " + expected + "，实际接收 " + v);
+                            }
+                            expected++;
+                            return v;
+                        }
+                    })
+                    .test();
+            subscribers.add(ts);
+        }
+        for (TestSubscriber<Integer> ts : subscribers) {
+            ts.awaitDone(60, TimeUnit.SECONDS);
+            ts.assertNoErrors();
+            ts.assertComplete();
+            ts.assertValueCount(total);
+        }
+        System.out.println(pipelines + "条流水线各" + total + "条，顺序一致");
+    }
+
     /**
      * 自定义背压策略
      */
@@ -618,6 +1054,70 @@ public class FlowableDemo {
                 });
     }
 
+    /**
+     * 自定义背压策略 + WaitStrategy
+     * flowable_custom_strategy在需求为0时空转continue，消费者sleep期间发射线程占满一个核。
+     * 这里通过awaitDemand()按选定的策略等待，request(n)到达时立即恢复发射，
+     * 可对比不同策略下发射线程消耗的CPU时间。
+     */
+    @Test
+    public void flowable_wait_strategy() throws InterruptedException {
+        WaitStrategy[] strategies = {WaitStrategies.busySpin(), WaitStrategies.yielding(),
+                WaitStrategies.parking(), WaitStrategies.blocking()};
+        for (WaitStrategy strategy : strategies) {
+            final CountDownLatch count = new CountDownLatch(1);
+            final String name = strategy.getClass().getSimpleName();
+            WaitingFlowable
+                    .create(new WaitingFlowableOnSubscribe<Integer>() {
+                        @Override
+                        public void subscribe(WaitingEmitter<Integer> e) throws Exception {
+                            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+                            long cpu = bean.getCurrentThreadCpuTime();
+                            long start = System.nanoTime();
+                            for (int i = 1; i <= 200; i++) {
+                                //下游需求数归零时按WaitStrategy等待
+                                if (e.awaitDemand() == 0) {
+                                    return;
+                                }
+                                e.onNext(i);
+                            }
+                            System.out.println(name + "发射完成，耗时" + (System.nanoTime() - start) / 1_000_000
+                                    + "ms，发射线程CPU时间" + (bean.getCurrentThreadCpuTime() - cpu) / 1_000_000 + "ms");
+                            e.onComplete();
+                        }
+                    }, strategy)
+                    //发射线程会阻塞等待request，request不能再调度到同一个线程上
+                    .subscribeOn(Schedulers.io(), false)
+                    .observeOn(Schedulers.newThread(), false, 1)
+                    .subscribe(new Subscriber<Integer>() {
+                        @Override
+                        public void onSubscribe(Subscription s) {
+                            s.request(Long.MAX_VALUE);
+                        }
+
+                        @Override
+                        public void onNext(Integer integer) {
+                            try {
+                                Thread.sleep(2);
+                            } catch (InterruptedException ignore) {
+                            }
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            t.printStackTrace();
+                            count.countDown();
+                        }
+
+                        @Override
+                        public void onComplete() {
+                            count.countDown();
+                        }
+                    });
+            count.await();
+        }
+    }
+
     /**
      * BUFFER
      *
@@ -666,6 +1166,229 @@ public class FlowableDemo {
     }
 
 
+    /**
+     * 保序的并行map
+     * flowable_buffer_map中observeOn(Schedulers.io())之后的map只在一个线程上执行。
+     * ParallelMap.ordered把数据轮流分给与CPU核数相同的rail并行计算，结果经过固定大小的重排缓冲恢复上游顺序，
+     * 下一个observeOn收到的顺序与单线程map相同。
+     */
+    @Test
+    public void flowable_parallel_map() throws InterruptedException {
+        final int count = 20_000;
+        final Function<Integer, String> cpuBound = new Function<Integer, String>() {
+            @Override
+            public String apply(Integer integer) throws Exception {
+                long h = integer;
+                for (int i = 0; i < 20_000; i++) {
+                    h = h * 31 + (h >>> 7);
+                }
+                return integer + " : " + (h & 0xff);
+            }
+        };
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            runOrdered(Flowable.range(1, count)
+                    .observeOn(Schedulers.io())
+                    .map(cpuBound), count);
+            long single = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            runOrdered(Flowable.range(1, count)
+                    .observeOn(Schedulers.io())
+                    .compose(ParallelMap.ordered(cpuBound)), count);
+            long parallel = System.nanoTime() - start;
+
+            System.out.println("第" + (round + 1) + "轮 单线程map: " + TimeUnit.NANOSECONDS.toMillis(single)
+                    + "ms, " + Runtime.getRuntime().availableProcessors() + "条rail: "
+                    + TimeUnit.NANOSECONDS.toMillis(parallel) + "ms");
+        }
+    }
+
+    /**
+     * 经过observeOn(Schedulers.newThread())接收，检查顺序与条数
+     */
+    private void runOrdered(Flowable<String> flowable, final int count) throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final int[] next = {1};
+        flowable
+                .observeOn(Schedulers.newThread())
+                .subscribe(new Subscriber<String>() {
+                    @Override
+                    public void onSubscribe(Subscription s) {
+                        s.request(Long.MAX_VALUE);
+                    }
+
+                    @Override
+                    public void onNext(String str) {
+                        int value = Integer.parseInt(str.substring(0, str.indexOf(' ')));
+                        if (value != next[0]) {
+                            throw new IllegalStateException("乱序: 期望" + next[0] + " 实际" + value);
+                        }
+                        next[0]++;
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        t.printStackTrace();
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        latch.countDown();
+                    }
+                });
+        latch.await();
+        assertEquals(count + 1, next[0]);
+    }
+
+
+    /**
+     * 每个源单独限定prefetch的zip
+     * range是同步的快速源，interval每1ms一条是慢速源。快速源最多缓存16条，之后只有组合消费掉12条才向它补货，
+     * 请求只流向落后的interval；ZipMetrics记录凑不齐一组时在等哪个源。
+     */
+    @Test
+    public void flowable_zip_bounded() throws InterruptedException {
+        final int count = 500;
+        final AtomicLong fastRequested = new AtomicLong();
+        Flowable<Integer> fast = Flowable.range(0, Integer.MAX_VALUE)
+                .doOnRequest(new LongConsumer() {
+                    @Override
+                    public void accept(long n) throws Exception {
+                        fastRequested.addAndGet(n);
+                    }
+                });
+        Flowable<Long> slow = Flowable.interval(1, TimeUnit.MILLISECONDS).take(count);
+
+        ZipMetrics metrics = new ZipMetrics(2);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final int[] received = {0};
+        BoundedZip.zip(fast, slow, new BiFunction<Integer, Long, String>() {
+            @Override
+            public String apply(Integer integer, Long aLong) throws Exception {
+                return integer + "-" + aLong;
+            }
+        }, 16, 64, metrics)
+                .subscribe(new Consumer<String>() {
+                    @Override
+                    public void accept(String s) throws Exception {
+                        received[0]++;
+                    }
+                }, new Consumer<Throwable>() {
+                    @Override
+                    public void accept(Throwable throwable) throws Exception {
+                        throwable.printStackTrace();
+                        latch.countDown();
+                    }
+                }, new Action() {
+                    @Override
+                    public void run() throws Exception {
+                        latch.countDown();
+                    }
+                });
+        latch.await();
+
+        System.out.println(metrics);
+        System.out.println("快速源累计被请求: " + fastRequested.get());
+        assertEquals(count, received[0]);
+        assertEquals(1, metrics.laggingSource());
+        assertTrue(metrics.maxQueued(0) <= 16);
+        assertTrue(fastRequested.get() <= count + 16);
+    }
+
+
+    /**
+     * 预订阅个数自适应的concatMapEager
+     * 每个内部源模拟一次I/O：订阅后20ms才开始发出3条数据。concatMap逐个订阅，100个内部源的启动延迟串行累加；
+     * ConcatMapEager.adaptive提前订阅后面的内部源，预订阅个数随测得的启动延迟增加，输出顺序不变。
+     */
+    @Test
+    public void flowable_concatMap_eager() throws InterruptedException {
+        final int count = 100;
+        final Function<Integer, Publisher<Integer>> io = new Function<Integer, Publisher<Integer>>() {
+            @Override
+            public Publisher<Integer> apply(Integer integer) throws Exception {
+                return Flowable.range(integer * 3, 3)
+                        .delaySubscription(20, TimeUnit.MILLISECONDS, Schedulers.io());
+            }
+        };
+
+        long start = System.nanoTime();
+        runConcat(Flowable.range(0, count).concatMap(io), count * 3);
+        long concat = System.nanoTime() - start;
+
+        AdaptiveLookahead lookahead = new AdaptiveLookahead();
+        start = System.nanoTime();
+        runConcat(Flowable.range(0, count).compose(ConcatMapEager.adaptive(io, lookahead, 16)), count * 3);
+        long eager = System.nanoTime() - start;
+
+        System.out.println("concatMap: " + TimeUnit.NANOSECONDS.toMillis(concat) + "ms, adaptive concatMapEager: "
+                + TimeUnit.NANOSECONDS.toMillis(eager) + "ms " + lookahead);
+        assertTrue(eager < concat);
+    }
+
+    private void runConcat(Flowable<Integer> flowable, int count) {
+        final int[] next = {0};
+        flowable.blockingSubscribe(new Consumer<Integer>() {
+            @Override
+            public void accept(Integer integer) throws Exception {
+                assertEquals(next[0], integer.intValue());
+                next[0]++;
+            }
+        });
+        assertEquals(count, next[0]);
+    }
+
+
+    /**
+     * 自适应prefetch的observeOn
+     * observeOn固定预取128条、消费96条后补货。observeOnAdaptive根据到达速率与消费耗时调整prefetch：
+     * 前2000条每条处理1ms，缓存池收缩到最小值；之后数据轻量且到达速率高，缓存池逐步放大。
+     */
+    @Test
+    public void flowable_observeOn_adaptive() throws InterruptedException {
+        final CountDownLatch count = new CountDownLatch(1);
+        final AdaptivePrefetch prefetch = new AdaptivePrefetch();
+        Flowable
+                .range(1, 1_000_000)
+                .subscribeOn(Schedulers.io())
+                .compose(AdaptiveObserveOn.<Integer>observeOn(Schedulers.newThread(), prefetch))
+                .subscribe(new Subscriber<Integer>() {
+                    @Override
+                    public void onSubscribe(Subscription s) {
+                        s.request(Long.MAX_VALUE);
+                    }
+
+                    @Override
+                    public void onNext(Integer integer) {
+                        if (integer <= 2000) {
+                            try {
+                                Thread.sleep(1);
+                            } catch (InterruptedException ignore) {
+                            }
+                        }
+                        if (integer % 500 == 0 && integer <= 2000 || integer % 100_000 == 0) {
+                            System.out.println(Thread.currentThread().getName() + "接收---->" + integer + " " + prefetch);
+                        }
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        t.printStackTrace();
+                        count.countDown();
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        System.out.println(Thread.currentThread().getName() + "接收----> 完成 " + prefetch);
+                        count.countDown();
+                    }
+                });
+        count.await();
+    }
+
     /**
      *
      */
@@ -716,6 +1439,55 @@ public class FlowableDemo {
     }
 
 
+    /**
+     * 自适应请求量
+     * 与flowable_onBack中每条数据request(1)不同，AdaptiveRequestSubscriber按窗口批量请求，
+     * 并根据处理耗时调整窗口：前500条处理较慢，窗口收缩；之后处理变快，窗口逐步放大。
+     */
+    @Test
+    public void flowable_adaptive_request() throws InterruptedException {
+        final CountDownLatch count = new CountDownLatch(1);
+        final AdaptiveRequestSubscriber<Integer> subscriber = new AdaptiveRequestSubscriber<Integer>(
+                new Consumer<Integer>() {
+                    @Override
+                    public void accept(Integer integer) throws Exception {
+                        if (integer <= 500) {
+                            Thread.sleep(2);
+                        }
+                    }
+                },
+                new Consumer<Throwable>() {
+                    @Override
+                    public void accept(Throwable throwable) throws Exception {
+                        throwable.printStackTrace();
+                        count.countDown();
+                    }
+                },
+                new Action() {
+                    @Override
+                    public void run() throws Exception {
+                        count.countDown();
+                    }
+                },
+                1, 16, 1024, 20, TimeUnit.MILLISECONDS);
+        Flowable
+                .range(1, 100_000)
+                .doOnNext(new Consumer<Integer>() {
+                    @Override
+                    public void accept(Integer integer) throws Exception {
+                        if (integer % 250 == 0) {
+                            System.out.println("发射---->" + integer + "，当前请求窗口：" + subscriber.currentLimit());
+                        }
+                    }
+                })
+                .subscribeOn(Schedulers.io())
+                .observeOn(Schedulers.newThread())
+                .subscribe(subscriber);
+        count.await();
+        System.out.println("接收完成，request调用次数：" + subscriber.requestCalls()
+                + "，最终请求窗口：" + subscriber.currentLimit());
+    }
+
     @Test
     public void flowable_range_onBack() {
         Flowable
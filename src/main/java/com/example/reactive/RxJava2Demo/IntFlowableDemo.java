@@ -0,0 +1,140 @@
+package com.example.reactive.RxJava2Demo;
+
+import com.example.reactive.RxJava2Demo.primitive.IntFlowable;
+import com.example.reactive.RxJava2Demo.primitive.IntPredicate;
+import com.example.reactive.RxJava2Demo.primitive.IntUnaryFunction;
+import io.reactivex.Flowable;
+import io.reactivex.functions.BiFunction;
+import io.reactivex.functions.Function;
+import io.reactivex.functions.Predicate;
+import io.reactivex.schedulers.Schedulers;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @description : IntFlowable测试
+ * @author: liuchuang
+ * @date: 2026/10/18 下午7:10
+ * @modified by:
+ */
+@Slf4j
+public class IntFlowableDemo {
+
+    private static final int COUNT = 10_000_000;
+
+    /**
+     * 当前线程累计分配的字节数
+     */
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * range -> filter -> map -> reduce
+     * Flowable<Integer>每个元素都要装箱，IntFlowable全程传递int，对比两者的耗时与当前线程的内存分配量
+     */
+    @Test
+    public void intFlowable_range_filter_map_reduce() {
+        for (int round = 0; round < 3; round++) {
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            int boxed = Flowable
+                    .range(0, COUNT)
+                    .filter(new Predicate<Integer>() {
+                        @Override
+                        public boolean test(Integer integer) throws Exception {
+                            return integer % 3 == 0;
+                        }
+                    })
+                    .map(new Function<Integer, Integer>() {
+                        @Override
+                        public Integer apply(Integer integer) throws Exception {
+                            return integer * 2;
+                        }
+                    })
+                    .reduce(0, new BiFunction<Integer, Integer, Integer>() {
+                        @Override
+                        public Integer apply(Integer a, Integer b) throws Exception {
+                            return a + b;
+                        }
+                    })
+                    .blockingGet();
+            System.out.println("Flowable<Integer>: " + (System.nanoTime() - start) / 1_000_000 + "ms, 分配"
+                    + (allocatedBytes() - bytes) / 1024 / 1024 + "MB, 结果" + boxed);
+
+            bytes = allocatedBytes();
+            start = System.nanoTime();
+            int primitive = IntFlowable
+                    .range(0, COUNT)
+                    .filter(new IntPredicate() {
+                        @Override
+                        public boolean test(int value) {
+                            return value % 3 == 0;
+                        }
+                    })
+                    .map(new IntUnaryFunction() {
+                        @Override
+                        public int apply(int value) {
+                            return value * 2;
+                        }
+                    })
+                    .sum()
+                    .blockingGet();
+            System.out.println("IntFlowable:       " + (System.nanoTime() - start) / 1_000_000 + "ms, 分配"
+                    + (allocatedBytes() - bytes) / 1024 / 1024 + "MB, 结果" + primitive);
+            assertEquals(boxed, primitive);
+        }
+    }
+
+    /**
+     * observeOn
+     * 跨线程时缓存池为int[]环形队列，预取128条、消费96条后补货，与Flowable.observeOn一致
+     */
+    @Test
+    public void intFlowable_observeOn() {
+        long start = System.nanoTime();
+        int sum = IntFlowable
+                .range(0, COUNT)
+                .observeOn(Schedulers.newThread())
+                .filter(new IntPredicate() {
+                    @Override
+                    public boolean test(int value) {
+                        return (value & 1) == 0;
+                    }
+                })
+                .map(new IntUnaryFunction() {
+                    @Override
+                    public int apply(int value) {
+                        return value >> 1;
+                    }
+                })
+                .sum()
+                .blockingGet();
+        System.out.println(Thread.currentThread().getName() + "接收-----" + sum + "，耗时"
+                + (System.nanoTime() - start) / 1_000_000 + "ms");
+
+        int expected = 0;
+        for (int i = 0; i < COUNT; i += 2) {
+            expected += i >> 1;
+        }
+        assertEquals(expected, sum);
+    }
+
+    /**
+     * 与普通Flowable衔接：boxed()之后逐个装箱，fromPublisher()在入口处拆箱
+     */
+    @Test
+    public void intFlowable_boxed() {
+        IntFlowable
+                .fromPublisher(Flowable.just(1, 2, 3, 4, 5))
+                .map(value -> value * value)
+                .boxed()
+                .test()
+                .assertResult(1, 4, 9, 16, 25);
+    }
+}
@@ -1,18 +1,28 @@
 package com.example.reactive.RxJava2Demo;
 
+import com.example.reactive.RxJava2Demo.cache.AsyncCache;
+import com.example.reactive.RxJava2Demo.cache.CacheConfig;
 import com.example.reactive.RxJava2Demo.exception.TestException;
 import io.reactivex.Maybe;
 import io.reactivex.MaybeEmitter;
 import io.reactivex.MaybeObserver;
 import io.reactivex.MaybeOnSubscribe;
+import io.reactivex.MaybeSource;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.disposables.Disposables;
 import io.reactivex.functions.Cancellable;
 import io.reactivex.functions.Function;
 import io.reactivex.schedulers.Schedulers;
+import io.reactivex.schedulers.TestScheduler;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.Test;
 
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -291,4 +301,76 @@ public class MaybeDemo {
                 });
     }
 
+    /**
+     * 按键缓存Maybe的结果
+     * 偶数id的用户存在，奇数id不存在（Maybe.empty()）。空结果缓存30秒，值缓存5分钟、4分钟后提前刷新；
+     * 用TestScheduler推进时间，观察命中、刷新与过期。
+     * 最后用一个热点键加顺序扫描的访问序列比较LRU与TINY_LFU的命中率：扫描会把热点键挤出LRU，TINY_LFU不会。
+     */
+    @Test
+    public void maybe_async_cache() {
+        final TestScheduler clock = new TestScheduler();
+        final AtomicInteger version = new AtomicInteger();
+        final AtomicInteger loads = new AtomicInteger();
+        AsyncCache<Integer, String> users = new AsyncCache<Integer, String>(CacheConfig.defaults()
+                .expireAfterWrite(5, TimeUnit.MINUTES)
+                .refreshAfterWrite(4, TimeUnit.MINUTES)
+                .cacheEmpty(30, TimeUnit.SECONDS),
+                new Function<Integer, MaybeSource<String>>() {
+                    @Override
+                    public MaybeSource<String> apply(Integer id) throws Exception {
+                        loads.incrementAndGet();
+                        return id % 2 == 0 ? Maybe.just("user" + id + "@v" + version.get()) : Maybe.<String>empty();
+                    }
+                }, clock);
+
+        users.get(2).test().assertResult("user2@v0");
+        users.get(2).test().assertResult("user2@v0");
+        users.get(3).test().assertResult();
+        users.get(3).test().assertResult();
+        assertEquals(2, loads.get());
+
+        version.set(1);
+        clock.advanceTimeBy(4, TimeUnit.MINUTES);
+        // 超过刷新时间：本次仍返回旧值，同时后台加载新值；空结果已过期，重新加载
+        users.get(2).test().assertResult("user2@v0");
+        users.get(2).test().assertResult("user2@v1");
+        users.get(3).test().assertResult();
+        assertEquals(4, loads.get());
+
+        clock.advanceTimeBy(5, TimeUnit.MINUTES);
+        users.get(2).test().assertResult("user2@v1");
+        users.single(3).test().assertFailure(NoSuchElementException.class);
+        System.out.println(users);
+        assertEquals(6, loads.get());
+        assertEquals(3, users.expirations());
+
+        AsyncCache<Integer, Integer> lru = hitRate(CacheConfig.Eviction.LRU);
+        AsyncCache<Integer, Integer> tinyLfu = hitRate(CacheConfig.Eviction.TINY_LFU);
+        System.out.println(lru);
+        System.out.println(tinyLfu);
+        assertTrue(tinyLfu.hitRate() > lru.hitRate());
+    }
+
+    /**
+     * 容量100，请求中70%访问100个热点键，30%是从未出现过的顺序扫描
+     */
+    private AsyncCache<Integer, Integer> hitRate(CacheConfig.Eviction eviction) {
+        AsyncCache<Integer, Integer> cache = new AsyncCache<Integer, Integer>(
+                CacheConfig.defaults().maximumSize(100).eviction(eviction),
+                new Function<Integer, MaybeSource<Integer>>() {
+                    @Override
+                    public MaybeSource<Integer> apply(Integer key) throws Exception {
+                        return Maybe.just(key);
+                    }
+                });
+        Random random = new Random(7);
+        int scan = 1_000_000;
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(10) < 7 ? random.nextInt(100) : scan++;
+            cache.get(key).blockingGet();
+        }
+        return cache;
+    }
+
 }
@@ -1,5 +1,9 @@
 package com.example.reactive.RxJava2Demo;
 
+import com.example.reactive.RxJava2Demo.retry.BackoffRetry;
+import com.example.reactive.RxJava2Demo.retry.RetryBudget;
+import com.example.reactive.RxJava2Demo.retry.RetryMetrics;
+import com.example.reactive.RxJava2Demo.scheduler.HashedWheelTimerScheduler;
 import io.reactivex.Maybe;
 import io.reactivex.functions.Predicate;
 import io.reactivex.internal.functions.Functions;
@@ -7,9 +11,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.junit.Test;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @description : TODO
@@ -118,4 +125,75 @@ public class MaybeRetryDemo {
         assertEquals(1, numberOfSubscribeCalls.get());
     }
 
+    /**
+     * 指数退避 + 共享重试预算
+     * 下游服务前300ms全部失败。retry(Integer.MAX_VALUE, predicate)出错后立即重新订阅，一个订阅在故障期间就会调用成千上万次；
+     * BackoffRetry每次重试前在时间轮上等待（10ms起、DECORRELATED打散、不超过200ms），
+     * 50个订阅共用一个RetryBudget（容量50，每秒补充100个），预算用完的订阅不再重试，直接收到错误。
+     */
+    @Test
+    public void retryWithBackoffAndBudget() throws InterruptedException {
+        final AtomicInteger tightCalls = new AtomicInteger();
+        final long tightRecoverAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+        Maybe.fromCallable(new Callable<Boolean>() {
+            @Override public Boolean call() throws Exception {
+                tightCalls.incrementAndGet();
+                if (System.nanoTime() < tightRecoverAt) {
+                    throw new RuntimeException("服务不可用");
+                }
+                return true;
+            }
+        })
+                .retry(Integer.MAX_VALUE, Functions.alwaysTrue())
+                .test()
+                .assertResult(true);
+        log.info("retry(Integer.MAX_VALUE)单个订阅的调用次数: " + tightCalls.get());
+
+        final int subscribers = 50;
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger succeeded = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(subscribers);
+        final long recoverAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+        RetryBudget budget = new RetryBudget(50, 100);
+        RetryMetrics metrics = new RetryMetrics();
+        HashedWheelTimerScheduler wheel = new HashedWheelTimerScheduler(5, TimeUnit.MILLISECONDS);
+        try {
+            BackoffRetry retry = BackoffRetry.exponential(10, 200, TimeUnit.MILLISECONDS)
+                    .maxRetries(10)
+                    .budget(budget)
+                    .metrics(metrics)
+                    .scheduler(wheel);
+            for (int i = 0; i < subscribers; i++) {
+                Maybe.fromCallable(new Callable<Boolean>() {
+                    @Override public Boolean call() throws Exception {
+                        calls.incrementAndGet();
+                        if (System.nanoTime() < recoverAt) {
+                            throw new RuntimeException("服务不可用");
+                        }
+                        return true;
+                    }
+                })
+                        .retryWhen(retry)
+                        .subscribe(v -> {
+                            succeeded.incrementAndGet();
+                            latch.countDown();
+                        }, e -> {
+                            failed.incrementAndGet();
+                            latch.countDown();
+                        });
+            }
+            latch.await();
+        } finally {
+            wheel.shutdown();
+        }
+        log.info(subscribers + "个订阅的调用次数: " + calls.get() + ", 成功: " + succeeded.get()
+                + ", 失败: " + failed.get() + " " + metrics + " " + budget);
+        assertEquals(subscribers, succeeded.get() + failed.get());
+        assertEquals(subscribers + metrics.retries(), calls.get());
+        assertEquals(metrics.retries(), budget.acquired());
+        assertTrue(metrics.budgetExhausted() > 0);
+        assertTrue(calls.get() < tightCalls.get());
+    }
+
 }
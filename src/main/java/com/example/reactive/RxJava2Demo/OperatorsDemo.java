@@ -1,13 +1,34 @@
 package com.example.reactive.RxJava2Demo;
 
+import com.example.reactive.RxJava2Demo.distinct.BoundedDistinct;
+import com.example.reactive.RxJava2Demo.limit.AimdLimit;
+import com.example.reactive.RxJava2Demo.limit.GradientLimit;
+import com.example.reactive.RxJava2Demo.limit.LimitAlgorithm;
+import com.example.reactive.RxJava2Demo.limit.LimitedFlatMap;
+import com.example.reactive.RxJava2Demo.limit.VegasLimit;
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 import io.reactivex.annotations.NonNull;
 import io.reactivex.functions.BiFunction;
 import io.reactivex.functions.Consumer;
 import io.reactivex.functions.Function;
 import io.reactivex.functions.Predicate;
+import io.reactivex.internal.functions.Functions;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @description : Operators测试
@@ -73,6 +94,45 @@ public class OperatorsDemo {
                 });
     }
 
+    /**
+     * 内存有界的distinct
+     * distinct()在无限流上会保存所有出现过的键。对200万个不同的键（其中每第3个重复前一个）分别使用
+     * primitive/lru/bloom，保留的键数与内存都固定，不随流的长度增长；timeWindow用TestScheduler演示窗口过期。
+     */
+    @Test
+    public void demo4_distinct_bounded() {
+        final int count = 2_000_000;
+        Observable<Integer> keys = Observable.range(0, count).map(i -> i % 3 == 2 ? i - 1 : i);
+        int expected = count - count / 3;
+
+        long unbounded = keys.distinct().count().blockingGet();
+        long primitive = keys.distinct(Functions.identity(), BoundedDistinct.primitive(100_000))
+                .count().blockingGet();
+        long lru = keys.distinct(Functions.identity(), BoundedDistinct.lru(100_000)).count().blockingGet();
+        long bloom = keys.distinct(Functions.identity(), BoundedDistinct.bloom(100_000, 0.001))
+                .count().blockingGet();
+        System.out.println("distinct(): " + unbounded + ", primitive: " + primitive + ", lru: " + lru
+                + ", bloom: " + bloom + "（期望" + expected + "，bloom的差值为误判）");
+        assertEquals(expected, unbounded);
+        assertEquals(expected, primitive);
+        assertEquals(expected, lru);
+
+        TestScheduler clock = new TestScheduler();
+        Subject<String> subject = PublishSubject.create();
+        TestObserver<String> observer = subject
+                .distinct(Functions.identity(), BoundedDistinct.timeWindow(1, TimeUnit.SECONDS, 1000, clock))
+                .test();
+        subject.onNext("a");
+        subject.onNext("a");
+        clock.advanceTimeBy(500, TimeUnit.MILLISECONDS);
+        subject.onNext("a");
+        subject.onNext("b");
+        clock.advanceTimeBy(600, TimeUnit.MILLISECONDS);
+        subject.onNext("a");
+        subject.onNext("b");
+        observer.assertValues("a", "b", "a");
+    }
+
     /**
      * map方法会对发射的元素进行映射处理
      */
@@ -110,6 +170,107 @@ public class OperatorsDemo {
                 });
     }
 
+    /**
+     * 并发上限自适应的flatMap
+     * StubService同时只能处理8个调用、每个10ms，超出的调用排队，耗时随并发数增长。
+     * flatMap一次发出128个调用，每个调用都要排队；LimitedFlatMap按耗时把并发收缩到服务能承受的范围，
+     * 总耗时相近，但单次调用的耗时明显更低。
+     */
+    @Test
+    public void demo6_flatMap_limited() {
+        final int calls = 400;
+        final StubService service = new StubService(8, 10);
+        final Function<Integer, Publisher<String>> call = new Function<Integer, Publisher<String>>() {
+            @Override
+            public Publisher<String> apply(@NonNull Integer integer) throws Exception {
+                return service.call(integer);
+            }
+        };
+
+        long start = System.nanoTime();
+        assertEquals(calls, Flowable.range(0, calls).flatMap(call).count().blockingGet().intValue());
+        System.out.println("flatMap: " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms " + service);
+        long unbounded = service.meanLatencyMillis();
+
+        LimitAlgorithm[] algorithms = {
+                new AimdLimit(20, 1, 200, 30, TimeUnit.MILLISECONDS, 0.9d),
+                new VegasLimit(),
+                new GradientLimit()
+        };
+        for (LimitAlgorithm algorithm : algorithms) {
+            service.reset();
+            start = System.nanoTime();
+            assertEquals(calls, Flowable.range(0, calls)
+                    .compose(LimitedFlatMap.flatMap(call, algorithm))
+                    .count().blockingGet().intValue());
+            System.out.println(algorithm + ": " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+                    + "ms " + service);
+            assertTrue(service.meanLatencyMillis() < unbounded);
+        }
+    }
+
+    /**
+     * 模拟下游服务：capacity个调用并行处理，每个耗时latencyMillis，超出部分排队
+     */
+    static final class StubService {
+
+        final int capacity;
+
+        final long latencyMillis;
+
+        final AtomicInteger inFlight = new AtomicInteger();
+
+        final AtomicInteger peak = new AtomicInteger();
+
+        final AtomicLong totalMillis = new AtomicLong();
+
+        final AtomicLong count = new AtomicLong();
+
+        StubService(int capacity, long latencyMillis) {
+            this.capacity = capacity;
+            this.latencyMillis = latencyMillis;
+        }
+
+        Flowable<String> call(final int id) {
+            return Flowable.defer(new Callable<Publisher<String>>() {
+                @Override
+                public Publisher<String> call() throws Exception {
+                    final int n = inFlight.incrementAndGet();
+                    int p;
+                    while ((p = peak.get()) < n && !peak.compareAndSet(p, n)) {
+                    }
+                    final long delay = latencyMillis * ((n + capacity - 1) / capacity);
+                    return Flowable.timer(delay, TimeUnit.MILLISECONDS)
+                            .map(new Function<Long, String>() {
+                                @Override
+                                public String apply(@NonNull Long aLong) throws Exception {
+                                    inFlight.decrementAndGet();
+                                    totalMillis.addAndGet(delay);
+                                    count.incrementAndGet();
+                                    return "result " + id;
+                                }
+                            });
+                }
+            });
+        }
+
+        long meanLatencyMillis() {
+            long c = count.get();
+            return c == 0L ? 0L : totalMillis.get() / c;
+        }
+
+        void reset() {
+            peak.set(0);
+            totalMillis.set(0L);
+            count.set(0L);
+        }
+
+        @Override
+        public String toString() {
+            return "peakConcurrency=" + peak.get() + ", meanLatency=" + meanLatencyMillis() + "ms";
+        }
+    }
+
 
     /**
      * mergeWith合并两个Observable发射的元素，不保证顺序
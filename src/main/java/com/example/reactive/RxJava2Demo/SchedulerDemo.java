@@ -1,15 +1,36 @@
 package com.example.reactive.RxJava2Demo;
 
+import com.example.reactive.RxJava2Demo.scheduler.BoundedIoScheduler;
+import com.example.reactive.RxJava2Demo.scheduler.SchedulerInstrumentation;
+import com.example.reactive.RxJava2Demo.scheduler.SchedulerMetrics;
+import com.example.reactive.RxJava2Demo.scheduler.VirtualThreadScheduler;
+import com.example.reactive.RxJava2Demo.scheduler.WorkStealingScheduler;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 import io.reactivex.ObservableEmitter;
 import io.reactivex.ObservableOnSubscribe;
+import io.reactivex.Scheduler;
 import io.reactivex.annotations.NonNull;
 import io.reactivex.functions.Consumer;
 import io.reactivex.functions.Function;
+import io.reactivex.plugins.RxJavaPlugins;
 import io.reactivex.schedulers.Schedulers;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.Test;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
 /**
  * @description : Scheduler测试
  * @author: liuchuang
@@ -264,5 +285,181 @@ public class SchedulerDemo {
                 });
     }
 
+    /**
+     * 工作窃取的computation调度器
+     * 通过RxJavaPlugins.setComputationSchedulerHandler替换Schedulers.computation()，业务代码不用修改。
+     * 同一个Worker上的任务仍然按提交顺序、不重叠地执行；不同链的任务可以被空闲线程窃取，
+     * 一条繁忙的链不再固定占用一个线程。
+     */
+    @Test
+    public void demo_work_stealing() throws InterruptedException {
+        WorkStealingScheduler scheduler = new WorkStealingScheduler(4);
+        RxJavaPlugins.setComputationSchedulerHandler(scheduler.handler());
+        try {
+            Completable.complete()
+                    .observeOn(Schedulers.computation())
+                    .doOnComplete(() -> System.out.println(Thread.currentThread().getName() + "执行完成"))
+                    .blockingAwait();
+
+            //同一个Worker：检查顺序与是否重叠
+            final int tasks = 100_000;
+            final AtomicInteger running = new AtomicInteger();
+            final int[] next = {0};
+            final CountDownLatch latch = new CountDownLatch(1);
+            final Set<String> threads = ConcurrentHashMap.newKeySet();
+            Scheduler.Worker worker = Schedulers.computation().createWorker();
+            for (int i = 0; i < tasks; i++) {
+                final int index = i;
+                worker.schedule(() -> {
+                    if (running.incrementAndGet() != 1) {
+                        throw new IllegalStateException("同一Worker的任务重叠执行");
+                    }
+                    if (next[0] != index) {
+                        throw new IllegalStateException("乱序: 期望" + next[0] + " 实际" + index);
+                    }
+                    next[0]++;
+                    threads.add(Thread.currentThread().getName());
+                    running.decrementAndGet();
+                    if (index == tasks - 1) {
+                        latch.countDown();
+                    }
+                });
+            }
+            latch.await();
+            worker.dispose();
+            assertEquals(tasks, next[0]);
+            System.out.println("单个Worker执行" + tasks + "个任务，顺序正确，使用过的线程: " + threads);
+
+            //多条繁忙的链
+            List<Flowable<Integer>> chains = new ArrayList<>();
+            for (int c = 0; c < 8; c++) {
+                chains.add(Flowable.range(1, 2_000)
+                        .observeOn(Schedulers.computation())
+                        .map(i -> {
+                            long h = i;
+                            for (int k = 0; k < 20_000; k++) {
+                                h = h * 31 + (h >>> 7);
+                            }
+                            return (int) (h & 1);
+                        }));
+            }
+            long start = System.nanoTime();
+            Flowable.merge(chains).blockingLast();
+            System.out.println("8条链耗时: " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+                    + "ms, 窃取任务数: " + scheduler.stealCount());
+        } finally {
+            RxJavaPlugins.reset();
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * 虚拟线程调度器
+     * 2000个同时阻塞100ms的任务：Java 21+上运行在虚拟线程，平台线程数基本不变；
+     * Java 8上退回Schedulers.io()，每个阻塞任务占用一个平台线程。
+     */
+    @Test
+    public void demo_virtual_thread() {
+        VirtualThreadScheduler scheduler = new VirtualThreadScheduler();
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        threadMXBean.resetPeakThreadCount();
+        int before = threadMXBean.getThreadCount();
+        long start = System.nanoTime();
+        try {
+            long count = Flowable.range(1, 2000)
+                    .flatMap(i -> Flowable.fromCallable(() -> {
+                        Thread.sleep(100);
+                        return Thread.currentThread().toString();
+                    }).subscribeOn(scheduler), 2000)
+                    .count()
+                    .blockingGet();
+            assertEquals(2000L, count);
+        } finally {
+            scheduler.shutdown();
+        }
+        System.out.println("java " + System.getProperty("java.version") + ", 虚拟线程: " + scheduler.isVirtual()
+                + ", 耗时: " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms"
+                + ", 平台线程数: " + before + " -> 峰值" + threadMXBean.getPeakThreadCount());
+    }
+
+    /**
+     * 有界io调度器
+     * 最多8个线程、队列16，200个同时阻塞的任务：CALLER_RUNS时队列满后由提交线程自己执行，全部完成；
+     * REJECT时超出部分被拒绝并计数。应用中的上限在application.properties的reactive.scheduler.io.*配置。
+     */
+    @Test
+    public void demo_bounded_io() {
+        BoundedIoScheduler callerRuns = new BoundedIoScheduler(8, 16, 60, TimeUnit.SECONDS,
+                BoundedIoScheduler.RejectionPolicy.CALLER_RUNS);
+        try {
+            long count = Flowable.range(1, 200)
+                    .flatMap(i -> Flowable.fromCallable(() -> {
+                        Thread.sleep(10);
+                        return i;
+                    }).subscribeOn(callerRuns), 200)
+                    .count()
+                    .blockingGet();
+            assertEquals(200L, count);
+            System.out.println(callerRuns);
+        } finally {
+            callerRuns.shutdown();
+        }
+
+        BoundedIoScheduler reject = new BoundedIoScheduler(8, 16, 60, TimeUnit.SECONDS,
+                BoundedIoScheduler.RejectionPolicy.REJECT);
+        RxJavaPlugins.setErrorHandler(e -> { });
+        try {
+            long count = Flowable.range(1, 200)
+                    .flatMap(i -> Flowable.fromCallable(() -> {
+                        Thread.sleep(10);
+                        return i;
+                    }).subscribeOn(reject).timeout(1, TimeUnit.SECONDS, Flowable.empty()), 200)
+                    .count()
+                    .blockingGet();
+            System.out.println("完成: " + count + ", " + reject);
+            assertEquals(200L, count + reject.rejectedCount());
+        } finally {
+            RxJavaPlugins.reset();
+            reject.shutdown();
+        }
+    }
+
+    /**
+     * 调度器指标
+     * 单线程调度器上连续提交50个各耗时2ms的任务：执行时间约2ms，而排在后面的任务等待时间接近100ms，
+     * 说明延迟来自调度器排队而不是任务本身。应用中由SchedulerMetricsConfiguration安装，通过JMX查看。
+     */
+    @Test
+    public void demo_scheduler_metrics() throws InterruptedException {
+        SchedulerInstrumentation.install();
+        try {
+            SchedulerMetrics single = SchedulerInstrumentation.metrics(SchedulerInstrumentation.SINGLE);
+            single.reset();
+            final CountDownLatch latch = new CountDownLatch(50);
+            for (int i = 0; i < 50; i++) {
+                Schedulers.single().scheduleDirect(() -> {
+                    try {
+                        Thread.sleep(2);
+                    } catch (InterruptedException ignore) {
+                    }
+                    latch.countDown();
+                });
+            }
+            System.out.println("提交后: " + single);
+            latch.await();
+            System.out.println("完成后: " + single);
+            assertEquals(50L, single.completedCount());
+
+            Flowable.range(1, 1000)
+                    .observeOn(Schedulers.computation())
+                    .delay(10, TimeUnit.MILLISECONDS, Schedulers.io())
+                    .blockingLast();
+            for (SchedulerMetrics metrics : SchedulerInstrumentation.allMetrics().values()) {
+                System.out.println(metrics);
+            }
+        } finally {
+            SchedulerInstrumentation.uninstall();
+        }
+    }
 
 }
@@ -1,17 +1,36 @@
 package com.example.reactive.RxJava2Demo;
 
+import com.example.reactive.RxJava2Demo.breaker.CircuitBreaker;
+import com.example.reactive.RxJava2Demo.breaker.CircuitBreakerConfig;
+import com.example.reactive.RxJava2Demo.coalesce.SingleFlight;
+import com.example.reactive.RxJava2Demo.exception.CallNotPermittedException;
+import com.example.reactive.RxJava2Demo.hedge.HedgedRequests;
+import com.example.reactive.RxJava2Demo.scheduler.LatencyHistogram;
+import io.reactivex.Flowable;
 import io.reactivex.Single;
 import io.reactivex.SingleEmitter;
 import io.reactivex.SingleObserver;
 import io.reactivex.SingleOnSubscribe;
 import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Action;
 import io.reactivex.functions.Consumer;
 import io.reactivex.functions.Function;
+import io.reactivex.observers.TestObserver;
 import io.reactivex.schedulers.Schedulers;
+import io.reactivex.schedulers.TestScheduler;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.Test;
 
+import java.util.Random;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @description : Single测试
@@ -204,4 +223,188 @@ public class SingleDemo {
         }
     }
 
+    /**
+     * 熔断器
+     * 下游服务故障时single_error只是把错误交给下游，每个调用都要等满1秒超时。
+     * 最近10次调用中（至少5次）失败率达到50%时熔断器打开，之后的调用立即收到CallNotPermittedException；
+     * 同一个熔断器也用于Maybe与Completable调用链，打开后它们同样被拒绝。
+     * 30秒后转为半开，放行2次试探调用，成功后关闭。用TestScheduler推进时间。
+     */
+    @Test
+    public void single_circuit_breaker() {
+        final TestScheduler clock = new TestScheduler();
+        final AtomicBoolean down = new AtomicBoolean(true);
+        CircuitBreaker breaker = new CircuitBreaker("dependency", CircuitBreakerConfig.defaults()
+                .window(10, 5)
+                .failureRateThreshold(50)
+                .slowCall(500, TimeUnit.MILLISECONDS, 100)
+                .waitInOpen(30, TimeUnit.SECONDS)
+                .permittedCallsInHalfOpen(2), clock);
+        Single<Integer> dependency = Single.defer(new Callable<Single<Integer>>() {
+            @Override
+            public Single<Integer> call() throws Exception {
+                return down.get()
+                        ? Single.<Integer>never().timeout(1, TimeUnit.SECONDS, clock)
+                        : Single.just(1).delay(10, TimeUnit.MILLISECONDS, clock);
+            }
+        });
+
+        long start = clock.now(TimeUnit.MILLISECONDS);
+        for (int i = 0; i < 10; i++) {
+            TestObserver<Integer> observer = dependency.compose(breaker.<Integer>single()).test();
+            if (i < 5) {
+                clock.advanceTimeBy(1, TimeUnit.SECONDS);
+                observer.assertError(TimeoutException.class);
+            } else {
+                // 打开后不等待超时，订阅时立即失败
+                observer.assertError(CallNotPermittedException.class);
+            }
+        }
+        System.out.println("10次调用耗时: " + (clock.now(TimeUnit.MILLISECONDS) - start) + "ms " + breaker);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(5, breaker.notPermittedCalls());
+
+        dependency.toMaybe().compose(breaker.<Integer>maybe()).test()
+                .assertError(CallNotPermittedException.class);
+        dependency.ignoreElement().compose(breaker.completable()).test()
+                .assertError(CallNotPermittedException.class);
+
+        down.set(false);
+        clock.advanceTimeBy(30, TimeUnit.SECONDS);
+        for (int i = 0; i < 2; i++) {
+            TestObserver<Integer> observer = dependency.compose(breaker.<Integer>single()).test();
+            assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+            clock.advanceTimeBy(10, TimeUnit.MILLISECONDS);
+            observer.assertResult(1);
+        }
+        System.out.println("恢复后: " + breaker);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    /**
+     * 对冲请求
+     * 模拟的下游调用97%在5ms左右返回，3%落入200ms的慢尾部。每个请求单独订阅一次上游，
+     * 对冲后主请求20ms未成功就发出备份请求，取先成功的一个；固定延迟与p95两种方式的对冲次数都不超过总请求的5%。
+     */
+    @Test
+    public void single_hedged() {
+        final Random random = new Random(42);
+        final Single<Integer> call = Single.defer(new Callable<Single<Integer>>() {
+            @Override
+            public Single<Integer> call() throws Exception {
+                long latency;
+                synchronized (random) {
+                    latency = random.nextInt(100) < 3 ? 200 : 4 + random.nextInt(3);
+                }
+                return Single.just(1).delay(latency, TimeUnit.MILLISECONDS);
+            }
+        });
+
+        LatencyHistogram plain = measure(call);
+        System.out.println("不对冲: " + plain);
+
+        HedgedRequests fixed = HedgedRequests.fixed(20, TimeUnit.MILLISECONDS, 5);
+        LatencyHistogram hedgedFixed = measure(call.compose(fixed.<Integer>single()));
+        System.out.println("固定20ms对冲: " + hedgedFixed + " " + fixed);
+
+        HedgedRequests p95 = HedgedRequests.percentile(0.95, 20, TimeUnit.MILLISECONDS, 5);
+        LatencyHistogram hedgedP95 = measure(call.compose(p95.<Integer>single()));
+        System.out.println("p95对冲: " + hedgedP95 + " " + p95);
+
+        assertTrue(fixed.hedges() <= fixed.requests() * 5 / 100);
+        assertTrue(p95.hedges() <= p95.requests() * 5 / 100);
+        assertTrue(hedgedFixed.percentileNanos(0.99) < plain.percentileNanos(0.99));
+    }
+
+    /**
+     * 16个请求并发，共1000个，记录每个请求从订阅到成功的耗时
+     */
+    private LatencyHistogram measure(final Single<Integer> call) {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        long count = Flowable.range(0, 1000)
+                .flatMapSingle(new Function<Integer, Single<Integer>>() {
+                    @Override
+                    public Single<Integer> apply(Integer integer) throws Exception {
+                        final long start = System.nanoTime();
+                        return call.doOnSuccess(new Consumer<Integer>() {
+                            @Override
+                            public void accept(Integer integer) throws Exception {
+                                histogram.record(System.nanoTime() - start);
+                            }
+                        });
+                    }
+                }, false, 16)
+                .count()
+                .blockingGet();
+        assertEquals(1000, count);
+        return histogram;
+    }
+
+    /**
+     * 按键合并请求
+     * 1000个订阅同时查询同一个键，上游只执行一次，所有订阅得到同一个结果。
+     * 取消按引用计数：3个订阅中取消2个时上游继续执行，最后一个也取消后上游才被取消。
+     */
+    @Test
+    public void single_flight() throws InterruptedException {
+        final SingleFlight<String, Integer> flight = new SingleFlight<String, Integer>();
+        final AtomicInteger loads = new AtomicInteger();
+        Single<Integer> load = flight.single("user:1", Single.fromCallable(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                loads.incrementAndGet();
+                Thread.sleep(100);
+                return 42;
+            }
+        }).subscribeOn(Schedulers.io()));
+
+        final int subscribers = 1000;
+        final CountDownLatch latch = new CountDownLatch(subscribers);
+        final AtomicInteger results = new AtomicInteger();
+        for (int i = 0; i < subscribers; i++) {
+            load.subscribe(new Consumer<Integer>() {
+                @Override
+                public void accept(Integer integer) throws Exception {
+                    results.addAndGet(integer);
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        System.out.println("订阅" + subscribers + "次，上游执行" + loads.get() + "次 " + flight);
+        assertEquals(1, loads.get());
+        assertEquals(42 * subscribers, results.get());
+        assertEquals(0, flight.inFlight());
+
+        final AtomicInteger disposed = new AtomicInteger();
+        Single<Integer> slow = flight.single("user:2", Single.timer(10, TimeUnit.SECONDS)
+                .map(new Function<Long, Integer>() {
+                    @Override
+                    public Integer apply(Long aLong) throws Exception {
+                        return 7;
+                    }
+                })
+                .doOnDispose(new Action() {
+                    @Override
+                    public void run() throws Exception {
+                        disposed.incrementAndGet();
+                    }
+                }));
+        TestObserver<Integer> first = slow.test();
+        TestObserver<Integer> second = slow.test();
+        TestObserver<Integer> third = slow.test();
+        first.dispose();
+        second.dispose();
+        assertEquals(0, disposed.get());
+        assertEquals(1, flight.inFlight());
+        third.dispose();
+        assertEquals(1, disposed.get());
+        assertEquals(0, flight.inFlight());
+
+        long executions = flight.executions();
+        slow.test().dispose();
+        assertEquals(executions + 1, flight.executions());
+        System.out.println(flight);
+    }
+
 }
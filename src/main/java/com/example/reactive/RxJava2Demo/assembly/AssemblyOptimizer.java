@@ -0,0 +1,391 @@
+package com.example.reactive.RxJava2Demo.assembly;
+
+import io.reactivex.Flowable;
+import io.reactivex.Observable;
+import io.reactivex.ObservableSource;
+import io.reactivex.Scheduler;
+import io.reactivex.functions.Function;
+import io.reactivex.functions.Predicate;
+import io.reactivex.internal.fuseable.HasUpstreamObservableSource;
+import io.reactivex.internal.fuseable.HasUpstreamPublisher;
+import io.reactivex.internal.operators.flowable.FlowableFilter;
+import io.reactivex.internal.operators.flowable.FlowableMap;
+import io.reactivex.internal.operators.flowable.FlowableObserveOn;
+import io.reactivex.internal.operators.flowable.FlowableSubscribeOn;
+import io.reactivex.internal.operators.observable.ObservableFilter;
+import io.reactivex.internal.operators.observable.ObservableMap;
+import io.reactivex.internal.operators.observable.ObservableObserveOn;
+import io.reactivex.internal.operators.observable.ObservableSubscribeOn;
+import io.reactivex.plugins.RxJavaPlugins;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description : 组装期优化，通过RxJavaPlugins.setOnFlowableAssembly/setOnObservableAssembly挂载
+ * 每个操作符组装完成时都会经过onAssembly钩子，此时检查新组装的map/filter的上游是否也是map/filter
+ * （或已合并的阶段），是则把两者合并成一个FlowableMapFilterFused/ObservableMapFilterFused。
+ * map(a).map(b).filter(c)最终只剩一个Subscriber，依次执行a、b、c。
+ * observeOn的处理：
+ * 1. observeOn(a).observeOn(a)之间没有任何操作时只保留后一个，少一个队列、一次线程交接和一份prefetch，上游的工作仍在a上执行。
+ *    调度器不同时不做处理：observeOn(a)的drain循环负责向上游request，补充请求以及上游的工作（如range().map(heavy)）都在a上执行，
+ *    去掉它会把这些工作移到b（可能是single()或UI线程）上；两者delayError不同时错误的投递时机会变，同样不做合并。
+ * 2. 上游已经切到同一个调度器（如observeOn(single()).map().observeOn(single())）时换成FlowableObserveOnDirect/
+ *    ObservableObserveOnDirect，数据已在目标Worker的线程上时直接交给下游。
+ * map/filter的函数字段是RxJava内部类的包级字段，只能反射读取；读取失败时不做合并，原样返回。
+ * 安装前已存在的钩子会在本钩子之后继续执行，uninstall时恢复。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午7:50
+ * @modified by:
+ */
+@Slf4j
+public final class AssemblyOptimizer {
+
+    private static final Field FLOWABLE_MAPPER = field(FlowableMap.class, "mapper");
+
+    private static final Field FLOWABLE_PREDICATE = field(FlowableFilter.class, "predicate");
+
+    private static final Field OBSERVABLE_MAPPER = field(ObservableMap.class, "function");
+
+    private static final Field OBSERVABLE_PREDICATE = field(ObservableFilter.class, "predicate");
+
+    private static final Field FLOWABLE_OBSERVE_ON_SCHEDULER = field(FlowableObserveOn.class, "scheduler");
+
+    private static final Field FLOWABLE_OBSERVE_ON_DELAY_ERROR = field(FlowableObserveOn.class, "delayError");
+
+    private static final Field FLOWABLE_OBSERVE_ON_PREFETCH = field(FlowableObserveOn.class, "prefetch");
+
+    private static final Field FLOWABLE_SUBSCRIBE_ON_SCHEDULER = field(FlowableSubscribeOn.class, "scheduler");
+
+    private static final Field OBSERVABLE_OBSERVE_ON_SCHEDULER = field(ObservableObserveOn.class, "scheduler");
+
+    private static final Field OBSERVABLE_OBSERVE_ON_DELAY_ERROR = field(ObservableObserveOn.class, "delayError");
+
+    private static final Field OBSERVABLE_OBSERVE_ON_BUFFER_SIZE = field(ObservableObserveOn.class, "bufferSize");
+
+    private static final Field OBSERVABLE_SUBSCRIBE_ON_SCHEDULER = field(ObservableSubscribeOn.class, "scheduler");
+
+    /** 向上游查找调度器时最多经过的操作符数 */
+    private static final int MAX_UPSTREAM_DEPTH = 16;
+
+    private static final AtomicLong FUSED = new AtomicLong();
+
+    private static final AtomicLong REMOVED_HOPS = new AtomicLong();
+
+    private static final AtomicLong DIRECT_HOPS = new AtomicLong();
+
+    @SuppressWarnings("rawtypes")
+    private static Function<? super Flowable, ? extends Flowable> previousFlowableHook;
+
+    @SuppressWarnings("rawtypes")
+    private static Function<? super Observable, ? extends Observable> previousObservableHook;
+
+    private static boolean installed;
+
+    private AssemblyOptimizer() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    /**
+     * 安装组装期钩子，只影响安装之后组装的管道
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static synchronized void install() {
+        if (installed) {
+            return;
+        }
+        final Function<? super Flowable, ? extends Flowable> flowableHook = RxJavaPlugins.getOnFlowableAssembly();
+        final Function<? super Observable, ? extends Observable> observableHook = RxJavaPlugins.getOnObservableAssembly();
+        RxJavaPlugins.setOnFlowableAssembly(new Function<Flowable, Flowable>() {
+            @Override
+            public Flowable apply(Flowable f) throws Exception {
+                Flowable r = optimize(f);
+                return flowableHook != null ? flowableHook.apply(r) : r;
+            }
+        });
+        RxJavaPlugins.setOnObservableAssembly(new Function<Observable, Observable>() {
+            @Override
+            public Observable apply(Observable o) throws Exception {
+                Observable r = optimize(o);
+                return observableHook != null ? observableHook.apply(r) : r;
+            }
+        });
+        previousFlowableHook = flowableHook;
+        previousObservableHook = observableHook;
+        installed = true;
+    }
+
+    /**
+     * 卸载钩子，恢复安装前的钩子；已经组装好的管道不受影响
+     */
+    public static synchronized void uninstall() {
+        if (!installed) {
+            return;
+        }
+        RxJavaPlugins.setOnFlowableAssembly(previousFlowableHook);
+        RxJavaPlugins.setOnObservableAssembly(previousObservableHook);
+        previousFlowableHook = null;
+        previousObservableHook = null;
+        installed = false;
+    }
+
+    public static synchronized boolean isInstalled() {
+        return installed;
+    }
+
+    /**
+     * @return 安装以来合并掉的阶段数
+     */
+    public static long fusedStages() {
+        return FUSED.get();
+    }
+
+    /**
+     * @return 安装以来去掉的observeOn数
+     */
+    public static long removedHops() {
+        return REMOVED_HOPS.get();
+    }
+
+    /**
+     * @return 安装以来换成直接执行版本的observeOn数
+     */
+    public static long directHops() {
+        return DIRECT_HOPS.get();
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static Flowable optimize(Flowable f) {
+        Hop hop = hopOf(f);
+        if (hop != null) {
+            return optimizeHop(f, hop);
+        }
+        FusedStages.Stage stage = stageOf(f);
+        if (stage == null) {
+            return f;
+        }
+        Publisher upstream = ((HasUpstreamPublisher) f).source();
+        if (upstream instanceof FlowableMapFilterFused) {
+            FlowableMapFilterFused fused = (FlowableMapFilterFused) upstream;
+            FUSED.incrementAndGet();
+            return new FlowableMapFilterFused(fused.source, fused.stages.append(stage));
+        }
+        FusedStages.Stage upstreamStage = stageOf(upstream);
+        if (upstreamStage != null) {
+            FUSED.incrementAndGet();
+            log.debug("Fusing {} into {}", f.getClass().getSimpleName(), upstream.getClass().getSimpleName());
+            return new FlowableMapFilterFused(((HasUpstreamPublisher) upstream).source(),
+                    FusedStages.of(upstreamStage).append(stage));
+        }
+        return f;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static Flowable optimizeHop(Flowable f, Hop hop) {
+        Object source = hop.source;
+        Hop upstreamHop = hopOf(source);
+        boolean removed = false;
+        if (upstreamHop != null && upstreamHop.scheduler == hop.scheduler && upstreamHop.delayError == hop.delayError) {
+            REMOVED_HOPS.incrementAndGet();
+            log.debug("Removing observeOn({}) directly followed by observeOn({})", upstreamHop.scheduler, hop.scheduler);
+            source = upstreamHop.source;
+            removed = true;
+        }
+        boolean direct = f instanceof FlowableObserveOnDirect;
+        if (!direct && upstreamScheduler(source) == hop.scheduler) {
+            DIRECT_HOPS.incrementAndGet();
+            direct = true;
+        } else if (!removed) {
+            return f;
+        }
+        if (direct) {
+            return new FlowableObserveOnDirect((Publisher) source, hop.scheduler, hop.delayError, hop.prefetch);
+        }
+        return new FlowableObserveOn((Flowable) source, hop.scheduler, hop.delayError, hop.prefetch);
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static Observable optimize(Observable o) {
+        Hop hop = hopOf(o);
+        if (hop != null) {
+            return optimizeHop(o, hop);
+        }
+        FusedStages.Stage stage = stageOf(o);
+        if (stage == null) {
+            return o;
+        }
+        ObservableSource upstream = ((HasUpstreamObservableSource) o).source();
+        if (upstream instanceof ObservableMapFilterFused) {
+            ObservableMapFilterFused fused = (ObservableMapFilterFused) upstream;
+            FUSED.incrementAndGet();
+            return new ObservableMapFilterFused(fused.source, fused.stages.append(stage));
+        }
+        FusedStages.Stage upstreamStage = stageOf(upstream);
+        if (upstreamStage != null) {
+            FUSED.incrementAndGet();
+            log.debug("Fusing {} into {}", o.getClass().getSimpleName(), upstream.getClass().getSimpleName());
+            return new ObservableMapFilterFused(((HasUpstreamObservableSource) upstream).source(),
+                    FusedStages.of(upstreamStage).append(stage));
+        }
+        return o;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static Observable optimizeHop(Observable o, Hop hop) {
+        Object source = hop.source;
+        Hop upstreamHop = hopOf(source);
+        boolean removed = false;
+        if (upstreamHop != null && upstreamHop.scheduler == hop.scheduler && upstreamHop.delayError == hop.delayError) {
+            REMOVED_HOPS.incrementAndGet();
+            log.debug("Removing observeOn({}) directly followed by observeOn({})", upstreamHop.scheduler, hop.scheduler);
+            source = upstreamHop.source;
+            removed = true;
+        }
+        boolean direct = o instanceof ObservableObserveOnDirect;
+        if (!direct && upstreamScheduler(source) == hop.scheduler) {
+            DIRECT_HOPS.incrementAndGet();
+            direct = true;
+        } else if (!removed) {
+            return o;
+        }
+        if (direct) {
+            return new ObservableObserveOnDirect((ObservableSource) source, hop.scheduler, hop.delayError, hop.prefetch);
+        }
+        return new ObservableObserveOn((ObservableSource) source, hop.scheduler, hop.delayError, hop.prefetch);
+    }
+
+    /**
+     * observeOn的参数
+     */
+    static final class Hop {
+
+        final Object source;
+
+        final Scheduler scheduler;
+
+        final boolean delayError;
+
+        final int prefetch;
+
+        Hop(Object source, Scheduler scheduler, boolean delayError, int prefetch) {
+            this.source = source;
+            this.scheduler = scheduler;
+            this.delayError = delayError;
+            this.prefetch = prefetch;
+        }
+    }
+
+    /**
+     * @return observeOn的参数，其他操作符或反射失败时返回null
+     */
+    static Hop hopOf(Object operator) {
+        if (operator instanceof FlowableObserveOnDirect) {
+            FlowableObserveOnDirect<?> d = (FlowableObserveOnDirect<?>) operator;
+            return new Hop(d.source, d.scheduler, d.delayError, d.prefetch);
+        }
+        if (operator instanceof ObservableObserveOnDirect) {
+            ObservableObserveOnDirect<?> d = (ObservableObserveOnDirect<?>) operator;
+            return new Hop(d.source, d.scheduler, d.delayError, d.bufferSize);
+        }
+        if (operator instanceof FlowableObserveOn) {
+            return hop(((FlowableObserveOn<?>) operator).source(), operator, FLOWABLE_OBSERVE_ON_SCHEDULER,
+                    FLOWABLE_OBSERVE_ON_DELAY_ERROR, FLOWABLE_OBSERVE_ON_PREFETCH);
+        }
+        if (operator instanceof ObservableObserveOn) {
+            return hop(((ObservableObserveOn<?>) operator).source(), operator, OBSERVABLE_OBSERVE_ON_SCHEDULER,
+                    OBSERVABLE_OBSERVE_ON_DELAY_ERROR, OBSERVABLE_OBSERVE_ON_BUFFER_SIZE);
+        }
+        return null;
+    }
+
+    private static Hop hop(Object source, Object operator, Field scheduler, Field delayError, Field prefetch) {
+        Object s = read(scheduler, operator);
+        Object d = read(delayError, operator);
+        Object p = read(prefetch, operator);
+        if (s == null || d == null || p == null) {
+            return null;
+        }
+        return new Hop(source, (Scheduler) s, (Boolean) d, (Integer) p);
+    }
+
+    /**
+     * 沿上游查找最近的observeOn/subscribeOn，用于判断数据大概率到达的线程；
+     * 只是启发式判断，快速路径在运行时还会核对线程
+     */
+    static Scheduler upstreamScheduler(Object operator) {
+        Object current = operator;
+        for (int i = 0; i < MAX_UPSTREAM_DEPTH && current != null; i++) {
+            Hop hop = hopOf(current);
+            if (hop != null) {
+                return hop.scheduler;
+            }
+            if (current instanceof FlowableSubscribeOn) {
+                return (Scheduler) read(FLOWABLE_SUBSCRIBE_ON_SCHEDULER, current);
+            }
+            if (current instanceof ObservableSubscribeOn) {
+                return (Scheduler) read(OBSERVABLE_SUBSCRIBE_ON_SCHEDULER, current);
+            }
+            if (current instanceof HasUpstreamPublisher) {
+                current = ((HasUpstreamPublisher<?>) current).source();
+            } else if (current instanceof HasUpstreamObservableSource) {
+                current = ((HasUpstreamObservableSource<?>) current).source();
+            } else {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return map或filter对应的阶段，按操作符类型而不是函数类型区分；其他操作符或反射失败时返回null
+     */
+    static FusedStages.Stage stageOf(Object operator) {
+        if (operator instanceof FlowableMap) {
+            return mapStage(read(FLOWABLE_MAPPER, operator));
+        }
+        if (operator instanceof FlowableFilter) {
+            return filterStage(read(FLOWABLE_PREDICATE, operator));
+        }
+        if (operator instanceof ObservableMap) {
+            return mapStage(read(OBSERVABLE_MAPPER, operator));
+        }
+        if (operator instanceof ObservableFilter) {
+            return filterStage(read(OBSERVABLE_PREDICATE, operator));
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FusedStages.Stage mapStage(Object mapper) {
+        return mapper == null ? null : new FusedStages.MapStage((Function<Object, Object>) mapper);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FusedStages.Stage filterStage(Object predicate) {
+        return predicate == null ? null : new FusedStages.FilterStage((Predicate<Object>) predicate);
+    }
+
+    private static Object read(Field field, Object target) {
+        if (field == null) {
+            return null;
+        }
+        try {
+            return field.get(target);
+        } catch (IllegalAccessException ex) {
+            return null;
+        }
+    }
+
+    private static Field field(Class<?> type, String name) {
+        try {
+            Field f = type.getDeclaredField(name);
+            f.setAccessible(true);
+            return f;
+        } catch (Exception ex) {
+            log.warn("Assembly optimization disabled for {}: {}", type.getSimpleName(), ex.toString());
+            return null;
+        }
+    }
+}
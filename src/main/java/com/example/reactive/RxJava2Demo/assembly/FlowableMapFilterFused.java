@@ -0,0 +1,93 @@
+package com.example.reactive.RxJava2Demo.assembly;
+
+import io.reactivex.Flowable;
+import io.reactivex.internal.fuseable.HasUpstreamPublisher;
+import io.reactivex.internal.subscribers.BasicFuseableSubscriber;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+
+/**
+ * @description : 由连续的FlowableMap/FlowableFilter合并而成的单个阶段
+ * 与FlowableMap/FlowableFilter一样支持与上游的同步/异步融合（不跨越线程边界）。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午7:50
+ * @modified by:
+ */
+final class FlowableMapFilterFused<T, R> extends Flowable<R> implements HasUpstreamPublisher<T> {
+
+    final Publisher<T> source;
+
+    final FusedStages stages;
+
+    FlowableMapFilterFused(Publisher<T> source, FusedStages stages) {
+        this.source = source;
+        this.stages = stages;
+    }
+
+    @Override
+    public Publisher<T> source() {
+        return source;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super R> s) {
+        source.subscribe(new FusedSubscriber<T, R>(s, stages));
+    }
+
+    static final class FusedSubscriber<T, R> extends BasicFuseableSubscriber<T, R> {
+
+        final FusedStages stages;
+
+        FusedSubscriber(Subscriber<? super R> actual, FusedStages stages) {
+            super(actual);
+            this.stages = stages;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            if (sourceMode != NONE) {
+                actual.onNext(null);
+                return;
+            }
+            Object v;
+            try {
+                v = stages.apply(t);
+            } catch (Throwable ex) {
+                fail(ex);
+                return;
+            }
+            if (v == FusedStages.FILTERED) {
+                s.request(1);
+            } else {
+                actual.onNext((R) v);
+            }
+        }
+
+        @Override
+        public int requestFusion(int mode) {
+            return transitiveBoundaryFusion(mode);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public R poll() throws Exception {
+            for (;;) {
+                T t = qs.poll();
+                if (t == null) {
+                    return null;
+                }
+                Object v = stages.apply(t);
+                if (v != FusedStages.FILTERED) {
+                    return (R) v;
+                }
+                if (sourceMode == ASYNC) {
+                    qs.request(1);
+                }
+            }
+        }
+    }
+}
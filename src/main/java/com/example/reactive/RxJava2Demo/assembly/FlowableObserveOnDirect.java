@@ -0,0 +1,273 @@
+package com.example.reactive.RxJava2Demo.assembly;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.Scheduler;
+import io.reactivex.exceptions.MissingBackpressureException;
+import io.reactivex.internal.fuseable.HasUpstreamPublisher;
+import io.reactivex.internal.queue.SpscArrayQueue;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.internal.util.BackpressureHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description : 带直接执行快速路径的observeOn
+ * 记录本Worker执行drain的线程；之后上游恰好在这个线程上发出数据、队列为空、没有drain在执行且下游有请求时，
+ * 直接调用下游onNext，不入队也不调度Worker。其余情况与FlowableObserveOn相同。
+ * 上游已经切到同一个调度器时（如observeOn(single()).map().observeOn(single())）由AssemblyOptimizer换成本操作符。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午10:30
+ * @modified by:
+ */
+final class FlowableObserveOnDirect<T> extends Flowable<T> implements HasUpstreamPublisher<T> {
+
+    final Publisher<T> source;
+
+    final Scheduler scheduler;
+
+    final boolean delayError;
+
+    final int prefetch;
+
+    FlowableObserveOnDirect(Publisher<T> source, Scheduler scheduler, boolean delayError, int prefetch) {
+        this.source = source;
+        this.scheduler = scheduler;
+        this.delayError = delayError;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public Publisher<T> source() {
+        return source;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super T> s) {
+        source.subscribe(new ObserveOnDirectSubscriber<T>(s, scheduler.createWorker(), delayError, prefetch));
+    }
+
+    static final class ObserveOnDirectSubscriber<T> extends AtomicInteger
+            implements FlowableSubscriber<T>, Subscription, Runnable {
+
+        private static final long serialVersionUID = -4876142377380564376L;
+
+        final Subscriber<? super T> downstream;
+
+        final Scheduler.Worker worker;
+
+        final boolean delayError;
+
+        final int prefetch;
+
+        final int limit;
+
+        final SpscArrayQueue<T> queue;
+
+        final AtomicLong requested = new AtomicLong();
+
+        Subscription upstream;
+
+        volatile boolean cancelled;
+
+        volatile boolean done;
+
+        Throwable error;
+
+        /** 最近一次执行drain的线程 */
+        volatile Thread workerThread;
+
+        /** 自上次补货以来消费的条数，只在持有wip的线程访问 */
+        int consumed;
+
+        ObserveOnDirectSubscriber(Subscriber<? super T> downstream, Scheduler.Worker worker, boolean delayError,
+                                  int prefetch) {
+            this.downstream = downstream;
+            this.worker = worker;
+            this.delayError = delayError;
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+            this.queue = new SpscArrayQueue<T>(prefetch);
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(this.upstream, s)) {
+                this.upstream = s;
+                downstream.onSubscribe(this);
+                s.request(prefetch);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            if (Thread.currentThread() == workerThread && get() == 0 && compareAndSet(0, 1)) {
+                long r = requested.get();
+                if (r != 0L && queue.isEmpty() && !cancelled) {
+                    downstream.onNext(t);
+                    if (r != Long.MAX_VALUE) {
+                        requested.decrementAndGet();
+                    }
+                    replenish();
+                } else if (!queue.offer(t)) {
+                    overflow();
+                }
+                if (decrementAndGet() == 0) {
+                    return;
+                }
+                drainLoop();
+                return;
+            }
+            if (!queue.offer(t)) {
+                overflow();
+                return;
+            }
+            schedule();
+        }
+
+        void overflow() {
+            upstream.cancel();
+            error = new MissingBackpressureException("Queue is full?!");
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            error = t;
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void onComplete() {
+            if (!done) {
+                done = true;
+                schedule();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+                schedule();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                upstream.cancel();
+                worker.dispose();
+                if (getAndIncrement() == 0) {
+                    queue.clear();
+                }
+            }
+        }
+
+        void schedule() {
+            if (getAndIncrement() == 0) {
+                worker.schedule(this);
+            }
+        }
+
+        void replenish() {
+            if (++consumed == limit) {
+                consumed = 0;
+                upstream.request(limit);
+            }
+        }
+
+        @Override
+        public void run() {
+            workerThread = Thread.currentThread();
+            drainLoop();
+        }
+
+        void drainLoop() {
+            int missed = 1;
+            final Subscriber<? super T> a = downstream;
+            final SpscArrayQueue<T> q = queue;
+            for (;;) {
+                long r = requested.get();
+                long e = 0L;
+
+                while (e != r) {
+                    boolean d = done;
+                    T v = q.poll();
+                    boolean empty = v == null;
+                    if (checkTerminated(d, empty, a)) {
+                        return;
+                    }
+                    if (empty) {
+                        break;
+                    }
+                    a.onNext(v);
+                    e++;
+                    replenish();
+                }
+
+                if (e == r && checkTerminated(done, q.isEmpty(), a)) {
+                    return;
+                }
+
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-e);
+                }
+
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        boolean checkTerminated(boolean d, boolean empty, Subscriber<? super T> a) {
+            if (cancelled) {
+                queue.clear();
+                return true;
+            }
+            if (d) {
+                Throwable ex = error;
+                if (delayError) {
+                    if (empty) {
+                        cancelled = true;
+                        if (ex != null) {
+                            a.onError(ex);
+                        } else {
+                            a.onComplete();
+                        }
+                        worker.dispose();
+                        return true;
+                    }
+                } else if (ex != null) {
+                    cancelled = true;
+                    queue.clear();
+                    a.onError(ex);
+                    worker.dispose();
+                    return true;
+                } else if (empty) {
+                    cancelled = true;
+                    a.onComplete();
+                    worker.dispose();
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
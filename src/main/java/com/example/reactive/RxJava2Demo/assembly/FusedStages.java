@@ -0,0 +1,93 @@
+package com.example.reactive.RxJava2Demo.assembly;
+
+import io.reactivex.functions.Function;
+import io.reactivex.functions.Predicate;
+
+/**
+ * @description : 合并后的连续map/filter阶段，按组装顺序逐个执行
+ * 每个阶段仍要调用一次用户函数，省掉的是每个阶段各自的Subscriber、onNext转发、done检查，
+ * 以及每个filter丢弃数据时单独向上游request(1)。实例不可变，追加阶段时复制数组。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午7:50
+ * @modified by:
+ */
+final class FusedStages {
+
+    /** filter未通过时apply的返回值 */
+    static final Object FILTERED = new Object();
+
+    final Stage[] stages;
+
+    private FusedStages(Stage[] stages) {
+        this.stages = stages;
+    }
+
+    static FusedStages of(Stage stage) {
+        return new FusedStages(new Stage[]{stage});
+    }
+
+    FusedStages append(Stage stage) {
+        Stage[] a = new Stage[stages.length + 1];
+        System.arraycopy(stages, 0, a, 0, stages.length);
+        a[stages.length] = stage;
+        return new FusedStages(a);
+    }
+
+    int size() {
+        return stages.length;
+    }
+
+    /**
+     * @return 依次执行各阶段后的结果，被某个filter拦下时返回FILTERED
+     */
+    Object apply(Object value) throws Exception {
+        Object v = value;
+        for (Stage stage : stages) {
+            v = stage.apply(v);
+            if (v == FILTERED) {
+                return FILTERED;
+            }
+        }
+        return v;
+    }
+
+    /**
+     * 组装时按函数来自map还是filter操作符区分好阶段，不看函数本身实现了哪些接口，执行时也不再做类型判断
+     */
+    abstract static class Stage {
+
+        abstract Object apply(Object value) throws Exception;
+    }
+
+    static final class MapStage extends Stage {
+
+        final Function<Object, Object> mapper;
+
+        MapStage(Function<Object, Object> mapper) {
+            this.mapper = mapper;
+        }
+
+        @Override
+        Object apply(Object value) throws Exception {
+            Object v = mapper.apply(value);
+            if (v == null) {
+                throw new NullPointerException("The mapper function returned a null value.");
+            }
+            return v;
+        }
+    }
+
+    static final class FilterStage extends Stage {
+
+        final Predicate<Object> predicate;
+
+        FilterStage(Predicate<Object> predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        Object apply(Object value) throws Exception {
+            return predicate.test(value) ? value : FILTERED;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.reactive.RxJava2Demo.assembly;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableSource;
+import io.reactivex.Observer;
+import io.reactivex.internal.fuseable.HasUpstreamObservableSource;
+import io.reactivex.internal.observers.BasicFuseableObserver;
+
+/**
+ * @description : 由连续的ObservableMap/ObservableFilter合并而成的单个阶段
+ * @author: liuchuang
+ * @date: 2026/10/18 下午7:50
+ * @modified by:
+ */
+final class ObservableMapFilterFused<T, R> extends Observable<R> implements HasUpstreamObservableSource<T> {
+
+    final ObservableSource<T> source;
+
+    final FusedStages stages;
+
+    ObservableMapFilterFused(ObservableSource<T> source, FusedStages stages) {
+        this.source = source;
+        this.stages = stages;
+    }
+
+    @Override
+    public ObservableSource<T> source() {
+        return source;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super R> observer) {
+        source.subscribe(new FusedObserver<T, R>(observer, stages));
+    }
+
+    static final class FusedObserver<T, R> extends BasicFuseableObserver<T, R> {
+
+        final FusedStages stages;
+
+        FusedObserver(Observer<? super R> actual, FusedStages stages) {
+            super(actual);
+            this.stages = stages;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            if (sourceMode != NONE) {
+                actual.onNext(null);
+                return;
+            }
+            Object v;
+            try {
+                v = stages.apply(t);
+            } catch (Throwable ex) {
+                fail(ex);
+                return;
+            }
+            if (v != FusedStages.FILTERED) {
+                actual.onNext((R) v);
+            }
+        }
+
+        @Override
+        public int requestFusion(int mode) {
+            return transitiveBoundaryFusion(mode);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public R poll() throws Exception {
+            for (;;) {
+                T t = qs.poll();
+                if (t == null) {
+                    return null;
+                }
+                Object v = stages.apply(t);
+                if (v != FusedStages.FILTERED) {
+                    return (R) v;
+                }
+            }
+        }
+    }
+}
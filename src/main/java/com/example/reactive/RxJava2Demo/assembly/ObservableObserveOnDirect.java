@@ -0,0 +1,217 @@
+package com.example.reactive.RxJava2Demo.assembly;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableSource;
+import io.reactivex.Observer;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.disposables.DisposableHelper;
+import io.reactivex.internal.fuseable.HasUpstreamObservableSource;
+import io.reactivex.internal.queue.SpscLinkedArrayQueue;
+import io.reactivex.plugins.RxJavaPlugins;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @description : 带直接执行快速路径的observeOn，Observable版本，说明见FlowableObserveOnDirect
+ * @author: liuchuang
+ * @date: 2026/10/18 下午10:30
+ * @modified by:
+ */
+final class ObservableObserveOnDirect<T> extends Observable<T> implements HasUpstreamObservableSource<T> {
+
+    final ObservableSource<T> source;
+
+    final Scheduler scheduler;
+
+    final boolean delayError;
+
+    final int bufferSize;
+
+    ObservableObserveOnDirect(ObservableSource<T> source, Scheduler scheduler, boolean delayError, int bufferSize) {
+        this.source = source;
+        this.scheduler = scheduler;
+        this.delayError = delayError;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public ObservableSource<T> source() {
+        return source;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        source.subscribe(new ObserveOnDirectObserver<T>(observer, scheduler.createWorker(), delayError, bufferSize));
+    }
+
+    static final class ObserveOnDirectObserver<T> extends AtomicInteger implements Observer<T>, Disposable, Runnable {
+
+        private static final long serialVersionUID = 3617264728301635234L;
+
+        final Observer<? super T> downstream;
+
+        final Scheduler.Worker worker;
+
+        final boolean delayError;
+
+        final SpscLinkedArrayQueue<T> queue;
+
+        Disposable upstream;
+
+        volatile boolean disposed;
+
+        volatile boolean done;
+
+        Throwable error;
+
+        /** 最近一次执行drain的线程 */
+        volatile Thread workerThread;
+
+        ObserveOnDirectObserver(Observer<? super T> downstream, Scheduler.Worker worker, boolean delayError,
+                                int bufferSize) {
+            this.downstream = downstream;
+            this.worker = worker;
+            this.delayError = delayError;
+            this.queue = new SpscLinkedArrayQueue<T>(bufferSize);
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            if (DisposableHelper.validate(this.upstream, d)) {
+                this.upstream = d;
+                downstream.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            if (Thread.currentThread() == workerThread && get() == 0 && compareAndSet(0, 1)) {
+                if (queue.isEmpty() && !disposed) {
+                    downstream.onNext(t);
+                } else {
+                    queue.offer(t);
+                }
+                if (decrementAndGet() == 0) {
+                    return;
+                }
+                drainLoop();
+                return;
+            }
+            queue.offer(t);
+            schedule();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            error = t;
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void onComplete() {
+            if (!done) {
+                done = true;
+                schedule();
+            }
+        }
+
+        @Override
+        public void dispose() {
+            if (!disposed) {
+                disposed = true;
+                upstream.dispose();
+                worker.dispose();
+                if (getAndIncrement() == 0) {
+                    queue.clear();
+                }
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+
+        void schedule() {
+            if (getAndIncrement() == 0) {
+                worker.schedule(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            workerThread = Thread.currentThread();
+            drainLoop();
+        }
+
+        void drainLoop() {
+            int missed = 1;
+            final Observer<? super T> a = downstream;
+            final SpscLinkedArrayQueue<T> q = queue;
+            for (;;) {
+                if (checkTerminated(done, q.isEmpty(), a)) {
+                    return;
+                }
+                for (;;) {
+                    boolean d = done;
+                    T v = q.poll();
+                    boolean empty = v == null;
+                    if (checkTerminated(d, empty, a)) {
+                        return;
+                    }
+                    if (empty) {
+                        break;
+                    }
+                    a.onNext(v);
+                }
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        boolean checkTerminated(boolean d, boolean empty, Observer<? super T> a) {
+            if (disposed) {
+                queue.clear();
+                return true;
+            }
+            if (d) {
+                Throwable ex = error;
+                if (delayError) {
+                    if (empty) {
+                        disposed = true;
+                        if (ex != null) {
+                            a.onError(ex);
+                        } else {
+                            a.onComplete();
+                        }
+                        worker.dispose();
+                        return true;
+                    }
+                } else if (ex != null) {
+                    disposed = true;
+                    queue.clear();
+                    a.onError(ex);
+                    worker.dispose();
+                    return true;
+                } else if (empty) {
+                    disposed = true;
+                    a.onComplete();
+                    worker.dispose();
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.reactive.RxJava2Demo.backpressure;
+
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.CompositeException;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.functions.Action;
+import io.reactivex.functions.Consumer;
+import io.reactivex.internal.functions.Functions;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @description : 自适应请求量的Subscriber
+ * 手写subscription.request(1)时每处理一条数据就要向上游发一次跨线程的请求信号。
+ * 这里按窗口批量请求：未完成的请求数降到窗口的一半时一次补齐整个窗口（与observeOn的补货方式相同），
+ * 窗口大小按AIMD调整——每处理完一个窗口的数据，根据平均处理耗时估算窗口内数据的排队时间，
+ * 超过targetLatency则窗口减半，否则加上additiveIncrease。
+ * 慢消费者得到的是较小但批量的请求，快消费者的窗口逐步放大到maxLimit。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午5:20
+ * @modified by:
+ */
+public final class AdaptiveRequestSubscriber<T> extends AtomicReference<Subscription>
+        implements FlowableSubscriber<T>, Disposable {
+
+    private static final long serialVersionUID = 4287624180117203474L;
+
+    public static final int DEFAULT_MIN_LIMIT = 1;
+
+    public static final int DEFAULT_INITIAL_LIMIT = 16;
+
+    public static final int DEFAULT_MAX_LIMIT = 1024;
+
+    /** 默认窗口排队时间上限 100ms */
+    public static final long DEFAULT_TARGET_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Consumer<? super T> onNext;
+
+    private final Consumer<? super Throwable> onError;
+
+    private final Action onComplete;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final int additiveIncrease;
+
+    private final long targetLatencyNanos;
+
+    /** 当前窗口大小，仅在onNext中修改，volatile便于其他线程观察 */
+    private volatile int limit;
+
+    /** 已请求但尚未收到的数据条数 */
+    private long outstanding;
+
+    /** 当前窗口内已处理的条数 */
+    private int consumed;
+
+    /** 单条处理耗时的指数加权平均，权重1/8 */
+    private long avgProcessNanos;
+
+    private volatile long requestCalls;
+
+    private boolean done;
+
+    public AdaptiveRequestSubscriber(Consumer<? super T> onNext) {
+        this(onNext, Functions.ON_ERROR_MISSING, Functions.EMPTY_ACTION);
+    }
+
+    public AdaptiveRequestSubscriber(Consumer<? super T> onNext, Consumer<? super Throwable> onError,
+                                     Action onComplete) {
+        this(onNext, onError, onComplete, DEFAULT_MIN_LIMIT, DEFAULT_INITIAL_LIMIT, DEFAULT_MAX_LIMIT,
+                DEFAULT_TARGET_LATENCY_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param minLimit 窗口下限
+     * @param initialLimit 初始窗口，同时作为每轮的加性增量
+     * @param maxLimit 窗口上限
+     * @param targetLatency 一个窗口的数据在消费者处允许的最长排队时间
+     */
+    public AdaptiveRequestSubscriber(Consumer<? super T> onNext, Consumer<? super Throwable> onError,
+                                     Action onComplete, int minLimit, int initialLimit, int maxLimit,
+                                     long targetLatency, TimeUnit unit) {
+        ObjectHelper.verifyPositive(minLimit, "minLimit");
+        ObjectHelper.verifyPositive(targetLatency, "targetLatency");
+        if (initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("minLimit <= initialLimit <= maxLimit required but it was "
+                    + minLimit + ", " + initialLimit + ", " + maxLimit);
+        }
+        this.onNext = ObjectHelper.requireNonNull(onNext, "onNext is null");
+        this.onError = ObjectHelper.requireNonNull(onError, "onError is null");
+        this.onComplete = ObjectHelper.requireNonNull(onComplete, "onComplete is null");
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.additiveIncrease = initialLimit;
+        this.targetLatencyNanos = unit.toNanos(targetLatency);
+        this.limit = initialLimit;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        if (SubscriptionHelper.setOnce(this, s)) {
+            long n = limit;
+            outstanding = n;
+            requestCalls++;
+            s.request(n);
+        }
+    }
+
+    @Override
+    public void onNext(T t) {
+        if (done) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            onNext.accept(t);
+        } catch (Throwable ex) {
+            Exceptions.throwIfFatal(ex);
+            get().cancel();
+            onError(ex);
+            return;
+        }
+        long took = System.nanoTime() - start;
+        long avg = avgProcessNanos;
+        avgProcessNanos = avg == 0L ? took : avg + ((took - avg) >> 3);
+
+        outstanding--;
+        int lim = limit;
+        if (++consumed >= lim) {
+            consumed = 0;
+            lim = adapt(lim);
+        }
+        if (outstanding <= (lim >> 1)) {
+            long n = lim - outstanding;
+            if (n > 0L) {
+                outstanding += n;
+                requestCalls++;
+                get().request(n);
+            }
+        }
+    }
+
+    /**
+     * 每处理完一个窗口调整一次：估算的排队时间超过目标则减半，否则加性增长
+     */
+    int adapt(int lim) {
+        long queueing = lim * avgProcessNanos;
+        int next;
+        if (queueing > targetLatencyNanos) {
+            next = Math.max(minLimit, lim >> 1);
+        } else {
+            next = Math.min(maxLimit, lim + additiveIncrease);
+        }
+        limit = next;
+        return next;
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        if (done) {
+            RxJavaPlugins.onError(t);
+            return;
+        }
+        done = true;
+        lazySet(SubscriptionHelper.CANCELLED);
+        try {
+            onError.accept(t);
+        } catch (Throwable ex) {
+            Exceptions.throwIfFatal(ex);
+            RxJavaPlugins.onError(new CompositeException(t, ex));
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        if (done) {
+            return;
+        }
+        done = true;
+        lazySet(SubscriptionHelper.CANCELLED);
+        try {
+            onComplete.run();
+        } catch (Throwable ex) {
+            Exceptions.throwIfFatal(ex);
+            RxJavaPlugins.onError(ex);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        SubscriptionHelper.cancel(this);
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return get() == SubscriptionHelper.CANCELLED;
+    }
+
+    /**
+     * @return 当前的请求窗口大小
+     */
+    public int currentLimit() {
+        return limit;
+    }
+
+    /**
+     * @return 向上游调用request(n)的次数
+     */
+    public long requestCalls() {
+        return requestCalls;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.reactive.RxJava2Demo.backpressure;
+
+import io.reactivex.FlowableEmitter;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @description : 一次订阅的下游需求状态，供WaitStrategy查询与唤醒
+ * 下游request(n)/cancel()先传到上游的FlowableEmitter，再调用WaitStrategy.signal，
+ * 因此等待方被唤醒后一定能通过requested()看到新的请求数。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午6:30
+ * @modified by:
+ */
+public final class Demand {
+
+    volatile FlowableEmitter<?> emitter;
+
+    volatile boolean cancelled;
+
+    /** 正在park的发射线程，仅park期间非空 */
+    private volatile Thread waiter;
+
+    Demand() {
+    }
+
+    /**
+     * @return 下游尚未满足的请求数
+     */
+    public long requested() {
+        FlowableEmitter<?> e = emitter;
+        return e != null ? e.requested() : 0L;
+    }
+
+    public boolean isCancelled() {
+        FlowableEmitter<?> e = emitter;
+        return cancelled || e != null && e.isCancelled();
+    }
+
+    /**
+     * @return 有请求或已取消时返回true，等待应当结束
+     */
+    public boolean isReady() {
+        return requested() != 0L || isCancelled();
+    }
+
+    /**
+     * 挂起当前线程最多nanos纳秒，signal时通过unpark提前唤醒
+     */
+    public void park(long nanos) {
+        waiter = Thread.currentThread();
+        if (!isReady()) {
+            LockSupport.parkNanos(this, nanos);
+        }
+        waiter = null;
+    }
+
+    /**
+     * 唤醒通过park挂起的线程
+     */
+    public void unpark() {
+        Thread t = waiter;
+        if (t != null) {
+            LockSupport.unpark(t);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.reactive.RxJava2Demo.backpressure;
+
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.FlowableEmitter;
+import io.reactivex.FlowableOnSubscribe;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Cancellable;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * @description : 在Flowable.create外面包一层，把下游的request(n)/cancel()转成WaitStrategy的唤醒信号
+ * 信号在请求传到FlowableEmitter之后发出，等待方醒来时emitter.requested()已经更新，不会丢失唤醒。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午6:30
+ * @modified by:
+ */
+public final class FlowableCreateWaiting<T> extends Flowable<T> {
+
+    private final WaitingFlowableOnSubscribe<T> source;
+
+    private final BackpressureStrategy mode;
+
+    private final WaitStrategy strategy;
+
+    public FlowableCreateWaiting(WaitingFlowableOnSubscribe<T> source, BackpressureStrategy mode, WaitStrategy strategy) {
+        this.source = source;
+        this.mode = mode;
+        this.strategy = strategy;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super T> s) {
+        final Demand demand = new Demand();
+        Flowable.create(new FlowableOnSubscribe<T>() {
+            @Override
+            public void subscribe(FlowableEmitter<T> e) throws Exception {
+                demand.emitter = e;
+                source.subscribe(new DefaultWaitingEmitter<T>(e, demand, strategy));
+            }
+        }, mode).subscribe(new SignalSubscriber<T>(s, demand, strategy));
+    }
+
+    static final class SignalSubscriber<T> implements FlowableSubscriber<T>, Subscription {
+
+        final Subscriber<? super T> downstream;
+
+        final Demand demand;
+
+        final WaitStrategy strategy;
+
+        Subscription upstream;
+
+        SignalSubscriber(Subscriber<? super T> downstream, Demand demand, WaitStrategy strategy) {
+            this.downstream = downstream;
+            this.demand = demand;
+            this.strategy = strategy;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(this.upstream, s)) {
+                this.upstream = s;
+                downstream.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            downstream.onNext(t);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            downstream.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            downstream.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            upstream.request(n);
+            strategy.signal(demand);
+        }
+
+        @Override
+        public void cancel() {
+            demand.cancelled = true;
+            upstream.cancel();
+            strategy.signal(demand);
+        }
+    }
+
+    static final class DefaultWaitingEmitter<T> implements WaitingEmitter<T> {
+
+        final FlowableEmitter<T> actual;
+
+        final Demand demand;
+
+        final WaitStrategy strategy;
+
+        DefaultWaitingEmitter(FlowableEmitter<T> actual, Demand demand, WaitStrategy strategy) {
+            this.actual = actual;
+            this.demand = demand;
+            this.strategy = strategy;
+        }
+
+        @Override
+        public long awaitDemand() throws InterruptedException {
+            long r = actual.requested();
+            if (r != 0L) {
+                return r;
+            }
+            return demand.isCancelled() ? 0L : strategy.waitFor(demand);
+        }
+
+        @Override
+        public void onNext(T value) {
+            actual.onNext(value);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            actual.onError(error);
+        }
+
+        @Override
+        public void onComplete() {
+            actual.onComplete();
+        }
+
+        @Override
+        public void setDisposable(Disposable d) {
+            actual.setDisposable(d);
+        }
+
+        @Override
+        public void setCancellable(Cancellable c) {
+            actual.setCancellable(c);
+        }
+
+        @Override
+        public long requested() {
+            return actual.requested();
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return actual.isCancelled();
+        }
+
+        @Override
+        public WaitingEmitter<T> serialize() {
+            return new DefaultWaitingEmitter<T>(actual.serialize(), demand, strategy);
+        }
+
+        @Override
+        public boolean tryOnError(Throwable t) {
+            return actual.tryOnError(t);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.reactive.RxJava2Demo.backpressure;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.internal.queue.SpscArrayQueue;
+import io.reactivex.internal.subscriptions.EmptySubscription;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.internal.util.BackpressureHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description : 有界内存 + 磁盘溢写的背压缓存
+ * 与onBackpressureBuffer()一样向上游请求Long.MAX_VALUE，但内存中最多只保留memoryCapacity条数据，
+ * 放不下的数据按顺序写入内存映射的段文件，下游先消费内存中的数据，再按写入顺序从磁盘读取。
+ * 生产者在消费者读完所有溢写数据之前不会切回内存队列，消费者只在取内存之前已确认磁盘非空时才读磁盘，两者一起保证整体顺序。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午4:40
+ * @modified by:
+ */
+public final class FlowableOnBackpressureSpill<T> extends Flowable<T> {
+
+    private final Publisher<T> source;
+
+    private final int memoryCapacity;
+
+    private final int segmentSize;
+
+    private final File directory;
+
+    private final SpillCodec<T> codec;
+
+    public FlowableOnBackpressureSpill(Publisher<T> source, int memoryCapacity, int segmentSize,
+                                       File directory, SpillCodec<T> codec) {
+        this.source = source;
+        this.memoryCapacity = memoryCapacity;
+        this.segmentSize = segmentSize;
+        this.directory = directory;
+        this.codec = codec;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super T> s) {
+        File dir;
+        try {
+            dir = Files.createTempDirectory(directory.toPath(), "rx-spill-").toFile();
+        } catch (Throwable ex) {
+            Exceptions.throwIfFatal(ex);
+            EmptySubscription.error(ex, s);
+            return;
+        }
+        source.subscribe(new SpillSubscriber<T>(s, memoryCapacity,
+                new SpillSegmentLog<T>(dir, segmentSize, codec), dir));
+    }
+
+    static final class SpillSubscriber<T> extends AtomicInteger implements FlowableSubscriber<T>, Subscription {
+
+        private static final long serialVersionUID = -2514538129242366402L;
+
+        final Subscriber<? super T> downstream;
+
+        final SpscArrayQueue<T> memory;
+
+        final SpillSegmentLog<T> disk;
+
+        final File directory;
+
+        final AtomicLong requested = new AtomicLong();
+
+        Subscription upstream;
+
+        /** 仅生产者访问，为true时新数据一律写入磁盘 */
+        boolean spilling;
+
+        volatile boolean cancelled;
+
+        volatile boolean done;
+
+        Throwable error;
+
+        SpillSubscriber(Subscriber<? super T> downstream, int memoryCapacity,
+                        SpillSegmentLog<T> disk, File directory) {
+            this.downstream = downstream;
+            this.memory = new SpscArrayQueue<T>(memoryCapacity);
+            this.disk = disk;
+            this.directory = directory;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(this.upstream, s)) {
+                this.upstream = s;
+                downstream.onSubscribe(this);
+                s.request(Long.MAX_VALUE);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done || cancelled) {
+                return;
+            }
+            if (spilling && disk.isDrained()) {
+                spilling = false;
+            }
+            if (spilling || !memory.offer(t)) {
+                spilling = true;
+                try {
+                    disk.append(t);
+                } catch (Throwable ex) {
+                    Exceptions.throwIfFatal(ex);
+                    upstream.cancel();
+                    onError(ex);
+                    return;
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            error = t;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                upstream.cancel();
+                if (getAndIncrement() == 0) {
+                    cleanup();
+                }
+            }
+        }
+
+        /**
+         * 先取内存，内存为空时再取磁盘。
+         * 必须在取内存之前确认磁盘非空：若取内存与取磁盘之间磁盘恰好被读完，生产者会切回内存、填满后再次溢写，
+         * 此时直接取磁盘会拿到比内存中更新的数据。磁盘非空时只有消费者能把它读空，生产者不会切回内存，
+         * 内存为空即说明磁盘队头就是最早的数据；磁盘为空时本次返回null，新数据由生产者随后的drain取走。
+         */
+        T poll() {
+            boolean diskPending = !disk.isDrained();
+            T v = memory.poll();
+            if (v == null && diskPending) {
+                v = disk.poll();
+            }
+            return v;
+        }
+
+        boolean isEmpty() {
+            return memory.isEmpty() && disk.isDrained();
+        }
+
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            Subscriber<? super T> a = downstream;
+            for (;;) {
+                long r = requested.get();
+                long e = 0L;
+
+                while (e != r) {
+                    if (cancelled) {
+                        cleanup();
+                        return;
+                    }
+                    boolean d = done;
+                    T v;
+                    try {
+                        v = poll();
+                    } catch (Throwable ex) {
+                        Exceptions.throwIfFatal(ex);
+                        cancelled = true;
+                        upstream.cancel();
+                        cleanup();
+                        a.onError(ex);
+                        return;
+                    }
+                    boolean empty = v == null;
+                    if (d && empty) {
+                        terminate(a);
+                        return;
+                    }
+                    if (empty) {
+                        break;
+                    }
+                    a.onNext(v);
+                    e++;
+                }
+
+                if (e == r) {
+                    if (cancelled) {
+                        cleanup();
+                        return;
+                    }
+                    if (done && isEmpty()) {
+                        terminate(a);
+                        return;
+                    }
+                }
+
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-e);
+                }
+
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        void terminate(Subscriber<? super T> a) {
+            cleanup();
+            Throwable ex = error;
+            if (ex != null) {
+                a.onError(ex);
+            } else {
+                a.onComplete();
+            }
+        }
+
+        void cleanup() {
+            memory.clear();
+            disk.clear();
+            File[] leftovers = directory.listFiles();
+            if (leftovers != null) {
+                for (File f : leftovers) {
+                    if (!f.delete()) {
+                        f.deleteOnExit();
+                    }
+                }
+            }
+            if (!directory.delete()) {
+                directory.deleteOnExit();
+            }
+        }
+    }
+}
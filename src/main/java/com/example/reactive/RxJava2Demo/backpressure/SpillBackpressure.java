@@ -0,0 +1,65 @@
+package com.example.reactive.RxJava2Demo.backpressure;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableTransformer;
+import io.reactivex.internal.functions.ObjectHelper;
+import org.reactivestreams.Publisher;
+
+import java.io.File;
+
+/**
+ * @description : 磁盘溢写背压策略
+ * BUFFER策略与Observable一样无限缓存，突发流量超过堆大小就会OOM；DROP/LATEST不会OOM但会丢数据。
+ * SPILL在内存中只保留固定条数，多出的部分顺序写入内存映射的段文件，下游按原顺序先读内存再读磁盘，
+ * 既不丢数据也不会随积压量占用堆内存。用法与onBackpressureBuffer()相同：
+ * <pre>
+ *     Flowable.create(source, BackpressureStrategy.MISSING)
+ *             .compose(SpillBackpressure.spill(SpillCodecs.integer()))
+ *             .observeOn(Schedulers.newThread())
+ * </pre>
+ * @author: liuchuang
+ * @date: 2026/10/18 下午4:40
+ * @modified by:
+ */
+public final class SpillBackpressure {
+
+    /** 内存中默认保留的数据条数，与observeOn的默认缓存池大小一致 */
+    public static final int DEFAULT_MEMORY_CAPACITY = Flowable.bufferSize();
+
+    /** 默认段文件大小 64MB */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private SpillBackpressure() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    public static <T> FlowableTransformer<T, T> spill(SpillCodec<T> codec) {
+        return spill(DEFAULT_MEMORY_CAPACITY, DEFAULT_SEGMENT_SIZE,
+                new File(System.getProperty("java.io.tmpdir")), codec);
+    }
+
+    public static <T> FlowableTransformer<T, T> spill(int memoryCapacity, SpillCodec<T> codec) {
+        return spill(memoryCapacity, DEFAULT_SEGMENT_SIZE,
+                new File(System.getProperty("java.io.tmpdir")), codec);
+    }
+
+    /**
+     * @param memoryCapacity 内存中最多保留的数据条数
+     * @param segmentSize 每个段文件的字节数，单条数据超过该大小时会单独分配一个足够大的段
+     * @param directory 段文件所在目录，每次订阅会在其下创建独立的临时子目录，终止或取消后删除
+     * @param codec 序列化方式
+     */
+    public static <T> FlowableTransformer<T, T> spill(final int memoryCapacity, final int segmentSize,
+                                                      final File directory, final SpillCodec<T> codec) {
+        ObjectHelper.verifyPositive(memoryCapacity, "memoryCapacity");
+        ObjectHelper.verifyPositive(segmentSize, "segmentSize");
+        ObjectHelper.requireNonNull(directory, "directory is null");
+        ObjectHelper.requireNonNull(codec, "codec is null");
+        return new FlowableTransformer<T, T>() {
+            @Override
+            public Publisher<T> apply(Flowable<T> upstream) {
+                return new FlowableOnBackpressureSpill<T>(upstream, memoryCapacity, segmentSize, directory, codec);
+            }
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.reactive.RxJava2Demo.backpressure;
+
+import java.nio.ByteBuffer;
+
+/**
+ * @description : 溢写到磁盘时使用的序列化方式
+ * @author: liuchuang
+ * @date: 2026/10/18 下午4:40
+ * @modified by:
+ */
+public interface SpillCodec<T> {
+
+    /**
+     * 序列化后的字节数
+     * @param value 待写入的数据
+     * @return 字节数
+     */
+    int sizeOf(T value);
+
+    /**
+     * 将数据写入target，写入的字节数必须等于sizeOf(value)
+     * @param value 待写入的数据
+     * @param target 目标缓冲区
+     */
+    void encode(T value, ByteBuffer target);
+
+    /**
+     * 从source中读取一条数据，source的remaining即为该条数据的字节数
+     * @param source 源缓冲区
+     * @return 反序列化后的数据
+     */
+    T decode(ByteBuffer source);
+}
@@ -0,0 +1,118 @@
+package com.example.reactive.RxJava2Demo.backpressure;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @description : 常用的SpillCodec
+ * @author: liuchuang
+ * @date: 2026/10/18 下午4:40
+ * @modified by:
+ */
+public final class SpillCodecs {
+
+    private SpillCodecs() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    public static SpillCodec<Integer> integer() {
+        return IntegerCodec.INSTANCE;
+    }
+
+    public static SpillCodec<Long> longs() {
+        return LongCodec.INSTANCE;
+    }
+
+    public static SpillCodec<String> string() {
+        return StringCodec.INSTANCE;
+    }
+
+    public static SpillCodec<ByteBuffer> byteBuffer() {
+        return ByteBufferCodec.INSTANCE;
+    }
+
+    enum IntegerCodec implements SpillCodec<Integer> {
+        INSTANCE;
+
+        @Override
+        public int sizeOf(Integer value) {
+            return 4;
+        }
+
+        @Override
+        public void encode(Integer value, ByteBuffer target) {
+            target.putInt(value);
+        }
+
+        @Override
+        public Integer decode(ByteBuffer source) {
+            return source.getInt();
+        }
+    }
+
+    enum LongCodec implements SpillCodec<Long> {
+        INSTANCE;
+
+        @Override
+        public int sizeOf(Long value) {
+            return 8;
+        }
+
+        @Override
+        public void encode(Long value, ByteBuffer target) {
+            target.putLong(value);
+        }
+
+        @Override
+        public Long decode(ByteBuffer source) {
+            return source.getLong();
+        }
+    }
+
+    /**
+     * UTF-8编码，sizeOf与encode会各编码一次，对长字符串可自行实现缓存编码结果的Codec
+     */
+    enum StringCodec implements SpillCodec<String> {
+        INSTANCE;
+
+        @Override
+        public int sizeOf(String value) {
+            return value.getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        @Override
+        public void encode(String value, ByteBuffer target) {
+            target.put(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String decode(ByteBuffer source) {
+            byte[] bytes = new byte[source.remaining()];
+            source.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 写入value的remaining部分，不改变value的position；decode不复制，返回source的只读视图，
+     * 从映射文件读取时即为映射区域本身，需要长期保存时应自行复制
+     */
+    enum ByteBufferCodec implements SpillCodec<ByteBuffer> {
+        INSTANCE;
+
+        @Override
+        public int sizeOf(ByteBuffer value) {
+            return value.remaining();
+        }
+
+        @Override
+        public void encode(ByteBuffer value, ByteBuffer target) {
+            target.put(value.duplicate());
+        }
+
+        @Override
+        public ByteBuffer decode(ByteBuffer source) {
+            return source.asReadOnlyBuffer();
+        }
+    }
+}
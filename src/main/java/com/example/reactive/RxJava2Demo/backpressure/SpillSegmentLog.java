@@ -0,0 +1,175 @@
+package com.example.reactive.RxJava2Demo.backpressure;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description : 基于内存映射文件的单生产者单消费者日志，用于承接内存队列放不下的数据
+ * 每条记录的格式为 [int 长度][数据]，段内剩余空间不足时写入长度为-1的换段标记（剩余不足4字节时直接换段），
+ * 读完的段文件立即删除，映射区域随MappedByteBuffer被GC回收。
+ * 取消时clear可能在消费者线程上与生产者的append并发，两者用本对象的锁互斥，clear之后的append直接丢弃。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午4:40
+ * @modified by:
+ */
+final class SpillSegmentLog<T> {
+
+    private static final int HEADER = 4;
+
+    private static final int NEXT_SEGMENT = -1;
+
+    private final File directory;
+
+    private final int segmentSize;
+
+    private final SpillCodec<T> codec;
+
+    /** 已写入但尚未读完的段，生产者在队尾追加，消费者从队头移除 */
+    private final ConcurrentLinkedQueue<Segment> segments = new ConcurrentLinkedQueue<Segment>();
+
+    /** 已完整写入的记录数，生产者写完一条记录后才递增，消费者据此判断是否有数据可读 */
+    private final AtomicLong written = new AtomicLong();
+
+    /** 已读取的记录数 */
+    private final AtomicLong read = new AtomicLong();
+
+    /** 仅生产者访问 */
+    private Segment writeSegment;
+
+    /** 仅消费者访问 */
+    private Segment readSegment;
+
+    private long segmentIndex;
+
+    /** clear之后为true，由本对象的锁保护 */
+    private boolean closed;
+
+    SpillSegmentLog(File directory, int segmentSize, SpillCodec<T> codec) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.codec = codec;
+    }
+
+    /**
+     * 由生产者调用
+     */
+    synchronized void append(T value) throws IOException {
+        if (closed) {
+            return;
+        }
+        int size = codec.sizeOf(value);
+        Segment s = writeSegment;
+        if (s == null || s.buffer.remaining() < HEADER + size) {
+            if (s != null && s.buffer.remaining() >= HEADER) {
+                s.buffer.putInt(NEXT_SEGMENT);
+            }
+            s = newSegment(HEADER + size);
+        }
+        ByteBuffer buffer = s.buffer;
+        buffer.putInt(size);
+        int start = buffer.position();
+        codec.encode(value, buffer);
+        if (buffer.position() - start != size) {
+            throw new IOException("Codec wrote " + (buffer.position() - start) + " bytes, expected " + size);
+        }
+        written.lazySet(written.get() + 1);
+    }
+
+    /**
+     * 由消费者调用
+     * @return 下一条记录，没有可读记录时返回null
+     */
+    T poll() {
+        if (read.get() == written.get()) {
+            return null;
+        }
+        Segment s = readSegment;
+        if (s == null) {
+            s = segments.peek();
+            readSegment = s;
+        }
+        ByteBuffer buffer = s.reader;
+        int size = buffer.remaining() >= HEADER ? buffer.getInt() : NEXT_SEGMENT;
+        if (size == NEXT_SEGMENT) {
+            segments.poll();
+            s.delete();
+            s = segments.peek();
+            readSegment = s;
+            buffer = s.reader;
+            size = buffer.getInt();
+        }
+        int limit = buffer.limit();
+        buffer.limit(buffer.position() + size);
+        T value = codec.decode(buffer.slice());
+        buffer.position(buffer.limit());
+        buffer.limit(limit);
+        read.lazySet(read.get() + 1);
+        return value;
+    }
+
+    /**
+     * 生产者据此判断消费者是否已读完所有溢写的数据，读完后即可切回内存队列
+     */
+    boolean isDrained() {
+        return read.get() == written.get();
+    }
+
+    long size() {
+        return written.get() - read.get();
+    }
+
+    /**
+     * 删除全部段文件，之后的append不再写入；不能与poll并发调用
+     */
+    synchronized void clear() {
+        closed = true;
+        Segment s;
+        while ((s = segments.poll()) != null) {
+            s.delete();
+        }
+        writeSegment = null;
+        readSegment = null;
+    }
+
+    private Segment newSegment(int minSize) throws IOException {
+        File file = new File(directory, "spill-" + (segmentIndex++) + ".seg");
+        int size = Math.max(segmentSize, minSize);
+        MappedByteBuffer buffer;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(size);
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        Segment s = new Segment(file, buffer);
+        segments.offer(s);
+        writeSegment = s;
+        return s;
+    }
+
+    static final class Segment {
+        final File file;
+
+        /** 生产者的写视图 */
+        final ByteBuffer buffer;
+
+        /** 消费者的读视图，与写视图共享同一块映射区域 */
+        final ByteBuffer reader;
+
+        Segment(File file, MappedByteBuffer buffer) {
+            this.file = file;
+            this.buffer = buffer;
+            this.reader = buffer.duplicate();
+        }
+
+        void delete() {
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+}
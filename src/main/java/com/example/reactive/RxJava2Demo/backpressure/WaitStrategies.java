@@ -0,0 +1,159 @@
+package com.example.reactive.RxJava2Demo.backpressure;
+
+import io.reactivex.internal.functions.ObjectHelper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description : 内置的WaitStrategy
+ * busySpin    延迟最低，等待期间占满一个核，只适合独占核心的场景
+ * yielding    自旋一段时间后Thread.yield()，CPU占用仍然较高，但会让出给同核的其他线程
+ * parking     自旋、yield后以指数退避的时长park，request(n)到达时立即unpark，兼顾CPU与延迟
+ * blocking    直接在监视器上wait，request(n)时notifyAll，CPU占用最低，唤醒延迟最高
+ * @author: liuchuang
+ * @date: 2026/10/18 下午6:30
+ * @modified by:
+ */
+public final class WaitStrategies {
+
+    static final int SPIN_TRIES = 100;
+
+    static final int YIELD_TRIES = 100;
+
+    private WaitStrategies() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    public static WaitStrategy busySpin() {
+        return BusySpinWaitStrategy.INSTANCE;
+    }
+
+    public static WaitStrategy yielding() {
+        return YieldingWaitStrategy.INSTANCE;
+    }
+
+    /**
+     * park时长从1微秒起翻倍，最长1毫秒
+     */
+    public static WaitStrategy parking() {
+        return parking(1, 1000, TimeUnit.MICROSECONDS);
+    }
+
+    public static WaitStrategy parking(long minPark, long maxPark, TimeUnit unit) {
+        ObjectHelper.verifyPositive(minPark, "minPark");
+        if (maxPark < minPark) {
+            throw new IllegalArgumentException("maxPark >= minPark required but it was " + maxPark + " < " + minPark);
+        }
+        return new ParkingWaitStrategy(unit.toNanos(minPark), unit.toNanos(maxPark));
+    }
+
+    public static WaitStrategy blocking() {
+        return BlockingWaitStrategy.INSTANCE;
+    }
+
+    enum BusySpinWaitStrategy implements WaitStrategy {
+        INSTANCE;
+
+        @Override
+        public long waitFor(Demand demand) {
+            long r;
+            while ((r = demand.requested()) == 0L && !demand.isCancelled()) {
+                // spin
+            }
+            return r;
+        }
+
+        @Override
+        public void signal(Demand demand) {
+        }
+    }
+
+    enum YieldingWaitStrategy implements WaitStrategy {
+        INSTANCE;
+
+        @Override
+        public long waitFor(Demand demand) throws InterruptedException {
+            int spins = SPIN_TRIES;
+            long r;
+            while ((r = demand.requested()) == 0L && !demand.isCancelled()) {
+                if (spins > 0) {
+                    spins--;
+                } else {
+                    Thread.yield();
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                }
+            }
+            return r;
+        }
+
+        @Override
+        public void signal(Demand demand) {
+        }
+    }
+
+    static final class ParkingWaitStrategy implements WaitStrategy {
+
+        final long minParkNanos;
+
+        final long maxParkNanos;
+
+        ParkingWaitStrategy(long minParkNanos, long maxParkNanos) {
+            this.minParkNanos = minParkNanos;
+            this.maxParkNanos = maxParkNanos;
+        }
+
+        @Override
+        public long waitFor(Demand demand) throws InterruptedException {
+            int spins = SPIN_TRIES;
+            int yields = YIELD_TRIES;
+            long park = minParkNanos;
+            long r;
+            while ((r = demand.requested()) == 0L && !demand.isCancelled()) {
+                if (spins > 0) {
+                    spins--;
+                } else if (yields > 0) {
+                    yields--;
+                    Thread.yield();
+                } else {
+                    demand.park(park);
+                    park = Math.min(park << 1, maxParkNanos);
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                }
+            }
+            return r;
+        }
+
+        @Override
+        public void signal(Demand demand) {
+            demand.unpark();
+        }
+    }
+
+    enum BlockingWaitStrategy implements WaitStrategy {
+        INSTANCE;
+
+        @Override
+        public long waitFor(Demand demand) throws InterruptedException {
+            long r = demand.requested();
+            if (r == 0L) {
+                synchronized (demand) {
+                    while ((r = demand.requested()) == 0L && !demand.isCancelled()) {
+                        demand.wait();
+                    }
+                }
+            }
+            return r;
+        }
+
+        @Override
+        public void signal(Demand demand) {
+            synchronized (demand) {
+                demand.notifyAll();
+            }
+        }
+    }
+}
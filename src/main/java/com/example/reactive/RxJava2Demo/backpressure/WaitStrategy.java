@@ -0,0 +1,25 @@
+package com.example.reactive.RxJava2Demo.backpressure;
+
+/**
+ * @description : 下游需求为0时发射线程的等待方式，参考Disruptor的WaitStrategy
+ * 同一个实例可以被多条管道共享，每次订阅的状态保存在Demand中。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午6:30
+ * @modified by:
+ */
+public interface WaitStrategy {
+
+    /**
+     * 等待直到下游有请求或已取消
+     * @param demand 当前订阅的需求状态
+     * @return 等待结束时的请求数，已取消时可能为0
+     * @throws InterruptedException 等待过程中线程被中断
+     */
+    long waitFor(Demand demand) throws InterruptedException;
+
+    /**
+     * 下游request(n)或cancel()之后调用，用于唤醒waitFor中的线程
+     * @param demand 当前订阅的需求状态
+     */
+    void signal(Demand demand);
+}
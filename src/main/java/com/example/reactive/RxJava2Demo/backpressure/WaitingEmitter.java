@@ -0,0 +1,26 @@
+package com.example.reactive.RxJava2Demo.backpressure;
+
+import io.reactivex.FlowableEmitter;
+
+/**
+ * @description : 可以等待下游需求的FlowableEmitter
+ * @author: liuchuang
+ * @date: 2026/10/18 下午6:30
+ * @modified by:
+ */
+public interface WaitingEmitter<T> extends FlowableEmitter<T> {
+
+    /**
+     * 按管道选定的WaitStrategy等待，直到下游有请求或已取消
+     * @return 当前请求数，已取消时返回0
+     * @throws InterruptedException 等待过程中线程被中断
+     */
+    long awaitDemand() throws InterruptedException;
+
+    /**
+     * 多个线程调用onNext时使用，返回的emitter同样可以等待下游需求
+     * @return 串行化的WaitingEmitter
+     */
+    @Override
+    WaitingEmitter<T> serialize();
+}
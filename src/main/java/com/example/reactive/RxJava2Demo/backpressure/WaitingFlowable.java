@@ -0,0 +1,45 @@
+package com.example.reactive.RxJava2Demo.backpressure;
+
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+
+/**
+ * @description : 发射线程在下游需求为0时按WaitStrategy等待的Flowable.create
+ * 替代在while循环里判断e.requested() == 0后continue的忙等写法：
+ * <pre>
+ *     WaitingFlowable.create(e -> {
+ *         while (e.awaitDemand() != 0 && !e.isCancelled()) {
+ *             e.onNext(next());
+ *         }
+ *     }, WaitStrategies.parking())
+ *     .subscribeOn(Schedulers.io(), false)
+ * </pre>
+ * 配合subscribeOn使用时必须传requestOn = false：Flowable.create之外的数据源默认会把request(n)
+ * 调度到发射线程所在的Worker上执行，而该线程正阻塞在awaitDemand()中，请求永远无法到达。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午6:30
+ * @modified by:
+ */
+public final class WaitingFlowable {
+
+    private WaitingFlowable() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    /**
+     * 使用MISSING背压策略，发射前应先awaitDemand()
+     */
+    public static <T> Flowable<T> create(WaitingFlowableOnSubscribe<T> source, WaitStrategy strategy) {
+        return create(source, BackpressureStrategy.MISSING, strategy);
+    }
+
+    public static <T> Flowable<T> create(WaitingFlowableOnSubscribe<T> source, BackpressureStrategy mode,
+                                         WaitStrategy strategy) {
+        ObjectHelper.requireNonNull(source, "source is null");
+        ObjectHelper.requireNonNull(mode, "mode is null");
+        ObjectHelper.requireNonNull(strategy, "strategy is null");
+        return RxJavaPlugins.onAssembly(new FlowableCreateWaiting<T>(source, mode, strategy));
+    }
+}
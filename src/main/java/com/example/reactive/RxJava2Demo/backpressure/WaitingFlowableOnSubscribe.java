@@ -0,0 +1,14 @@
+package com.example.reactive.RxJava2Demo.backpressure;
+
+import io.reactivex.annotations.NonNull;
+
+/**
+ * @description : 与FlowableOnSubscribe相同，只是拿到的是WaitingEmitter
+ * @author: liuchuang
+ * @date: 2026/10/18 下午6:30
+ * @modified by:
+ */
+public interface WaitingFlowableOnSubscribe<T> {
+
+    void subscribe(@NonNull WaitingEmitter<T> emitter) throws Exception;
+}
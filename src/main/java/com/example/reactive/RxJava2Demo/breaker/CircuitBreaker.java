@@ -0,0 +1,373 @@
+package com.example.reactive.RxJava2Demo.breaker;
+
+import com.example.reactive.RxJava2Demo.exception.CallNotPermittedException;
+import io.reactivex.Completable;
+import io.reactivex.CompletableSource;
+import io.reactivex.CompletableTransformer;
+import io.reactivex.Maybe;
+import io.reactivex.MaybeSource;
+import io.reactivex.MaybeTransformer;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+import io.reactivex.SingleSource;
+import io.reactivex.SingleTransformer;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.schedulers.Schedulers;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @description : 无锁熔断器，用于Single/Maybe/Completable
+ * <pre>
+ *     CircuitBreaker breaker = new CircuitBreaker("inventory", CircuitBreakerConfig.defaults());
+ *     single.compose(breaker.&lt;Order&gt;single())
+ *     completable.compose(breaker.completable())
+ * </pre>
+ * CLOSED：放行所有订阅，结果记入最近windowSize次调用的滑动窗口，窗口内调用数不少于minimumCalls且
+ * 失败率或慢调用率达到阈值时转为OPEN。
+ * OPEN：订阅立即收到CallNotPermittedException，不再等待下游超时；经过waitInOpen后第一次订阅将其转为HALF_OPEN。
+ * HALF_OPEN：只放行permittedCallsInHalfOpen次试探调用，全部结束后按同样的阈值决定回到CLOSED还是重新OPEN。
+ * 每个状态对应一个不可变的Phase，状态转换是对Phase引用的CAS；调用结果只记入它获得许可时的Phase，
+ * 状态转换前发出的调用在转换后才结束时不会影响新状态。
+ * 同一个实例可以被多条调用链共享，它们共同决定并共同遵守熔断状态。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+@Slf4j
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+
+    private final CircuitBreakerConfig config;
+
+    private final Scheduler clock;
+
+    private final AtomicReference<Phase> phase;
+
+    private final AtomicLong successfulCalls = new AtomicLong();
+
+    private final AtomicLong failedCalls = new AtomicLong();
+
+    private final AtomicLong slowCalls = new AtomicLong();
+
+    private final AtomicLong notPermittedCalls = new AtomicLong();
+
+    private final AtomicLong transitions = new AtomicLong();
+
+    public CircuitBreaker(String name, CircuitBreakerConfig config) {
+        this(name, config, Schedulers.computation());
+    }
+
+    /**
+     * @param clock 计时所用的时钟，测试时可以传入TestScheduler
+     */
+    public CircuitBreaker(String name, CircuitBreakerConfig config, Scheduler clock) {
+        this.name = ObjectHelper.requireNonNull(name, "name is null");
+        this.config = ObjectHelper.requireNonNull(config, "config is null");
+        this.clock = ObjectHelper.requireNonNull(clock, "clock is null");
+        this.phase = new AtomicReference<Phase>(closed());
+    }
+
+    public <T> SingleTransformer<T, T> single() {
+        return new SingleTransformer<T, T>() {
+            @Override
+            public SingleSource<T> apply(Single<T> upstream) {
+                return RxJavaPlugins.onAssembly(new SingleCircuitBreaker<T>(upstream, CircuitBreaker.this));
+            }
+        };
+    }
+
+    public <T> MaybeTransformer<T, T> maybe() {
+        return new MaybeTransformer<T, T>() {
+            @Override
+            public MaybeSource<T> apply(Maybe<T> upstream) {
+                return RxJavaPlugins.onAssembly(new MaybeCircuitBreaker<T>(upstream, CircuitBreaker.this));
+            }
+        };
+    }
+
+    public CompletableTransformer completable() {
+        return new CompletableTransformer() {
+            @Override
+            public CompletableSource apply(Completable upstream) {
+                return RxJavaPlugins.onAssembly(new CompletableCircuitBreaker(upstream, CircuitBreaker.this));
+            }
+        };
+    }
+
+    /**
+     * 申请一次调用许可
+     * @return 获得许可时所在的Phase，调用结束时交回；不允许调用时为null
+     */
+    Phase acquire() {
+        for (;;) {
+            Phase p = phase.get();
+            switch (p.state) {
+                case CLOSED:
+                    return p;
+                case OPEN:
+                    if (now() - p.openedAt < TimeUnit.MILLISECONDS.toNanos(config.waitInOpenMillis)) {
+                        notPermittedCalls.incrementAndGet();
+                        return null;
+                    }
+                    transition(p, halfOpen());
+                    break;
+                default:
+                    int permits = p.permits.get();
+                    if (permits <= 0) {
+                        notPermittedCalls.incrementAndGet();
+                        return null;
+                    }
+                    if (p.permits.compareAndSet(permits, permits - 1)) {
+                        return p;
+                    }
+                    break;
+            }
+        }
+    }
+
+    CallNotPermittedException notPermitted() {
+        return new CallNotPermittedException("CircuitBreaker '" + name + "' is " + state()
+                + " and does not permit further calls");
+    }
+
+    long now() {
+        return clock.now(TimeUnit.NANOSECONDS);
+    }
+
+    void onSuccess(Phase p, long startNanos) {
+        successfulCalls.incrementAndGet();
+        record(p, startNanos, false);
+    }
+
+    void onError(Phase p, long startNanos, Throwable e) {
+        boolean failure;
+        try {
+            failure = config.recordFailure.test(e);
+        } catch (Throwable ex) {
+            Exceptions.throwIfFatal(ex);
+            failure = true;
+        }
+        (failure ? failedCalls : successfulCalls).incrementAndGet();
+        record(p, startNanos, failure);
+    }
+
+    /**
+     * 调用被取消，没有结果：半开状态下归还试探名额
+     */
+    void release(Phase p) {
+        if (p.state == State.HALF_OPEN) {
+            p.permits.incrementAndGet();
+        }
+    }
+
+    private void record(Phase p, long startNanos, boolean failure) {
+        boolean slow = now() - startNanos > config.slowCallNanos;
+        if (slow) {
+            slowCalls.incrementAndGet();
+        }
+        Window w = p.window;
+        w.record(failure, slow);
+        int calls = w.calls.get();
+        if (p.state == State.CLOSED) {
+            if (calls >= config.minimumCalls && exceeded(w)) {
+                transition(p, open());
+            }
+        } else if (p.state == State.HALF_OPEN && calls >= config.permittedCallsInHalfOpen) {
+            transition(p, exceeded(w) ? open() : closed());
+        }
+    }
+
+    private boolean exceeded(Window w) {
+        return w.failureRate() >= config.failureRateThreshold || w.slowCallRate() >= config.slowCallRateThreshold;
+    }
+
+    private void transition(Phase from, Phase to) {
+        if (phase.compareAndSet(from, to)) {
+            transitions.incrementAndGet();
+            log.info("CircuitBreaker '{}' {} -> {}, failureRate={}%, slowCallRate={}%", name, from.state, to.state,
+                    from.window.failureRate(), from.window.slowCallRate());
+        }
+    }
+
+    private Phase closed() {
+        return new Phase(State.CLOSED, 0L, config.windowSize, 0);
+    }
+
+    private Phase open() {
+        return new Phase(State.OPEN, now(), 1, 0);
+    }
+
+    private Phase halfOpen() {
+        return new Phase(State.HALF_OPEN, 0L, config.permittedCallsInHalfOpen, config.permittedCallsInHalfOpen);
+    }
+
+    /**
+     * 强制回到CLOSED并清空滑动窗口
+     */
+    public void reset() {
+        Phase p = phase.get();
+        transition(p, closed());
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public State state() {
+        return phase.get().state;
+    }
+
+    /**
+     * @return 当前窗口的失败率（百分比），调用数不足minimumCalls时为-1
+     */
+    public float failureRate() {
+        Window w = phase.get().window;
+        return w.calls.get() < Math.min(config.minimumCalls, w.size) ? -1f : w.failureRate();
+    }
+
+    /**
+     * @return 当前窗口的慢调用率（百分比），调用数不足minimumCalls时为-1
+     */
+    public float slowCallRate() {
+        Window w = phase.get().window;
+        return w.calls.get() < Math.min(config.minimumCalls, w.size) ? -1f : w.slowCallRate();
+    }
+
+    public long successfulCalls() {
+        return successfulCalls.get();
+    }
+
+    public long failedCalls() {
+        return failedCalls.get();
+    }
+
+    public long slowCalls() {
+        return slowCalls.get();
+    }
+
+    /**
+     * @return 因熔断被直接拒绝的订阅数
+     */
+    public long notPermittedCalls() {
+        return notPermittedCalls.get();
+    }
+
+    public long stateTransitions() {
+        return transitions.get();
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> m = new LinkedHashMap<String, Object>();
+        m.put("state", state());
+        m.put("failureRate", failureRate());
+        m.put("slowCallRate", slowCallRate());
+        m.put("successfulCalls", successfulCalls());
+        m.put("failedCalls", failedCalls());
+        m.put("slowCalls", slowCalls());
+        m.put("notPermittedCalls", notPermittedCalls());
+        m.put("stateTransitions", stateTransitions());
+        return m;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{" + name + ", " + toMap() + '}';
+    }
+
+    /**
+     * 一个状态及其滑动窗口，状态转换时整体替换
+     */
+    static final class Phase {
+
+        final State state;
+
+        final long openedAt;
+
+        final Window window;
+
+        /** 半开状态剩余的试探名额 */
+        final AtomicInteger permits;
+
+        Phase(State state, long openedAt, int windowSize, int permits) {
+            this.state = state;
+            this.openedAt = openedAt;
+            this.window = new Window(windowSize);
+            this.permits = new AtomicInteger(permits);
+        }
+    }
+
+    /**
+     * 按调用次数滑动的窗口：新结果覆盖size次之前的结果，计数按被覆盖的旧结果修正
+     */
+    static final class Window {
+
+        static final int RECORDED = 1;
+
+        static final int FAILED = 2;
+
+        static final int SLOW = 4;
+
+        final int size;
+
+        final AtomicIntegerArray outcomes;
+
+        final AtomicLong sequence = new AtomicLong();
+
+        final AtomicInteger calls = new AtomicInteger();
+
+        final AtomicInteger failures = new AtomicInteger();
+
+        final AtomicInteger slow = new AtomicInteger();
+
+        Window(int size) {
+            this.size = size;
+            this.outcomes = new AtomicIntegerArray(size);
+        }
+
+        void record(boolean failed, boolean slowCall) {
+            int outcome = RECORDED | (failed ? FAILED : 0) | (slowCall ? SLOW : 0);
+            int index = (int) (sequence.getAndIncrement() % size);
+            int old = outcomes.getAndSet(index, outcome);
+            if ((old & RECORDED) == 0) {
+                calls.incrementAndGet();
+            }
+            if ((old & FAILED) != 0) {
+                failures.decrementAndGet();
+            }
+            if ((old & SLOW) != 0) {
+                slow.decrementAndGet();
+            }
+            if (failed) {
+                failures.incrementAndGet();
+            }
+            if (slowCall) {
+                slow.incrementAndGet();
+            }
+        }
+
+        float failureRate() {
+            int c = calls.get();
+            return c == 0 ? 0f : failures.get() * 100f / c;
+        }
+
+        float slowCallRate() {
+            int c = calls.get();
+            return c == 0 ? 0f : slow.get() * 100f / c;
+        }
+    }
+}
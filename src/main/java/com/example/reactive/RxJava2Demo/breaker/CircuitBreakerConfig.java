@@ -0,0 +1,129 @@
+package com.example.reactive.RxJava2Demo.breaker;
+
+import io.reactivex.functions.Predicate;
+import io.reactivex.internal.functions.Functions;
+import io.reactivex.internal.functions.ObjectHelper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description : 熔断器配置，实例不可变，配置方法返回新实例
+ * <pre>
+ *     CircuitBreakerConfig.defaults()
+ *             .failureRateThreshold(50)
+ *             .slowCall(2, TimeUnit.SECONDS, 80)
+ *             .window(20, 10)
+ *             .waitInOpen(30, TimeUnit.SECONDS)
+ *             .permittedCallsInHalfOpen(5)
+ * </pre>
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+public final class CircuitBreakerConfig {
+
+    final float failureRateThreshold;
+
+    final float slowCallRateThreshold;
+
+    final long slowCallNanos;
+
+    final int windowSize;
+
+    final int minimumCalls;
+
+    final long waitInOpenMillis;
+
+    final int permittedCallsInHalfOpen;
+
+    final Predicate<? super Throwable> recordFailure;
+
+    private CircuitBreakerConfig(float failureRateThreshold, float slowCallRateThreshold, long slowCallNanos,
+                                 int windowSize, int minimumCalls, long waitInOpenMillis,
+                                 int permittedCallsInHalfOpen, Predicate<? super Throwable> recordFailure) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = slowCallNanos;
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.waitInOpenMillis = waitInOpenMillis;
+        this.permittedCallsInHalfOpen = permittedCallsInHalfOpen;
+        this.recordFailure = recordFailure;
+    }
+
+    /**
+     * 最近100次调用中（至少10次）失败率达到50%或超过60秒的慢调用达到100%时打开，打开60秒后放行10次试探调用
+     */
+    public static CircuitBreakerConfig defaults() {
+        return new CircuitBreakerConfig(50f, 100f, TimeUnit.SECONDS.toNanos(60), 100, 10,
+                TimeUnit.SECONDS.toMillis(60), 10, Functions.alwaysTrue());
+    }
+
+    /**
+     * @param percent 失败率达到该百分比时打开，(0, 100]
+     */
+    public CircuitBreakerConfig failureRateThreshold(float percent) {
+        checkPercent(percent, "failureRateThreshold");
+        return new CircuitBreakerConfig(percent, slowCallRateThreshold, slowCallNanos, windowSize, minimumCalls,
+                waitInOpenMillis, permittedCallsInHalfOpen, recordFailure);
+    }
+
+    /**
+     * @param duration 耗时超过该值的调用记为慢调用（无论成功失败）
+     * @param ratePercent 慢调用率达到该百分比时打开，(0, 100]
+     */
+    public CircuitBreakerConfig slowCall(long duration, TimeUnit unit, float ratePercent) {
+        ObjectHelper.verifyPositive(duration, "duration");
+        checkPercent(ratePercent, "slowCallRateThreshold");
+        return new CircuitBreakerConfig(failureRateThreshold, ratePercent, unit.toNanos(duration), windowSize,
+                minimumCalls, waitInOpenMillis, permittedCallsInHalfOpen, recordFailure);
+    }
+
+    /**
+     * @param windowSize 滑动窗口记录最近多少次调用
+     * @param minimumCalls 窗口内调用数达到该值后才计算失败率
+     */
+    public CircuitBreakerConfig window(int windowSize, int minimumCalls) {
+        ObjectHelper.verifyPositive(windowSize, "windowSize");
+        ObjectHelper.verifyPositive(minimumCalls, "minimumCalls");
+        if (minimumCalls > windowSize) {
+            throw new IllegalArgumentException("minimumCalls <= windowSize required but it was "
+                    + minimumCalls + " > " + windowSize);
+        }
+        return new CircuitBreakerConfig(failureRateThreshold, slowCallRateThreshold, slowCallNanos, windowSize,
+                minimumCalls, waitInOpenMillis, permittedCallsInHalfOpen, recordFailure);
+    }
+
+    /**
+     * @param duration 打开后经过该时长转为半开
+     */
+    public CircuitBreakerConfig waitInOpen(long duration, TimeUnit unit) {
+        ObjectHelper.verifyPositive(duration, "duration");
+        return new CircuitBreakerConfig(failureRateThreshold, slowCallRateThreshold, slowCallNanos, windowSize,
+                minimumCalls, unit.toMillis(duration), permittedCallsInHalfOpen, recordFailure);
+    }
+
+    /**
+     * @param calls 半开状态放行的试探调用数，全部结束后按失败率决定关闭或重新打开
+     */
+    public CircuitBreakerConfig permittedCallsInHalfOpen(int calls) {
+        ObjectHelper.verifyPositive(calls, "calls");
+        return new CircuitBreakerConfig(failureRateThreshold, slowCallRateThreshold, slowCallNanos, windowSize,
+                minimumCalls, waitInOpenMillis, calls, recordFailure);
+    }
+
+    /**
+     * @param recordFailure 返回false的错误按成功记录，如参数校验失败等与下游健康无关的错误
+     */
+    public CircuitBreakerConfig recordFailure(Predicate<? super Throwable> recordFailure) {
+        ObjectHelper.requireNonNull(recordFailure, "recordFailure is null");
+        return new CircuitBreakerConfig(failureRateThreshold, slowCallRateThreshold, slowCallNanos, windowSize,
+                minimumCalls, waitInOpenMillis, permittedCallsInHalfOpen, recordFailure);
+    }
+
+    private static void checkPercent(float percent, String name) {
+        if (percent <= 0f || percent > 100f) {
+            throw new IllegalArgumentException(name + " must be in (0, 100] but it was " + percent);
+        }
+    }
+}
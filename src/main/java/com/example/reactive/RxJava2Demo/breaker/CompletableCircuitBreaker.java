@@ -0,0 +1,99 @@
+package com.example.reactive.RxJava2Demo.breaker;
+
+import io.reactivex.Completable;
+import io.reactivex.CompletableObserver;
+import io.reactivex.CompletableSource;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.disposables.DisposableHelper;
+import io.reactivex.internal.disposables.EmptyDisposable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @description : Completable的熔断
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+final class CompletableCircuitBreaker extends Completable {
+
+    private final CompletableSource source;
+
+    private final CircuitBreaker breaker;
+
+    CompletableCircuitBreaker(CompletableSource source, CircuitBreaker breaker) {
+        this.source = source;
+        this.breaker = breaker;
+    }
+
+    @Override
+    protected void subscribeActual(CompletableObserver observer) {
+        CircuitBreaker.Phase phase = breaker.acquire();
+        if (phase == null) {
+            EmptyDisposable.error(breaker.notPermitted(), observer);
+            return;
+        }
+        source.subscribe(new CircuitBreakerCompletableObserver(observer, breaker, phase));
+    }
+
+    static final class CircuitBreakerCompletableObserver extends AtomicBoolean
+            implements CompletableObserver, Disposable {
+
+        private static final long serialVersionUID = -1748307296455137520L;
+
+        final CompletableObserver downstream;
+
+        final CircuitBreaker breaker;
+
+        final CircuitBreaker.Phase phase;
+
+        final long start;
+
+        Disposable upstream;
+
+        CircuitBreakerCompletableObserver(CompletableObserver downstream, CircuitBreaker breaker,
+                                          CircuitBreaker.Phase phase) {
+            this.downstream = downstream;
+            this.breaker = breaker;
+            this.phase = phase;
+            this.start = breaker.now();
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            if (DisposableHelper.validate(this.upstream, d)) {
+                this.upstream = d;
+                downstream.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (compareAndSet(false, true)) {
+                breaker.onSuccess(phase, start);
+            }
+            downstream.onComplete();
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            if (compareAndSet(false, true)) {
+                breaker.onError(phase, start, e);
+            }
+            downstream.onError(e);
+        }
+
+        @Override
+        public void dispose() {
+            if (compareAndSet(false, true)) {
+                breaker.release(phase);
+            }
+            upstream.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return upstream.isDisposed();
+        }
+    }
+}
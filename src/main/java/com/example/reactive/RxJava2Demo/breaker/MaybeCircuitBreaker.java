@@ -0,0 +1,106 @@
+package com.example.reactive.RxJava2Demo.breaker;
+
+import io.reactivex.Maybe;
+import io.reactivex.MaybeObserver;
+import io.reactivex.MaybeSource;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.disposables.DisposableHelper;
+import io.reactivex.internal.disposables.EmptyDisposable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @description : Maybe的熔断，onSuccess与onComplete都记为成功
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+final class MaybeCircuitBreaker<T> extends Maybe<T> {
+
+    private final MaybeSource<T> source;
+
+    private final CircuitBreaker breaker;
+
+    MaybeCircuitBreaker(MaybeSource<T> source, CircuitBreaker breaker) {
+        this.source = source;
+        this.breaker = breaker;
+    }
+
+    @Override
+    protected void subscribeActual(MaybeObserver<? super T> observer) {
+        CircuitBreaker.Phase phase = breaker.acquire();
+        if (phase == null) {
+            EmptyDisposable.error(breaker.notPermitted(), observer);
+            return;
+        }
+        source.subscribe(new CircuitBreakerMaybeObserver<T>(observer, breaker, phase));
+    }
+
+    static final class CircuitBreakerMaybeObserver<T> extends AtomicBoolean implements MaybeObserver<T>, Disposable {
+
+        private static final long serialVersionUID = 3925174053786012394L;
+
+        final MaybeObserver<? super T> downstream;
+
+        final CircuitBreaker breaker;
+
+        final CircuitBreaker.Phase phase;
+
+        final long start;
+
+        Disposable upstream;
+
+        CircuitBreakerMaybeObserver(MaybeObserver<? super T> downstream, CircuitBreaker breaker,
+                                    CircuitBreaker.Phase phase) {
+            this.downstream = downstream;
+            this.breaker = breaker;
+            this.phase = phase;
+            this.start = breaker.now();
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            if (DisposableHelper.validate(this.upstream, d)) {
+                this.upstream = d;
+                downstream.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onSuccess(T t) {
+            if (compareAndSet(false, true)) {
+                breaker.onSuccess(phase, start);
+            }
+            downstream.onSuccess(t);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            if (compareAndSet(false, true)) {
+                breaker.onError(phase, start, e);
+            }
+            downstream.onError(e);
+        }
+
+        @Override
+        public void onComplete() {
+            if (compareAndSet(false, true)) {
+                breaker.onSuccess(phase, start);
+            }
+            downstream.onComplete();
+        }
+
+        @Override
+        public void dispose() {
+            if (compareAndSet(false, true)) {
+                breaker.release(phase);
+            }
+            upstream.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return upstream.isDisposed();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.reactive.RxJava2Demo.breaker;
+
+import io.reactivex.Single;
+import io.reactivex.SingleObserver;
+import io.reactivex.SingleSource;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.disposables.DisposableHelper;
+import io.reactivex.internal.disposables.EmptyDisposable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @description : Single的熔断，没有许可时直接以CallNotPermittedException结束，不订阅上游
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+final class SingleCircuitBreaker<T> extends Single<T> {
+
+    private final SingleSource<T> source;
+
+    private final CircuitBreaker breaker;
+
+    SingleCircuitBreaker(SingleSource<T> source, CircuitBreaker breaker) {
+        this.source = source;
+        this.breaker = breaker;
+    }
+
+    @Override
+    protected void subscribeActual(SingleObserver<? super T> observer) {
+        CircuitBreaker.Phase phase = breaker.acquire();
+        if (phase == null) {
+            EmptyDisposable.error(breaker.notPermitted(), observer);
+            return;
+        }
+        source.subscribe(new CircuitBreakerSingleObserver<T>(observer, breaker, phase));
+    }
+
+    static final class CircuitBreakerSingleObserver<T> extends AtomicBoolean implements SingleObserver<T>, Disposable {
+
+        private static final long serialVersionUID = -6203465208231985417L;
+
+        final SingleObserver<? super T> downstream;
+
+        final CircuitBreaker breaker;
+
+        final CircuitBreaker.Phase phase;
+
+        final long start;
+
+        Disposable upstream;
+
+        CircuitBreakerSingleObserver(SingleObserver<? super T> downstream, CircuitBreaker breaker,
+                                     CircuitBreaker.Phase phase) {
+            this.downstream = downstream;
+            this.breaker = breaker;
+            this.phase = phase;
+            this.start = breaker.now();
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            if (DisposableHelper.validate(this.upstream, d)) {
+                this.upstream = d;
+                downstream.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onSuccess(T t) {
+            if (compareAndSet(false, true)) {
+                breaker.onSuccess(phase, start);
+            }
+            downstream.onSuccess(t);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            if (compareAndSet(false, true)) {
+                breaker.onError(phase, start, e);
+            }
+            downstream.onError(e);
+        }
+
+        @Override
+        public void dispose() {
+            if (compareAndSet(false, true)) {
+                breaker.release(phase);
+            }
+            upstream.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return upstream.isDisposed();
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.example.reactive.RxJava2Demo.cache;
+
+import com.example.reactive.RxJava2Demo.coalesce.SingleFlight;
+import io.reactivex.Maybe;
+import io.reactivex.MaybeSource;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+import io.reactivex.functions.Action;
+import io.reactivex.functions.Consumer;
+import io.reactivex.functions.Function;
+import io.reactivex.internal.functions.Functions;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.schedulers.Schedulers;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description : 按键缓存Single/Maybe的结果，有容量上限与过期时间
+ * <pre>
+ *     AsyncCache&lt;Long, User&gt; users = new AsyncCache&lt;Long, User&gt;(CacheConfig.defaults()
+ *             .expireAfterWrite(5, TimeUnit.MINUTES).cacheEmpty(30, TimeUnit.SECONDS),
+ *             id -> dao.findById(id).subscribeOn(Schedulers.io()));
+ *     users.get(id)       // Maybe&lt;User&gt;
+ *     users.single(id)    // 空结果发出NoSuchElementException
+ * </pre>
+ * Single.cache()对每个Single只保存一个结果且永不过期；这里每次订阅按键查找，命中时直接发出缓存的值，
+ * 未命中时调用loader加载，同一个键同时只加载一次（SingleFlight），并发的未命中共享这次加载。
+ * 错误不缓存；空结果只在配置了cacheEmpty时缓存。Single的loader可以用toMaybe()转换。
+ * 过期在读取时检查；配置了refreshAfterWrite时，超过刷新时间、未过期的值被读取会先返回旧值，
+ * 同时在后台重新加载，热点键不会因过期而出现一次完整的加载延迟。
+ * 容量超出时按CacheConfig.Eviction淘汰：TINY_LFU用1%容量的LRU窗口接纳新键，
+ * 被挤出窗口的键只有访问频率高于主区中最久未访问的键时才替换它，一次性扫描不会冲掉热点键。
+ * 索引结构由一把锁保护，加载与下游回调都在锁外执行。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+@Slf4j
+public final class AsyncCache<K, V> {
+
+    private final CacheConfig config;
+
+    private final Function<? super K, ? extends MaybeSource<V>> loader;
+
+    private final Scheduler clock;
+
+    private final SingleFlight<K, V> flight = new SingleFlight<K, V>();
+
+    private final LinkedHashMap<K, Entry<V>> window = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true);
+
+    private final LinkedHashMap<K, Entry<V>> main = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true);
+
+    private final FrequencySketch sketch;
+
+    private final int windowCapacity;
+
+    private final int mainCapacity;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong emptyHits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong loads = new AtomicLong();
+
+    private final AtomicLong loadFailures = new AtomicLong();
+
+    private final AtomicLong refreshes = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final AtomicLong expirations = new AtomicLong();
+
+    public AsyncCache(CacheConfig config, Function<? super K, ? extends MaybeSource<V>> loader) {
+        this(config, loader, Schedulers.computation());
+    }
+
+    /**
+     * @param clock 计算过期所用的时钟，测试时可以传入TestScheduler
+     */
+    public AsyncCache(CacheConfig config, Function<? super K, ? extends MaybeSource<V>> loader, Scheduler clock) {
+        this.config = ObjectHelper.requireNonNull(config, "config is null");
+        this.loader = ObjectHelper.requireNonNull(loader, "loader is null");
+        this.clock = ObjectHelper.requireNonNull(clock, "clock is null");
+        if (config.refreshAfterWriteNanos >= config.expireAfterWriteNanos) {
+            throw new IllegalArgumentException("refreshAfterWrite < expireAfterWrite required");
+        }
+        if (config.eviction == CacheConfig.Eviction.TINY_LFU) {
+            this.windowCapacity = Math.max(1, config.maximumSize / 100);
+            this.mainCapacity = config.maximumSize - windowCapacity;
+            this.sketch = new FrequencySketch(config.maximumSize);
+        } else {
+            this.windowCapacity = config.maximumSize;
+            this.mainCapacity = 0;
+            this.sketch = null;
+        }
+    }
+
+    /**
+     * @return 每次订阅查找一次缓存；值为空（含缓存的空结果）时直接完成
+     */
+    public Maybe<V> get(final K key) {
+        ObjectHelper.requireNonNull(key, "key is null");
+        return Maybe.defer(new Callable<MaybeSource<V>>() {
+            @Override
+            public MaybeSource<V> call() throws Exception {
+                long now = clock.now(TimeUnit.NANOSECONDS);
+                Entry<V> e = lookup(key, now);
+                if (e == null) {
+                    misses.incrementAndGet();
+                    return flight.maybe(key, load(key));
+                }
+                hits.incrementAndGet();
+                if (e.value == null) {
+                    emptyHits.incrementAndGet();
+                    return Maybe.empty();
+                }
+                if (shouldRefresh(e, now)) {
+                    refresh(key);
+                }
+                return Maybe.just(e.value);
+            }
+        });
+    }
+
+    /**
+     * @return 同get，空结果发出NoSuchElementException
+     */
+    public Single<V> single(K key) {
+        return get(key).toSingle();
+    }
+
+    /**
+     * 移除一个键；正在进行的加载完成后仍会写入
+     */
+    public synchronized void invalidate(K key) {
+        if (window.remove(key) == null) {
+            main.remove(key);
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        window.clear();
+        main.clear();
+    }
+
+    public synchronized int size() {
+        return window.size() + main.size();
+    }
+
+    private synchronized Entry<V> lookup(K key, long now) {
+        if (sketch != null) {
+            sketch.increment(key);
+        }
+        Entry<V> e = window.get(key);
+        if (e == null) {
+            e = main.get(key);
+        }
+        if (e != null && now - e.writtenAt >= (e.value == null ? config.emptyTtlNanos : config.expireAfterWriteNanos)) {
+            invalidate(key);
+            expirations.incrementAndGet();
+            return null;
+        }
+        return e;
+    }
+
+    private synchronized boolean shouldRefresh(Entry<V> e, long now) {
+        if (config.refreshAfterWriteNanos == 0L || e.refreshing || now - e.writtenAt < config.refreshAfterWriteNanos) {
+            return false;
+        }
+        e.refreshing = true;
+        return true;
+    }
+
+    /**
+     * 后台重新加载，与并发的未命中共享同一次加载；失败时保留旧值，下次读取再尝试
+     */
+    private void refresh(final K key) {
+        refreshes.incrementAndGet();
+        flight.maybe(key, load(key)).subscribe(Functions.emptyConsumer(), new Consumer<Throwable>() {
+            @Override
+            public void accept(Throwable e) throws Exception {
+                log.warn("refresh of key {} failed", key, e);
+                synchronized (AsyncCache.this) {
+                    Entry<V> old = window.get(key);
+                    if (old == null) {
+                        old = main.get(key);
+                    }
+                    if (old != null) {
+                        old.refreshing = false;
+                    }
+                }
+            }
+        });
+    }
+
+    private Maybe<V> load(final K key) {
+        return Maybe.defer(new Callable<MaybeSource<V>>() {
+            @Override
+            public MaybeSource<V> call() throws Exception {
+                loads.incrementAndGet();
+                return ObjectHelper.requireNonNull(loader.apply(key), "The loader returned a null MaybeSource");
+            }
+        }).doOnSuccess(new Consumer<V>() {
+            @Override
+            public void accept(V value) throws Exception {
+                store(key, value);
+            }
+        }).doOnComplete(new Action() {
+            @Override
+            public void run() throws Exception {
+                if (config.emptyTtlNanos != 0L) {
+                    store(key, null);
+                } else {
+                    invalidate(key);
+                }
+            }
+        }).doOnError(new Consumer<Throwable>() {
+            @Override
+            public void accept(Throwable e) throws Exception {
+                loadFailures.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * @param value 为null时表示空结果
+     */
+    private synchronized void store(K key, V value) {
+        Entry<V> e = new Entry<V>(value, clock.now(TimeUnit.NANOSECONDS));
+        if (main.containsKey(key)) {
+            main.put(key, e);
+            return;
+        }
+        if (window.put(key, e) != null) {
+            return;
+        }
+        while (window.size() > windowCapacity) {
+            Iterator<Map.Entry<K, Entry<V>>> it = window.entrySet().iterator();
+            Map.Entry<K, Entry<V>> candidate = it.next();
+            it.remove();
+            if (main.size() < mainCapacity) {
+                main.put(candidate.getKey(), candidate.getValue());
+                continue;
+            }
+            evictions.incrementAndGet();
+            if (mainCapacity == 0) {
+                continue;
+            }
+            Iterator<Map.Entry<K, Entry<V>>> mit = main.entrySet().iterator();
+            Map.Entry<K, Entry<V>> victim = mit.next();
+            if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim.getKey())) {
+                mit.remove();
+                main.put(candidate.getKey(), candidate.getValue());
+            }
+        }
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    /**
+     * @return 命中缓存的空结果的次数，包含在hits中
+     */
+    public long emptyHits() {
+        return emptyHits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    /**
+     * @return 命中次数占读取次数的比例，没有读取时为0
+     */
+    public double hitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0L ? 0d : (double) h / total;
+    }
+
+    /**
+     * @return 调用loader的次数，包含后台刷新
+     */
+    public long loads() {
+        return loads.get();
+    }
+
+    public long loadFailures() {
+        return loadFailures.get();
+    }
+
+    public long refreshes() {
+        return refreshes.get();
+    }
+
+    /**
+     * @return 因容量上限被淘汰的键数
+     */
+    public long evictions() {
+        return evictions.get();
+    }
+
+    public long expirations() {
+        return expirations.get();
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> m = new LinkedHashMap<String, Object>();
+        m.put("size", size());
+        m.put("hits", hits());
+        m.put("emptyHits", emptyHits());
+        m.put("misses", misses());
+        m.put("hitRate", String.format("%.3f", hitRate()));
+        m.put("loads", loads());
+        m.put("loadFailures", loadFailures());
+        m.put("refreshes", refreshes());
+        m.put("evictions", evictions());
+        m.put("expirations", expirations());
+        return m;
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncCache{" + config.eviction + ", " + toMap() + '}';
+    }
+
+    /**
+     * 缓存的值与写入时刻，value为null表示空结果
+     */
+    static final class Entry<V> {
+
+        final V value;
+
+        final long writtenAt;
+
+        /** 已发起后台刷新，由缓存的锁保护 */
+        boolean refreshing;
+
+        Entry(V value, long writtenAt) {
+            this.value = value;
+            this.writtenAt = writtenAt;
+        }
+    }
+}
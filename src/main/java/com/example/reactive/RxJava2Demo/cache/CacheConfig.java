@@ -0,0 +1,89 @@
+package com.example.reactive.RxJava2Demo.cache;
+
+import io.reactivex.internal.functions.ObjectHelper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description : 异步缓存配置，实例不可变，配置方法返回新实例
+ * <pre>
+ *     CacheConfig.defaults()
+ *             .maximumSize(50_000)
+ *             .expireAfterWrite(5, TimeUnit.MINUTES)
+ *             .refreshAfterWrite(4, TimeUnit.MINUTES)
+ *             .cacheEmpty(30, TimeUnit.SECONDS)
+ * </pre>
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+public final class CacheConfig {
+
+    public enum Eviction {
+        /** 淘汰最久未访问的键 */
+        LRU,
+        /** 新键先进入LRU窗口，被挤出窗口时与主区的淘汰候选比较访问频率，频率更高者留下 */
+        TINY_LFU
+    }
+
+    final int maximumSize;
+
+    final Eviction eviction;
+
+    final long expireAfterWriteNanos;
+
+    final long refreshAfterWriteNanos;
+
+    final long emptyTtlNanos;
+
+    private CacheConfig(int maximumSize, Eviction eviction, long expireAfterWriteNanos,
+                        long refreshAfterWriteNanos, long emptyTtlNanos) {
+        this.maximumSize = maximumSize;
+        this.eviction = eviction;
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+        this.refreshAfterWriteNanos = refreshAfterWriteNanos;
+        this.emptyTtlNanos = emptyTtlNanos;
+    }
+
+    /**
+     * 最多10000个键，TINY_LFU淘汰，写入10分钟后过期，不提前刷新，不缓存空结果
+     */
+    public static CacheConfig defaults() {
+        return new CacheConfig(10_000, Eviction.TINY_LFU, TimeUnit.MINUTES.toNanos(10), 0L, 0L);
+    }
+
+    public CacheConfig maximumSize(int maximumSize) {
+        ObjectHelper.verifyPositive(maximumSize, "maximumSize");
+        return new CacheConfig(maximumSize, eviction, expireAfterWriteNanos, refreshAfterWriteNanos, emptyTtlNanos);
+    }
+
+    public CacheConfig eviction(Eviction eviction) {
+        ObjectHelper.requireNonNull(eviction, "eviction is null");
+        return new CacheConfig(maximumSize, eviction, expireAfterWriteNanos, refreshAfterWriteNanos, emptyTtlNanos);
+    }
+
+    /**
+     * @param duration 值写入后经过该时长过期，之后的读取重新加载
+     */
+    public CacheConfig expireAfterWrite(long duration, TimeUnit unit) {
+        ObjectHelper.verifyPositive(duration, "duration");
+        return new CacheConfig(maximumSize, eviction, unit.toNanos(duration), refreshAfterWriteNanos, emptyTtlNanos);
+    }
+
+    /**
+     * @param duration 值写入后经过该时长、过期之前被读取时，先返回旧值，同时在后台重新加载；应小于expireAfterWrite
+     */
+    public CacheConfig refreshAfterWrite(long duration, TimeUnit unit) {
+        ObjectHelper.verifyPositive(duration, "duration");
+        return new CacheConfig(maximumSize, eviction, expireAfterWriteNanos, unit.toNanos(duration), emptyTtlNanos);
+    }
+
+    /**
+     * @param duration 加载结果为空（Maybe没有值就完成）时也缓存该时长，期间的读取直接完成，不再加载
+     */
+    public CacheConfig cacheEmpty(long duration, TimeUnit unit) {
+        ObjectHelper.verifyPositive(duration, "duration");
+        return new CacheConfig(maximumSize, eviction, expireAfterWriteNanos, refreshAfterWriteNanos,
+                unit.toNanos(duration));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.reactive.RxJava2Demo.cache;
+
+/**
+ * @description : TinyLFU的访问频率估计，4行的Count-Min Sketch
+ * 每个键在每行对应一个计数器，估计值取4个计数器的最小值，计数器最大15；
+ * 累计增加次数达到10倍宽度时所有计数器减半，让频率随时间衰减，过去的热点最终会被新热点替换。
+ * 调用方负责同步。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+final class FrequencySketch {
+
+    private static final int DEPTH = 4;
+
+    private static final int MAX_COUNT = 15;
+
+    private static final long[] SEEDS = {
+            0x97cb3127L, 0xab8dbd75L, 0xc2b2ae35L, 0x9e3779b9L
+    };
+
+    private final int[] table;
+
+    private final int mask;
+
+    private final int sampleSize;
+
+    private int additions;
+
+    FrequencySketch(int maximumSize) {
+        int width = Integer.highestOneBit(Math.max(16, Math.min(maximumSize, 1 << 24)) - 1) << 1;
+        this.table = new int[width * DEPTH];
+        this.mask = width - 1;
+        this.sampleSize = width * 10;
+    }
+
+    int frequency(Object key) {
+        long hash = spread(key.hashCode());
+        int min = MAX_COUNT;
+        for (int i = 0; i < DEPTH; i++) {
+            min = Math.min(min, table[index(hash, i)]);
+        }
+        return min;
+    }
+
+    void increment(Object key) {
+        long hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < DEPTH; i++) {
+            int index = index(hash, i);
+            if (table[index] < MAX_COUNT) {
+                table[index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] >>>= 1;
+        }
+        additions >>>= 1;
+    }
+
+    private int index(long hash, int row) {
+        long h = spread(hash + SEEDS[row]);
+        return row * (mask + 1) + ((int) h & mask);
+    }
+
+    /**
+     * MurmurHash3的fmix64
+     */
+    private static long spread(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
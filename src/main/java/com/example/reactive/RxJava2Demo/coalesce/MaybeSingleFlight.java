@@ -0,0 +1,236 @@
+package com.example.reactive.RxJava2Demo.coalesce;
+
+import io.reactivex.Maybe;
+import io.reactivex.MaybeObserver;
+import io.reactivex.MaybeSource;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.disposables.DisposableHelper;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @description : 按键合并的Maybe，每次订阅加入该键的在途执行，没有时发起一次
+ * 观察者列表用写时复制的数组保存（同SingleCache）：TERMINATED表示结果已到达，DISPOSED表示已全部取消，
+ * 处于这两种状态的执行不再接受新观察者，订阅方会从注册表中移除它并重新发起。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+final class MaybeSingleFlight<K, V> extends Maybe<V> {
+
+    private final SingleFlight<K, V> registry;
+
+    private final K key;
+
+    private final MaybeSource<V> source;
+
+    MaybeSingleFlight(SingleFlight<K, V> registry, K key, MaybeSource<V> source) {
+        this.registry = registry;
+        this.key = key;
+        this.source = source;
+    }
+
+    @Override
+    protected void subscribeActual(MaybeObserver<? super V> observer) {
+        FlightObserver<V> inner = new FlightObserver<V>(observer);
+        observer.onSubscribe(inner);
+        for (;;) {
+            if (inner.isDisposed()) {
+                return;
+            }
+            FlightCall<K, V> call = registry.calls.get(key);
+            if (call == null) {
+                FlightCall<K, V> created = new FlightCall<K, V>(registry, key);
+                created.add(inner);
+                if (registry.calls.putIfAbsent(key, created) == null) {
+                    attach(inner, created);
+                    registry.executions.incrementAndGet();
+                    if (created.get() != FlightCall.DISPOSED) {
+                        source.subscribe(created);
+                    }
+                    return;
+                }
+                continue;
+            }
+            if (call.add(inner)) {
+                attach(inner, call);
+                registry.shared.incrementAndGet();
+                return;
+            }
+            registry.calls.remove(key, call);
+        }
+    }
+
+    /**
+     * 加入后才取消的观察者在这里补做退出
+     */
+    static <V> void attach(FlightObserver<V> inner, FlightCall<?, V> call) {
+        inner.call = call;
+        if (inner.isDisposed()) {
+            call.remove(inner);
+        }
+    }
+
+    static final class FlightCall<K, V> extends AtomicReference<FlightObserver<V>[]> implements MaybeObserver<V> {
+
+        private static final long serialVersionUID = -5823612937530172974L;
+
+        @SuppressWarnings("rawtypes")
+        static final FlightObserver[] EMPTY = new FlightObserver[0];
+
+        @SuppressWarnings("rawtypes")
+        static final FlightObserver[] TERMINATED = new FlightObserver[0];
+
+        @SuppressWarnings("rawtypes")
+        static final FlightObserver[] DISPOSED = new FlightObserver[0];
+
+        final SingleFlight<K, V> registry;
+
+        final K key;
+
+        final AtomicReference<Disposable> upstream = new AtomicReference<Disposable>();
+
+        @SuppressWarnings("unchecked")
+        FlightCall(SingleFlight<K, V> registry, K key) {
+            super(EMPTY);
+            this.registry = registry;
+            this.key = key;
+        }
+
+        boolean add(FlightObserver<V> inner) {
+            for (;;) {
+                FlightObserver<V>[] a = get();
+                if (a == TERMINATED || a == DISPOSED) {
+                    return false;
+                }
+                int n = a.length;
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                FlightObserver<V>[] b = new FlightObserver[n + 1];
+                System.arraycopy(a, 0, b, 0, n);
+                b[n] = inner;
+                if (compareAndSet(a, b)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * 观察者退出共享，最后一个退出时取消上游
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        void remove(FlightObserver<V> inner) {
+            for (;;) {
+                FlightObserver<V>[] a = get();
+                int n = a.length;
+                if (n == 0) {
+                    return;
+                }
+                int j = -1;
+                for (int i = 0; i < n; i++) {
+                    if (a[i] == inner) {
+                        j = i;
+                        break;
+                    }
+                }
+                if (j < 0) {
+                    return;
+                }
+                FlightObserver<V>[] b;
+                if (n == 1) {
+                    b = DISPOSED;
+                } else {
+                    b = new FlightObserver[n - 1];
+                    System.arraycopy(a, 0, b, 0, j);
+                    System.arraycopy(a, j + 1, b, j, n - j - 1);
+                }
+                if (compareAndSet(a, b)) {
+                    if (b == DISPOSED) {
+                        registry.calls.remove(key, this);
+                        registry.cancelled.incrementAndGet();
+                        DisposableHelper.dispose(upstream);
+                    }
+                    return;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        FlightObserver<V>[] terminate() {
+            registry.calls.remove(key, this);
+            return getAndSet(TERMINATED);
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            DisposableHelper.setOnce(upstream, d);
+        }
+
+        @Override
+        public void onSuccess(V value) {
+            for (FlightObserver<V> inner : terminate()) {
+                inner.onSuccess(value);
+            }
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            for (FlightObserver<V> inner : terminate()) {
+                inner.onError(e);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            for (FlightObserver<V> inner : terminate()) {
+                inner.onComplete();
+            }
+        }
+    }
+
+    static final class FlightObserver<V> extends AtomicBoolean implements Disposable {
+
+        private static final long serialVersionUID = 2914052735107683254L;
+
+        final MaybeObserver<? super V> downstream;
+
+        volatile FlightCall<?, V> call;
+
+        FlightObserver(MaybeObserver<? super V> downstream) {
+            this.downstream = downstream;
+        }
+
+        void onSuccess(V value) {
+            if (!get()) {
+                downstream.onSuccess(value);
+            }
+        }
+
+        void onError(Throwable e) {
+            if (!get()) {
+                downstream.onError(e);
+            }
+        }
+
+        void onComplete() {
+            if (!get()) {
+                downstream.onComplete();
+            }
+        }
+
+        @Override
+        public void dispose() {
+            if (compareAndSet(false, true)) {
+                FlightCall<?, V> c = call;
+                if (c != null) {
+                    c.remove(this);
+                }
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return get();
+        }
+    }
+}
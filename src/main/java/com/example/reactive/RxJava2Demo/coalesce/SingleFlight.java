@@ -0,0 +1,83 @@
+package com.example.reactive.RxJava2Demo.coalesce;
+
+import io.reactivex.Maybe;
+import io.reactivex.MaybeSource;
+import io.reactivex.Single;
+import io.reactivex.SingleSource;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description : 按键合并并发请求，参考Go的singleflight
+ * <pre>
+ *     SingleFlight&lt;Long, User&gt; users = new SingleFlight&lt;Long, User&gt;();
+ *     users.single(id, Single.fromCallable(() -> dao.load(id)).subscribeOn(Schedulers.io()))
+ * </pre>
+ * 同一个键同时只有一次在途执行：执行期间订阅同一个键的观察者共享这次执行的结果，不再订阅上游；
+ * 结果到达后立即移除该键，之后的订阅会发起新的执行（不缓存结果）。
+ * 取消按引用计数：某个观察者取消只是退出共享，最后一个观察者取消时才取消上游执行并移除该键。
+ * 返回的Single/Maybe每次订阅都重新按键查找，可以保存后重复使用。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+public final class SingleFlight<K, V> {
+
+    final ConcurrentMap<K, MaybeSingleFlight.FlightCall<K, V>> calls =
+            new ConcurrentHashMap<K, MaybeSingleFlight.FlightCall<K, V>>();
+
+    final AtomicLong executions = new AtomicLong();
+
+    final AtomicLong shared = new AtomicLong();
+
+    final AtomicLong cancelled = new AtomicLong();
+
+    public Single<V> single(K key, SingleSource<V> source) {
+        ObjectHelper.requireNonNull(source, "source is null");
+        return maybe(key, Single.wrap(source).toMaybe()).toSingle();
+    }
+
+    public Maybe<V> maybe(K key, MaybeSource<V> source) {
+        ObjectHelper.requireNonNull(key, "key is null");
+        ObjectHelper.requireNonNull(source, "source is null");
+        return RxJavaPlugins.onAssembly(new MaybeSingleFlight<K, V>(this, key, source));
+    }
+
+    /**
+     * @return 正在执行的键数
+     */
+    public int inFlight() {
+        return calls.size();
+    }
+
+    /**
+     * @return 订阅上游的次数
+     */
+    public long executions() {
+        return executions.get();
+    }
+
+    /**
+     * @return 加入已有执行、没有订阅上游的订阅数
+     */
+    public long shared() {
+        return shared.get();
+    }
+
+    /**
+     * @return 所有观察者都取消、上游被取消的执行数
+     */
+    public long cancelled() {
+        return cancelled.get();
+    }
+
+    @Override
+    public String toString() {
+        return "SingleFlight{inFlight=" + inFlight() + ", executions=" + executions()
+                + ", shared=" + shared() + ", cancelled=" + cancelled() + '}';
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.reactive.RxJava2Demo.distinct;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * @description : 基于布隆过滤器的去重，供distinct(keySelector, collectionSupplier)使用
+ * 不保存键本身，每代m位；布隆过滤器只有假阳性：从未出现过的键有fpp的概率被误判为重复而过滤，重复的键一定被过滤。
+ * 无限流会让单个过滤器逐渐填满、误判率升高，所以与PrimitiveKeySet一样分两代：
+ * 当前代放入expectedInsertions个键后轮换，查询两代（误判率上限约为2 * fpp），在上一代命中的键写回当前代。
+ * 内存固定为2 * m位，m = -n * ln(fpp) / ln(2)^2，哈希函数个数k = m / n * ln(2)。
+ * 所有位置都由32位的key.hashCode()推出，hashCode相同的不同键无法区分，会在fpp之外额外被误判为重复。
+ * 只支持add/clear/size，不支持遍历。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:30
+ * @modified by:
+ */
+final class BloomKeySet<K> extends AbstractCollection<K> {
+
+    final int expectedInsertions;
+
+    final int hashFunctions;
+
+    /** 每代的位数，64的倍数 */
+    final long bits;
+
+    long[] current;
+
+    long[] previous;
+
+    int currentInsertions;
+
+    int previousInsertions;
+
+    BloomKeySet(int expectedInsertions, double fpp) {
+        this.expectedInsertions = expectedInsertions;
+        double m = -expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2));
+        int words = (int) Math.max(1L, (long) Math.ceil(m / 64d));
+        this.bits = words * 64L;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+        this.current = new long[words];
+        this.previous = new long[words];
+    }
+
+    @Override
+    public boolean add(K key) {
+        long h = KeyHashing.mix(key.hashCode());
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+        if (mightContain(current, h1, h2)) {
+            return false;
+        }
+        boolean seen = mightContain(previous, h1, h2);
+        if (currentInsertions >= expectedInsertions) {
+            rotate();
+        }
+        put(current, h1, h2);
+        currentInsertions++;
+        return !seen;
+    }
+
+    /**
+     * 双重哈希：第i个位置为h1 + i * h2
+     */
+    private boolean mightContain(long[] table, int h1, int h2) {
+        for (int i = 1; i <= hashFunctions; i++) {
+            long index = index(h1 + i * h2);
+            if ((table[(int) (index >>> 6)] & (1L << index)) == 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void put(long[] table, int h1, int h2) {
+        for (int i = 1; i <= hashFunctions; i++) {
+            long index = index(h1 + i * h2);
+            table[(int) (index >>> 6)] |= 1L << index;
+        }
+    }
+
+    private long index(int combined) {
+        return (combined & 0x7fffffffL) % bits;
+    }
+
+    private void rotate() {
+        long[] t = previous;
+        Arrays.fill(t, 0L);
+        previous = current;
+        previousInsertions = currentInsertions;
+        current = t;
+        currentInsertions = 0;
+    }
+
+    /**
+     * @return 放入两代的键数（含被误判前放入的），不是精确的不同键数
+     */
+    @Override
+    public int size() {
+        return currentInsertions + previousInsertions;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(current, 0L);
+        Arrays.fill(previous, 0L);
+        currentInsertions = 0;
+        previousInsertions = 0;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        throw new UnsupportedOperationException("BloomKeySet only supports add/clear/size");
+    }
+
+    long memoryBytes() {
+        return bits / 4L;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.reactive.RxJava2Demo.distinct;
+
+import io.reactivex.Scheduler;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.schedulers.Schedulers;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description : 内存有界的distinct
+ * distinct()默认每个订阅一个HashSet，保存出现过的所有键，无限流上会一直增长。
+ * 这里提供的集合都作为distinct(keySelector, collectionSupplier)的第二个参数使用，Observable与Flowable通用：
+ * <pre>
+ *     observable.distinct(Functions.identity(), BoundedDistinct.lru(10_000))
+ *     flowable.distinct(Order::getId, BoundedDistinct.primitive(1_000_000))
+ * </pre>
+ * primitive：键为整数，long数组开放寻址，内存固定；
+ * lru：保留最近出现的maxKeys个键；
+ * timeWindow：键放行后的一段时间内去重；
+ * bloom：不保存键，内存最小，有可配置的误判率（新键被当作重复过滤）。
+ * 除timeWindow外，超出容量后较早的键可能被再次放行。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:30
+ * @modified by:
+ */
+public final class BoundedDistinct {
+
+    /** timeWindow未指定maxKeys时的键数上限 */
+    public static final int DEFAULT_WINDOW_MAX_KEYS = 1 << 20;
+
+    private BoundedDistinct() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    /**
+     * @param maxKeys 每代的键数，两代共占用 32 * maxKeys 到 64 * maxKeys 字节（槽数向上取整为2的幂），最大为2^29
+     */
+    public static Callable<Collection<Number>> primitive(final int maxKeys) {
+        PrimitiveKeySet.checkMaxKeys(maxKeys);
+        return new Callable<Collection<Number>>() {
+            @Override
+            public Collection<Number> call() {
+                return new PrimitiveKeySet(maxKeys);
+            }
+        };
+    }
+
+    public static <K> Callable<Collection<K>> lru(final int maxKeys) {
+        ObjectHelper.verifyPositive(maxKeys, "maxKeys");
+        return new Callable<Collection<K>>() {
+            @Override
+            public Collection<K> call() {
+                return new LruKeySet<K>(maxKeys);
+            }
+        };
+    }
+
+    public static <K> Callable<Collection<K>> timeWindow(long window, TimeUnit unit) {
+        return timeWindow(window, unit, DEFAULT_WINDOW_MAX_KEYS, Schedulers.computation());
+    }
+
+    /**
+     * @param window 键放行后去重的时长
+     * @param maxKeys 窗口内最多保留的键数，超出时淘汰最早放行的键
+     * @param clock 提供当前时间的调度器
+     */
+    public static <K> Callable<Collection<K>> timeWindow(final long window, final TimeUnit unit, final int maxKeys,
+                                                          final Scheduler clock) {
+        ObjectHelper.verifyPositive(window, "window");
+        ObjectHelper.verifyPositive(maxKeys, "maxKeys");
+        ObjectHelper.requireNonNull(unit, "unit is null");
+        ObjectHelper.requireNonNull(clock, "clock is null");
+        return new Callable<Collection<K>>() {
+            @Override
+            public Collection<K> call() {
+                return new TimeWindowKeySet<K>(window, unit, maxKeys, clock);
+            }
+        };
+    }
+
+    /**
+     * @param expectedInsertions 每代容纳的键数
+     * @param fpp 单代的误判率，0~1之间；只对hashCode不同的键成立，
+     *            位置由32位的key.hashCode()推出，hashCode相同的不同键中后出现的总会被判为重复，误判率会高于fpp
+     */
+    public static <K> Callable<Collection<K>> bloom(final int expectedInsertions, final double fpp) {
+        ObjectHelper.verifyPositive(expectedInsertions, "expectedInsertions");
+        if (!(fpp > 0d && fpp < 1d)) {
+            throw new IllegalArgumentException("0 < fpp < 1 required but it was " + fpp);
+        }
+        return new Callable<Collection<K>>() {
+            @Override
+            public Collection<K> call() {
+                return new BloomKeySet<K>(expectedInsertions, fpp);
+            }
+        };
+    }
+}
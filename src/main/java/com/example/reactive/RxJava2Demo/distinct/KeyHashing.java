@@ -0,0 +1,26 @@
+package com.example.reactive.RxJava2Demo.distinct;
+
+/**
+ * @description : 键的哈希扰动
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:30
+ * @modified by:
+ */
+final class KeyHashing {
+
+    private KeyHashing() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    /**
+     * MurmurHash3的fmix64，让相邻的整数键分散到不同的槽
+     */
+    static long mix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.reactive.RxJava2Demo.distinct;
+
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @description : 最多保留maxKeys个键的LRU集合，供distinct(keySelector, collectionSupplier)使用
+ * 按访问顺序排列，重复出现的键移到队尾；超出上限时淘汰最久未出现的键，被淘汰的键再次出现时会被放行。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:30
+ * @modified by:
+ */
+final class LruKeySet<K> extends AbstractCollection<K> {
+
+    final LinkedHashMap<K, Boolean> map;
+
+    LruKeySet(final int maxKeys) {
+        this.map = new LinkedHashMap<K, Boolean>(16, 0.75f, true) {
+            private static final long serialVersionUID = -1847202498547398817L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Boolean> eldest) {
+                return size() > maxKeys;
+            }
+        };
+    }
+
+    @Override
+    public boolean add(K key) {
+        return map.put(key, Boolean.TRUE) == null;
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return map.keySet().iterator();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.reactive.RxJava2Demo.distinct;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * @description : 以long保存键的开放寻址集合，供distinct(keySelector, collectionSupplier)使用
+ * HashSet每个键要一个HashMap.Node加一个装箱对象，约48字节；这里每个槽8字节，线性探测，装载因子不超过0.5，
+ * 表的槽数为不小于2 * maxKeys的2的幂，加上两代，每个键实际占用32~64字节，没有装箱对象和GC压力。
+ * 容量有上限：当前代的键数达到maxKeys时，当前代变为上一代、上一代清空后作为新的当前代，
+ * 在上一代中查到的键会写回当前代。内存固定为两张表，近期出现过的键不会被遗忘，更早的键可能再次放行。
+ * 只支持add/clear/size，不支持遍历。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:30
+ * @modified by:
+ */
+final class PrimitiveKeySet extends AbstractCollection<Number> {
+
+    /** 表示空槽；键恰好等于它时用单独的标记记录 */
+    static final long EMPTY = Long.MIN_VALUE;
+
+    /** maxKeys的上限，此时每张表有2^30个槽，再大槽数会超出数组长度 */
+    static final int MAX_KEYS = 1 << 29;
+
+    final int maxKeys;
+
+    final int mask;
+
+    long[] current;
+
+    long[] previous;
+
+    boolean currentHasEmptyKey;
+
+    boolean previousHasEmptyKey;
+
+    int currentSize;
+
+    int previousSize;
+
+    PrimitiveKeySet(int maxKeys) {
+        checkMaxKeys(maxKeys);
+        this.maxKeys = maxKeys;
+        int capacity = (int) (Long.highestOneBit(Math.max(2L, maxKeys) * 2 - 1) << 1);
+        this.mask = capacity - 1;
+        this.current = newTable(capacity);
+        this.previous = newTable(capacity);
+    }
+
+    static void checkMaxKeys(int maxKeys) {
+        if (maxKeys <= 0 || maxKeys > MAX_KEYS) {
+            throw new IllegalArgumentException("0 < maxKeys <= " + MAX_KEYS + " required but it was " + maxKeys);
+        }
+    }
+
+    private static long[] newTable(int capacity) {
+        long[] table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    @Override
+    public boolean add(Number key) {
+        long k = key.longValue();
+        if (contains(current, currentHasEmptyKey, k)) {
+            return false;
+        }
+        boolean seen = contains(previous, previousHasEmptyKey, k);
+        insert(k);
+        return !seen;
+    }
+
+    private boolean contains(long[] table, boolean hasEmptyKey, long k) {
+        if (k == EMPTY) {
+            return hasEmptyKey;
+        }
+        int m = mask;
+        int i = (int) KeyHashing.mix(k) & m;
+        for (;;) {
+            long v = table[i];
+            if (v == k) {
+                return true;
+            }
+            if (v == EMPTY) {
+                return false;
+            }
+            i = (i + 1) & m;
+        }
+    }
+
+    private void insert(long k) {
+        if (currentSize >= maxKeys) {
+            rotate();
+        }
+        if (k == EMPTY) {
+            currentHasEmptyKey = true;
+        } else {
+            long[] table = current;
+            int m = mask;
+            int i = (int) KeyHashing.mix(k) & m;
+            while (table[i] != EMPTY) {
+                i = (i + 1) & m;
+            }
+            table[i] = k;
+        }
+        currentSize++;
+    }
+
+    private void rotate() {
+        long[] t = previous;
+        Arrays.fill(t, EMPTY);
+        previous = current;
+        previousHasEmptyKey = currentHasEmptyKey;
+        previousSize = currentSize;
+        current = t;
+        currentHasEmptyKey = false;
+        currentSize = 0;
+    }
+
+    @Override
+    public int size() {
+        return currentSize + previousSize;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(current, EMPTY);
+        Arrays.fill(previous, EMPTY);
+        currentHasEmptyKey = false;
+        previousHasEmptyKey = false;
+        currentSize = 0;
+        previousSize = 0;
+    }
+
+    @Override
+    public Iterator<Number> iterator() {
+        throw new UnsupportedOperationException("PrimitiveKeySet only supports add/clear/size");
+    }
+
+    /**
+     * @return 两张表占用的字节数
+     */
+    long memoryBytes() {
+        return 16L * (mask + 1);
+    }
+}
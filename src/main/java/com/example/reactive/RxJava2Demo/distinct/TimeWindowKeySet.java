@@ -0,0 +1,76 @@
+package com.example.reactive.RxJava2Demo.distinct;
+
+import io.reactivex.Scheduler;
+
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description : 时间窗口内去重的集合，供distinct(keySelector, collectionSupplier)使用
+ * 键第一次放行后的window时间内重复出现会被过滤，窗口不因重复出现而延长；过期的键在下次add时从队头清除。
+ * 键数同时受maxKeys约束，保留的键数不超过 min(到达速率 * window, maxKeys)。时间取自scheduler.now()，便于用TestScheduler验证。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:30
+ * @modified by:
+ */
+final class TimeWindowKeySet<K> extends AbstractCollection<K> {
+
+    /** 键 -> 放行时刻（毫秒），按放行顺序排列 */
+    final LinkedHashMap<K, Long> map = new LinkedHashMap<K, Long>();
+
+    final long windowMillis;
+
+    final int maxKeys;
+
+    final Scheduler clock;
+
+    TimeWindowKeySet(long window, TimeUnit unit, int maxKeys, Scheduler clock) {
+        this.windowMillis = unit.toMillis(window);
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean add(K key) {
+        long now = clock.now(TimeUnit.MILLISECONDS);
+        evict(now);
+        if (map.containsKey(key)) {
+            return false;
+        }
+        if (map.size() >= maxKeys) {
+            Iterator<K> it = map.keySet().iterator();
+            it.next();
+            it.remove();
+        }
+        map.put(key, now);
+        return true;
+    }
+
+    private void evict(long now) {
+        Iterator<Map.Entry<K, Long>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().getValue() + windowMillis > now) {
+                break;
+            }
+            it.remove();
+        }
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return map.keySet().iterator();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.reactive.RxJava2Demo.exception;
+
+/**
+ * @description : 熔断器处于打开状态（或半开状态的试探名额已用完）时，订阅被直接拒绝
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+public final class CallNotPermittedException extends RuntimeException {
+
+    private static final long serialVersionUID = 4720631257395842910L;
+
+    /**
+     * Constructs a CallNotPermittedException with a message only.
+     * @param message the message
+     */
+    public CallNotPermittedException(String message) {
+        super(message);
+    }
+}
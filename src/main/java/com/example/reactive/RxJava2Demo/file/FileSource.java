@@ -0,0 +1,68 @@
+package com.example.reactive.RxJava2Demo.file;
+
+import io.reactivex.Flowable;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+
+/**
+ * @description : 基于内存映射的文件读取源，按块或按行发出文件内容的只读视图，不复制数据
+ * <pre>
+ *     FileSource.lines(new File("/data/access.log"))
+ *             .subscribeOn(Schedulers.io())
+ *             .map(line -> parse(line))
+ * </pre>
+ * 在Flowable.create(BUFFER)中循环readLine()时，读取速度不受下游约束，下游慢时整个文件会被读进堆里。
+ * 这里按窗口（默认64MB）映射文件，只在下游有请求时向前推进：request(n)恰好切出n块/n行，
+ * 当前窗口用完且仍有请求时才映射下一个窗口，预读只由操作系统对映射区域进行。
+ * 发出的ByteBuffer是映射区域的只读切片，堆上只有ByteBuffer对象本身，文件再大堆占用也不变；
+ * 切片在下游处理完后即可丢弃，窗口不再被引用后随GC解除映射，因此不需要缓冲池。需要长期保存内容时应自行复制。
+ * 数据在请求线程上发出，用subscribeOn指定读取线程。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+public final class FileSource {
+
+    /** 默认块大小 64KB */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    /** 默认映射窗口大小 64MB */
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private FileSource() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    public static Flowable<ByteBuffer> chunks(File file) {
+        return chunks(file, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize 每块的字节数，最后一块可能不足
+     */
+    public static Flowable<ByteBuffer> chunks(File file, int chunkSize) {
+        ObjectHelper.requireNonNull(file, "file is null");
+        ObjectHelper.verifyPositive(chunkSize, "chunkSize");
+        int windowSize = Math.max(1, DEFAULT_WINDOW_SIZE / chunkSize) * chunkSize;
+        return RxJavaPlugins.onAssembly(new FlowableFileSource(file, false, chunkSize, windowSize));
+    }
+
+    /**
+     * 按'\n'切分，行尾的'\r'一并去掉；文件以'\n'结尾时不会多出一个空行
+     */
+    public static Flowable<ByteBuffer> lines(File file) {
+        return lines(file, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param windowSize 映射窗口大小，单行不能超过该大小
+     */
+    public static Flowable<ByteBuffer> lines(File file, int windowSize) {
+        ObjectHelper.requireNonNull(file, "file is null");
+        ObjectHelper.verifyPositive(windowSize, "windowSize");
+        return RxJavaPlugins.onAssembly(new FlowableFileSource(file, true, 0, windowSize));
+    }
+}
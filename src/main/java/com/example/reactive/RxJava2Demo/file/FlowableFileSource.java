@@ -0,0 +1,283 @@
+package com.example.reactive.RxJava2Demo.file;
+
+import io.reactivex.Flowable;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.internal.subscriptions.EmptySubscription;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.internal.util.BackpressureHelper;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description : 按请求量切分内存映射窗口的文件源，说明见FileSource
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+final class FlowableFileSource extends Flowable<ByteBuffer> {
+
+    private final File file;
+
+    private final boolean lines;
+
+    private final int chunkSize;
+
+    private final int windowSize;
+
+    FlowableFileSource(File file, boolean lines, int chunkSize, int windowSize) {
+        this.file = file;
+        this.lines = lines;
+        this.chunkSize = chunkSize;
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super ByteBuffer> s) {
+        FileChannel channel;
+        long size;
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            size = channel.size();
+        } catch (Throwable ex) {
+            Exceptions.throwIfFatal(ex);
+            EmptySubscription.error(ex, s);
+            return;
+        }
+        s.onSubscribe(new FileSubscription(s, channel, size, lines, chunkSize, windowSize));
+    }
+
+    static final class FileSubscription extends AtomicLong implements Subscription {
+
+        private static final long serialVersionUID = 7520946120548193164L;
+
+        private static final long NEWLINES = 0x0a0a0a0a0a0a0a0aL;
+
+        final Subscriber<? super ByteBuffer> downstream;
+
+        final FileChannel channel;
+
+        final long fileSize;
+
+        final boolean lines;
+
+        final int chunkSize;
+
+        final int windowSize;
+
+        volatile boolean cancelled;
+
+        /** 以下只在发射循环中访问 */
+        MappedByteBuffer window;
+
+        /** 当前窗口的复制视图，切片时调整其position/limit */
+        ByteBuffer view;
+
+        /** 当前窗口的小端视图，只用于查找换行符 */
+        ByteBuffer scan;
+
+        /** 当前窗口在文件中的起始位置 */
+        long windowStart;
+
+        /** 下一块/下一行在窗口中的起始位置 */
+        int position;
+
+        FileSubscription(Subscriber<? super ByteBuffer> downstream, FileChannel channel, long fileSize,
+                         boolean lines, int chunkSize, int windowSize) {
+            this.downstream = downstream;
+            this.channel = channel;
+            this.fileSize = fileSize;
+            this.lines = lines;
+            this.chunkSize = chunkSize;
+            this.windowSize = windowSize;
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                if (BackpressureHelper.add(this, n) == 0L) {
+                    emit(n);
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                // 没有线程在发射循环中时由这里关闭通道，否则交给发射循环；请求量不再归0，之后的request不会再进入循环
+                if (BackpressureHelper.add(this, 1L) == 0L) {
+                    close();
+                }
+            }
+        }
+
+        /**
+         * 同FlowableFromIterable：只有把请求量从0加上去的线程进入循环
+         */
+        void emit(long r) {
+            Subscriber<? super ByteBuffer> a = downstream;
+            long e = 0L;
+            for (;;) {
+                while (e != r) {
+                    if (cancelled) {
+                        close();
+                        return;
+                    }
+                    ByteBuffer next;
+                    try {
+                        next = lines ? nextLine() : nextChunk();
+                    } catch (Throwable ex) {
+                        Exceptions.throwIfFatal(ex);
+                        close();
+                        a.onError(ex);
+                        return;
+                    }
+                    if (next == null) {
+                        close();
+                        a.onComplete();
+                        return;
+                    }
+                    a.onNext(next);
+                    e++;
+                }
+                r = get();
+                if (e == r) {
+                    if (cancelled) {
+                        close();
+                        return;
+                    }
+                    // 下一个请求到来前窗口保持映射，请求为0时不读取也不映射
+                    if (position == (window == null ? 0 : window.limit()) && windowStart + position >= fileSize) {
+                        close();
+                        a.onComplete();
+                        return;
+                    }
+                    r = addAndGet(-e);
+                    if (r == 0L) {
+                        return;
+                    }
+                    e = 0L;
+                }
+            }
+        }
+
+        /**
+         * @return 下一块，文件读完时为null
+         */
+        ByteBuffer nextChunk() throws IOException {
+            MappedByteBuffer w = window;
+            if (w == null || position == w.limit()) {
+                if (!map(w == null ? 0L : windowStart + w.limit())) {
+                    return null;
+                }
+                w = window;
+            }
+            int end = Math.min(position + chunkSize, w.limit());
+            ByteBuffer chunk = slice(position, end);
+            position = end;
+            return chunk;
+        }
+
+        /**
+         * @return 下一行，不含行尾的"\n"或"\r\n"，文件读完时为null
+         */
+        ByteBuffer nextLine() throws IOException {
+            MappedByteBuffer w = window;
+            if (w == null && !map(0L)) {
+                return null;
+            }
+            w = window;
+            for (;;) {
+                int limit = w.limit();
+                int start = position;
+                int i = indexOfNewline(scan, start, limit);
+                if (i >= 0) {
+                    position = i + 1;
+                    return slice(start, i > start && w.get(i - 1) == '\r' ? i - 1 : i);
+                }
+                long end = windowStart + limit;
+                if (end >= fileSize) {
+                    if (start == limit) {
+                        return null;
+                    }
+                    position = limit;
+                    return slice(start, w.get(limit - 1) == '\r' ? limit - 1 : limit);
+                }
+                if (start == 0) {
+                    throw new IOException("Line at offset " + windowStart + " is longer than the window size "
+                            + windowSize);
+                }
+                // 行跨越窗口边界：从行首重新映射
+                map(windowStart + start);
+                w = window;
+            }
+        }
+
+        /**
+         * 映射从fileOffset开始的窗口
+         * @return 文件已读完时为false
+         */
+        private boolean map(long fileOffset) throws IOException {
+            if (fileOffset >= fileSize) {
+                return false;
+            }
+            int size = (int) Math.min(windowSize, fileSize - fileOffset);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, fileOffset, size);
+            view = window.duplicate();
+            scan = window.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            windowStart = fileOffset;
+            position = 0;
+            return true;
+        }
+
+        private ByteBuffer slice(int start, int end) {
+            ByteBuffer v = view;
+            v.limit(end);
+            v.position(start);
+            return v.slice();
+        }
+
+        /**
+         * 每次比较8个字节（SWAR）：与'\n'异或后为0的字节即换行符，用"减1且原最高位为0"的技巧找出0字节。
+         * 借位只会从低位字节传向高位字节，按小端读取时地址最小的标记字节一定是真正的换行符
+         * @param w 小端序的视图
+         * @return 换行符在窗口中的位置，没有时为-1
+         */
+        static int indexOfNewline(ByteBuffer w, int from, int to) {
+            int i = from;
+            for (; i + 8 <= to; i += 8) {
+                long x = w.getLong(i) ^ NEWLINES;
+                long found = (x - 0x0101010101010101L) & ~x & 0x8080808080808080L;
+                if (found != 0L) {
+                    return i + (Long.numberOfTrailingZeros(found) >>> 3);
+                }
+            }
+            for (; i < to; i++) {
+                if (w.get(i) == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void close() {
+            window = null;
+            view = null;
+            scan = null;
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // 只读通道，关闭失败不影响已发出的数据
+            }
+        }
+    }
+}
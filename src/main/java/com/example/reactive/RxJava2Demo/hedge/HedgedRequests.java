@@ -0,0 +1,204 @@
+package com.example.reactive.RxJava2Demo.hedge;
+
+import com.example.reactive.RxJava2Demo.scheduler.LatencyHistogram;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+import io.reactivex.SingleSource;
+import io.reactivex.SingleTransformer;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.schedulers.Schedulers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description : Single的对冲请求
+ * <pre>
+ *     HedgedRequests hedging = HedgedRequests.percentile(0.95, 50, TimeUnit.MILLISECONDS, 5);
+ *     single.compose(hedging.&lt;Price&gt;single())
+ * </pre>
+ * 订阅后经过hedgeDelay主请求仍未成功时，再订阅一次上游作为备份请求，取先成功的一个，另一个被取消。
+ * hedgeDelay为固定值，或成功请求耗时的分位数（样本不足minSamples时使用初始值）；
+ * 分位数取自LatencyHistogram，为所在二进制桶的上界，最多偏大一倍，偏大只会让对冲更少。
+ * 对冲次数不超过总请求数的maxHedgePercent：每个请求存入maxHedgePercent%个令牌，每次对冲消耗一个，
+ * 令牌最多积攒burst个，长时间平稳后也不会集中爆发大量对冲。
+ * 主请求在对冲前失败时直接把错误交给下游；对冲后两个请求都失败时交出后失败的错误。
+ * 上游每次被订阅都应发出一次独立的请求，且请求是幂等的。
+ * 同一个实例可以被多条调用链共享，它们共用耗时统计与对冲配额。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+public final class HedgedRequests {
+
+    private static final long MILLI = 1000L;
+
+    final Scheduler scheduler;
+
+    private final long fixedDelayNanos;
+
+    private final double quantile;
+
+    private final long minSamples;
+
+    private final long depositMilliTokens;
+
+    private final long maxMilliTokens;
+
+    final LatencyHistogram latency = new LatencyHistogram();
+
+    private final AtomicLong milliTokens;
+
+    final AtomicLong requests = new AtomicLong();
+
+    final AtomicLong hedges = new AtomicLong();
+
+    final AtomicLong hedgeWins = new AtomicLong();
+
+    final AtomicLong capped = new AtomicLong();
+
+    private HedgedRequests(long fixedDelayNanos, double quantile, long minSamples, double maxHedgePercent,
+                           int burst, Scheduler scheduler) {
+        if (maxHedgePercent <= 0d || maxHedgePercent > 100d) {
+            throw new IllegalArgumentException("maxHedgePercent must be in (0, 100] but it was " + maxHedgePercent);
+        }
+        ObjectHelper.verifyPositive(burst, "burst");
+        this.fixedDelayNanos = fixedDelayNanos;
+        this.quantile = quantile;
+        this.minSamples = minSamples;
+        this.depositMilliTokens = Math.max(1L, (long) (maxHedgePercent * MILLI / 100d));
+        this.maxMilliTokens = burst * MILLI;
+        this.milliTokens = new AtomicLong(0L);
+        this.scheduler = ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+    }
+
+    /**
+     * 主请求delay后仍未成功时对冲，对冲最多积攒10次，在computation调度器上计时
+     */
+    public static HedgedRequests fixed(long delay, TimeUnit unit, double maxHedgePercent) {
+        return fixed(delay, unit, maxHedgePercent, 10, Schedulers.computation());
+    }
+
+    public static HedgedRequests fixed(long delay, TimeUnit unit, double maxHedgePercent, int burst,
+                                       Scheduler scheduler) {
+        ObjectHelper.verifyPositive(delay, "delay");
+        return new HedgedRequests(unit.toNanos(delay), 0d, Long.MAX_VALUE, maxHedgePercent, burst, scheduler);
+    }
+
+    /**
+     * 按成功请求耗时的quantile分位数对冲，前100个样本使用initialDelay
+     */
+    public static HedgedRequests percentile(double quantile, long initialDelay, TimeUnit unit,
+                                            double maxHedgePercent) {
+        return percentile(quantile, initialDelay, unit, 100, maxHedgePercent, 10, Schedulers.computation());
+    }
+
+    public static HedgedRequests percentile(double quantile, long initialDelay, TimeUnit unit, long minSamples,
+                                            double maxHedgePercent, int burst, Scheduler scheduler) {
+        if (quantile <= 0d || quantile >= 1d) {
+            throw new IllegalArgumentException("quantile must be in (0, 1) but it was " + quantile);
+        }
+        ObjectHelper.verifyPositive(initialDelay, "initialDelay");
+        return new HedgedRequests(unit.toNanos(initialDelay), quantile, minSamples, maxHedgePercent, burst,
+                scheduler);
+    }
+
+    public <T> SingleTransformer<T, T> single() {
+        return new SingleTransformer<T, T>() {
+            @Override
+            public SingleSource<T> apply(Single<T> upstream) {
+                return RxJavaPlugins.onAssembly(new SingleHedged<T>(upstream, HedgedRequests.this));
+            }
+        };
+    }
+
+    /**
+     * 新请求到达，存入对冲配额
+     */
+    void onRequest() {
+        requests.incrementAndGet();
+        for (;;) {
+            long t = milliTokens.get();
+            if (t >= maxMilliTokens) {
+                return;
+            }
+            if (milliTokens.compareAndSet(t, Math.min(maxMilliTokens, t + depositMilliTokens))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return 配额足够、可以发出备份请求时为true
+     */
+    boolean tryHedge() {
+        for (;;) {
+            long t = milliTokens.get();
+            if (t < MILLI) {
+                capped.incrementAndGet();
+                return false;
+            }
+            if (milliTokens.compareAndSet(t, t - MILLI)) {
+                hedges.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return 当前的对冲延迟（纳秒）
+     */
+    public long hedgeDelayNanos() {
+        if (latency.count() < minSamples) {
+            return fixedDelayNanos;
+        }
+        return Math.max(1L, latency.percentileNanos(quantile));
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    /**
+     * @return 发出的备份请求数
+     */
+    public long hedges() {
+        return hedges.get();
+    }
+
+    /**
+     * @return 备份请求先成功的次数
+     */
+    public long hedgeWins() {
+        return hedgeWins.get();
+    }
+
+    /**
+     * @return 到了对冲时间但配额不足、没有发出备份请求的次数
+     */
+    public long capped() {
+        return capped.get();
+    }
+
+    public LatencyHistogram latency() {
+        return latency;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> m = new LinkedHashMap<String, Object>();
+        m.put("requests", requests());
+        m.put("hedges", hedges());
+        m.put("hedgeWins", hedgeWins());
+        m.put("capped", capped());
+        m.put("hedgeDelayMicros", TimeUnit.NANOSECONDS.toMicros(hedgeDelayNanos()));
+        return m;
+    }
+
+    @Override
+    public String toString() {
+        return "HedgedRequests" + toMap();
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.reactive.RxJava2Demo.hedge;
+
+import io.reactivex.Single;
+import io.reactivex.SingleObserver;
+import io.reactivex.SingleSource;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.disposables.DisposableHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @description : 对冲请求的Single，说明见HedgedRequests
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+final class SingleHedged<T> extends Single<T> {
+
+    private final SingleSource<T> source;
+
+    private final HedgedRequests policy;
+
+    SingleHedged(SingleSource<T> source, HedgedRequests policy) {
+        this.source = source;
+        this.policy = policy;
+    }
+
+    @Override
+    protected void subscribeActual(SingleObserver<? super T> observer) {
+        HedgeCoordinator<T> parent = new HedgeCoordinator<T>(observer, source, policy);
+        observer.onSubscribe(parent);
+        policy.onRequest();
+        parent.start();
+    }
+
+    /**
+     * active记录尚未结束的请求数：对冲计时器触发时先加1，结果为1说明主请求已经失败，不再对冲
+     */
+    static final class HedgeCoordinator<T> extends AtomicInteger implements Disposable, Runnable {
+
+        private static final long serialVersionUID = 5571280369204931842L;
+
+        final SingleObserver<? super T> downstream;
+
+        final SingleSource<T> source;
+
+        final HedgedRequests policy;
+
+        final AtomicBoolean once = new AtomicBoolean();
+
+        final AtomicReference<Disposable> timer = new AtomicReference<Disposable>();
+
+        /** 最近一次失败，对冲被拒绝且active归零时由计时器线程发出 */
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+
+        final HedgeObserver<T> primary;
+
+        final HedgeObserver<T> backup;
+
+        HedgeCoordinator(SingleObserver<? super T> downstream, SingleSource<T> source, HedgedRequests policy) {
+            this.downstream = downstream;
+            this.source = source;
+            this.policy = policy;
+            this.primary = new HedgeObserver<T>(this, false);
+            this.backup = new HedgeObserver<T>(this, true);
+        }
+
+        void start() {
+            lazySet(1);
+            primary.subscribeTo(source);
+            if (!once.get()) {
+                Disposable d = policy.scheduler.scheduleDirect(this, policy.hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+                if (!DisposableHelper.set(timer, d)) {
+                    d.dispose();
+                }
+            }
+        }
+
+        /**
+         * 对冲计时器到期
+         */
+        @Override
+        public void run() {
+            if (once.get()) {
+                return;
+            }
+            if (incrementAndGet() == 1) {
+                // 主请求已经失败结束
+                decrementAndGet();
+                return;
+            }
+            if (!policy.tryHedge()) {
+                // 主请求可能在加1之后失败，此时它看到的active不为0，错误只能由这里发出
+                if (decrementAndGet() == 0) {
+                    Throwable e = error.get();
+                    if (once.compareAndSet(false, true)) {
+                        DisposableHelper.dispose(timer);
+                        downstream.onError(e);
+                    }
+                }
+                return;
+            }
+            backup.subscribeTo(source);
+        }
+
+        void innerSuccess(HedgeObserver<T> inner, T value) {
+            policy.latency.record(System.nanoTime() - inner.startNanos);
+            if (once.compareAndSet(false, true)) {
+                DisposableHelper.dispose(timer);
+                (inner == primary ? backup : primary).dispose();
+                if (inner.backup) {
+                    policy.hedgeWins.incrementAndGet();
+                }
+                downstream.onSuccess(value);
+            }
+        }
+
+        void innerError(Throwable e) {
+            error.set(e);
+            if (decrementAndGet() == 0) {
+                if (once.compareAndSet(false, true)) {
+                    DisposableHelper.dispose(timer);
+                    downstream.onError(e);
+                    return;
+                }
+            } else {
+                return;
+            }
+            RxJavaPlugins.onError(e);
+        }
+
+        @Override
+        public void dispose() {
+            if (once.compareAndSet(false, true)) {
+                DisposableHelper.dispose(timer);
+                primary.dispose();
+                backup.dispose();
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return once.get();
+        }
+    }
+
+    static final class HedgeObserver<T> extends AtomicReference<Disposable> implements SingleObserver<T> {
+
+        private static final long serialVersionUID = -2671493624520283756L;
+
+        final HedgeCoordinator<T> parent;
+
+        final boolean backup;
+
+        long startNanos;
+
+        HedgeObserver(HedgeCoordinator<T> parent, boolean backup) {
+            this.parent = parent;
+            this.backup = backup;
+        }
+
+        void subscribeTo(SingleSource<T> source) {
+            startNanos = System.nanoTime();
+            source.subscribe(this);
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            DisposableHelper.setOnce(this, d);
+        }
+
+        @Override
+        public void onSuccess(T t) {
+            parent.innerSuccess(this, t);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            parent.innerError(e);
+        }
+
+        void dispose() {
+            DisposableHelper.dispose(this);
+        }
+    }
+}
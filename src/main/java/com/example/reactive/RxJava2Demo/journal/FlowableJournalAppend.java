@@ -0,0 +1,135 @@
+package com.example.reactive.RxJava2Demo.journal;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.internal.subscriptions.EmptySubscription;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * @description : 把上游数据逐条追加到Journal，向下游发出偏移量；结束时刷盘并释放写权限
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+final class FlowableJournalAppend<T> extends Flowable<Long> {
+
+    private final Flowable<T> source;
+
+    private final Journal<T> journal;
+
+    private final FsyncPolicy policy;
+
+    FlowableJournalAppend(Flowable<T> source, Journal<T> journal, FsyncPolicy policy) {
+        this.source = source;
+        this.journal = journal;
+        this.policy = policy;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super Long> s) {
+        if (!journal.tryAcquireWriter()) {
+            EmptySubscription.error(new IllegalStateException("Journal " + journal.directory()
+                    + " already has an active appender"), s);
+            return;
+        }
+        source.subscribe(new JournalAppendSubscriber<T>(s, journal, policy));
+    }
+
+    static final class JournalAppendSubscriber<T> implements FlowableSubscriber<T>, Subscription {
+
+        final Subscriber<? super Long> downstream;
+
+        final Journal<T> journal;
+
+        final FsyncPolicy policy;
+
+        Subscription upstream;
+
+        boolean done;
+
+        /** 已释放写权限，由this保护：取消可能与onNext并发，写入与释放互斥 */
+        boolean released;
+
+        JournalAppendSubscriber(Subscriber<? super Long> downstream, Journal<T> journal, FsyncPolicy policy) {
+            this.downstream = downstream;
+            this.journal = journal;
+            this.policy = policy;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(upstream, s)) {
+                upstream = s;
+                downstream.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            long offset;
+            try {
+                synchronized (this) {
+                    if (released) {
+                        return;
+                    }
+                    offset = journal.append(t, policy);
+                }
+            } catch (Throwable ex) {
+                Exceptions.throwIfFatal(ex);
+                upstream.cancel();
+                onError(ex);
+                return;
+            }
+            downstream.onNext(offset);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            done = true;
+            release();
+            downstream.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            release();
+            downstream.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            upstream.request(n);
+        }
+
+        /**
+         * 取消后上游可能仍在发射，此后的onNext不再写入
+         */
+        @Override
+        public void cancel() {
+            upstream.cancel();
+            release();
+        }
+
+        synchronized void release() {
+            if (!released) {
+                released = true;
+                journal.releaseWriter();
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.reactive.RxJava2Demo.journal;
+
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.internal.disposables.DisposableHelper;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.internal.util.BackpressureHelper;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @description : 从指定偏移量读取Journal
+ * 只在下游有请求时读取，request(n)恰好读取并解码n条记录，不预读；
+ * follow为true时读到末尾后按pollInterval在scheduler上检查新记录，否则读到订阅时的末尾后完成。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+final class FlowableJournalTail<T> extends Flowable<T> {
+
+    private final Journal<T> journal;
+
+    private final long fromOffset;
+
+    private final boolean follow;
+
+    private final long pollIntervalNanos;
+
+    private final Scheduler scheduler;
+
+    FlowableJournalTail(Journal<T> journal, long fromOffset, boolean follow, long pollIntervalNanos,
+                        Scheduler scheduler) {
+        this.journal = journal;
+        this.fromOffset = fromOffset;
+        this.follow = follow;
+        this.pollIntervalNanos = pollIntervalNanos;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super T> s) {
+        long end = follow ? Long.MAX_VALUE : journal.nextOffset();
+        s.onSubscribe(new TailSubscription<T>(s, journal, fromOffset, end, pollIntervalNanos, scheduler));
+    }
+
+    static final class TailSubscription<T> extends AtomicInteger implements Subscription, Runnable {
+
+        private static final long serialVersionUID = -6417902751637361829L;
+
+        final Subscriber<? super T> downstream;
+
+        final Journal<T> journal;
+
+        final long end;
+
+        final long pollIntervalNanos;
+
+        final Scheduler scheduler;
+
+        final AtomicLong requested = new AtomicLong();
+
+        final AtomicReference<Disposable> poll = new AtomicReference<Disposable>();
+
+        volatile boolean cancelled;
+
+        /** 已安排检查但尚未执行 */
+        volatile boolean pollPending;
+
+        /** 以下只在drain中访问 */
+        long offset;
+
+        ByteBuffer reader;
+
+        long emitted;
+
+        TailSubscription(Subscriber<? super T> downstream, Journal<T> journal, long offset, long end,
+                         long pollIntervalNanos, Scheduler scheduler) {
+            this.downstream = downstream;
+            this.journal = journal;
+            this.offset = offset;
+            this.end = end;
+            this.pollIntervalNanos = pollIntervalNanos;
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            DisposableHelper.dispose(poll);
+            if (getAndIncrement() == 0) {
+                reader = null;
+            }
+        }
+
+        /**
+         * 检查新记录的定时任务
+         */
+        @Override
+        public void run() {
+            pollPending = false;
+            drain();
+        }
+
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            Subscriber<? super T> a = downstream;
+            for (;;) {
+                long r = requested.get();
+                long e = emitted;
+                while (e != r) {
+                    if (cancelled) {
+                        reader = null;
+                        return;
+                    }
+                    if (offset >= end) {
+                        reader = null;
+                        a.onComplete();
+                        return;
+                    }
+                    if (offset >= journal.nextOffset()) {
+                        schedulePoll();
+                        break;
+                    }
+                    T v;
+                    try {
+                        v = read();
+                    } catch (Throwable ex) {
+                        Exceptions.throwIfFatal(ex);
+                        cancelled = true;
+                        DisposableHelper.dispose(poll);
+                        reader = null;
+                        a.onError(ex);
+                        return;
+                    }
+                    a.onNext(v);
+                    e++;
+                }
+                if (e == r && !cancelled && offset >= end) {
+                    reader = null;
+                    a.onComplete();
+                    return;
+                }
+                emitted = e;
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        private void schedulePoll() {
+            if (pollPending) {
+                return;
+            }
+            pollPending = true;
+            Disposable d = scheduler.scheduleDirect(this, pollIntervalNanos, TimeUnit.NANOSECONDS);
+            if (!DisposableHelper.replace(poll, d)) {
+                d.dispose();
+            }
+        }
+
+        /**
+         * 解码offset处的记录，调用前须确认该记录已写完
+         */
+        private T read() throws Exception {
+            ByteBuffer b = reader;
+            if (b == null) {
+                b = journal.openAt(offset);
+            }
+            int header = b.remaining() >= Journal.HEADER ? b.getInt(b.position()) : Journal.NEXT_SEGMENT;
+            if (header == Journal.NEXT_SEGMENT) {
+                b = journal.openAt(offset);
+                header = b.getInt(b.position());
+            }
+            reader = b;
+            int size = header - 1;
+            int start = b.position() + Journal.HEADER;
+            ByteBuffer record = b.duplicate();
+            record.position(start);
+            record.limit(start + size);
+            T value = journal.codec.decode(record.slice());
+            b.position(start + size);
+            offset++;
+            return value;
+        }
+    }
+}
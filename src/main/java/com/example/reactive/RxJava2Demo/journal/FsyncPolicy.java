@@ -0,0 +1,72 @@
+package com.example.reactive.RxJava2Demo.journal;
+
+import io.reactivex.internal.functions.ObjectHelper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description : 日志写入后何时调用MappedByteBuffer.force()把脏页刷到磁盘
+ * 写入映射区域的数据在进程崩溃后仍会由操作系统写回，force只影响机器掉电或内核崩溃时丢失的范围；
+ * 刷盘越频繁越安全，吞吐越低。无论哪种策略，写入结束（完成、出错或取消）时都会刷盘一次。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+public final class FsyncPolicy {
+
+    private static final FsyncPolicy NEVER = new FsyncPolicy(0, 0L);
+
+    final int records;
+
+    final long intervalNanos;
+
+    private FsyncPolicy(int records, long intervalNanos) {
+        this.records = records;
+        this.intervalNanos = intervalNanos;
+    }
+
+    /**
+     * 只在写入结束时刷盘，其余交给操作系统
+     */
+    public static FsyncPolicy never() {
+        return NEVER;
+    }
+
+    /**
+     * 每条记录写入后刷盘
+     */
+    public static FsyncPolicy everyRecord() {
+        return new FsyncPolicy(1, 0L);
+    }
+
+    /**
+     * @param records 每写入这么多条记录刷盘一次
+     */
+    public static FsyncPolicy everyRecords(int records) {
+        ObjectHelper.verifyPositive(records, "records");
+        return new FsyncPolicy(records, 0L);
+    }
+
+    /**
+     * 距上次刷盘超过interval后的第一次写入时刷盘，没有写入时不会刷盘
+     */
+    public static FsyncPolicy interval(long interval, TimeUnit unit) {
+        ObjectHelper.verifyPositive(interval, "interval");
+        return new FsyncPolicy(0, unit.toNanos(interval));
+    }
+
+    boolean shouldSync(int unsynced, long sinceLastSyncNanos) {
+        return (records != 0 && unsynced >= records) || (intervalNanos != 0L && sinceLastSyncNanos >= intervalNanos);
+    }
+
+    @Override
+    public String toString() {
+        if (records != 0) {
+            return "FsyncPolicy{everyRecords=" + records + '}';
+        }
+        if (intervalNanos != 0L) {
+            return "FsyncPolicy{interval=" + TimeUnit.NANOSECONDS.toMillis(intervalNanos) + "ms}";
+        }
+        return "FsyncPolicy{never}";
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.reactive.RxJava2Demo.journal;
+
+import com.example.reactive.RxJava2Demo.backpressure.SpillCodec;
+import io.reactivex.Flowable;
+import io.reactivex.FlowableTransformer;
+import io.reactivex.Scheduler;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.schedulers.Schedulers;
+import org.reactivestreams.Publisher;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description : 基于内存映射段文件的只追加日志，重启后数据仍在
+ * <pre>
+ *     Journal&lt;String&gt; journal = Journal.open(new File("/data/orders"), SpillCodecs.string());
+ *     events.compose(journal.appender(FsyncPolicy.everyRecords(1000))).subscribe();   // 发出每条记录的偏移量
+ *     journal.tail(lastProcessedOffset + 1).subscribe(consumer);                      // 从偏移量开始读取并持续跟随
+ * </pre>
+ * 每条记录有一个从0开始连续递增的偏移量。段文件以其第一条记录的偏移量命名，创建时按segmentSize预分配；
+ * 记录格式为 [int 长度+1][数据]，长度字段在数据写完后才写入，0表示尚未写入，-1表示本段结束、下一条在下一个段。
+ * open时扫描最后一个段找到写入位置，写到一半的记录（长度字段仍为0）被忽略并覆盖；每条记录发布前先清零下一条的长度字段，
+ * 覆盖后残留的旧数据不会被当成长度。codec抛出异常时写入位置退回记录开头。
+ * 同一时刻只允许一个appender写入；读取者（tail/read）数量不限，各自映射段文件，
+ * 用codec直接从映射区域解码，不经过堆上的中间数组，SpillCodecs.byteBuffer()则直接发出映射区域的只读视图。
+ * 读取者通过本实例的nextOffset判断记录是否已写完，因此必须与写入者使用同一个Journal实例。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+public final class Journal<T> {
+
+    /** 默认段文件大小 64MB */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    static final int HEADER = 4;
+
+    static final int NEXT_SEGMENT = -1;
+
+    private static final String SUFFIX = ".journal";
+
+    final File directory;
+
+    final int segmentSize;
+
+    final SpillCodec<T> codec;
+
+    /** 下一条记录的偏移量，记录完整写入后才递增 */
+    private volatile long nextOffset;
+
+    private final AtomicBoolean writing = new AtomicBoolean();
+
+    private final AtomicLong syncs = new AtomicLong();
+
+    /** 以下仅写入者访问 */
+    private MappedByteBuffer writeBuffer;
+
+    private int unsynced;
+
+    private long lastSyncNanos;
+
+    private Journal(File directory, int segmentSize, SpillCodec<T> codec) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.codec = codec;
+    }
+
+    public static <T> Journal<T> open(File directory, SpillCodec<T> codec) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_SIZE, codec);
+    }
+
+    /**
+     * 打开目录下已有的日志，没有时创建
+     * @param segmentSize 段文件大小，单条记录超过该大小时单独分配一个足够大的段
+     */
+    public static <T> Journal<T> open(File directory, int segmentSize, SpillCodec<T> codec) throws IOException {
+        ObjectHelper.requireNonNull(directory, "directory is null");
+        ObjectHelper.verifyPositive(segmentSize, "segmentSize");
+        ObjectHelper.requireNonNull(codec, "codec is null");
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create journal directory " + directory);
+        }
+        Journal<T> journal = new Journal<T>(directory, segmentSize, codec);
+        journal.recover();
+        return journal;
+    }
+
+    /**
+     * 写入上游的每条数据，向下游发出其偏移量；背压直接传给上游
+     */
+    public FlowableTransformer<T, Long> appender(final FsyncPolicy policy) {
+        ObjectHelper.requireNonNull(policy, "policy is null");
+        return new FlowableTransformer<T, Long>() {
+            @Override
+            public Publisher<Long> apply(Flowable<T> upstream) {
+                return RxJavaPlugins.onAssembly(new FlowableJournalAppend<T>(upstream, Journal.this, policy));
+            }
+        };
+    }
+
+    /**
+     * 从fromOffset开始读取，读到末尾后每毫秒检查一次新记录，不会完成
+     */
+    public Flowable<T> tail(long fromOffset) {
+        return tail(fromOffset, 1, TimeUnit.MILLISECONDS, Schedulers.io());
+    }
+
+    /**
+     * @param pollInterval 读到末尾且下游仍有请求时，间隔多久检查一次新记录
+     * @param scheduler 检查所用的调度器
+     */
+    public Flowable<T> tail(long fromOffset, long pollInterval, TimeUnit unit, Scheduler scheduler) {
+        checkOffset(fromOffset);
+        ObjectHelper.verifyPositive(pollInterval, "pollInterval");
+        ObjectHelper.requireNonNull(unit, "unit is null");
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        return RxJavaPlugins.onAssembly(new FlowableJournalTail<T>(this, fromOffset, true,
+                unit.toNanos(pollInterval), scheduler));
+    }
+
+    /**
+     * 从fromOffset读到订阅时的末尾后完成，用于重启后重放
+     */
+    public Flowable<T> read(long fromOffset) {
+        checkOffset(fromOffset);
+        return RxJavaPlugins.onAssembly(new FlowableJournalTail<T>(this, fromOffset, false, 0L,
+                Schedulers.trampoline()));
+    }
+
+    /**
+     * @return 下一条记录的偏移量，即已写入的记录数
+     */
+    public long nextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * @return 刷盘次数
+     */
+    public long syncs() {
+        return syncs.get();
+    }
+
+    public File directory() {
+        return directory;
+    }
+
+    private static void checkOffset(long fromOffset) {
+        if (fromOffset < 0L) {
+            throw new IllegalArgumentException("fromOffset >= 0 required but it was " + fromOffset);
+        }
+    }
+
+    // ----------------------------------------------------------------- 写入，仅持有写权限的appender调用
+
+    boolean tryAcquireWriter() {
+        return writing.compareAndSet(false, true);
+    }
+
+    void releaseWriter() {
+        sync();
+        writing.set(false);
+    }
+
+    long append(T value, FsyncPolicy policy) throws IOException {
+        int size = codec.sizeOf(value);
+        MappedByteBuffer buffer = writeBuffer;
+        if (buffer == null || buffer.remaining() < HEADER + size) {
+            if (buffer != null) {
+                if (buffer.remaining() >= HEADER) {
+                    buffer.putInt(buffer.position(), NEXT_SEGMENT);
+                }
+                force(buffer);
+            }
+            buffer = newSegment(nextOffset, HEADER + size);
+        }
+        int position = buffer.position();
+        buffer.position(position + HEADER);
+        try {
+            codec.encode(value, buffer);
+        } catch (Throwable ex) {
+            // 写入位置退回记录开头，下一次append覆盖写了一半的数据
+            buffer.position(position);
+            throw ex;
+        }
+        if (buffer.position() - position - HEADER != size) {
+            int written = buffer.position() - position - HEADER;
+            buffer.position(position);
+            throw new IOException("Codec wrote " + written + " bytes, expected " + size);
+        }
+        // 先清零下一条的长度字段，之前写到一半的残留数据不会被读取者或recover当成长度
+        if (buffer.remaining() >= HEADER) {
+            buffer.putInt(buffer.position(), 0);
+        }
+        buffer.putInt(position, size + 1);
+        long offset = nextOffset;
+        nextOffset = offset + 1;
+        unsynced++;
+        long now = System.nanoTime();
+        if (policy.shouldSync(unsynced, now - lastSyncNanos)) {
+            force(buffer);
+        }
+        return offset;
+    }
+
+    void sync() {
+        MappedByteBuffer buffer = writeBuffer;
+        if (buffer != null && unsynced != 0) {
+            force(buffer);
+        }
+    }
+
+    private void force(MappedByteBuffer buffer) {
+        buffer.force();
+        syncs.incrementAndGet();
+        unsynced = 0;
+        lastSyncNanos = System.nanoTime();
+    }
+
+    private MappedByteBuffer newSegment(long baseOffset, int minSize) throws IOException {
+        MappedByteBuffer buffer = map(segmentFile(baseOffset), Math.max(segmentSize, minSize),
+                FileChannel.MapMode.READ_WRITE);
+        writeBuffer = buffer;
+        return buffer;
+    }
+
+    /**
+     * 找到最后一个段的写入位置
+     */
+    private void recover() throws IOException {
+        long[] bases = segmentBases();
+        if (bases.length == 0) {
+            return;
+        }
+        long base = bases[bases.length - 1];
+        File file = segmentFile(base);
+        MappedByteBuffer buffer = map(file, (int) file.length(), FileChannel.MapMode.READ_WRITE);
+        long count = 0L;
+        boolean sealed = false;
+        while (buffer.remaining() >= HEADER) {
+            int header = buffer.getInt(buffer.position());
+            if (header == 0) {
+                break;
+            }
+            if (header == NEXT_SEGMENT) {
+                sealed = true;
+                break;
+            }
+            buffer.position(buffer.position() + HEADER + header - 1);
+            count++;
+        }
+        nextOffset = base + count;
+        if (!sealed && buffer.remaining() >= HEADER) {
+            writeBuffer = buffer;
+        }
+    }
+
+    // ----------------------------------------------------------------- 读取
+
+    File segmentFile(long baseOffset) {
+        return new File(directory, String.format("%020d", baseOffset) + SUFFIX);
+    }
+
+    /**
+     * @return 所有段的起始偏移量，升序
+     */
+    long[] segmentBases() {
+        String[] names = directory.list();
+        if (names == null) {
+            return new long[0];
+        }
+        long[] bases = new long[names.length];
+        int n = 0;
+        for (String name : names) {
+            if (name.endsWith(SUFFIX)) {
+                bases[n++] = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+            }
+        }
+        bases = Arrays.copyOf(bases, n);
+        Arrays.sort(bases);
+        return bases;
+    }
+
+    /**
+     * 映射包含offset的段，并定位到该记录
+     */
+    ByteBuffer openAt(long offset) throws IOException {
+        long[] bases = segmentBases();
+        int i = Arrays.binarySearch(bases, offset);
+        if (i < 0) {
+            i = -i - 2;
+        }
+        if (i < 0) {
+            throw new IOException("No journal segment contains offset " + offset + " in " + directory);
+        }
+        File file = segmentFile(bases[i]);
+        ByteBuffer buffer = map(file, (int) file.length(), FileChannel.MapMode.READ_ONLY);
+        for (long skip = offset - bases[i]; skip > 0; skip--) {
+            int header = buffer.getInt(buffer.position());
+            buffer.position(buffer.position() + HEADER + header - 1);
+        }
+        return buffer;
+    }
+
+    static MappedByteBuffer map(File file, int size, FileChannel.MapMode mode) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw")) {
+            if (mode != FileChannel.MapMode.READ_ONLY && raf.length() < size) {
+                raf.setLength(size);
+            }
+            return raf.getChannel().map(mode, 0, size);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.reactive.RxJava2Demo.limit;
+
+import io.reactivex.internal.functions.ObjectHelper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description : 加性增、乘性减
+ * 调用失败或耗时超过timeout时上限乘以backoffRatio；否则在途调用数达到上限一半以上时上限加1，
+ * 上游供给不足（在途远低于上限）时不再增长，避免空闲时上限无限抬高。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:58
+ * @modified by:
+ */
+public final class AimdLimit implements LimitAlgorithm {
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long timeoutNanos;
+
+    private final double backoffRatio;
+
+    private volatile int limit;
+
+    /**
+     * 初始20，1~200之间调整，超过1秒视为超时，每次回退到90%
+     */
+    public AimdLimit() {
+        this(20, 1, 200, 1, TimeUnit.SECONDS, 0.9d);
+    }
+
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, long timeout, TimeUnit unit, double backoffRatio) {
+        checkRange(initialLimit, minLimit, maxLimit);
+        ObjectHelper.verifyPositive(timeout, "timeout");
+        if (backoffRatio <= 0d || backoffRatio >= 1d) {
+            throw new IllegalArgumentException("backoffRatio must be in (0, 1) but it was " + backoffRatio);
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.timeoutNanos = unit.toNanos(timeout);
+        this.backoffRatio = backoffRatio;
+    }
+
+    static void checkRange(int initialLimit, int minLimit, int maxLimit) {
+        ObjectHelper.verifyPositive(minLimit, "minLimit");
+        if (initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("minLimit <= initialLimit <= maxLimit required but it was "
+                    + minLimit + ", " + initialLimit + ", " + maxLimit);
+        }
+    }
+
+    @Override
+    public int limit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        int current = limit;
+        if (dropped || rttNanos > timeoutNanos) {
+            limit = Math.max(minLimit, Math.min(current - 1, (int) (current * backoffRatio)));
+        } else if (inFlight * 2 >= current) {
+            limit = Math.min(maxLimit, current + 1);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AimdLimit{limit=" + limit + '}';
+    }
+}
@@ -0,0 +1,380 @@
+package com.example.reactive.RxJava2Demo.limit;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.exceptions.MissingBackpressureException;
+import io.reactivex.functions.Function;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.internal.queue.SpscArrayQueue;
+import io.reactivex.internal.queue.SpscLinkedArrayQueue;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.internal.util.AtomicThrowable;
+import io.reactivex.internal.util.BackpressureHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @description : maxConcurrency由LimitAlgorithm决定的flatMap
+ * 已向上游请求但未结束的调用数（含尚未到达的上游数据）不超过算法给出的上限，上限下降时停止向上游请求，
+ * 在途调用自然结束后降到新上限以内。每个内部源结束时把订阅到结束的耗时作为样本交给算法。
+ * 内部源出错时以dropped样本上报，然后与flatMap一样终止整个流；需要容错时在mapper内部处理错误，
+ * 超时可以在mapper内部用timeout转换为错误以便算法感知。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:58
+ * @modified by:
+ */
+final class FlowableFlatMapLimited<T, R> extends Flowable<R> {
+
+    private final Publisher<T> source;
+
+    private final Function<? super T, ? extends Publisher<? extends R>> mapper;
+
+    private final LimitAlgorithm algorithm;
+
+    private final int prefetch;
+
+    FlowableFlatMapLimited(Publisher<T> source, Function<? super T, ? extends Publisher<? extends R>> mapper,
+                           LimitAlgorithm algorithm, int prefetch) {
+        this.source = source;
+        this.mapper = mapper;
+        this.algorithm = algorithm;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super R> s) {
+        source.subscribe(new FlatMapLimitedSubscriber<T, R>(s, mapper, algorithm, prefetch));
+    }
+
+    static final class FlatMapLimitedSubscriber<T, R> extends AtomicInteger
+            implements FlowableSubscriber<T>, Subscription {
+
+        private static final long serialVersionUID = -5206137448173745103L;
+
+        final Subscriber<? super R> downstream;
+
+        final Function<? super T, ? extends Publisher<? extends R>> mapper;
+
+        final LimitAlgorithm algorithm;
+
+        final int prefetch;
+
+        /** 新订阅的内部源；上游线程写入，drain线程移入active */
+        final SpscLinkedArrayQueue<LimitedInner<R>> added = new SpscLinkedArrayQueue<LimitedInner<R>>(16);
+
+        /** 正在进行的调用数，样本中的inFlight取自这里 */
+        final AtomicInteger running = new AtomicInteger();
+
+        final AtomicLong requested = new AtomicLong();
+
+        final AtomicThrowable errors = new AtomicThrowable();
+
+        Subscription upstream;
+
+        volatile boolean done;
+
+        volatile boolean cancelled;
+
+        /** 以下字段只在drain线程访问 */
+        final List<LimitedInner<R>> active = new ArrayList<LimitedInner<R>>();
+
+        long upstreamRequested;
+
+        long finished;
+
+        int index;
+
+        FlatMapLimitedSubscriber(Subscriber<? super R> downstream,
+                                 Function<? super T, ? extends Publisher<? extends R>> mapper,
+                                 LimitAlgorithm algorithm, int prefetch) {
+            this.downstream = downstream;
+            this.mapper = mapper;
+            this.algorithm = algorithm;
+            this.prefetch = prefetch;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(this.upstream, s)) {
+                this.upstream = s;
+                downstream.onSubscribe(this);
+                drain();
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            Publisher<? extends R> p;
+            try {
+                p = ObjectHelper.requireNonNull(mapper.apply(t), "The mapper returned a null Publisher");
+            } catch (Throwable ex) {
+                Exceptions.throwIfFatal(ex);
+                upstream.cancel();
+                onError(ex);
+                return;
+            }
+            LimitedInner<R> inner = new LimitedInner<R>(this, prefetch);
+            added.offer(inner);
+            if (cancelled) {
+                drain();
+                return;
+            }
+            inner.inFlight = running.incrementAndGet();
+            inner.subscribedAt = System.nanoTime();
+            p.subscribe(inner);
+            // cancel()可能发生在上面的cancelled检查与subscribe之间，此时需要补一次取消
+            if (cancelled) {
+                inner.cancel();
+            }
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            if (errors.addThrowable(t)) {
+                done = true;
+                drain();
+            } else {
+                RxJavaPlugins.onError(t);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (!done) {
+                done = true;
+                drain();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                upstream.cancel();
+                if (getAndIncrement() == 0) {
+                    cancelInners();
+                }
+            }
+        }
+
+        /**
+         * 内部源结束（完成或出错）时在它自己的线程上报样本
+         */
+        void innerTerminated(LimitedInner<R> inner, boolean dropped) {
+            running.decrementAndGet();
+            algorithm.onSample(System.nanoTime() - inner.subscribedAt, inner.inFlight, dropped);
+        }
+
+        void innerError(LimitedInner<R> inner, Throwable e) {
+            innerTerminated(inner, true);
+            if (errors.addThrowable(e)) {
+                inner.done = true;
+                drain();
+            } else {
+                RxJavaPlugins.onError(e);
+            }
+        }
+
+        void cancelInners() {
+            for (LimitedInner<R> inner : active) {
+                inner.cancel();
+            }
+            active.clear();
+            LimitedInner<R> inner;
+            while ((inner = added.poll()) != null) {
+                inner.cancel();
+            }
+        }
+
+        /**
+         * 已请求、未结束的调用数低于当前上限时向上游补齐
+         */
+        void requestUpstream() {
+            long outstanding = upstreamRequested - finished;
+            int limit = Math.max(1, algorithm.limit());
+            if (outstanding < limit && !done) {
+                long n = limit - outstanding;
+                upstreamRequested += n;
+                upstream.request(n);
+            }
+        }
+
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            final Subscriber<? super R> a = downstream;
+            final List<LimitedInner<R>> list = active;
+            int missed = 1;
+
+            for (;;) {
+                if (cancelled) {
+                    cancelInners();
+                    return;
+                }
+                if (errors.get() != null) {
+                    upstream.cancel();
+                    cancelInners();
+                    a.onError(errors.terminate());
+                    return;
+                }
+
+                LimitedInner<R> inner;
+                while ((inner = added.poll()) != null) {
+                    list.add(inner);
+                }
+
+                long r = requested.get();
+                long e = 0L;
+
+                // 轮流从各内部源取数据，结束的内部源移出并腾出一个并发名额
+                int n = list.size();
+                int idx = index;
+                for (int i = 0; i < n && !list.isEmpty(); i++) {
+                    if (idx >= list.size()) {
+                        idx = 0;
+                    }
+                    inner = list.get(idx);
+                    for (;;) {
+                        if (cancelled || errors.get() != null) {
+                            break;
+                        }
+                        boolean d = inner.done;
+                        R v = e != r ? inner.queue.poll() : null;
+                        if (v == null) {
+                            if (d && inner.queue.isEmpty()) {
+                                list.remove(idx);
+                                finished++;
+                                idx--;
+                            }
+                            break;
+                        }
+                        a.onNext(v);
+                        e++;
+                        inner.consumed();
+                    }
+                    idx++;
+                }
+                index = idx < 0 ? 0 : idx;
+
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-e);
+                }
+
+                if (cancelled || errors.get() != null) {
+                    continue;
+                }
+
+                if (done && list.isEmpty() && added.isEmpty()) {
+                    a.onComplete();
+                    return;
+                }
+
+                if (upstream != null) {
+                    requestUpstream();
+                }
+
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+    }
+
+    static final class LimitedInner<R> extends AtomicReference<Subscription> implements FlowableSubscriber<R> {
+
+        private static final long serialVersionUID = 3420815742591084163L;
+
+        final FlatMapLimitedSubscriber<?, R> parent;
+
+        final int prefetch;
+
+        final int limit;
+
+        final SpscArrayQueue<R> queue;
+
+        volatile boolean done;
+
+        /** 由上游线程在订阅前写入 */
+        long subscribedAt;
+
+        int inFlight;
+
+        /** 只在drain线程访问 */
+        int consumed;
+
+        LimitedInner(FlatMapLimitedSubscriber<?, R> parent, int prefetch) {
+            this.parent = parent;
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+            this.queue = new SpscArrayQueue<R>(prefetch);
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.setOnce(this, s)) {
+                s.request(prefetch);
+            }
+        }
+
+        @Override
+        public void onNext(R t) {
+            if (!queue.offer(t)) {
+                SubscriptionHelper.cancel(this);
+                onError(new MissingBackpressureException("Queue is full?!"));
+                return;
+            }
+            parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            parent.innerError(this, t);
+        }
+
+        @Override
+        public void onComplete() {
+            parent.innerTerminated(this, false);
+            done = true;
+            parent.drain();
+        }
+
+        void consumed() {
+            if (++consumed == limit) {
+                consumed = 0;
+                get().request(limit);
+            }
+        }
+
+        void cancel() {
+            SubscriptionHelper.cancel(this);
+            queue.clear();
+        }
+    }
+}
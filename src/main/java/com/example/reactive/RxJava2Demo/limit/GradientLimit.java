@@ -0,0 +1,95 @@
+package com.example.reactive.RxJava2Demo.limit;
+
+/**
+ * @description : 按耗时梯度调整的并发上限，参考Netflix Gradient2Limit
+ * 长期耗时取窗口较长的指数移动平均，短期耗时取窗口较短的指数移动平均，
+ * gradient = clamp(长期 / 短期, 0.5, 1)：耗时上升时gradient小于1，上限按比例收缩；
+ * 目标值 = limit * gradient + queueSize（queueSize = sqrt(limit)，保留一点排队余量以探测更高的上限），
+ * 上限每次只向目标值移动smoothing的比例。调用失败按gradient = 0.5处理。
+ * 长期平均会在短期耗时明显回落时一并下调，使下游恢复后上限能重新增长。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:58
+ * @modified by:
+ */
+public final class GradientLimit implements LimitAlgorithm {
+
+    private static final double SHORT_ALPHA = 2d / (10 + 1);
+
+    private static final double LONG_ALPHA = 2d / (600 + 1);
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double smoothing;
+
+    private volatile double limit;
+
+    private volatile double shortRtt;
+
+    private volatile double longRtt;
+
+    /**
+     * 初始20，1~200之间调整，每次向目标值移动20%
+     */
+    public GradientLimit() {
+        this(20, 1, 200, 0.2d);
+    }
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double smoothing) {
+        AimdLimit.checkRange(initialLimit, minLimit, maxLimit);
+        if (smoothing <= 0d || smoothing > 1d) {
+            throw new IllegalArgumentException("smoothing must be in (0, 1] but it was " + smoothing);
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+    }
+
+    @Override
+    public int limit() {
+        return (int) limit;
+    }
+
+    public long shortRttNanos() {
+        return (long) shortRtt;
+    }
+
+    public long longRttNanos() {
+        return (long) longRtt;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (rttNanos <= 0L) {
+            return;
+        }
+        if (longRtt == 0d) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            return;
+        }
+        shortRtt = shortRtt + SHORT_ALPHA * (rttNanos - shortRtt);
+        longRtt = longRtt + LONG_ALPHA * (rttNanos - longRtt);
+        if (longRtt / shortRtt > 2d) {
+            longRtt = longRtt * 0.95d;
+        }
+
+        double current = limit;
+        // 上游供给不足时不增长
+        if (!dropped && inFlight * 2 < current) {
+            return;
+        }
+        double gradient = dropped ? 0.5d : Math.max(0.5d, Math.min(1d, longRtt / shortRtt));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1d - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    @Override
+    public String toString() {
+        return "GradientLimit{limit=" + limit() + ", shortRtt=" + (long) shortRtt / 1000
+                + "us, longRtt=" + (long) longRtt / 1000 + "us}";
+    }
+}
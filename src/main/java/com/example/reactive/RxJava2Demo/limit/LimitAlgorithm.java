@@ -0,0 +1,26 @@
+package com.example.reactive.RxJava2Demo.limit;
+
+/**
+ * @description : 并发上限算法，参考Netflix concurrency-limits
+ * 每完成一次调用上报一个样本，算法据此调整允许同时在途的调用数。
+ * 上限由每个订阅者各自执行：N条管道共用一个实例时最多有N倍上限的调用同时在途，且各自上报的在途数只是本管道的，
+ * 算法会按单条管道的数据调整上限，因此每条管道应使用自己的实例。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:58
+ * @modified by:
+ */
+public interface LimitAlgorithm {
+
+    /**
+     * @return 当前允许同时在途的调用数，不小于1
+     */
+    int limit();
+
+    /**
+     * 一次调用结束后调用
+     * @param rttNanos 从订阅内部源到它结束的耗时
+     * @param inFlight 这次调用开始时的在途调用数，包括它自己
+     * @param dropped 调用失败（超时、被拒绝等），视为下游已过载
+     */
+    void onSample(long rttNanos, int inFlight, boolean dropped);
+}
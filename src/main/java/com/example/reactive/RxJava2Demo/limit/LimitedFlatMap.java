@@ -0,0 +1,55 @@
+package com.example.reactive.RxJava2Demo.limit;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableTransformer;
+import io.reactivex.functions.Function;
+import io.reactivex.internal.functions.ObjectHelper;
+import org.reactivestreams.Publisher;
+
+/**
+ * @description : 并发上限自适应的flatMap
+ * <pre>
+ *     LimitAlgorithm limit = new GradientLimit();
+ *     orders.compose(LimitedFlatMap.flatMap(order -> inventoryService.reserve(order).toFlowable(), limit))
+ *     limit.limit()   // 当前上限
+ * </pre>
+ * flatMap默认maxConcurrency为128，每个上游数据立即变成一次下游调用；下游变慢时调用不断堆积，直到把它压垮。
+ * 这里的maxConcurrency由LimitAlgorithm根据调用耗时实时调整：
+ * AimdLimit（失败/超时乘性减，否则加1）、VegasLimit（按估算的排队数增减）、GradientLimit（按长短期耗时之比收缩）。
+ * 上限只约束当前订阅者自己的在途调用，多条管道之间不共享，每条管道应使用独立的LimitAlgorithm实例。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:58
+ * @modified by:
+ */
+public final class LimitedFlatMap {
+
+    private LimitedFlatMap() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    /**
+     * 每个内部源最多缓存Flowable.bufferSize()条
+     */
+    public static <T, R> FlowableTransformer<T, R> flatMap(
+            Function<? super T, ? extends Publisher<? extends R>> mapper, LimitAlgorithm algorithm) {
+        return flatMap(mapper, algorithm, Flowable.bufferSize());
+    }
+
+    /**
+     * @param algorithm 并发上限算法，当前上限通过algorithm.limit()读取
+     * @param prefetch 每个内部源最多缓存的条数
+     */
+    public static <T, R> FlowableTransformer<T, R> flatMap(
+            final Function<? super T, ? extends Publisher<? extends R>> mapper,
+            final LimitAlgorithm algorithm, final int prefetch) {
+        ObjectHelper.requireNonNull(mapper, "mapper is null");
+        ObjectHelper.requireNonNull(algorithm, "algorithm is null");
+        ObjectHelper.verifyPositive(prefetch, "prefetch");
+        return new FlowableTransformer<T, R>() {
+            @Override
+            public Publisher<R> apply(Flowable<T> upstream) {
+                return new FlowableFlatMapLimited<T, R>(upstream, mapper, algorithm, prefetch);
+            }
+        };
+    }
+}
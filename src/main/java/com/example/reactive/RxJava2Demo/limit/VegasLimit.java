@@ -0,0 +1,86 @@
+package com.example.reactive.RxJava2Demo.limit;
+
+/**
+ * @description : 参考TCP Vegas的并发上限
+ * 以观察到的最小耗时作为无排队耗时rttNoLoad，估算下游的排队数 queue = limit * (1 - rttNoLoad / rtt)：
+ * queue低于alpha时上限增加log10(limit)，高于beta时减少log10(limit)，调用失败时同样减少。
+ * alpha、beta分别为3倍与6倍的log10(limit)（至少为1）。
+ * 下游的基准耗时可能变化，每probeInterval个样本丢弃一次rttNoLoad重新测量。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:58
+ * @modified by:
+ */
+public final class VegasLimit implements LimitAlgorithm {
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final int probeInterval;
+
+    private volatile double limit;
+
+    private volatile long rttNoLoad;
+
+    private long samples;
+
+    /**
+     * 初始20，1~200之间调整，每1000个样本重新测量一次基准耗时
+     */
+    public VegasLimit() {
+        this(20, 1, 200, 1000);
+    }
+
+    public VegasLimit(int initialLimit, int minLimit, int maxLimit, int probeInterval) {
+        AimdLimit.checkRange(initialLimit, minLimit, maxLimit);
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.probeInterval = probeInterval;
+    }
+
+    @Override
+    public int limit() {
+        return (int) limit;
+    }
+
+    public long rttNoLoadNanos() {
+        return rttNoLoad;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (rttNanos <= 0L) {
+            return;
+        }
+        if (probeInterval > 0 && ++samples % probeInterval == 0) {
+            rttNoLoad = 0L;
+        }
+        if (rttNoLoad == 0L || rttNanos < rttNoLoad) {
+            rttNoLoad = rttNanos;
+            return;
+        }
+        double current = limit;
+        double log = Math.max(1d, Math.log10(current));
+        double next;
+        if (dropped) {
+            next = current - log;
+        } else {
+            double queue = current * (1d - (double) rttNoLoad / rttNanos);
+            if (queue <= 3 * log) {
+                // 上游供给不足时不增长
+                next = inFlight * 2 >= current ? current + log : current;
+            } else if (queue >= 6 * log) {
+                next = current - log;
+            } else {
+                next = current;
+            }
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    @Override
+    public String toString() {
+        return "VegasLimit{limit=" + limit() + ", rttNoLoad=" + rttNoLoad / 1000 + "us}";
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.reactive.RxJava2Demo.operator;
+
+import io.reactivex.internal.functions.ObjectHelper;
+
+/**
+ * @description : concatMapEagerAdaptive的配置，同时记录运行时选定的预订阅个数K
+ * 每个内部源从订阅到产出第一条数据的耗时记为启动延迟，相邻两个内部源消费完成的间隔记为消费间隔，
+ * 二者都取指数移动平均。按Little定律，要让内部源在轮到它时已经启动完成，需要提前订阅
+ * ceil(启动延迟 / 消费间隔) + 1个，K取这个值，并限制在[minLookahead, maxLookahead]之间。
+ * K太小时消费间隔被启动延迟拉长，估算值比当前K大，K逐步增加；K过大时消费间隔取决于下游，K随之回落。
+ * 同一个实例只应用于一条管道，getter返回的是该管道最近一次调整的结果。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:55
+ * @modified by:
+ */
+public final class AdaptiveLookahead {
+
+    private static final double ALPHA = 0.25d;
+
+    final int minLookahead;
+
+    final int maxLookahead;
+
+    final int initialLookahead;
+
+    volatile int lookahead;
+
+    volatile long startupNanos;
+
+    volatile long intervalNanos;
+
+    volatile long headWaits;
+
+    volatile long completedInners;
+
+    /**
+     * 初始预订阅2个，可在1~32之间调整
+     */
+    public AdaptiveLookahead() {
+        this(1, 2, 32);
+    }
+
+    public AdaptiveLookahead(int minLookahead, int initialLookahead, int maxLookahead) {
+        ObjectHelper.verifyPositive(minLookahead, "minLookahead");
+        if (initialLookahead < minLookahead || maxLookahead < initialLookahead) {
+            throw new IllegalArgumentException("minLookahead <= initialLookahead <= maxLookahead required but it was "
+                    + minLookahead + ", " + initialLookahead + ", " + maxLookahead);
+        }
+        this.minLookahead = minLookahead;
+        this.initialLookahead = initialLookahead;
+        this.maxLookahead = maxLookahead;
+        this.lookahead = initialLookahead;
+    }
+
+    static long ewma(long current, long sample) {
+        return current == 0L ? sample : (long) (current + ALPHA * (sample - current));
+    }
+
+    /**
+     * 根据平均启动延迟与平均消费间隔计算下一个K
+     */
+    int next(long startupNanos, long intervalNanos) {
+        long target;
+        if (intervalNanos <= 0L) {
+            target = maxLookahead;
+        } else {
+            target = (startupNanos + intervalNanos - 1) / intervalNanos + 1;
+        }
+        return (int) Math.max(minLookahead, Math.min(maxLookahead, target));
+    }
+
+    void record(int lookahead, long startupNanos, long intervalNanos) {
+        this.lookahead = lookahead;
+        this.startupNanos = startupNanos;
+        this.intervalNanos = intervalNanos;
+        this.completedInners++;
+    }
+
+    void headWait() {
+        this.headWaits++;
+    }
+
+    public int lookahead() {
+        return lookahead;
+    }
+
+    public long startupNanos() {
+        return startupNanos;
+    }
+
+    public long intervalNanos() {
+        return intervalNanos;
+    }
+
+    /**
+     * @return 轮到某个内部源时它还没有产出任何数据的次数，即管道因内部源启动而空转的次数
+     */
+    public long headWaits() {
+        return headWaits;
+    }
+
+    public long completedInners() {
+        return completedInners;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveLookahead{lookahead=" + lookahead
+                + ", startup=" + startupNanos / 1000 + "us"
+                + ", interval=" + intervalNanos / 1000 + "us"
+                + ", headWaits=" + headWaits
+                + ", completedInners=" + completedInners + '}';
+    }
+}
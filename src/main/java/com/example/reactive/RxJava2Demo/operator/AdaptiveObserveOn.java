@@ -0,0 +1,43 @@
+package com.example.reactive.RxJava2Demo.operator;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableTransformer;
+import io.reactivex.Scheduler;
+import io.reactivex.internal.functions.ObjectHelper;
+import org.reactivestreams.Publisher;
+
+/**
+ * @description : 自适应prefetch的observeOn
+ * <pre>
+ *     AdaptivePrefetch prefetch = new AdaptivePrefetch();
+ *     flowable.compose(AdaptiveObserveOn.observeOn(Schedulers.newThread(), prefetch))
+ * </pre>
+ * @author: liuchuang
+ * @date: 2026/10/18 下午5:50
+ * @modified by:
+ */
+public final class AdaptiveObserveOn {
+
+    private AdaptiveObserveOn() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    public static <T> FlowableTransformer<T, T> observeOn(Scheduler scheduler) {
+        return observeOn(scheduler, new AdaptivePrefetch());
+    }
+
+    /**
+     * @param scheduler 目标调度器
+     * @param prefetch prefetch的调整范围，运行时选定的值也记录在其中
+     */
+    public static <T> FlowableTransformer<T, T> observeOn(final Scheduler scheduler, final AdaptivePrefetch prefetch) {
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        ObjectHelper.requireNonNull(prefetch, "prefetch is null");
+        return new FlowableTransformer<T, T>() {
+            @Override
+            public Publisher<T> apply(Flowable<T> upstream) {
+                return new FlowableObserveOnAdaptive<T>(upstream, scheduler, prefetch);
+            }
+        };
+    }
+}
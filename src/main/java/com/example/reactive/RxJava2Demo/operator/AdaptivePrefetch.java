@@ -0,0 +1,115 @@
+package com.example.reactive.RxJava2Demo.operator;
+
+import io.reactivex.Flowable;
+import io.reactivex.internal.functions.ObjectHelper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description : observeOnAdaptive的配置，同时记录运行时选定的prefetch与补货阈值
+ * observeOn固定预取128条、每消费96条（75%）补货一次。这里prefetch在[minPrefetch, maxPrefetch]之间调整，
+ * 补货阈值始终为prefetch的75%。每次补货时重新估算目标prefetch：
+ * 缓存池中的数据最多占用消费者targetLatency的处理时间（重量级数据→小缓存），
+ * 且不超过targetLatency内到达的数据条数（低速数据源→小缓存），取两者较小值后向目标值靠拢一半。
+ * 同一个实例只应用于一条管道，getter返回的是该管道最近一次调整的结果。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午5:50
+ * @modified by:
+ */
+public final class AdaptivePrefetch {
+
+    final int minPrefetch;
+
+    final int maxPrefetch;
+
+    final int initialPrefetch;
+
+    final long targetLatencyNanos;
+
+    volatile int prefetch;
+
+    volatile int limit;
+
+    volatile double arrivalRatePerSecond;
+
+    volatile long avgConsumerNanos;
+
+    volatile long adaptations;
+
+    /**
+     * 初始与observeOn相同（128），可在16~4096之间调整，缓存池最多积压10ms的处理量
+     */
+    public AdaptivePrefetch() {
+        this(16, Flowable.bufferSize(), 4096, 10, TimeUnit.MILLISECONDS);
+    }
+
+    public AdaptivePrefetch(int minPrefetch, int initialPrefetch, int maxPrefetch, long targetLatency, TimeUnit unit) {
+        ObjectHelper.verifyPositive(minPrefetch, "minPrefetch");
+        ObjectHelper.verifyPositive(targetLatency, "targetLatency");
+        if (initialPrefetch < minPrefetch || maxPrefetch < initialPrefetch) {
+            throw new IllegalArgumentException("minPrefetch <= initialPrefetch <= maxPrefetch required but it was "
+                    + minPrefetch + ", " + initialPrefetch + ", " + maxPrefetch);
+        }
+        this.minPrefetch = minPrefetch;
+        this.initialPrefetch = initialPrefetch;
+        this.maxPrefetch = maxPrefetch;
+        this.targetLatencyNanos = unit.toNanos(targetLatency);
+        this.prefetch = initialPrefetch;
+        this.limit = limitOf(initialPrefetch);
+    }
+
+    static int limitOf(int prefetch) {
+        return prefetch - (prefetch >> 2);
+    }
+
+    /**
+     * 根据测得的到达速率（条/纳秒）与单条处理耗时计算下一个prefetch
+     */
+    int next(int current, double arrivalsPerNano, long consumerNanos) {
+        double byLatency = consumerNanos > 0L ? (double) targetLatencyNanos / consumerNanos : maxPrefetch;
+        double byRate = arrivalsPerNano > 0d ? arrivalsPerNano * targetLatencyNanos : maxPrefetch;
+        long target = (long) Math.min(byLatency, byRate);
+        target = Math.max(minPrefetch, Math.min(maxPrefetch, target));
+        long next = current + (target - current) / 2;
+        if (next == current && target != current) {
+            next = target;
+        }
+        return (int) next;
+    }
+
+    void record(int prefetch, double arrivalsPerNano, long consumerNanos) {
+        this.prefetch = prefetch;
+        this.limit = limitOf(prefetch);
+        this.arrivalRatePerSecond = arrivalsPerNano * 1_000_000_000d;
+        this.avgConsumerNanos = consumerNanos;
+        this.adaptations++;
+    }
+
+    public int prefetch() {
+        return prefetch;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public double arrivalRatePerSecond() {
+        return arrivalRatePerSecond;
+    }
+
+    public long avgConsumerNanos() {
+        return avgConsumerNanos;
+    }
+
+    public long adaptations() {
+        return adaptations;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptivePrefetch{prefetch=" + prefetch + ", limit=" + limit
+                + ", arrivalRate=" + (long) arrivalRatePerSecond + "/s"
+                + ", consumerLatency=" + avgConsumerNanos + "ns"
+                + ", adaptations=" + adaptations + '}';
+    }
+}
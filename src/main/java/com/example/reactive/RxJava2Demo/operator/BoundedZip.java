@@ -0,0 +1,83 @@
+package com.example.reactive.RxJava2Demo.operator;
+
+import io.reactivex.Flowable;
+import io.reactivex.functions.BiFunction;
+import io.reactivex.functions.Function;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import org.reactivestreams.Publisher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @description : 每个源单独限定prefetch的zip
+ * <pre>
+ *     ZipMetrics metrics = new ZipMetrics(2);
+ *     BoundedZip.zip(fast, slow, (a, b) -> a + b, 16, 128, metrics)
+ * </pre>
+ * 与Flowable.zip相比：每个源可以有不同的prefetch；组合时复用同一个Object[]，组合函数不能持有它；
+ * 可选的ZipMetrics记录哪个源在拖慢zip。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:50
+ * @modified by:
+ */
+public final class BoundedZip {
+
+    private BoundedZip() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    /**
+     * @param zipper 收到的数组在调用返回后被清空复用
+     * @param prefetch 每个源最多缓存的条数
+     * @param metrics 可以为null
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T, R> Flowable<R> zip(Iterable<? extends Publisher<? extends T>> sources,
+                                         Function<? super Object[], ? extends R> zipper,
+                                         int prefetch, ZipMetrics metrics) {
+        ObjectHelper.requireNonNull(sources, "sources is null");
+        ObjectHelper.requireNonNull(zipper, "zipper is null");
+        ObjectHelper.verifyPositive(prefetch, "prefetch");
+        List<Publisher<? extends T>> list = new ArrayList<Publisher<? extends T>>();
+        for (Publisher<? extends T> p : sources) {
+            list.add(ObjectHelper.requireNonNull(p, "One of the sources is null"));
+        }
+        int[] prefetches = new int[list.size()];
+        Arrays.fill(prefetches, prefetch);
+        checkMetrics(metrics, list.size());
+        return RxJavaPlugins.onAssembly(new FlowableBoundedZip<T, R>(
+                list.toArray(new Publisher[0]), zipper, prefetches, metrics));
+    }
+
+    /**
+     * 两个源的zip，落后一方的prefetch可以设大一些以吸收它的抖动
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T1, T2, R> Flowable<R> zip(Publisher<? extends T1> source1, Publisher<? extends T2> source2,
+                                              final BiFunction<? super T1, ? super T2, ? extends R> zipper,
+                                              int prefetch1, int prefetch2, ZipMetrics metrics) {
+        ObjectHelper.requireNonNull(source1, "source1 is null");
+        ObjectHelper.requireNonNull(source2, "source2 is null");
+        ObjectHelper.requireNonNull(zipper, "zipper is null");
+        ObjectHelper.verifyPositive(prefetch1, "prefetch1");
+        ObjectHelper.verifyPositive(prefetch2, "prefetch2");
+        checkMetrics(metrics, 2);
+        Function<Object[], R> f = new Function<Object[], R>() {
+            @Override
+            public R apply(Object[] a) throws Exception {
+                return zipper.apply((T1) a[0], (T2) a[1]);
+            }
+        };
+        return RxJavaPlugins.onAssembly(new FlowableBoundedZip<Object, R>(
+                new Publisher[] { source1, source2 }, f, new int[] { prefetch1, prefetch2 }, metrics));
+    }
+
+    private static void checkMetrics(ZipMetrics metrics, int sources) {
+        if (metrics != null && metrics.sources() != sources) {
+            throw new IllegalArgumentException("metrics tracks " + metrics.sources() + " sources, got " + sources);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.reactive.RxJava2Demo.operator;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableTransformer;
+import io.reactivex.functions.Function;
+import io.reactivex.internal.functions.ObjectHelper;
+import org.reactivestreams.Publisher;
+
+/**
+ * @description : 预订阅个数自适应、输出保序的concatMap
+ * <pre>
+ *     AdaptiveLookahead lookahead = new AdaptiveLookahead();
+ *     flowable.compose(ConcatMapEager.adaptive(id -> queryAsync(id), lookahead, 32))
+ * </pre>
+ * concatMap在上一个内部源完成后才订阅下一个，内部源的启动延迟（建立连接、首包）全部串行累加；
+ * Flowable.concatMapEager则一次订阅maxConcurrency个，个数固定。这里提前订阅的个数随内部源的启动延迟调整。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:55
+ * @modified by:
+ */
+public final class ConcatMapEager {
+
+    private ConcatMapEager() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    /**
+     * 预订阅个数在1~32之间调整，每个内部源最多缓存Flowable.bufferSize()条
+     */
+    public static <T, R> FlowableTransformer<T, R> adaptive(
+            Function<? super T, ? extends Publisher<? extends R>> mapper) {
+        return adaptive(mapper, new AdaptiveLookahead(), Flowable.bufferSize());
+    }
+
+    /**
+     * @param lookahead 预订阅个数的调整范围，运行时选定的值也记录在其中
+     * @param prefetch 每个内部源最多缓存的条数
+     */
+    public static <T, R> FlowableTransformer<T, R> adaptive(
+            final Function<? super T, ? extends Publisher<? extends R>> mapper,
+            final AdaptiveLookahead lookahead, final int prefetch) {
+        ObjectHelper.requireNonNull(mapper, "mapper is null");
+        ObjectHelper.requireNonNull(lookahead, "lookahead is null");
+        ObjectHelper.verifyPositive(prefetch, "prefetch");
+        return new FlowableTransformer<T, R>() {
+            @Override
+            public Publisher<R> apply(Flowable<T> upstream) {
+                return new FlowableConcatMapEagerAdaptive<T, R>(upstream, mapper, lookahead, prefetch);
+            }
+        };
+    }
+}
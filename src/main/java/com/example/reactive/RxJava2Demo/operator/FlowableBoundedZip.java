@@ -0,0 +1,358 @@
+package com.example.reactive.RxJava2Demo.operator;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.exceptions.MissingBackpressureException;
+import io.reactivex.functions.Function;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.internal.queue.SpscArrayQueue;
+import io.reactivex.internal.subscriptions.EmptySubscription;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.internal.util.AtomicThrowable;
+import io.reactivex.internal.util.BackpressureHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @description : 每个输入源单独限定prefetch的zip
+ * 每个源最多缓存自己的prefetch条，只有被组合消费掉的部分才向该源补请求：
+ * 跑得快的源队列满后收不到新的请求，请求只流向落后的源，积压不会超过prefetch。
+ * 组合函数每次收到的是同一个Object[]，调用返回后即被清空复用，不能在组合函数之外持有它。
+ * 凑不齐一组时把队列为空的源记入ZipMetrics，用于判断是哪个源拖慢了zip。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:50
+ * @modified by:
+ */
+public final class FlowableBoundedZip<T, R> extends Flowable<R> {
+
+    private final Publisher<? extends T>[] sources;
+
+    private final Function<? super Object[], ? extends R> zipper;
+
+    private final int[] prefetch;
+
+    private final ZipMetrics metrics;
+
+    public FlowableBoundedZip(Publisher<? extends T>[] sources, Function<? super Object[], ? extends R> zipper,
+                              int[] prefetch, ZipMetrics metrics) {
+        this.sources = sources;
+        this.zipper = zipper;
+        this.prefetch = prefetch;
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super R> s) {
+        if (sources.length == 0) {
+            EmptySubscription.complete(s);
+            return;
+        }
+        ZipCoordinator<T, R> coordinator = new ZipCoordinator<T, R>(s, zipper, prefetch, metrics);
+        s.onSubscribe(coordinator);
+        coordinator.subscribe(sources);
+    }
+
+    static final class ZipCoordinator<T, R> extends AtomicInteger implements Subscription {
+
+        private static final long serialVersionUID = -2434867452883857743L;
+
+        final Subscriber<? super R> downstream;
+
+        final Function<? super Object[], ? extends R> zipper;
+
+        final ZipInner<T>[] inners;
+
+        final ZipMetrics metrics;
+
+        final AtomicLong requested = new AtomicLong();
+
+        final AtomicThrowable errors = new AtomicThrowable();
+
+        /** 复用的组合缓冲，仅drain线程访问 */
+        final Object[] current;
+
+        /** 各源开始被等待的时刻，0表示未在等待，仅drain线程访问 */
+        final long[] stalledSince;
+
+        volatile boolean cancelled;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ZipCoordinator(Subscriber<? super R> downstream, Function<? super Object[], ? extends R> zipper,
+                       int[] prefetch, ZipMetrics metrics) {
+            this.downstream = downstream;
+            this.zipper = zipper;
+            this.metrics = metrics;
+            int n = prefetch.length;
+            this.inners = new ZipInner[n];
+            for (int i = 0; i < n; i++) {
+                inners[i] = new ZipInner<T>(this, i, prefetch[i]);
+            }
+            this.current = new Object[n];
+            this.stalledSince = new long[n];
+        }
+
+        void subscribe(Publisher<? extends T>[] sources) {
+            ZipInner<T>[] a = inners;
+            for (int i = 0; i < a.length; i++) {
+                if (cancelled || errors.get() != null) {
+                    return;
+                }
+                sources[i].subscribe(a[i]);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                cancelAll();
+                if (getAndIncrement() == 0) {
+                    clear();
+                }
+            }
+        }
+
+        void cancelAll() {
+            for (ZipInner<T> inner : inners) {
+                SubscriptionHelper.cancel(inner);
+            }
+        }
+
+        void clear() {
+            for (ZipInner<T> inner : inners) {
+                inner.queue.clear();
+            }
+            Arrays.fill(current, null);
+        }
+
+        void innerError(Throwable e) {
+            if (errors.addThrowable(e)) {
+                drain();
+            } else {
+                RxJavaPlugins.onError(e);
+            }
+        }
+
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            final Subscriber<? super R> a = downstream;
+            final ZipInner<T>[] qs = inners;
+            final int n = qs.length;
+            final Object[] values = current;
+            int missed = 1;
+
+            for (;;) {
+                long r = requested.get();
+                long e = 0L;
+
+                for (;;) {
+                    if (cancelled) {
+                        clear();
+                        return;
+                    }
+                    if (errors.get() != null) {
+                        terminateWithError(a);
+                        return;
+                    }
+
+                    boolean empty = false;
+                    for (int j = 0; j < n; j++) {
+                        if (values[j] == null) {
+                            ZipInner<T> inner = qs[j];
+                            boolean d = inner.done;
+                            T v = inner.queue.poll();
+                            if (v == null) {
+                                if (d) {
+                                    cancelAll();
+                                    clear();
+                                    a.onComplete();
+                                    return;
+                                }
+                                empty = true;
+                            } else {
+                                values[j] = v;
+                                inner.taken++;
+                            }
+                        }
+                    }
+
+                    if (empty) {
+                        recordStalls(values);
+                        break;
+                    }
+                    recordResumed(values);
+                    if (e == r) {
+                        break;
+                    }
+
+                    R v;
+                    try {
+                        v = ObjectHelper.requireNonNull(zipper.apply(values), "The zipper returned a null value");
+                    } catch (Throwable ex) {
+                        Exceptions.throwIfFatal(ex);
+                        errors.addThrowable(ex);
+                        terminateWithError(a);
+                        return;
+                    }
+                    Arrays.fill(values, null);
+
+                    a.onNext(v);
+                    e++;
+
+                    for (ZipInner<T> inner : qs) {
+                        inner.consumed();
+                    }
+                }
+
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-e);
+                }
+
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        void terminateWithError(Subscriber<? super R> a) {
+            cancelled = true;
+            cancelAll();
+            clear();
+            a.onError(errors.terminate());
+        }
+
+        /**
+         * 凑不齐一组：值为空的源正在被其他源等待
+         */
+        void recordStalls(Object[] values) {
+            if (metrics == null) {
+                return;
+            }
+            long now = 0L;
+            for (int j = 0; j < values.length; j++) {
+                if (values[j] == null && stalledSince[j] == 0L) {
+                    if (now == 0L) {
+                        now = System.nanoTime();
+                    }
+                    stalledSince[j] = now;
+                    metrics.stalls.incrementAndGet(j);
+                }
+            }
+            for (ZipInner<T> inner : inners) {
+                metrics.recordQueued(inner.index, inner.received - inner.taken);
+            }
+        }
+
+        void recordResumed(Object[] values) {
+            if (metrics == null) {
+                return;
+            }
+            long now = 0L;
+            for (int j = 0; j < values.length; j++) {
+                long since = stalledSince[j];
+                if (since != 0L) {
+                    if (now == 0L) {
+                        now = System.nanoTime();
+                    }
+                    metrics.stallNanos.addAndGet(j, now - since);
+                    stalledSince[j] = 0L;
+                }
+            }
+        }
+    }
+
+    static final class ZipInner<T> extends AtomicReference<Subscription> implements FlowableSubscriber<T> {
+
+        private static final long serialVersionUID = -4627193790118206028L;
+
+        final ZipCoordinator<T, ?> parent;
+
+        final int index;
+
+        final int prefetch;
+
+        final int limit;
+
+        final SpscArrayQueue<T> queue;
+
+        volatile boolean done;
+
+        /** 收到的条数，仅上游线程写 */
+        volatile long received;
+
+        /** 取出的条数与补货计数，仅drain线程访问 */
+        long taken;
+
+        int consumed;
+
+        ZipInner(ZipCoordinator<T, ?> parent, int index, int prefetch) {
+            this.parent = parent;
+            this.index = index;
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+            this.queue = new SpscArrayQueue<T>(prefetch);
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.setOnce(this, s)) {
+                s.request(prefetch);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (!queue.offer(t)) {
+                SubscriptionHelper.cancel(this);
+                onError(new MissingBackpressureException("Queue is full?!"));
+                return;
+            }
+            received++;
+            ZipMetrics m = parent.metrics;
+            if (m != null) {
+                m.received.incrementAndGet(index);
+            }
+            parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            parent.innerError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            parent.drain();
+        }
+
+        /**
+         * 每组合出一条，各源都消费了一条，累计到limit时向该源补货
+         */
+        void consumed() {
+            if (++consumed == limit) {
+                consumed = 0;
+                get().request(limit);
+            }
+        }
+    }
+}
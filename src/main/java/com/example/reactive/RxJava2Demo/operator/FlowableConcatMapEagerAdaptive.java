@@ -0,0 +1,391 @@
+package com.example.reactive.RxJava2Demo.operator;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.exceptions.MissingBackpressureException;
+import io.reactivex.functions.Function;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.internal.queue.SpscArrayQueue;
+import io.reactivex.internal.queue.SpscLinkedArrayQueue;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.internal.util.AtomicThrowable;
+import io.reactivex.internal.util.BackpressureHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @description : 预订阅个数自适应的concatMapEager
+ * 最多同时订阅K个内部源：排在最前面的内部源向下游输出，其余的提前启动并各自缓存最多prefetch条，
+ * 缓存满后不再向它们请求，总内存不超过K * prefetch条。输出顺序与concatMap相同。
+ * 每个内部源消费完成后由AdaptiveLookahead重新估算K，再按K向上游补请求。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:55
+ * @modified by:
+ */
+final class FlowableConcatMapEagerAdaptive<T, R> extends Flowable<R> {
+
+    private final Publisher<T> source;
+
+    private final Function<? super T, ? extends Publisher<? extends R>> mapper;
+
+    private final AdaptiveLookahead lookahead;
+
+    private final int prefetch;
+
+    FlowableConcatMapEagerAdaptive(Publisher<T> source, Function<? super T, ? extends Publisher<? extends R>> mapper,
+                                   AdaptiveLookahead lookahead, int prefetch) {
+        this.source = source;
+        this.mapper = mapper;
+        this.lookahead = lookahead;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super R> s) {
+        source.subscribe(new ConcatMapEagerSubscriber<T, R>(s, mapper, lookahead, prefetch));
+    }
+
+    static final class ConcatMapEagerSubscriber<T, R> extends AtomicInteger
+            implements FlowableSubscriber<T>, Subscription {
+
+        private static final long serialVersionUID = 2283164730385912658L;
+
+        final Subscriber<? super R> downstream;
+
+        final Function<? super T, ? extends Publisher<? extends R>> mapper;
+
+        final AdaptiveLookahead config;
+
+        final int prefetch;
+
+        /** 已订阅的内部源，按上游顺序排列；上游线程写入，drain线程取出 */
+        final SpscLinkedArrayQueue<EagerInner<R>> inners;
+
+        final AtomicLong requested = new AtomicLong();
+
+        final AtomicThrowable errors = new AtomicThrowable();
+
+        Subscription upstream;
+
+        volatile boolean done;
+
+        volatile boolean cancelled;
+
+        /** 以下字段只在drain线程访问 */
+        EagerInner<R> current;
+
+        int lookahead;
+
+        long upstreamRequested;
+
+        long finished;
+
+        long startupNanos;
+
+        long intervalNanos;
+
+        long lastFinishedAt;
+
+        ConcatMapEagerSubscriber(Subscriber<? super R> downstream,
+                                 Function<? super T, ? extends Publisher<? extends R>> mapper,
+                                 AdaptiveLookahead config, int prefetch) {
+            this.downstream = downstream;
+            this.mapper = mapper;
+            this.config = config;
+            this.prefetch = prefetch;
+            this.inners = new SpscLinkedArrayQueue<EagerInner<R>>(Math.min(config.maxLookahead, 128));
+            this.lookahead = config.initialLookahead;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(this.upstream, s)) {
+                this.upstream = s;
+                downstream.onSubscribe(this);
+                drain();
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            Publisher<? extends R> p;
+            try {
+                p = ObjectHelper.requireNonNull(mapper.apply(t), "The mapper returned a null Publisher");
+            } catch (Throwable ex) {
+                Exceptions.throwIfFatal(ex);
+                upstream.cancel();
+                onError(ex);
+                return;
+            }
+            EagerInner<R> inner = new EagerInner<R>(this, prefetch);
+            inners.offer(inner);
+            if (cancelled) {
+                drain();
+                return;
+            }
+            inner.subscribedAt = System.nanoTime();
+            p.subscribe(inner);
+            // cancel()可能发生在上面的cancelled检查与subscribe之间，此时需要补一次取消
+            if (cancelled) {
+                inner.cancel();
+            }
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            if (errors.addThrowable(t)) {
+                done = true;
+                drain();
+            } else {
+                RxJavaPlugins.onError(t);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (!done) {
+                done = true;
+                drain();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                upstream.cancel();
+                if (getAndIncrement() == 0) {
+                    cancelInners();
+                }
+            }
+        }
+
+        void innerError(EagerInner<R> inner, Throwable e) {
+            if (errors.addThrowable(e)) {
+                inner.done = true;
+                drain();
+            } else {
+                RxJavaPlugins.onError(e);
+            }
+        }
+
+        void cancelInners() {
+            EagerInner<R> inner = current;
+            current = null;
+            if (inner != null) {
+                inner.cancel();
+            }
+            while ((inner = inners.poll()) != null) {
+                inner.cancel();
+            }
+        }
+
+        /**
+         * 上游已请求、未消费完成的内部源不足K个时补齐
+         */
+        void requestUpstream() {
+            long outstanding = upstreamRequested - finished;
+            if (outstanding < lookahead && !done) {
+                long n = lookahead - outstanding;
+                upstreamRequested += n;
+                upstream.request(n);
+            }
+        }
+
+        void innerFinished(EagerInner<R> inner) {
+            long now = System.nanoTime();
+            long ready = inner.readyAt;
+            if (ready == 0L) {
+                ready = now;
+            }
+            startupNanos = AdaptiveLookahead.ewma(startupNanos, ready - inner.subscribedAt);
+            if (lastFinishedAt != 0L) {
+                intervalNanos = AdaptiveLookahead.ewma(intervalNanos, now - lastFinishedAt);
+                lookahead = config.next(startupNanos, intervalNanos);
+            }
+            lastFinishedAt = now;
+            finished++;
+            config.record(lookahead, startupNanos, intervalNanos);
+        }
+
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            final Subscriber<? super R> a = downstream;
+            int missed = 1;
+
+            for (;;) {
+                if (upstream != null && !cancelled) {
+                    requestUpstream();
+                }
+
+                long r = requested.get();
+                long e = 0L;
+
+                outer:
+                for (;;) {
+                    if (cancelled) {
+                        cancelInners();
+                        return;
+                    }
+                    if (errors.get() != null) {
+                        upstream.cancel();
+                        cancelInners();
+                        a.onError(errors.terminate());
+                        return;
+                    }
+
+                    EagerInner<R> inner = current;
+                    if (inner == null) {
+                        boolean d = done;
+                        inner = inners.poll();
+                        if (inner == null) {
+                            if (d) {
+                                a.onComplete();
+                                return;
+                            }
+                            break;
+                        }
+                        current = inner;
+                        if (inner.readyAt == 0L) {
+                            config.headWait();
+                        }
+                    }
+
+                    for (;;) {
+                        if (cancelled || errors.get() != null) {
+                            continue outer;
+                        }
+                        boolean d = inner.done;
+                        R v = e != r ? inner.queue.poll() : null;
+                        if (v == null) {
+                            if (d && inner.queue.isEmpty()) {
+                                current = null;
+                                innerFinished(inner);
+                                requestUpstream();
+                                continue outer;
+                            }
+                            break outer;
+                        }
+                        a.onNext(v);
+                        e++;
+                        inner.consumed();
+                    }
+                }
+
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-e);
+                }
+
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+    }
+
+    static final class EagerInner<R> extends AtomicReference<Subscription> implements FlowableSubscriber<R> {
+
+        private static final long serialVersionUID = -7193408651743580512L;
+
+        final ConcatMapEagerSubscriber<?, R> parent;
+
+        final int prefetch;
+
+        final int limit;
+
+        final SpscArrayQueue<R> queue;
+
+        volatile boolean done;
+
+        /** 订阅时刻，由上游线程在订阅前写入 */
+        volatile long subscribedAt;
+
+        /** 第一条数据或完成信号到达的时刻 */
+        volatile long readyAt;
+
+        /** 只在drain线程访问 */
+        int consumed;
+
+        EagerInner(ConcatMapEagerSubscriber<?, R> parent, int prefetch) {
+            this.parent = parent;
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+            this.queue = new SpscArrayQueue<R>(prefetch);
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.setOnce(this, s)) {
+                s.request(prefetch);
+            }
+        }
+
+        @Override
+        public void onNext(R t) {
+            if (readyAt == 0L) {
+                readyAt = System.nanoTime();
+            }
+            if (!queue.offer(t)) {
+                cancel();
+                onError(new MissingBackpressureException("Queue is full?!"));
+                return;
+            }
+            parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            parent.innerError(this, t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (readyAt == 0L) {
+                readyAt = System.nanoTime();
+            }
+            done = true;
+            parent.drain();
+        }
+
+        /**
+         * 只有排在最前面的内部源会被消费，其余的缓存满prefetch后停止请求
+         */
+        void consumed() {
+            if (++consumed == limit) {
+                consumed = 0;
+                get().request(limit);
+            }
+        }
+
+        void cancel() {
+            SubscriptionHelper.cancel(this);
+            queue.clear();
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.reactive.RxJava2Demo.operator;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.Scheduler;
+import io.reactivex.internal.queue.SpscLinkedArrayQueue;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.internal.util.BackpressureHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description : prefetch可在运行时调整的observeOn
+ * 队列使用无界的SpscLinkedArrayQueue，积压量由向上游的请求量约束：
+ * prefetch变大时额外补请求差值；变小时把差值记为欠账，从后续的补货量中扣除。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午5:50
+ * @modified by:
+ */
+@Slf4j
+public final class FlowableObserveOnAdaptive<T> extends Flowable<T> {
+
+    private final Publisher<T> source;
+
+    private final Scheduler scheduler;
+
+    private final AdaptivePrefetch config;
+
+    public FlowableObserveOnAdaptive(Publisher<T> source, Scheduler scheduler, AdaptivePrefetch config) {
+        this.source = source;
+        this.scheduler = scheduler;
+        this.config = config;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super T> s) {
+        source.subscribe(new ObserveOnAdaptiveSubscriber<T>(s, scheduler.createWorker(), config));
+    }
+
+    static final class ObserveOnAdaptiveSubscriber<T> extends AtomicInteger
+            implements FlowableSubscriber<T>, Subscription, Runnable {
+
+        private static final long serialVersionUID = 6409367412196318544L;
+
+        final Subscriber<? super T> downstream;
+
+        final Scheduler.Worker worker;
+
+        final AdaptivePrefetch config;
+
+        final SpscLinkedArrayQueue<T> queue;
+
+        final AtomicLong requested = new AtomicLong();
+
+        Subscription upstream;
+
+        volatile boolean cancelled;
+
+        volatile boolean done;
+
+        Throwable error;
+
+        /** 上游线程写入的到达条数 */
+        volatile long arrivals;
+
+        /** 以下字段仅在drain线程访问 */
+        int prefetch;
+
+        /** 自上次补货以来消费的条数，为负数时表示prefetch收缩后尚未还清的欠账 */
+        long consumed;
+
+        long lastArrivals;
+
+        long lastAdaptNanos;
+
+        long consumerNanos;
+
+        long consumerSamples;
+
+        ObserveOnAdaptiveSubscriber(Subscriber<? super T> downstream, Scheduler.Worker worker, AdaptivePrefetch config) {
+            this.downstream = downstream;
+            this.worker = worker;
+            this.config = config;
+            this.prefetch = config.initialPrefetch;
+            this.queue = new SpscLinkedArrayQueue<T>(Math.min(config.maxPrefetch, Flowable.bufferSize()));
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(this.upstream, s)) {
+                this.upstream = s;
+                lastAdaptNanos = System.nanoTime();
+                config.record(prefetch, 0d, 0L);
+                downstream.onSubscribe(this);
+                s.request(prefetch);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            queue.offer(t);
+            arrivals++;
+            schedule();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            error = t;
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void onComplete() {
+            if (!done) {
+                done = true;
+                schedule();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+                schedule();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                upstream.cancel();
+                worker.dispose();
+                if (getAndIncrement() == 0) {
+                    queue.clear();
+                }
+            }
+        }
+
+        void schedule() {
+            if (getAndIncrement() == 0) {
+                worker.schedule(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            final Subscriber<? super T> a = downstream;
+            final SpscLinkedArrayQueue<T> q = queue;
+            for (;;) {
+                long r = requested.get();
+                long e = 0L;
+
+                while (e != r) {
+                    boolean d = done;
+                    T v = q.poll();
+                    boolean empty = v == null;
+                    if (checkTerminated(d, empty, a)) {
+                        return;
+                    }
+                    if (empty) {
+                        break;
+                    }
+
+                    long start = System.nanoTime();
+                    a.onNext(v);
+                    consumerNanos += System.nanoTime() - start;
+                    consumerSamples++;
+                    e++;
+
+                    if (++consumed >= AdaptivePrefetch.limitOf(prefetch)) {
+                        replenish();
+                    }
+                }
+
+                if (e == r && checkTerminated(done, q.isEmpty(), a)) {
+                    return;
+                }
+
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-e);
+                }
+
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        /**
+         * 每消费limit条调整一次prefetch，并把调整差值计入本次补货量
+         */
+        void replenish() {
+            long now = System.nanoTime();
+            long arrived = arrivals;
+            long elapsed = now - lastAdaptNanos;
+            double rate = elapsed > 0L ? (double) (arrived - lastArrivals) / elapsed : 0d;
+            long latency = consumerSamples > 0L ? consumerNanos / consumerSamples : 0L;
+            lastAdaptNanos = now;
+            lastArrivals = arrived;
+            consumerNanos = 0L;
+            consumerSamples = 0L;
+
+            int old = prefetch;
+            int next = config.next(old, rate, latency);
+            if (next != old) {
+                log.debug("observeOnAdaptive prefetch {} -> {}, arrivalRate={}/ns, consumerLatency={}ns",
+                        old, next, rate, latency);
+            }
+            prefetch = next;
+            config.record(next, rate, latency);
+
+            long n = consumed + (next - old);
+            if (n > 0L) {
+                consumed = 0L;
+                upstream.request(n);
+            } else {
+                consumed = n;
+            }
+        }
+
+        boolean checkTerminated(boolean d, boolean empty, Subscriber<? super T> a) {
+            if (cancelled) {
+                queue.clear();
+                return true;
+            }
+            if (d) {
+                Throwable ex = error;
+                if (ex != null) {
+                    cancelled = true;
+                    queue.clear();
+                    a.onError(ex);
+                    worker.dispose();
+                    return true;
+                } else if (empty) {
+                    cancelled = true;
+                    a.onComplete();
+                    worker.dispose();
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
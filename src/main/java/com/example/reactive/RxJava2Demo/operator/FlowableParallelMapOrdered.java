@@ -0,0 +1,344 @@
+package com.example.reactive.RxJava2Demo.operator;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.Scheduler;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.exceptions.MissingBackpressureException;
+import io.reactivex.functions.Function;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.internal.queue.SpscArrayQueue;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.internal.util.BackpressureHelper;
+import io.reactivex.internal.util.NotificationLite;
+import io.reactivex.plugins.RxJavaPlugins;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * @description : 多条rail并行执行map，并按上游顺序输出
+ * 第k条数据交给第k % rails条rail，每条rail是调度器的一个Worker，rail内部按顺序处理。
+ * 结果写入长度为window的重排槽位（第k条写入k % window），输出端从emitted开始顺序取槽位，
+ * 前面的数据还没算完时后面的结果留在槽位里等待。
+ * 向上游的请求总量不超过window，槽位清空后才补货，所以在途数据加上待重排的结果最多window条，不会互相覆盖。
+ * mapper抛出的异常同样写入槽位，在它之前的结果全部输出后才发出onError。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午8:30
+ * @modified by:
+ */
+public final class FlowableParallelMapOrdered<T, R> extends Flowable<R> {
+
+    private final Publisher<T> source;
+
+    private final Function<? super T, ? extends R> mapper;
+
+    private final Scheduler scheduler;
+
+    private final int rails;
+
+    private final int window;
+
+    public FlowableParallelMapOrdered(Publisher<T> source, Function<? super T, ? extends R> mapper,
+                                      Scheduler scheduler, int rails, int window) {
+        this.source = source;
+        this.mapper = mapper;
+        this.scheduler = scheduler;
+        this.rails = rails;
+        this.window = window;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super R> s) {
+        source.subscribe(new ParallelMapOrderedSubscriber<T, R>(s, mapper, scheduler, rails, window));
+    }
+
+    static final class ParallelMapOrderedSubscriber<T, R> extends AtomicInteger
+            implements FlowableSubscriber<T>, Subscription {
+
+        private static final long serialVersionUID = -3427137915410392474L;
+
+        final Subscriber<? super R> downstream;
+
+        final Function<? super T, ? extends R> mapper;
+
+        final Rail<T, R>[] rails;
+
+        final int window;
+
+        final int limit;
+
+        /** 重排槽位，第k条数据的结果（或NotificationLite包装的异常）写入k % window */
+        final AtomicReferenceArray<Object> slots;
+
+        final AtomicLong requested = new AtomicLong();
+
+        Subscription upstream;
+
+        volatile boolean cancelled;
+
+        volatile boolean done;
+
+        /** 上游已发出的条数，onComplete之后即总条数 */
+        volatile long received;
+
+        /** 上游错误，只在所有已收到的数据输出后发出 */
+        Throwable error;
+
+        /** 以下字段仅在drain线程访问 */
+        long emitted;
+
+        int consumed;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ParallelMapOrderedSubscriber(Subscriber<? super R> downstream, Function<? super T, ? extends R> mapper,
+                                     Scheduler scheduler, int rails, int window) {
+            this.downstream = downstream;
+            this.mapper = mapper;
+            this.window = window;
+            this.limit = window - (window >> 2);
+            this.slots = new AtomicReferenceArray<Object>(window);
+            int railCapacity = (window + rails - 1) / rails;
+            this.rails = new Rail[rails];
+            for (int i = 0; i < rails; i++) {
+                this.rails[i] = new Rail<T, R>(this, scheduler.createWorker(), i, rails, railCapacity);
+            }
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(this.upstream, s)) {
+                this.upstream = s;
+                downstream.onSubscribe(this);
+                s.request(window);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            long k = received;
+            Rail<T, R> rail = rails[(int) (k % rails.length)];
+            if (!rail.queue.offer(t)) {
+                upstream.cancel();
+                onError(new MissingBackpressureException("Queue is full?!"));
+                return;
+            }
+            received = k + 1;
+            rail.schedule();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            error = t;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            if (!done) {
+                done = true;
+                drain();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                upstream.cancel();
+                disposeRails();
+                if (getAndIncrement() == 0) {
+                    clear();
+                }
+            }
+        }
+
+        /**
+         * rail算完第index条后调用
+         */
+        void onResult(long index, Object result) {
+            slots.lazySet((int) (index % window), result);
+            drain();
+        }
+
+        void disposeRails() {
+            for (Rail<T, R> rail : rails) {
+                rail.worker.dispose();
+            }
+        }
+
+        void clear() {
+            for (Rail<T, R> rail : rails) {
+                rail.queue.clear();
+            }
+            for (int i = 0; i < window; i++) {
+                slots.lazySet(i, null);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            final Subscriber<? super R> a = downstream;
+            final AtomicReferenceArray<Object> s = slots;
+            final int w = window;
+            long e = emitted;
+            int c = consumed;
+            for (;;) {
+                long r = requested.get();
+
+                while (e != r) {
+                    if (cancelled) {
+                        clear();
+                        return;
+                    }
+                    int offset = (int) (e % w);
+                    Object v = s.get(offset);
+                    if (v == null) {
+                        break;
+                    }
+                    if (NotificationLite.isError(v)) {
+                        cancelAndError(a, NotificationLite.getError(v));
+                        return;
+                    }
+                    s.lazySet(offset, null);
+                    a.onNext((R) v);
+                    e++;
+                    if (++c == limit) {
+                        c = 0;
+                        upstream.request(limit);
+                    }
+                }
+
+                if (cancelled) {
+                    clear();
+                    return;
+                }
+                if (done && e == received) {
+                    cancelled = true;
+                    disposeRails();
+                    Throwable ex = error;
+                    if (ex != null) {
+                        a.onError(ex);
+                    } else {
+                        a.onComplete();
+                    }
+                    return;
+                }
+
+                if (e == r) {
+                    Object v = s.get((int) (e % w));
+                    if (v != null && NotificationLite.isError(v)) {
+                        cancelAndError(a, NotificationLite.getError(v));
+                        return;
+                    }
+                }
+
+                emitted = e;
+                consumed = c;
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        void cancelAndError(Subscriber<? super R> a, Throwable ex) {
+            cancelled = true;
+            upstream.cancel();
+            disposeRails();
+            clear();
+            a.onError(ex);
+        }
+    }
+
+    /**
+     * 一条rail：单个Worker上按顺序处理分配给它的数据，第n条对应全局序号index + n * stride
+     */
+    static final class Rail<T, R> extends AtomicInteger implements Runnable {
+
+        private static final long serialVersionUID = 8236476582392738415L;
+
+        final ParallelMapOrderedSubscriber<T, R> parent;
+
+        final Scheduler.Worker worker;
+
+        final SpscArrayQueue<T> queue;
+
+        final int stride;
+
+        /** 下一条数据的全局序号，仅在worker线程访问 */
+        long index;
+
+        Rail(ParallelMapOrderedSubscriber<T, R> parent, Scheduler.Worker worker, int index, int stride,
+             int capacity) {
+            this.parent = parent;
+            this.worker = worker;
+            this.index = index;
+            this.stride = stride;
+            this.queue = new SpscArrayQueue<T>(capacity);
+        }
+
+        void schedule() {
+            if (getAndIncrement() == 0) {
+                worker.schedule(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            final SpscArrayQueue<T> q = queue;
+            for (;;) {
+                for (;;) {
+                    if (parent.cancelled) {
+                        q.clear();
+                        return;
+                    }
+                    T t = q.poll();
+                    if (t == null) {
+                        break;
+                    }
+                    Object result;
+                    try {
+                        result = ObjectHelper.requireNonNull(parent.mapper.apply(t),
+                                "The mapper returned a null value");
+                    } catch (Throwable ex) {
+                        Exceptions.throwIfFatal(ex);
+                        result = NotificationLite.error(ex);
+                    }
+                    long k = index;
+                    index = k + stride;
+                    parent.onResult(k, result);
+                }
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.reactive.RxJava2Demo.operator;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableTransformer;
+import io.reactivex.Scheduler;
+import io.reactivex.functions.Function;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.schedulers.Schedulers;
+import org.reactivestreams.Publisher;
+
+/**
+ * @description : 保序的并行map
+ * <pre>
+ *     flowable.observeOn(Schedulers.io())
+ *             .compose(ParallelMap.ordered(mapper))
+ *             .observeOn(Schedulers.newThread())
+ * </pre>
+ * 与parallel().runOn().map().sequential()相比，输出顺序与上游一致，重排缓冲的大小固定为window。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午8:30
+ * @modified by:
+ */
+public final class ParallelMap {
+
+    private ParallelMap() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    /**
+     * rail数等于CPU核数，在computation调度器上执行，每条rail的窗口为Flowable.bufferSize()
+     */
+    public static <T, R> FlowableTransformer<T, R> ordered(Function<? super T, ? extends R> mapper) {
+        int rails = Runtime.getRuntime().availableProcessors();
+        return ordered(mapper, Schedulers.computation(), rails, rails * Flowable.bufferSize());
+    }
+
+    /**
+     * @param scheduler rail所在的调度器，每条rail占用一个Worker
+     * @param rails 并行度
+     * @param window 重排缓冲大小，即同时在途（已请求未输出）的最大条数
+     */
+    public static <T, R> FlowableTransformer<T, R> ordered(final Function<? super T, ? extends R> mapper,
+                                                           final Scheduler scheduler, final int rails,
+                                                           final int window) {
+        ObjectHelper.requireNonNull(mapper, "mapper is null");
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        ObjectHelper.verifyPositive(rails, "rails");
+        ObjectHelper.verifyPositive(window, "window");
+        return new FlowableTransformer<T, R>() {
+            @Override
+            public Publisher<R> apply(Flowable<T> upstream) {
+                return new FlowableParallelMapOrdered<T, R>(upstream, mapper, scheduler, rails, window);
+            }
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.reactive.RxJava2Demo.operator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @description : zip各输入源的偏差指标
+ * 凑不齐一组数据时，队列为空的源就是拖慢zip的一方：记录它被等待的次数与累计时长；
+ * 同时记录每个源收到的条数与队列中积压的最大条数，积压接近prefetch的一方是跑得快、在等别人的一方。
+ * 多个订阅共用同一个ZipMetrics时指标累加。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:50
+ * @modified by:
+ */
+public final class ZipMetrics {
+
+    private final int sources;
+
+    final AtomicLongArray received;
+
+    final AtomicLongArray maxQueued;
+
+    final AtomicLongArray stalls;
+
+    final AtomicLongArray stallNanos;
+
+    public ZipMetrics(int sources) {
+        this.sources = sources;
+        this.received = new AtomicLongArray(sources);
+        this.maxQueued = new AtomicLongArray(sources);
+        this.stalls = new AtomicLongArray(sources);
+        this.stallNanos = new AtomicLongArray(sources);
+    }
+
+    public int sources() {
+        return sources;
+    }
+
+    public long received(int source) {
+        return received.get(source);
+    }
+
+    public long maxQueued(int source) {
+        return maxQueued.get(source);
+    }
+
+    /**
+     * @return 因该源为空而凑不齐一组的次数
+     */
+    public long stalls(int source) {
+        return stalls.get(source);
+    }
+
+    /**
+     * @return 其他源在等待该源的累计时长
+     */
+    public long stallTime(int source, TimeUnit unit) {
+        return unit.convert(stallNanos.get(source), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return 累计被等待时间最长的源，没有等待时为-1
+     */
+    public int laggingSource() {
+        int index = -1;
+        long max = 0L;
+        for (int i = 0; i < sources; i++) {
+            long v = stallNanos.get(i);
+            if (v > max) {
+                max = v;
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    void recordQueued(int source, long depth) {
+        for (;;) {
+            long m = maxQueued.get(source);
+            if (depth <= m || maxQueued.compareAndSet(source, m, depth)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ZipMetrics{laggingSource=").append(laggingSource());
+        for (int i = 0; i < sources; i++) {
+            sb.append(", [").append(i)
+                    .append("] received=").append(received(i))
+                    .append(" maxQueued=").append(maxQueued(i))
+                    .append(" stalls=").append(stalls(i))
+                    .append(" stallTime=").append(stallTime(i, TimeUnit.MILLISECONDS)).append("ms");
+        }
+        return sb.append('}').toString();
+    }
+}
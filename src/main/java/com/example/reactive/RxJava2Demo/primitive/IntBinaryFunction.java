@@ -0,0 +1,12 @@
+package com.example.reactive.RxJava2Demo.primitive;
+
+/**
+ * @description : (int, int) -> int，用于reduce
+ * @author: liuchuang
+ * @date: 2026/10/18 下午7:10
+ * @modified by:
+ */
+public interface IntBinaryFunction {
+
+    int apply(int left, int right) throws Exception;
+}
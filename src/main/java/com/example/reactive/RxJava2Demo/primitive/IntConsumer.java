@@ -0,0 +1,12 @@
+package com.example.reactive.RxJava2Demo.primitive;
+
+/**
+ * @description : 消费int，与io.reactivex.functions.Consumer一样允许抛出受检异常
+ * @author: liuchuang
+ * @date: 2026/10/18 下午7:10
+ * @modified by:
+ */
+public interface IntConsumer {
+
+    void accept(int value) throws Exception;
+}
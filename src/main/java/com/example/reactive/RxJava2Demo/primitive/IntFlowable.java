@@ -0,0 +1,121 @@
+package com.example.reactive.RxJava2Demo.primitive;
+
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.functions.Action;
+import io.reactivex.functions.Consumer;
+import io.reactivex.internal.functions.Functions;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import org.reactivestreams.Publisher;
+
+/**
+ * @description : 元素为int的Flowable
+ * Flowable<Integer>的每个元素都要装箱（-128~127以外每次都新建Integer），数值管道的大部分时间花在分配和GC上。
+ * IntFlowable沿用Reactive Streams的Subscription/request(n)背压语义，但onNext传递的是int，
+ * observeOn使用int[]环形队列，整条管道不产生装箱对象；需要与普通Flowable衔接时使用boxed()/fromPublisher()。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午7:10
+ * @modified by:
+ */
+public abstract class IntFlowable {
+
+    /**
+     * 订阅，对应Flowable.subscribe(Subscriber)
+     */
+    public final void subscribe(IntSubscriber s) {
+        ObjectHelper.requireNonNull(s, "s is null");
+        try {
+            subscribeActual(s);
+        } catch (NullPointerException e) {
+            throw e;
+        } catch (Throwable e) {
+            Exceptions.throwIfFatal(e);
+            RxJavaPlugins.onError(e);
+            NullPointerException npe = new NullPointerException("Actually not, but can't throw other exceptions due to RS");
+            npe.initCause(e);
+            throw npe;
+        }
+    }
+
+    protected abstract void subscribeActual(IntSubscriber s);
+
+    /**
+     * 发射[start, start + count)的int
+     */
+    public static IntFlowable range(int start, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count >= 0 required but it was " + count);
+        }
+        if ((long) start + (count - 1) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Integer overflow");
+        }
+        return new IntFlowableRange(start, count);
+    }
+
+    /**
+     * 拆箱普通的Publisher<Integer>
+     */
+    public static IntFlowable fromPublisher(Publisher<Integer> source) {
+        ObjectHelper.requireNonNull(source, "source is null");
+        return new IntFlowableFromPublisher(source);
+    }
+
+    public final IntFlowable map(IntUnaryFunction mapper) {
+        ObjectHelper.requireNonNull(mapper, "mapper is null");
+        return new IntFlowableMap(this, mapper);
+    }
+
+    public final IntFlowable filter(IntPredicate predicate) {
+        ObjectHelper.requireNonNull(predicate, "predicate is null");
+        return new IntFlowableFilter(this, predicate);
+    }
+
+    public final IntFlowable observeOn(Scheduler scheduler) {
+        return observeOn(scheduler, Flowable.bufferSize());
+    }
+
+    /**
+     * @param prefetch 预取数量，与Flowable.observeOn相同，消费75%后补货
+     */
+    public final IntFlowable observeOn(Scheduler scheduler, int prefetch) {
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        ObjectHelper.verifyPositive(prefetch, "prefetch");
+        return new IntFlowableObserveOn(this, scheduler, prefetch);
+    }
+
+    /**
+     * 归约，只有最终结果装箱一次
+     */
+    public final Single<Integer> reduce(int seed, IntBinaryFunction reducer) {
+        ObjectHelper.requireNonNull(reducer, "reducer is null");
+        return RxJavaPlugins.onAssembly(new IntFlowableReduce(this, seed, reducer));
+    }
+
+    public final Single<Integer> sum() {
+        return reduce(0, IntFlowableReduce.SUM);
+    }
+
+    /**
+     * 转为普通的Flowable<Integer>，从这里开始逐个装箱
+     */
+    public final Flowable<Integer> boxed() {
+        return RxJavaPlugins.onAssembly(new IntFlowableBoxed(this));
+    }
+
+    public final Disposable subscribe(IntConsumer onNext) {
+        return subscribe(onNext, Functions.ON_ERROR_MISSING, Functions.EMPTY_ACTION);
+    }
+
+    public final Disposable subscribe(IntConsumer onNext, Consumer<? super Throwable> onError, Action onComplete) {
+        ObjectHelper.requireNonNull(onNext, "onNext is null");
+        ObjectHelper.requireNonNull(onError, "onError is null");
+        ObjectHelper.requireNonNull(onComplete, "onComplete is null");
+        IntLambdaSubscriber ls = new IntLambdaSubscriber(onNext, onError, onComplete);
+        subscribe(ls);
+        return ls;
+    }
+}
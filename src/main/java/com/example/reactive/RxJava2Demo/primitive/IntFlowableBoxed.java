@@ -0,0 +1,54 @@
+package com.example.reactive.RxJava2Demo.primitive;
+
+import io.reactivex.Flowable;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * @description : IntFlowable -> Flowable<Integer>
+ * @author: liuchuang
+ * @date: 2026/10/18 下午7:10
+ * @modified by:
+ */
+final class IntFlowableBoxed extends Flowable<Integer> {
+
+    final IntFlowable source;
+
+    IntFlowableBoxed(IntFlowable source) {
+        this.source = source;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super Integer> s) {
+        source.subscribe(new BoxedSubscriber(s));
+    }
+
+    static final class BoxedSubscriber implements IntSubscriber {
+
+        final Subscriber<? super Integer> downstream;
+
+        BoxedSubscriber(Subscriber<? super Integer> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            downstream.onSubscribe(s);
+        }
+
+        @Override
+        public void onNext(int value) {
+            downstream.onNext(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            downstream.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            downstream.onComplete();
+        }
+    }
+}
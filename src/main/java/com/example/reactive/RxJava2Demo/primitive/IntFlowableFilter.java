@@ -0,0 +1,102 @@
+package com.example.reactive.RxJava2Demo.primitive;
+
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import org.reactivestreams.Subscription;
+
+/**
+ * @description : IntFlowable.filter，被过滤掉的数据向上游补请求1条
+ * @author: liuchuang
+ * @date: 2026/10/18 下午7:10
+ * @modified by:
+ */
+final class IntFlowableFilter extends IntFlowable {
+
+    final IntFlowable source;
+
+    final IntPredicate predicate;
+
+    IntFlowableFilter(IntFlowable source, IntPredicate predicate) {
+        this.source = source;
+        this.predicate = predicate;
+    }
+
+    @Override
+    protected void subscribeActual(IntSubscriber s) {
+        source.subscribe(new FilterSubscriber(s, predicate));
+    }
+
+    static final class FilterSubscriber implements IntSubscriber, Subscription {
+
+        final IntSubscriber downstream;
+
+        final IntPredicate predicate;
+
+        Subscription upstream;
+
+        boolean done;
+
+        FilterSubscriber(IntSubscriber downstream, IntPredicate predicate) {
+            this.downstream = downstream;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(this.upstream, s)) {
+                this.upstream = s;
+                downstream.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(int value) {
+            if (done) {
+                return;
+            }
+            boolean pass;
+            try {
+                pass = predicate.test(value);
+            } catch (Throwable ex) {
+                Exceptions.throwIfFatal(ex);
+                upstream.cancel();
+                onError(ex);
+                return;
+            }
+            if (pass) {
+                downstream.onNext(value);
+            } else {
+                upstream.request(1);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            done = true;
+            downstream.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (!done) {
+                done = true;
+                downstream.onComplete();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            upstream.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            upstream.cancel();
+        }
+    }
+}
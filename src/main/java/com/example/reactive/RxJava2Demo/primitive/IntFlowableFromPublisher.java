@@ -0,0 +1,54 @@
+package com.example.reactive.RxJava2Demo.primitive;
+
+import io.reactivex.FlowableSubscriber;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+
+/**
+ * @description : Publisher<Integer> -> IntFlowable，在入口处拆箱一次
+ * @author: liuchuang
+ * @date: 2026/10/18 下午7:10
+ * @modified by:
+ */
+final class IntFlowableFromPublisher extends IntFlowable {
+
+    final Publisher<Integer> source;
+
+    IntFlowableFromPublisher(Publisher<Integer> source) {
+        this.source = source;
+    }
+
+    @Override
+    protected void subscribeActual(IntSubscriber s) {
+        source.subscribe(new UnboxingSubscriber(s));
+    }
+
+    static final class UnboxingSubscriber implements FlowableSubscriber<Integer> {
+
+        final IntSubscriber downstream;
+
+        UnboxingSubscriber(IntSubscriber downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            downstream.onSubscribe(s);
+        }
+
+        @Override
+        public void onNext(Integer value) {
+            downstream.onNext(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            downstream.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            downstream.onComplete();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.reactive.RxJava2Demo.primitive;
+
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import org.reactivestreams.Subscription;
+
+/**
+ * @description : IntFlowable.map
+ * @author: liuchuang
+ * @date: 2026/10/18 下午7:10
+ * @modified by:
+ */
+final class IntFlowableMap extends IntFlowable {
+
+    final IntFlowable source;
+
+    final IntUnaryFunction mapper;
+
+    IntFlowableMap(IntFlowable source, IntUnaryFunction mapper) {
+        this.source = source;
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected void subscribeActual(IntSubscriber s) {
+        source.subscribe(new MapSubscriber(s, mapper));
+    }
+
+    static final class MapSubscriber implements IntSubscriber, Subscription {
+
+        final IntSubscriber downstream;
+
+        final IntUnaryFunction mapper;
+
+        Subscription upstream;
+
+        boolean done;
+
+        MapSubscriber(IntSubscriber downstream, IntUnaryFunction mapper) {
+            this.downstream = downstream;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(this.upstream, s)) {
+                this.upstream = s;
+                downstream.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(int value) {
+            if (done) {
+                return;
+            }
+            int v;
+            try {
+                v = mapper.apply(value);
+            } catch (Throwable ex) {
+                Exceptions.throwIfFatal(ex);
+                upstream.cancel();
+                onError(ex);
+                return;
+            }
+            downstream.onNext(v);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            done = true;
+            downstream.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (!done) {
+                done = true;
+                downstream.onComplete();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            upstream.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            upstream.cancel();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.reactive.RxJava2Demo.primitive;
+
+import io.reactivex.Scheduler;
+import io.reactivex.exceptions.MissingBackpressureException;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.internal.util.BackpressureHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description : IntFlowable.observeOn，缓存池为int[]环形队列，预取与补货规则与Flowable.observeOn相同
+ * @author: liuchuang
+ * @date: 2026/10/18 下午7:10
+ * @modified by:
+ */
+final class IntFlowableObserveOn extends IntFlowable {
+
+    final IntFlowable source;
+
+    final Scheduler scheduler;
+
+    final int prefetch;
+
+    IntFlowableObserveOn(IntFlowable source, Scheduler scheduler, int prefetch) {
+        this.source = source;
+        this.scheduler = scheduler;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    protected void subscribeActual(IntSubscriber s) {
+        source.subscribe(new ObserveOnSubscriber(s, scheduler.createWorker(), prefetch));
+    }
+
+    static final class ObserveOnSubscriber extends AtomicInteger implements IntSubscriber, Subscription, Runnable {
+
+        private static final long serialVersionUID = -4876950406960640497L;
+
+        final IntSubscriber downstream;
+
+        final Scheduler.Worker worker;
+
+        final int prefetch;
+
+        final int limit;
+
+        final IntSpscArrayQueue queue;
+
+        final AtomicLong requested = new AtomicLong();
+
+        Subscription upstream;
+
+        volatile boolean cancelled;
+
+        volatile boolean done;
+
+        Throwable error;
+
+        /** 仅drain线程访问 */
+        long produced;
+
+        ObserveOnSubscriber(IntSubscriber downstream, Scheduler.Worker worker, int prefetch) {
+            this.downstream = downstream;
+            this.worker = worker;
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+            this.queue = new IntSpscArrayQueue(prefetch);
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(this.upstream, s)) {
+                this.upstream = s;
+                downstream.onSubscribe(this);
+                s.request(prefetch);
+            }
+        }
+
+        @Override
+        public void onNext(int value) {
+            if (done) {
+                return;
+            }
+            if (!queue.offer(value)) {
+                upstream.cancel();
+                error = new MissingBackpressureException("Queue is full?!");
+                done = true;
+            }
+            schedule();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            error = t;
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void onComplete() {
+            if (!done) {
+                done = true;
+                schedule();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+                schedule();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                upstream.cancel();
+                worker.dispose();
+                if (getAndIncrement() == 0) {
+                    queue.clear();
+                }
+            }
+        }
+
+        void schedule() {
+            if (getAndIncrement() == 0) {
+                worker.schedule(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            final IntSubscriber a = downstream;
+            final IntSpscArrayQueue q = queue;
+            long p = produced;
+            for (;;) {
+                long r = requested.get();
+                long e = 0L;
+
+                while (e != r) {
+                    boolean d = done;
+                    boolean empty = q.isEmpty();
+                    if (checkTerminated(d, empty, a)) {
+                        return;
+                    }
+                    if (empty) {
+                        break;
+                    }
+                    a.onNext(q.poll());
+                    e++;
+                    if (++p == limit) {
+                        p = 0L;
+                        upstream.request(limit);
+                    }
+                }
+
+                if (e == r && checkTerminated(done, q.isEmpty(), a)) {
+                    return;
+                }
+
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-e);
+                }
+
+                produced = p;
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        boolean checkTerminated(boolean d, boolean empty, IntSubscriber a) {
+            if (cancelled) {
+                queue.clear();
+                return true;
+            }
+            if (d) {
+                Throwable ex = error;
+                if (ex != null) {
+                    cancelled = true;
+                    queue.clear();
+                    a.onError(ex);
+                    worker.dispose();
+                    return true;
+                } else if (empty) {
+                    cancelled = true;
+                    a.onComplete();
+                    worker.dispose();
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
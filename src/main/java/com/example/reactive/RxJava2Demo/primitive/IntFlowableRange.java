@@ -0,0 +1,119 @@
+package com.example.reactive.RxJava2Demo.primitive;
+
+import io.reactivex.internal.subscriptions.EmptySubscription;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.internal.util.BackpressureHelper;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description : IntFlowable.range，实现方式与FlowableRange相同
+ * @author: liuchuang
+ * @date: 2026/10/18 下午7:10
+ * @modified by:
+ */
+final class IntFlowableRange extends IntFlowable {
+
+    final int start;
+
+    final int end;
+
+    IntFlowableRange(int start, int count) {
+        this.start = start;
+        this.end = start + count;
+    }
+
+    @Override
+    protected void subscribeActual(IntSubscriber s) {
+        if (start == end) {
+            s.onSubscribe(EmptySubscription.INSTANCE);
+            s.onComplete();
+            return;
+        }
+        s.onSubscribe(new RangeSubscription(s, start, end));
+    }
+
+    static final class RangeSubscription extends AtomicLong implements Subscription {
+
+        private static final long serialVersionUID = 2587302975077663557L;
+
+        final IntSubscriber downstream;
+
+        final int end;
+
+        int index;
+
+        volatile boolean cancelled;
+
+        RangeSubscription(IntSubscriber downstream, int index, int end) {
+            this.downstream = downstream;
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                if (BackpressureHelper.add(this, n) == 0L) {
+                    if (n == Long.MAX_VALUE) {
+                        fastPath();
+                    } else {
+                        slowPath(n);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        void fastPath() {
+            int f = end;
+            IntSubscriber a = downstream;
+            for (int i = index; i != f; i++) {
+                if (cancelled) {
+                    return;
+                }
+                a.onNext(i);
+            }
+            if (!cancelled) {
+                a.onComplete();
+            }
+        }
+
+        void slowPath(long r) {
+            long e = 0;
+            int f = end;
+            int i = index;
+            IntSubscriber a = downstream;
+            for (;;) {
+                while (e != r && i != f) {
+                    if (cancelled) {
+                        return;
+                    }
+                    a.onNext(i);
+                    e++;
+                    i++;
+                }
+                if (i == f) {
+                    if (!cancelled) {
+                        a.onComplete();
+                    }
+                    return;
+                }
+                r = get();
+                if (e == r) {
+                    index = i;
+                    r = addAndGet(-e);
+                    if (r == 0L) {
+                        return;
+                    }
+                    e = 0L;
+                }
+            }
+        }
+    }
+}
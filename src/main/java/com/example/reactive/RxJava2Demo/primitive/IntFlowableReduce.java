@@ -0,0 +1,115 @@
+package com.example.reactive.RxJava2Demo.primitive;
+
+import io.reactivex.Single;
+import io.reactivex.SingleObserver;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import org.reactivestreams.Subscription;
+
+/**
+ * @description : IntFlowable.reduce，累加过程不装箱，只在onSuccess时装箱一次
+ * @author: liuchuang
+ * @date: 2026/10/18 下午7:10
+ * @modified by:
+ */
+final class IntFlowableReduce extends Single<Integer> {
+
+    static final IntBinaryFunction SUM = new IntBinaryFunction() {
+        @Override
+        public int apply(int left, int right) {
+            return left + right;
+        }
+    };
+
+    final IntFlowable source;
+
+    final int seed;
+
+    final IntBinaryFunction reducer;
+
+    IntFlowableReduce(IntFlowable source, int seed, IntBinaryFunction reducer) {
+        this.source = source;
+        this.seed = seed;
+        this.reducer = reducer;
+    }
+
+    @Override
+    protected void subscribeActual(SingleObserver<? super Integer> observer) {
+        source.subscribe(new ReduceSubscriber(observer, seed, reducer));
+    }
+
+    static final class ReduceSubscriber implements IntSubscriber, Disposable {
+
+        final SingleObserver<? super Integer> downstream;
+
+        final IntBinaryFunction reducer;
+
+        int value;
+
+        Subscription upstream;
+
+        boolean done;
+
+        ReduceSubscriber(SingleObserver<? super Integer> downstream, int seed, IntBinaryFunction reducer) {
+            this.downstream = downstream;
+            this.value = seed;
+            this.reducer = reducer;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.validate(this.upstream, s)) {
+                this.upstream = s;
+                downstream.onSubscribe(this);
+                s.request(Long.MAX_VALUE);
+            }
+        }
+
+        @Override
+        public void onNext(int t) {
+            if (done) {
+                return;
+            }
+            try {
+                value = reducer.apply(value, t);
+            } catch (Throwable ex) {
+                Exceptions.throwIfFatal(ex);
+                upstream.cancel();
+                onError(ex);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                RxJavaPlugins.onError(t);
+                return;
+            }
+            done = true;
+            upstream = SubscriptionHelper.CANCELLED;
+            downstream.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            if (!done) {
+                done = true;
+                upstream = SubscriptionHelper.CANCELLED;
+                downstream.onSuccess(value);
+            }
+        }
+
+        @Override
+        public void dispose() {
+            upstream.cancel();
+            upstream = SubscriptionHelper.CANCELLED;
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return upstream == SubscriptionHelper.CANCELLED;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.reactive.RxJava2Demo.primitive;
+
+import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.CompositeException;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.functions.Action;
+import io.reactivex.functions.Consumer;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @description : IntFlowable.subscribe(IntConsumer)使用的Subscriber，对应RxJava的LambdaSubscriber
+ * @author: liuchuang
+ * @date: 2026/10/18 下午7:10
+ * @modified by:
+ */
+final class IntLambdaSubscriber extends AtomicReference<Subscription> implements IntSubscriber, Disposable {
+
+    private static final long serialVersionUID = -7251123623727029452L;
+
+    final IntConsumer onNext;
+
+    final Consumer<? super Throwable> onError;
+
+    final Action onComplete;
+
+    IntLambdaSubscriber(IntConsumer onNext, Consumer<? super Throwable> onError, Action onComplete) {
+        this.onNext = onNext;
+        this.onError = onError;
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        if (SubscriptionHelper.setOnce(this, s)) {
+            s.request(Long.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public void onNext(int value) {
+        if (!isDisposed()) {
+            try {
+                onNext.accept(value);
+            } catch (Throwable ex) {
+                Exceptions.throwIfFatal(ex);
+                get().cancel();
+                onError(ex);
+            }
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        if (get() != SubscriptionHelper.CANCELLED) {
+            lazySet(SubscriptionHelper.CANCELLED);
+            try {
+                onError.accept(t);
+            } catch (Throwable ex) {
+                Exceptions.throwIfFatal(ex);
+                RxJavaPlugins.onError(new CompositeException(t, ex));
+            }
+        } else {
+            RxJavaPlugins.onError(t);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        if (get() != SubscriptionHelper.CANCELLED) {
+            lazySet(SubscriptionHelper.CANCELLED);
+            try {
+                onComplete.run();
+            } catch (Throwable ex) {
+                Exceptions.throwIfFatal(ex);
+                RxJavaPlugins.onError(ex);
+            }
+        }
+    }
+
+    @Override
+    public void dispose() {
+        SubscriptionHelper.cancel(this);
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return get() == SubscriptionHelper.CANCELLED;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.reactive.RxJava2Demo.primitive;
+
+import io.reactivex.internal.util.Pow2;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description : 单生产者单消费者的int环形队列，容量向上取整为2的幂
+ * 没有null可以表示"空"，消费者需先isEmpty()再poll()。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午7:10
+ * @modified by:
+ */
+final class IntSpscArrayQueue {
+
+    final int[] buffer;
+
+    final int mask;
+
+    final AtomicLong producerIndex = new AtomicLong();
+
+    final AtomicLong consumerIndex = new AtomicLong();
+
+    IntSpscArrayQueue(int capacity) {
+        int c = Pow2.roundToPowerOfTwo(capacity);
+        this.buffer = new int[c];
+        this.mask = c - 1;
+    }
+
+    /**
+     * 仅生产者调用
+     */
+    boolean offer(int value) {
+        long p = producerIndex.get();
+        if (p - consumerIndex.get() > mask) {
+            return false;
+        }
+        buffer[(int) p & mask] = value;
+        producerIndex.lazySet(p + 1);
+        return true;
+    }
+
+    /**
+     * 仅消费者调用，调用前需确认!isEmpty()
+     */
+    int poll() {
+        long c = consumerIndex.get();
+        int v = buffer[(int) c & mask];
+        consumerIndex.lazySet(c + 1);
+        return v;
+    }
+
+    boolean isEmpty() {
+        return producerIndex.get() == consumerIndex.get();
+    }
+
+    void clear() {
+        consumerIndex.lazySet(producerIndex.get());
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.reactive.RxJava2Demo.primitive;
+
+import org.reactivestreams.Subscription;
+
+/**
+ * @description : 接收int的Subscriber，背压语义与org.reactivestreams.Subscriber一致
+ * @author: liuchuang
+ * @date: 2026/10/18 下午7:10
+ * @modified by:
+ */
+public interface IntSubscriber {
+
+    void onSubscribe(Subscription s);
+
+    void onNext(int value);
+
+    void onError(Throwable t);
+
+    void onComplete();
+}
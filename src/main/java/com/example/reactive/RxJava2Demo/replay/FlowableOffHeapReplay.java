@@ -0,0 +1,102 @@
+package com.example.reactive.RxJava2Demo.replay;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.flowables.ConnectableFlowable;
+import io.reactivex.functions.Consumer;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.internal.util.ExceptionHelper;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @description : 以OffHeapReplayProcessor为历史缓存的ConnectableFlowable，只连接一次
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+final class FlowableOffHeapReplay<T> extends ConnectableFlowable<T> {
+
+    private final Flowable<T> source;
+
+    private final OffHeapReplayProcessor<T> processor;
+
+    private final AtomicReference<Connection<T>> connection = new AtomicReference<Connection<T>>();
+
+    FlowableOffHeapReplay(Flowable<T> source, OffHeapReplayProcessor<T> processor) {
+        this.source = source;
+        this.processor = processor;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super T> s) {
+        processor.subscribe(s);
+    }
+
+    @Override
+    public void connect(Consumer<? super Disposable> onConnect) {
+        Connection<T> c = connection.get();
+        boolean first = false;
+        if (c == null) {
+            Connection<T> created = new Connection<T>(processor);
+            first = connection.compareAndSet(null, created);
+            c = connection.get();
+        }
+        try {
+            onConnect.accept(c);
+        } catch (Throwable ex) {
+            Exceptions.throwIfFatal(ex);
+            throw ExceptionHelper.wrapOrThrow(ex);
+        }
+        if (first) {
+            source.subscribe(c);
+        }
+    }
+
+    static final class Connection<T> extends AtomicReference<Subscription> implements FlowableSubscriber<T>, Disposable {
+
+        private static final long serialVersionUID = -3286491283728466903L;
+
+        final OffHeapReplayProcessor<T> processor;
+
+        Connection(OffHeapReplayProcessor<T> processor) {
+            this.processor = processor;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (SubscriptionHelper.setOnce(this, s)) {
+                s.request(Long.MAX_VALUE);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            processor.onNext(t);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            processor.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            processor.onComplete();
+        }
+
+        @Override
+        public void dispose() {
+            SubscriptionHelper.cancel(this);
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return get() == SubscriptionHelper.CANCELLED;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.reactive.RxJava2Demo.replay;
+
+import com.example.reactive.RxJava2Demo.backpressure.SpillCodec;
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.flowables.ConnectableFlowable;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description : 历史数据保存在堆外内存的replay()
+ * <pre>
+ *     ConnectableFlowable&lt;String&gt; quotes = OffHeapReplay.replay(source, SpillCodecs.string(),
+ *             256 * 1024 * 1024, 10, TimeUnit.MINUTES, Schedulers.computation());
+ *     Flowable&lt;String&gt; shared = quotes.autoConnect();
+ * </pre>
+ * 与replay(bufferSize, time, unit)相同，上游只订阅一次，迟到的订阅者先重放保留的历史再接收新数据；
+ * 区别是历史按字节数而不是条数限制，且序列化后保存在堆外，见OffHeapReplayProcessor。
+ * 返回的ConnectableFlowable只连接一次，断开后再次connect不会重新订阅上游，应配合autoConnect()使用。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+public final class OffHeapReplay {
+
+    private OffHeapReplay() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    /**
+     * 保留全部历史
+     */
+    public static <T> ConnectableFlowable<T> replay(Flowable<T> source, SpillCodec<T> codec) {
+        return replay(source, OffHeapReplayProcessor.create(codec));
+    }
+
+    /**
+     * @param maxBytes 保留的堆外字节数上限，不限时传Long.MAX_VALUE
+     * @param maxAge 保留的时长，不限时传Long.MAX_VALUE
+     * @param scheduler 提供写入时刻的时钟
+     */
+    public static <T> ConnectableFlowable<T> replay(Flowable<T> source, SpillCodec<T> codec, long maxBytes,
+                                                    long maxAge, TimeUnit unit, Scheduler scheduler) {
+        int segmentSize = (int) Math.min(OffHeapReplayProcessor.DEFAULT_SEGMENT_SIZE, maxBytes);
+        return replay(source, OffHeapReplayProcessor.create(codec, segmentSize, maxBytes, maxAge, unit, scheduler));
+    }
+
+    /**
+     * @param processor 历史缓存，只能用于一个上游
+     */
+    public static <T> ConnectableFlowable<T> replay(Flowable<T> source, OffHeapReplayProcessor<T> processor) {
+        ObjectHelper.requireNonNull(source, "source is null");
+        ObjectHelper.requireNonNull(processor, "processor is null");
+        return RxJavaPlugins.onAssembly(new FlowableOffHeapReplay<T>(source, processor));
+    }
+}
@@ -0,0 +1,523 @@
+package com.example.reactive.RxJava2Demo.replay;
+
+import com.example.reactive.RxJava2Demo.backpressure.SpillCodec;
+import io.reactivex.Scheduler;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.internal.util.BackpressureHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.processors.FlowableProcessor;
+import io.reactivex.schedulers.Schedulers;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @description : 历史数据保存在堆外内存的ReplayProcessor
+ * ReplayProcessor把每条历史数据包装成堆上的链表节点，历史很长时大量长期存活的小对象会拖长每次GC。
+ * 这里用SpillCodec把数据序列化后顺序追加到堆外的DirectByteBuffer段中，每条记录为
+ * [int 长度][long 写入时刻][数据]，段内剩余空间不足时写入长度为-1的换段标记，堆上只剩每段一个对象。
+ * 每个订阅者持有自己的读游标（段、读视图、序号），按request(n)解码并发出，不同订阅者互不影响。
+ * maxBytes限制保留的总字节数，maxAge限制保留的时长，超出时按段整体丢弃最旧的段，
+ * 新的订阅者从保留的最旧记录开始重放，并跳过超过maxAge的记录。
+ * 落后的订阅者持有的段在它读完之前不会被回收（同ReplayProcessor的有界模式）。
+ * onNext/onError/onComplete必须串行调用，多个线程发射时先toSerialized()。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+public final class OffHeapReplayProcessor<T> extends FlowableProcessor<T> {
+
+    /** 默认段大小 1MB */
+    public static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+
+    private static final int HEADER = 4 + 8;
+
+    private static final int NEXT_SEGMENT = -1;
+
+    @SuppressWarnings("rawtypes")
+    private static final ReplaySubscription[] EMPTY = new ReplaySubscription[0];
+
+    private final SpillCodec<T> codec;
+
+    private final int segmentSize;
+
+    private final long maxBytes;
+
+    private final long maxAgeNanos;
+
+    private final Scheduler scheduler;
+
+    private final AtomicReference<ReplaySubscription<T>[]> subscribers;
+
+    /** 保留的最旧段，新的订阅者从这里开始 */
+    private volatile Segment head;
+
+    /** 仅生产者访问 */
+    private Segment tail;
+
+    /** 仅生产者访问 */
+    private long retainedBytes;
+
+    /** 已完整写入的记录数，写完一条记录后才递增，订阅者据此判断是否有数据可读 */
+    private volatile long written;
+
+    private volatile boolean done;
+
+    private Throwable error;
+
+    @SuppressWarnings("unchecked")
+    OffHeapReplayProcessor(SpillCodec<T> codec, int segmentSize, long maxBytes, long maxAgeNanos,
+                           Scheduler scheduler) {
+        this.codec = codec;
+        this.segmentSize = segmentSize;
+        this.maxBytes = maxBytes;
+        this.maxAgeNanos = maxAgeNanos;
+        this.scheduler = scheduler;
+        this.subscribers = new AtomicReference<ReplaySubscription<T>[]>(EMPTY);
+        Segment s = new Segment(ByteBuffer.allocateDirect(segmentSize), 0L);
+        this.tail = s;
+        this.head = s;
+        this.retainedBytes = segmentSize;
+    }
+
+    /**
+     * 保留全部历史
+     */
+    public static <T> OffHeapReplayProcessor<T> create(SpillCodec<T> codec) {
+        return create(codec, DEFAULT_SEGMENT_SIZE, Long.MAX_VALUE, Long.MAX_VALUE, TimeUnit.NANOSECONDS,
+                Schedulers.computation());
+    }
+
+    /**
+     * @param maxBytes 保留的段总字节数上限，按段丢弃，实际保留的数据在maxBytes - segmentSize到maxBytes之间
+     */
+    public static <T> OffHeapReplayProcessor<T> createWithSize(SpillCodec<T> codec, long maxBytes) {
+        return create(codec, DEFAULT_SEGMENT_SIZE, maxBytes, Long.MAX_VALUE, TimeUnit.NANOSECONDS,
+                Schedulers.computation());
+    }
+
+    public static <T> OffHeapReplayProcessor<T> createWithTime(SpillCodec<T> codec, long maxAge, TimeUnit unit,
+                                                               Scheduler scheduler) {
+        return create(codec, DEFAULT_SEGMENT_SIZE, Long.MAX_VALUE, maxAge, unit, scheduler);
+    }
+
+    /**
+     * @param segmentSize 每段的字节数，单条数据超过该大小时单独分配一个足够大的段
+     * @param maxBytes 保留的段总字节数上限，不限时传Long.MAX_VALUE
+     * @param maxAge 保留的时长，不限时传Long.MAX_VALUE
+     * @param scheduler 提供写入时刻的时钟
+     */
+    public static <T> OffHeapReplayProcessor<T> create(SpillCodec<T> codec, int segmentSize, long maxBytes,
+                                                       long maxAge, TimeUnit unit, Scheduler scheduler) {
+        ObjectHelper.requireNonNull(codec, "codec is null");
+        ObjectHelper.verifyPositive(segmentSize, "segmentSize");
+        ObjectHelper.verifyPositive(maxBytes, "maxBytes");
+        ObjectHelper.verifyPositive(maxAge, "maxAge");
+        ObjectHelper.requireNonNull(unit, "unit is null");
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        if (maxBytes < segmentSize) {
+            throw new IllegalArgumentException("maxBytes >= segmentSize required but it was " + maxBytes
+                    + " < " + segmentSize);
+        }
+        long maxAgeNanos = maxAge == Long.MAX_VALUE ? Long.MAX_VALUE : unit.toNanos(maxAge);
+        return new OffHeapReplayProcessor<T>(codec, segmentSize, maxBytes, maxAgeNanos, scheduler);
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super T> s) {
+        ReplaySubscription<T> rs = new ReplaySubscription<T>(s, this);
+        s.onSubscribe(rs);
+        add(rs);
+        if (rs.cancelled) {
+            remove(rs);
+            return;
+        }
+        replay(rs);
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        if (done) {
+            s.cancel();
+            return;
+        }
+        s.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(T t) {
+        ObjectHelper.requireNonNull(t, "onNext called with null. Null values are generally not allowed in 2.x operators and sources.");
+        if (done) {
+            return;
+        }
+        long time = maxAgeNanos == Long.MAX_VALUE ? 0L : now();
+        int size = codec.sizeOf(t);
+        Segment s = tail;
+        ByteBuffer w = s.writer;
+        if (w.remaining() < HEADER + size) {
+            if (w.remaining() >= 4) {
+                w.putInt(NEXT_SEGMENT);
+            }
+            Segment n = new Segment(ByteBuffer.allocateDirect(Math.max(segmentSize, HEADER + size)), written);
+            retainedBytes += n.capacity;
+            s.next = n;
+            tail = n;
+            s = n;
+            w = n.writer;
+        }
+        w.putInt(size);
+        w.putLong(time);
+        int start = w.position();
+        codec.encode(t, w);
+        if (w.position() - start != size) {
+            throw new IllegalStateException("Codec wrote " + (w.position() - start) + " bytes, expected " + size);
+        }
+        s.lastTime = time;
+        written = written + 1;
+        trim(time);
+        for (ReplaySubscription<T> rs : subscribers.get()) {
+            replay(rs);
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        ObjectHelper.requireNonNull(t, "onError called with null. Null values are generally not allowed in 2.x operators and sources.");
+        if (done) {
+            RxJavaPlugins.onError(t);
+            return;
+        }
+        error = t;
+        done = true;
+        for (ReplaySubscription<T> rs : subscribers.get()) {
+            replay(rs);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        if (done) {
+            return;
+        }
+        done = true;
+        for (ReplaySubscription<T> rs : subscribers.get()) {
+            replay(rs);
+        }
+    }
+
+    /**
+     * 按段丢弃超出字节数或时长的历史，正在写入的段保留
+     */
+    private void trim(long time) {
+        Segment h = head;
+        Segment t = tail;
+        while (h != t && (retainedBytes > maxBytes
+                || (maxAgeNanos != Long.MAX_VALUE && time - h.lastTime > maxAgeNanos))) {
+            retainedBytes -= h.capacity;
+            h = h.next;
+        }
+        if (h != head) {
+            head = h;
+        }
+    }
+
+    private long now() {
+        return scheduler.now(TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 把游标定位到当前head，只在replay的drain循环中调用，避免与生产者触发的replay并发读写游标
+     */
+    private void start(ReplaySubscription<T> rs) {
+        Segment h = head;
+        rs.segment = h;
+        rs.reader = h.reader();
+        rs.index = h.firstIndex;
+        rs.started = true;
+        if (maxAgeNanos != Long.MAX_VALUE) {
+            skipStale(rs, now() - maxAgeNanos);
+        }
+    }
+
+    /**
+     * 新的订阅者跳过写入时刻早于cutoff的记录
+     */
+    private void skipStale(ReplaySubscription<T> rs, long cutoff) {
+        while (rs.index != written) {
+            ByteBuffer b = rs.reader;
+            int position = b.position();
+            int size = b.remaining() >= 4 ? b.getInt() : NEXT_SEGMENT;
+            if (size == NEXT_SEGMENT) {
+                nextSegment(rs);
+                continue;
+            }
+            if (b.getLong() >= cutoff) {
+                b.position(position);
+                return;
+            }
+            b.position(b.position() + size);
+            rs.index++;
+        }
+    }
+
+    private void nextSegment(ReplaySubscription<T> rs) {
+        Segment n = rs.segment.next;
+        rs.segment = n;
+        rs.reader = n.reader();
+    }
+
+    /**
+     * 在订阅者的游标处解码一条记录，调用前须确认rs.index小于written
+     */
+    private T read(ReplaySubscription<T> rs) {
+        ByteBuffer b = rs.reader;
+        int size = b.remaining() >= 4 ? b.getInt() : NEXT_SEGMENT;
+        if (size == NEXT_SEGMENT) {
+            nextSegment(rs);
+            b = rs.reader;
+            size = b.getInt();
+        }
+        b.position(b.position() + 8);
+        int limit = b.limit();
+        b.limit(b.position() + size);
+        T value = codec.decode(b.slice());
+        b.position(b.limit());
+        b.limit(limit);
+        rs.index++;
+        return value;
+    }
+
+    void replay(ReplaySubscription<T> rs) {
+        if (rs.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        Subscriber<? super T> a = rs.downstream;
+        for (;;) {
+            if (!rs.started) {
+                start(rs);
+            }
+            if (rs.segment != null) {
+                long r = rs.requested.get();
+                long e = rs.emitted;
+                for (;;) {
+                    if (rs.cancelled) {
+                        rs.segment = null;
+                        rs.reader = null;
+                        return;
+                    }
+                    boolean d = done;
+                    boolean empty = rs.index == written;
+                    if (d && empty) {
+                        rs.segment = null;
+                        rs.reader = null;
+                        remove(rs);
+                        Throwable ex = error;
+                        if (ex != null) {
+                            a.onError(ex);
+                        } else {
+                            a.onComplete();
+                        }
+                        return;
+                    }
+                    if (empty || e == r) {
+                        break;
+                    }
+                    T v;
+                    try {
+                        v = read(rs);
+                    } catch (Throwable ex) {
+                        Exceptions.throwIfFatal(ex);
+                        rs.cancel();
+                        a.onError(ex);
+                        return;
+                    }
+                    a.onNext(v);
+                    e++;
+                }
+                rs.emitted = e;
+            }
+            missed = rs.addAndGet(-missed);
+            if (missed == 0) {
+                break;
+            }
+        }
+    }
+
+    void add(ReplaySubscription<T> rs) {
+        for (;;) {
+            ReplaySubscription<T>[] a = subscribers.get();
+            int n = a.length;
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            ReplaySubscription<T>[] b = new ReplaySubscription[n + 1];
+            System.arraycopy(a, 0, b, 0, n);
+            b[n] = rs;
+            if (subscribers.compareAndSet(a, b)) {
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void remove(ReplaySubscription<T> rs) {
+        for (;;) {
+            ReplaySubscription<T>[] a = subscribers.get();
+            int n = a.length;
+            int j = -1;
+            for (int i = 0; i < n; i++) {
+                if (a[i] == rs) {
+                    j = i;
+                    break;
+                }
+            }
+            if (j < 0) {
+                return;
+            }
+            ReplaySubscription<T>[] b;
+            if (n == 1) {
+                b = EMPTY;
+            } else {
+                b = new ReplaySubscription[n - 1];
+                System.arraycopy(a, 0, b, 0, j);
+                System.arraycopy(a, j + 1, b, j, n - j - 1);
+            }
+            if (subscribers.compareAndSet(a, b)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean hasSubscribers() {
+        return subscribers.get().length != 0;
+    }
+
+    @Override
+    public boolean hasThrowable() {
+        return done && error != null;
+    }
+
+    @Override
+    public boolean hasComplete() {
+        return done && error == null;
+    }
+
+    @Override
+    public Throwable getThrowable() {
+        return done ? error : null;
+    }
+
+    /**
+     * @return 收到的数据总条数
+     */
+    public long written() {
+        return written;
+    }
+
+    /**
+     * @return 保留的段数，只在生产者线程或终止后读取时准确
+     */
+    public int segments() {
+        int n = 0;
+        for (Segment s = head; s != null; s = s.next) {
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * @return 保留的段占用的堆外字节数，只在生产者线程或终止后读取时准确
+     */
+    public long retainedBytes() {
+        long bytes = 0L;
+        for (Segment s = head; s != null; s = s.next) {
+            bytes += s.capacity;
+        }
+        return bytes;
+    }
+
+    static final class Segment {
+
+        /** 所有读视图的模板，position始终为0 */
+        final ByteBuffer buffer;
+
+        /** 生产者的写视图 */
+        final ByteBuffer writer;
+
+        final int capacity;
+
+        /** 本段第一条记录的序号 */
+        final long firstIndex;
+
+        /** 本段最后一条记录的写入时刻，仅生产者访问 */
+        long lastTime;
+
+        volatile Segment next;
+
+        Segment(ByteBuffer buffer, long firstIndex) {
+            this.buffer = buffer;
+            this.writer = buffer.duplicate();
+            this.capacity = buffer.capacity();
+            this.firstIndex = firstIndex;
+        }
+
+        ByteBuffer reader() {
+            return buffer.duplicate();
+        }
+    }
+
+    /**
+     * 订阅者的读游标，segment/reader/index只在replay的drain循环中访问
+     */
+    static final class ReplaySubscription<T> extends AtomicInteger implements Subscription {
+
+        private static final long serialVersionUID = 4738521809346104457L;
+
+        final Subscriber<? super T> downstream;
+
+        final OffHeapReplayProcessor<T> parent;
+
+        final AtomicLong requested = new AtomicLong();
+
+        volatile boolean cancelled;
+
+        Segment segment;
+
+        ByteBuffer reader;
+
+        long index;
+
+        long emitted;
+
+        /** 游标是否已定位，终止后segment会被置空，不能用segment判断 */
+        boolean started;
+
+        ReplaySubscription(Subscriber<? super T> downstream, OffHeapReplayProcessor<T> parent) {
+            this.downstream = downstream;
+            this.parent = parent;
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+                parent.replay(this);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                parent.remove(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.reactive.RxJava2Demo.retry;
+
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.functions.Function;
+import io.reactivex.functions.Predicate;
+import io.reactivex.internal.functions.Functions;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.schedulers.Schedulers;
+import org.reactivestreams.Publisher;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description : 指数退避重试，作为retryWhen的参数，Single/Maybe/Completable/Flowable通用
+ * <pre>
+ *     RetryBudget budget = new RetryBudget(20, 5);
+ *     single.retryWhen(BackoffRetry.exponential(100, 10_000, TimeUnit.MILLISECONDS)
+ *             .maxRetries(8)
+ *             .retryIf(e -> e instanceof IOException)
+ *             .budget(budget))
+ * </pre>
+ * retry(times, predicate)出错后立即重新订阅，下游服务故障期间会变成紧密循环。这里每次重试前在scheduler上
+ * 等待一段时间（不占用线程）：第n次重试的基准间隔为 baseDelay * 2^(n-1)，不超过maxDelay，再按jitter打散：
+ * NONE不打散；FULL在[0, 基准间隔]内均匀取值；DECORRELATED（默认）在[baseDelay, 上一次间隔 * 3]内均匀取值，
+ * 同样不超过maxDelay，各订阅的重试时刻相互错开且不会同步回到baseDelay。
+ * 配置了RetryBudget时每次重试先取令牌，取不到则放弃重试。
+ * 实例不可变，配置方法返回新实例；每次订阅的重试次数与上一次间隔单独计算，同一个实例可以用于多个订阅。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+public final class BackoffRetry implements Function<Flowable<Throwable>, Publisher<Long>> {
+
+    public enum Jitter {
+        NONE, FULL, DECORRELATED
+    }
+
+    private final long baseDelayNanos;
+
+    private final long maxDelayNanos;
+
+    private final int maxRetries;
+
+    private final Jitter jitter;
+
+    private final Predicate<? super Throwable> retryIf;
+
+    private final RetryBudget budget;
+
+    private final RetryMetrics metrics;
+
+    private final Scheduler scheduler;
+
+    private BackoffRetry(long baseDelayNanos, long maxDelayNanos, int maxRetries, Jitter jitter,
+                         Predicate<? super Throwable> retryIf, RetryBudget budget, RetryMetrics metrics,
+                         Scheduler scheduler) {
+        this.baseDelayNanos = baseDelayNanos;
+        this.maxDelayNanos = maxDelayNanos;
+        this.maxRetries = maxRetries;
+        this.jitter = jitter;
+        this.retryIf = retryIf;
+        this.budget = budget;
+        this.metrics = metrics;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 重试所有错误，次数不限，DECORRELATED打散，在computation调度器上等待，不限预算
+     */
+    public static BackoffRetry exponential(long baseDelay, long maxDelay, TimeUnit unit) {
+        ObjectHelper.verifyPositive(baseDelay, "baseDelay");
+        ObjectHelper.requireNonNull(unit, "unit is null");
+        if (maxDelay < baseDelay) {
+            throw new IllegalArgumentException("maxDelay >= baseDelay required but it was " + maxDelay
+                    + " < " + baseDelay);
+        }
+        return new BackoffRetry(unit.toNanos(baseDelay), unit.toNanos(maxDelay), Integer.MAX_VALUE,
+                Jitter.DECORRELATED, Functions.alwaysTrue(), null, null, Schedulers.computation());
+    }
+
+    /**
+     * @param maxRetries 每次订阅最多重试的次数，0表示不重试
+     */
+    public BackoffRetry maxRetries(int maxRetries) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries >= 0 required but it was " + maxRetries);
+        }
+        return new BackoffRetry(baseDelayNanos, maxDelayNanos, maxRetries, jitter, retryIf, budget, metrics,
+                scheduler);
+    }
+
+    public BackoffRetry jitter(Jitter jitter) {
+        ObjectHelper.requireNonNull(jitter, "jitter is null");
+        return new BackoffRetry(baseDelayNanos, maxDelayNanos, maxRetries, jitter, retryIf, budget, metrics,
+                scheduler);
+    }
+
+    /**
+     * @param retryIf 返回false的错误不重试，直接交给下游
+     */
+    public BackoffRetry retryIf(Predicate<? super Throwable> retryIf) {
+        ObjectHelper.requireNonNull(retryIf, "retryIf is null");
+        return new BackoffRetry(baseDelayNanos, maxDelayNanos, maxRetries, jitter, retryIf, budget, metrics,
+                scheduler);
+    }
+
+    /**
+     * @param budget 共享的重试预算，对同一个下游服务的所有订阅应使用同一个实例
+     */
+    public BackoffRetry budget(RetryBudget budget) {
+        ObjectHelper.requireNonNull(budget, "budget is null");
+        return new BackoffRetry(baseDelayNanos, maxDelayNanos, maxRetries, jitter, retryIf, budget, metrics,
+                scheduler);
+    }
+
+    public BackoffRetry metrics(RetryMetrics metrics) {
+        ObjectHelper.requireNonNull(metrics, "metrics is null");
+        return new BackoffRetry(baseDelayNanos, maxDelayNanos, maxRetries, jitter, retryIf, budget, metrics,
+                scheduler);
+    }
+
+    /**
+     * @param scheduler 等待所用的调度器，大量订阅同时退避时可以使用HashedWheelTimerScheduler
+     */
+    public BackoffRetry scheduler(Scheduler scheduler) {
+        ObjectHelper.requireNonNull(scheduler, "scheduler is null");
+        return new BackoffRetry(baseDelayNanos, maxDelayNanos, maxRetries, jitter, retryIf, budget, metrics,
+                scheduler);
+    }
+
+    @Override
+    public Publisher<Long> apply(Flowable<Throwable> errors) {
+        final Attempts attempts = new Attempts();
+        return errors.concatMap(new Function<Throwable, Publisher<Long>>() {
+            @Override
+            public Publisher<Long> apply(Throwable e) throws Exception {
+                RetryMetrics m = metrics;
+                if (m != null) {
+                    m.failures.incrementAndGet();
+                }
+                if (!retryIf.test(e)) {
+                    if (m != null) {
+                        m.nonRetryable.incrementAndGet();
+                    }
+                    return Flowable.<Long>error(e);
+                }
+                if (attempts.count >= maxRetries) {
+                    if (m != null) {
+                        m.maxRetriesReached.incrementAndGet();
+                    }
+                    return Flowable.<Long>error(e);
+                }
+                if (budget != null && !budget.tryAcquire()) {
+                    if (m != null) {
+                        m.budgetExhausted.incrementAndGet();
+                    }
+                    return Flowable.<Long>error(e);
+                }
+                long delay = nextDelay(attempts.count++, attempts.previousDelay);
+                attempts.previousDelay = delay;
+                if (m != null) {
+                    m.retries.incrementAndGet();
+                    m.totalDelayNanos.addAndGet(delay);
+                }
+                return Flowable.timer(delay, TimeUnit.NANOSECONDS, scheduler);
+            }
+        });
+    }
+
+    /**
+     * @param attempt 已重试的次数，从0开始
+     * @param previousDelay 上一次的等待时长，第一次重试时为0
+     */
+    long nextDelay(int attempt, long previousDelay) {
+        // 移位不超过最高有效位，避免溢出为负数
+        int shift = Math.min(attempt, Long.numberOfLeadingZeros(baseDelayNanos) - 1);
+        long exponential = Math.min(maxDelayNanos, baseDelayNanos << shift);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (jitter) {
+            case FULL:
+                return random.nextLong(exponential + 1);
+            case DECORRELATED:
+                long upper = Math.min(maxDelayNanos, Math.max(baseDelayNanos, previousDelay) * 3);
+                if (upper <= baseDelayNanos) {
+                    return baseDelayNanos;
+                }
+                return baseDelayNanos + random.nextLong(upper - baseDelayNanos + 1);
+            default:
+                return exponential;
+        }
+    }
+
+    /**
+     * 单次订阅的重试状态，concatMap保证串行访问
+     */
+    static final class Attempts {
+
+        int count;
+
+        long previousDelay;
+    }
+}
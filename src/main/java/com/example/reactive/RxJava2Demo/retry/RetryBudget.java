@@ -0,0 +1,84 @@
+package com.example.reactive.RxJava2Demo.retry;
+
+import io.reactivex.internal.functions.ObjectHelper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description : 令牌桶形式的重试预算
+ * 桶容量为capacity个令牌，每秒补充refillPerSecond个，每次重试消耗一个，桶空时不再重试而是直接把错误交给下游。
+ * 对同一个下游服务的所有订阅共用一个实例：故障期间单个订阅的退避只能拉长间隔，
+ * 预算则限制了所有订阅合计的重试速率，避免重试风暴。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+public final class RetryBudget {
+
+    private final double capacity;
+
+    private final double refillPerNano;
+
+    private double tokens;
+
+    private long lastRefill;
+
+    private final AtomicLong acquired = new AtomicLong();
+
+    private final AtomicLong exhausted = new AtomicLong();
+
+    /**
+     * @param capacity 桶容量，即允许的瞬时重试数
+     * @param refillPerSecond 每秒补充的令牌数，即持续故障时允许的重试速率
+     */
+    public RetryBudget(int capacity, double refillPerSecond) {
+        ObjectHelper.verifyPositive(capacity, "capacity");
+        if (refillPerSecond < 0d) {
+            throw new IllegalArgumentException("refillPerSecond >= 0 required but it was " + refillPerSecond);
+        }
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * @return 取得一个令牌时为true
+     */
+    public boolean tryAcquire() {
+        boolean ok;
+        synchronized (this) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+            ok = tokens >= 1d;
+            if (ok) {
+                tokens -= 1d;
+            }
+        }
+        (ok ? acquired : exhausted).incrementAndGet();
+        return ok;
+    }
+
+    public synchronized double availableTokens() {
+        return Math.min(capacity, tokens + (System.nanoTime() - lastRefill) * refillPerNano);
+    }
+
+    public long acquired() {
+        return acquired.get();
+    }
+
+    /**
+     * @return 因预算耗尽而放弃的重试次数
+     */
+    public long exhausted() {
+        return exhausted.get();
+    }
+
+    @Override
+    public String toString() {
+        return "RetryBudget{available=" + (long) availableTokens() + "/" + (long) capacity
+                + ", acquired=" + acquired() + ", exhausted=" + exhausted() + '}';
+    }
+}
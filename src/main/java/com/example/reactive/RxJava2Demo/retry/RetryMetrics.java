@@ -0,0 +1,65 @@
+package com.example.reactive.RxJava2Demo.retry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description : BackoffRetry的重试指标，多个订阅共用同一个实例时指标累加
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:59
+ * @modified by:
+ */
+public final class RetryMetrics {
+
+    final AtomicLong failures = new AtomicLong();
+
+    final AtomicLong retries = new AtomicLong();
+
+    final AtomicLong nonRetryable = new AtomicLong();
+
+    final AtomicLong maxRetriesReached = new AtomicLong();
+
+    final AtomicLong budgetExhausted = new AtomicLong();
+
+    final AtomicLong totalDelayNanos = new AtomicLong();
+
+    /**
+     * @return 交给重试逻辑处理的错误数
+     */
+    public long failures() {
+        return failures.get();
+    }
+
+    /**
+     * @return 已安排的重试次数
+     */
+    public long retries() {
+        return retries.get();
+    }
+
+    public long nonRetryable() {
+        return nonRetryable.get();
+    }
+
+    public long maxRetriesReached() {
+        return maxRetriesReached.get();
+    }
+
+    public long budgetExhausted() {
+        return budgetExhausted.get();
+    }
+
+    public long totalDelay(TimeUnit unit) {
+        return unit.convert(totalDelayNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "RetryMetrics{failures=" + failures()
+                + ", retries=" + retries()
+                + ", nonRetryable=" + nonRetryable()
+                + ", maxRetriesReached=" + maxRetriesReached()
+                + ", budgetExhausted=" + budgetExhausted()
+                + ", totalDelay=" + totalDelay(TimeUnit.MILLISECONDS) + "ms}";
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.reactive.RxJava2Demo.scheduler;
+
+import io.reactivex.Scheduler;
+import io.reactivex.annotations.NonNull;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.schedulers.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description : 有界的io调度器
+ * Schedulers.io()没有空闲线程时总是新建线程，负载高时线程数无上限增长，上下文切换反而拉长延迟。
+ * 这里线程数最多maxThreads，线程都在忙时任务进入容量为queueCapacity的队列，队列也满时按RejectionPolicy处理：
+ * CALLER_RUNS由提交任务的线程自己执行，形成对上游的自然背压；
+ * REJECT丢弃任务，与Schedulers.from(Executor)相同，RejectedExecutionException交给RxJavaPlugins.onError，
+ * 对应的Worker被取消，下游不会再收到信号，需要配合timeout使用。
+ * 空闲超过keepAlive的线程会回收，线程数可降到0。
+ * Worker的任务串行执行，由Schedulers.from(Executor)保证。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午9:40
+ * @modified by:
+ */
+public final class BoundedIoScheduler extends Scheduler {
+
+    public enum RejectionPolicy {
+        /** 队列满时由提交任务的线程执行 */
+        CALLER_RUNS,
+        /** 队列满时拒绝，交给RxJavaPlugins.onError */
+        REJECT
+    }
+
+    private static final AtomicLong POOL_INDEX = new AtomicLong();
+
+    private final ThreadPoolExecutor executor;
+
+    private final Scheduler delegate;
+
+    private final int queueCapacity;
+
+    private final RejectionPolicy policy;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final AtomicLong callerRuns = new AtomicLong();
+
+    private final AtomicInteger peakQueueDepth = new AtomicInteger();
+
+    public BoundedIoScheduler(int maxThreads, int queueCapacity) {
+        this(maxThreads, queueCapacity, 60, TimeUnit.SECONDS, RejectionPolicy.CALLER_RUNS);
+    }
+
+    /**
+     * @param maxThreads 最大线程数
+     * @param queueCapacity 线程都在忙时可排队的任务数
+     * @param keepAlive 空闲线程的存活时间
+     * @param policy 队列满时的处理方式
+     */
+    public BoundedIoScheduler(int maxThreads, int queueCapacity, long keepAlive, TimeUnit unit,
+                              RejectionPolicy policy) {
+        ObjectHelper.verifyPositive(maxThreads, "maxThreads");
+        ObjectHelper.verifyPositive(queueCapacity, "queueCapacity");
+        ObjectHelper.verifyPositive(keepAlive, "keepAlive");
+        this.queueCapacity = queueCapacity;
+        this.policy = ObjectHelper.requireNonNull(policy, "policy is null");
+        final String prefix = "RxBoundedIo-" + POOL_INDEX.incrementAndGet() + "-";
+        // core == max且允许核心线程超时：先加线程到上限再排队，空闲后回收
+        this.executor = new ThreadPoolExecutor(maxThreads, maxThreads, keepAlive, unit,
+                new DepthTrackingQueue(queueCapacity, peakQueueDepth), new ThreadFactory() {
+            final AtomicInteger index = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, prefix + index.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        }, new RejectedExecutionHandler() {
+            @Override
+            public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+                if (BoundedIoScheduler.this.policy == RejectionPolicy.CALLER_RUNS && !executor.isShutdown()) {
+                    callerRuns.incrementAndGet();
+                    r.run();
+                    return;
+                }
+                rejected.incrementAndGet();
+                throw new RejectedExecutionException("Task rejected, queue full (" + executor.getQueue().size()
+                        + "/" + BoundedIoScheduler.this.queueCapacity + ") with "
+                        + executor.getPoolSize() + " threads");
+            }
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.delegate = Schedulers.from(executor);
+    }
+
+    @NonNull
+    @Override
+    public Worker createWorker() {
+        return delegate.createWorker();
+    }
+
+    @NonNull
+    @Override
+    public Disposable scheduleDirect(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
+        return delegate.scheduleDirect(run, delay, unit);
+    }
+
+    @NonNull
+    @Override
+    public Disposable schedulePeriodicallyDirect(@NonNull Runnable run, long initialDelay, long period,
+                                                 @NonNull TimeUnit unit) {
+        return delegate.schedulePeriodicallyDirect(run, initialDelay, period, unit);
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public int maxThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int queueCapacity() {
+        return queueCapacity;
+    }
+
+    public RejectionPolicy rejectionPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return 当前排队的任务数
+     */
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @return 出现过的最大排队任务数
+     */
+    public int peakQueueDepth() {
+        return peakQueueDepth.get();
+    }
+
+    public int activeThreads() {
+        return executor.getActiveCount();
+    }
+
+    public int poolSize() {
+        return executor.getPoolSize();
+    }
+
+    public int largestPoolSize() {
+        return executor.getLargestPoolSize();
+    }
+
+    /**
+     * @return REJECT策略下被拒绝的任务数
+     */
+    public long rejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * @return CALLER_RUNS策略下由提交线程执行的任务数
+     */
+    public long callerRunsCount() {
+        return callerRuns.get();
+    }
+
+    public long completedTaskCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    @Override
+    public String toString() {
+        return "BoundedIoScheduler{maxThreads=" + maxThreads()
+                + ", poolSize=" + poolSize()
+                + ", activeThreads=" + activeThreads()
+                + ", queueDepth=" + queueDepth() + "/" + queueCapacity
+                + ", peakQueueDepth=" + peakQueueDepth()
+                + ", policy=" + policy
+                + ", callerRuns=" + callerRunsCount()
+                + ", rejected=" + rejectedCount()
+                + '}';
+    }
+
+    /**
+     * 入队成功后记录队列深度的峰值
+     */
+    static final class DepthTrackingQueue extends ArrayBlockingQueue<Runnable> {
+
+        private static final long serialVersionUID = -5130283624187236651L;
+
+        final AtomicInteger peak;
+
+        DepthTrackingQueue(int capacity, AtomicInteger peak) {
+            super(capacity);
+            this.peak = peak;
+        }
+
+        @Override
+        public boolean offer(Runnable r) {
+            if (!super.offer(r)) {
+                return false;
+            }
+            int depth = size();
+            for (;;) {
+                int p = peak.get();
+                if (depth <= p || peak.compareAndSet(p, depth)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
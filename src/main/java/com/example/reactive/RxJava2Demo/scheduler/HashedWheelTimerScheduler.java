@@ -0,0 +1,451 @@
+package com.example.reactive.RxJava2Demo.scheduler;
+
+import io.reactivex.Scheduler;
+import io.reactivex.annotations.NonNull;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.disposables.EmptyDisposable;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.internal.queue.MpscLinkedQueue;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.schedulers.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @description : 哈希时间轮调度器，用于大量的timeout/delay/timer/interval
+ * computation的Worker底层是ScheduledThreadPoolExecutor，每个延时任务进入一个二叉堆，提交与取消都是O(log n)，
+ * 几万个同时存在的timeout意味着几万个堆节点，且大多数在到期前就被取消。
+ * 时间轮把到期时间按tick映射到环形数组的一个槽，槽内是双向链表：提交只是入队，取消只是改状态、由时钟线程O(1)摘除，
+ * 代价是到期时间精确到tick。
+ * 时钟线程只负责计时，到期的任务交给dispatcher调度器（默认computation）的Worker执行，
+ * 同一个Worker的任务仍然串行，到期时间相同的任务按提交顺序执行。
+ * <pre>
+ *     HashedWheelTimerScheduler wheel = new HashedWheelTimerScheduler(10, TimeUnit.MILLISECONDS);
+ *     single.timeout(1, TimeUnit.SECONDS, wheel)
+ * </pre>
+ * @author: liuchuang
+ * @date: 2026/10/18 下午11:00
+ * @modified by:
+ */
+public final class HashedWheelTimerScheduler extends Scheduler {
+
+    public static final long DEFAULT_TICK_MILLIS = 10L;
+
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    /** 每个tick最多从提交队列转入时间轮的任务数，避免时钟线程被大量提交拖慢 */
+    static final int MAX_TRANSFER_PER_TICK = 100_000;
+
+    private static final AtomicLong TIMER_INDEX = new AtomicLong();
+
+    final long tickNanos;
+
+    final Bucket[] wheel;
+
+    final int mask;
+
+    final Scheduler dispatcher;
+
+    final MpscLinkedQueue<WheelTimeout> additions = new MpscLinkedQueue<WheelTimeout>();
+
+    final MpscLinkedQueue<WheelTimeout> cancellations = new MpscLinkedQueue<WheelTimeout>();
+
+    final AtomicLong pending = new AtomicLong();
+
+    final AtomicLong expired = new AtomicLong();
+
+    final AtomicLong cancelled = new AtomicLong();
+
+    final long startNanos;
+
+    final Thread ticker;
+
+    volatile boolean shutdown;
+
+    /** 仅时钟线程访问 */
+    long tick;
+
+    public HashedWheelTimerScheduler() {
+        this(DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public HashedWheelTimerScheduler(long tickDuration, TimeUnit unit) {
+        this(tickDuration, unit, DEFAULT_WHEEL_SIZE, Schedulers.computation());
+    }
+
+    /**
+     * @param tickDuration 时间精度，任务最多晚一个tick执行
+     * @param wheelSize 槽数，向上取整为2的幂；tickDuration * wheelSize以内的延时不需要跨圈
+     * @param dispatcher 执行到期任务的调度器
+     */
+    public HashedWheelTimerScheduler(long tickDuration, TimeUnit unit, int wheelSize, Scheduler dispatcher) {
+        ObjectHelper.verifyPositive(tickDuration, "tickDuration");
+        ObjectHelper.verifyPositive(wheelSize, "wheelSize");
+        ObjectHelper.requireNonNull(unit, "unit is null");
+        this.dispatcher = ObjectHelper.requireNonNull(dispatcher, "dispatcher is null");
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.startNanos = System.nanoTime();
+        this.ticker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runTicks();
+            }
+        }, "RxHashedWheelTimer-" + TIMER_INDEX.incrementAndGet());
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    @NonNull
+    @Override
+    public Worker createWorker() {
+        return new WheelWorker(this);
+    }
+
+    @NonNull
+    @Override
+    public Disposable scheduleDirect(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
+        Runnable decoratedRun = RxJavaPlugins.onSchedule(run);
+        if (delay <= 0L) {
+            return dispatcher.scheduleDirect(decoratedRun);
+        }
+        WheelTimeout timeout = new WheelTimeout(this, null, decoratedRun, unit.toNanos(delay));
+        add(timeout);
+        return timeout;
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        LockSupport.unpark(ticker);
+    }
+
+    /**
+     * @return 尚未到期、未取消的任务数
+     */
+    public long pendingTimeouts() {
+        return pending.get();
+    }
+
+    public long expiredCount() {
+        return expired.get();
+    }
+
+    public long cancelledCount() {
+        return cancelled.get();
+    }
+
+    public long tickDuration(TimeUnit unit) {
+        return unit.convert(tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public int wheelSize() {
+        return wheel.length;
+    }
+
+    void add(WheelTimeout timeout) {
+        pending.incrementAndGet();
+        if (shutdown) {
+            timeout.dispose();
+            return;
+        }
+        additions.offer(timeout);
+    }
+
+    void runTicks() {
+        while (!shutdown) {
+            long now = waitForNextTick();
+            if (now < 0L) {
+                break;
+            }
+            transferAdditions();
+            processCancellations();
+            wheel[(int) (tick & mask)].expire(now);
+            tick++;
+        }
+        additions.clear();
+        cancellations.clear();
+    }
+
+    /**
+     * @return 当前tick的截止时间（相对startNanos），被shutdown时返回-1
+     */
+    long waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        for (;;) {
+            long current = System.nanoTime() - startNanos;
+            long sleep = deadline - current;
+            if (sleep <= 0L) {
+                return current;
+            }
+            LockSupport.parkNanos(this, sleep);
+            if (shutdown) {
+                return -1L;
+            }
+        }
+    }
+
+    void transferAdditions() {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+            WheelTimeout timeout = additions.poll();
+            if (timeout == null) {
+                break;
+            }
+            if (timeout.get() != WheelTimeout.INIT) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    void processCancellations() {
+        for (;;) {
+            WheelTimeout timeout = cancellations.poll();
+            if (timeout == null) {
+                break;
+            }
+            Bucket bucket = timeout.bucket;
+            if (bucket != null) {
+                bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * 时间轮上的一个任务，状态INIT -> CANCELLED 或 INIT -> EXPIRED
+     */
+    static final class WheelTimeout extends AtomicInteger implements Disposable {
+
+        private static final long serialVersionUID = 5281932876519542130L;
+
+        static final int INIT = 0;
+
+        static final int CANCELLED = 1;
+
+        static final int EXPIRED = 2;
+
+        final HashedWheelTimerScheduler timer;
+
+        /** 所属Worker，scheduleDirect提交的任务为null */
+        final WheelWorker owner;
+
+        final Runnable run;
+
+        /** 相对startNanos的到期时间 */
+        final long deadline;
+
+        /** 到期后交给dispatcher的任务，用于到期后仍能取消 */
+        volatile Disposable dispatched;
+
+        /** 以下字段仅时钟线程访问 */
+        long remainingRounds;
+
+        WheelTimeout next;
+
+        WheelTimeout prev;
+
+        Bucket bucket;
+
+        WheelTimeout(HashedWheelTimerScheduler timer, WheelWorker owner, Runnable run, long delayNanos) {
+            this.timer = timer;
+            this.owner = owner;
+            this.run = run;
+            this.deadline = System.nanoTime() - timer.startNanos + delayNanos;
+        }
+
+        void expire() {
+            if (compareAndSet(INIT, EXPIRED)) {
+                timer.pending.decrementAndGet();
+                timer.expired.incrementAndGet();
+                try {
+                    if (owner != null) {
+                        owner.tasks.delete(this);
+                        dispatched = owner.dispatcher().schedule(run);
+                    } else {
+                        dispatched = timer.dispatcher.scheduleDirect(run);
+                    }
+                } catch (Throwable ex) {
+                    RxJavaPlugins.onError(ex);
+                }
+            }
+        }
+
+        @Override
+        public void dispose() {
+            if (compareAndSet(INIT, CANCELLED)) {
+                timer.pending.decrementAndGet();
+                timer.cancelled.incrementAndGet();
+                timer.cancellations.offer(this);
+                if (owner != null) {
+                    owner.tasks.delete(this);
+                }
+                return;
+            }
+            Disposable d = dispatched;
+            if (d != null) {
+                d.dispose();
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            int state = get();
+            if (state == CANCELLED) {
+                return true;
+            }
+            Disposable d = dispatched;
+            return state == EXPIRED && d != null && d.isDisposed();
+        }
+    }
+
+    /**
+     * 时间轮的一个槽，双向链表，仅时钟线程访问
+     */
+    static final class Bucket {
+
+        WheelTimeout head;
+
+        WheelTimeout tail;
+
+        void add(WheelTimeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void remove(WheelTimeout timeout) {
+            WheelTimeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        /**
+         * 执行剩余圈数为0的任务，其余任务圈数减一
+         */
+        void expire(long deadline) {
+            WheelTimeout timeout = head;
+            while (timeout != null) {
+                WheelTimeout next = timeout.next;
+                if (timeout.get() != WheelTimeout.INIT) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds <= 0L) {
+                    remove(timeout);
+                    if (timeout.deadline <= deadline) {
+                        timeout.expire();
+                    } else {
+                        // transfer时已保证同一槽内圈数为0的任务在本tick到期，不应出现
+                        RxJavaPlugins.onError(new IllegalStateException(
+                                "timeout.deadline (" + timeout.deadline + ") > deadline (" + deadline + ")"));
+                    }
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+    }
+
+    /**
+     * 延时任务由时间轮计时，到期及无延时的任务交给dispatcher的Worker；
+     * dispatcher的Worker在第一次需要时才创建，到期前就被取消的timeout不产生这部分开销
+     */
+    static final class WheelWorker extends Scheduler.Worker {
+
+        final HashedWheelTimerScheduler timer;
+
+        final CompositeDisposable tasks = new CompositeDisposable();
+
+        volatile Scheduler.Worker dispatcher;
+
+        volatile boolean disposed;
+
+        WheelWorker(HashedWheelTimerScheduler timer) {
+            this.timer = timer;
+        }
+
+        Scheduler.Worker dispatcher() {
+            Scheduler.Worker w = dispatcher;
+            if (w == null) {
+                synchronized (this) {
+                    w = dispatcher;
+                    if (w == null) {
+                        w = timer.dispatcher.createWorker();
+                        dispatcher = w;
+                        if (disposed) {
+                            w.dispose();
+                        }
+                    }
+                }
+            }
+            return w;
+        }
+
+        @NonNull
+        @Override
+        public Disposable schedule(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
+            if (disposed) {
+                return EmptyDisposable.INSTANCE;
+            }
+            Runnable decoratedRun = RxJavaPlugins.onSchedule(run);
+            if (delay <= 0L) {
+                return dispatcher().schedule(decoratedRun);
+            }
+            WheelTimeout timeout = new WheelTimeout(timer, this, decoratedRun, unit.toNanos(delay));
+            tasks.add(timeout);
+            timer.add(timeout);
+            return timeout;
+        }
+
+        @Override
+        public void dispose() {
+            if (!disposed) {
+                disposed = true;
+                tasks.dispose();
+                synchronized (this) {
+                    Scheduler.Worker w = dispatcher;
+                    if (w != null) {
+                        w.dispose();
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.reactive.RxJava2Demo.scheduler;
+
+import io.reactivex.Scheduler;
+import io.reactivex.annotations.NonNull;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.disposables.EmptyDisposable;
+import io.reactivex.internal.functions.ObjectHelper;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @description : 记录运行指标的调度器包装
+ * 每个任务包装成InstrumentedTask：提交时计入排队数，开始执行时记录等待时间，结束时记录执行时间，
+ * 执行前被dispose计为取消；被包装的调度器拒绝任务（抛出RejectedExecutionException或返回EmptyDisposable）时计为拒绝。
+ * 任务的执行线程、顺序仍由被包装的调度器决定。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午10:00
+ * @modified by:
+ */
+public final class InstrumentedScheduler extends Scheduler {
+
+    private final Scheduler delegate;
+
+    private final SchedulerMetrics metrics;
+
+    public InstrumentedScheduler(Scheduler delegate, SchedulerMetrics metrics) {
+        this.delegate = ObjectHelper.requireNonNull(delegate, "delegate is null");
+        this.metrics = ObjectHelper.requireNonNull(metrics, "metrics is null");
+    }
+
+    public Scheduler delegate() {
+        return delegate;
+    }
+
+    public SchedulerMetrics metrics() {
+        return metrics;
+    }
+
+    @NonNull
+    @Override
+    public Worker createWorker() {
+        return new InstrumentedWorker(delegate.createWorker(), metrics);
+    }
+
+    @NonNull
+    @Override
+    public Disposable scheduleDirect(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
+        InstrumentedTask task = new InstrumentedTask(run, delay, unit, metrics, null);
+        try {
+            task.submitted(delegate.scheduleDirect(task, delay, unit));
+        } catch (RejectedExecutionException ex) {
+            task.rejected();
+            throw ex;
+        }
+        return task;
+    }
+
+    @Override
+    public long now(@NonNull TimeUnit unit) {
+        return delegate.now(unit);
+    }
+
+    @Override
+    public void start() {
+        delegate.start();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    static final class InstrumentedWorker extends Scheduler.Worker {
+
+        final Scheduler.Worker actual;
+
+        final SchedulerMetrics metrics;
+
+        final SchedulerMetrics.WorkerMetrics workerMetrics = new SchedulerMetrics.WorkerMetrics();
+
+        /** 尚未开始的任务，Worker dispose时统一计为取消 */
+        final Set<InstrumentedTask> pending = ConcurrentHashMap.newKeySet();
+
+        volatile boolean disposed;
+
+        InstrumentedWorker(Scheduler.Worker actual, SchedulerMetrics metrics) {
+            this.actual = actual;
+            this.metrics = metrics;
+            metrics.workersCreated.incrementAndGet();
+            metrics.liveWorkers.add(workerMetrics);
+        }
+
+        @NonNull
+        @Override
+        public Disposable schedule(@NonNull Runnable run) {
+            return schedule(run, 0L, TimeUnit.NANOSECONDS);
+        }
+
+        @NonNull
+        @Override
+        public Disposable schedule(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
+            if (disposed) {
+                return EmptyDisposable.INSTANCE;
+            }
+            InstrumentedTask task = new InstrumentedTask(run, delay, unit, metrics, this);
+            pending.add(task);
+            try {
+                task.submitted(delay <= 0L ? actual.schedule(task) : actual.schedule(task, delay, unit));
+            } catch (RejectedExecutionException ex) {
+                task.rejected();
+                throw ex;
+            }
+            return task;
+        }
+
+        @Override
+        public long now(@NonNull TimeUnit unit) {
+            return actual.now(unit);
+        }
+
+        @Override
+        public void dispose() {
+            if (!disposed) {
+                disposed = true;
+                actual.dispose();
+                metrics.liveWorkers.remove(workerMetrics);
+                for (InstrumentedTask task : pending) {
+                    task.cancelled();
+                }
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+
+    static final class InstrumentedTask extends AtomicInteger implements Runnable, Disposable {
+
+        private static final long serialVersionUID = -8218398785693716232L;
+
+        static final int PENDING = 0;
+
+        static final int STARTED = 1;
+
+        static final int CANCELLED = 2;
+
+        final Runnable actual;
+
+        final SchedulerMetrics metrics;
+
+        final InstrumentedWorker worker;
+
+        final long submitNanos;
+
+        final long delayNanos;
+
+        volatile Disposable upstream;
+
+        InstrumentedTask(Runnable actual, long delay, TimeUnit unit, SchedulerMetrics metrics,
+                         InstrumentedWorker worker) {
+            this.actual = actual;
+            this.metrics = metrics;
+            this.worker = worker;
+            this.delayNanos = delay <= 0L ? 0L : unit.toNanos(delay);
+            this.submitNanos = System.nanoTime();
+            metrics.scheduled.incrementAndGet();
+            if (delayNanos > 0L) {
+                metrics.delayed.incrementAndGet();
+                metrics.delayedPending.incrementAndGet();
+            } else {
+                metrics.queued.incrementAndGet();
+            }
+            if (worker != null) {
+                worker.workerMetrics.scheduled.incrementAndGet();
+                worker.workerMetrics.pending.incrementAndGet();
+            }
+        }
+
+        void submitted(Disposable d) {
+            upstream = d;
+            // Schedulers.from(Executor)等实现拒绝时返回EmptyDisposable，任务不会再执行
+            if (d == EmptyDisposable.INSTANCE) {
+                rejected();
+            }
+        }
+
+        void rejected() {
+            if (compareAndSet(PENDING, CANCELLED)) {
+                metrics.rejected.incrementAndGet();
+                leavePending();
+            }
+        }
+
+        void cancelled() {
+            if (compareAndSet(PENDING, CANCELLED)) {
+                metrics.cancelled.incrementAndGet();
+                leavePending();
+            }
+        }
+
+        void leavePending() {
+            if (delayNanos > 0L) {
+                metrics.delayedPending.decrementAndGet();
+            } else {
+                metrics.queued.decrementAndGet();
+            }
+            if (worker != null) {
+                worker.workerMetrics.pending.decrementAndGet();
+                worker.pending.remove(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (!compareAndSet(PENDING, STARTED)) {
+                return;
+            }
+            leavePending();
+            long start = System.nanoTime();
+            long wait = start - submitNanos - delayNanos;
+            metrics.onStart();
+            metrics.waitTime().record(wait);
+            try {
+                actual.run();
+                metrics.completed.incrementAndGet();
+            } catch (Throwable ex) {
+                metrics.failed.incrementAndGet();
+                throw ex;
+            } finally {
+                long execution = System.nanoTime() - start;
+                metrics.active.decrementAndGet();
+                metrics.executionTime().record(execution);
+                if (worker != null) {
+                    worker.workerMetrics.onComplete(wait < 0L ? 0L : wait, execution);
+                }
+            }
+        }
+
+        @Override
+        public void dispose() {
+            cancelled();
+            Disposable d = upstream;
+            if (d != null) {
+                d.dispose();
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            if (get() == CANCELLED) {
+                return true;
+            }
+            Disposable d = upstream;
+            return d != null && d.isDisposed();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.reactive.RxJava2Demo.scheduler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @description : 无锁的耗时直方图
+ * 按纳秒值的二进制位数分桶，第i个桶记录(2^(i-1), 2^i]纳秒的样本，共64个桶，记录只需一次数组下标计算和两次原子加。
+ * 分位数返回所在桶的上界，误差不超过2倍，用于区分微秒级与毫秒级的延迟足够。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午10:00
+ * @modified by:
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        long v = nanos < 0L ? 0L : nanos;
+        buckets.incrementAndGet(bucketOf(v));
+        count.incrementAndGet();
+        totalNanos.addAndGet(v);
+        for (;;) {
+            long m = maxNanos.get();
+            if (v <= m || maxNanos.compareAndSet(m, v)) {
+                break;
+            }
+        }
+    }
+
+    static int bucketOf(long nanos) {
+        return nanos <= 1L ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos - 1));
+    }
+
+    public long count() {
+        return count.get();
+    }
+
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+
+    public long meanNanos() {
+        long c = count.get();
+        return c == 0L ? 0L : totalNanos.get() / c;
+    }
+
+    /**
+     * @param quantile 0~1
+     * @return 分位数所在桶的上界（纳秒，不超过最大值），没有样本时为0
+     */
+    public long percentileNanos(double quantile) {
+        long total = 0L;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0L) {
+            return 0L;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank && snapshot[i] != 0L) {
+                return Math.min(upperBound(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    static long upperBound(int bucket) {
+        return bucket >= 63 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0L);
+        }
+        count.set(0L);
+        totalNanos.set(0L);
+        maxNanos.set(0L);
+    }
+
+    /**
+     * @return count、mean、p50、p90、p99、max，时间单位为微秒
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> m = new LinkedHashMap<String, Object>();
+        m.put("count", count());
+        m.put("meanMicros", micros(meanNanos()));
+        m.put("p50Micros", micros(percentileNanos(0.50)));
+        m.put("p90Micros", micros(percentileNanos(0.90)));
+        m.put("p99Micros", micros(percentileNanos(0.99)));
+        m.put("maxMicros", micros(maxNanos()));
+        return m;
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count()
+                + ", mean=" + micros(meanNanos()) + "us"
+                + ", p50<=" + micros(percentileNanos(0.50)) + "us"
+                + ", p99<=" + micros(percentileNanos(0.99)) + "us"
+                + ", max=" + micros(maxNanos()) + "us";
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.reactive.RxJava2Demo.scheduler;
+
+import io.reactivex.Scheduler;
+import io.reactivex.functions.Function;
+import io.reactivex.plugins.RxJavaPlugins;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @description : 通过RxJavaPlugins为computation/io/single/newThread调度器挂上InstrumentedScheduler
+ * Schedulers.xxx()每次调用都会经过对应的handler，这里对同一个底层调度器只创建一次包装，
+ * 指标按名称保存，底层调度器被替换（例如又安装了别的handler）后指标继续累计。
+ * 安装前已存在的handler先执行，本包装套在其结果外面；uninstall时恢复原handler。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午10:00
+ * @modified by:
+ */
+public final class SchedulerInstrumentation {
+
+    public static final String COMPUTATION = "computation";
+
+    public static final String IO = "io";
+
+    public static final String SINGLE = "single";
+
+    public static final String NEW_THREAD = "newThread";
+
+    private static final Map<String, SchedulerMetrics> METRICS = new ConcurrentHashMap<String, SchedulerMetrics>();
+
+    private static Function<? super Scheduler, ? extends Scheduler> previousComputation;
+
+    private static Function<? super Scheduler, ? extends Scheduler> previousIo;
+
+    private static Function<? super Scheduler, ? extends Scheduler> previousSingle;
+
+    private static Function<? super Scheduler, ? extends Scheduler> previousNewThread;
+
+    private static boolean installed;
+
+    private SchedulerInstrumentation() {
+        throw new IllegalStateException("No instances!");
+    }
+
+    public static synchronized void install() {
+        if (installed) {
+            return;
+        }
+        previousComputation = RxJavaPlugins.getComputationSchedulerHandler();
+        previousIo = RxJavaPlugins.getIoSchedulerHandler();
+        previousSingle = RxJavaPlugins.getSingleSchedulerHandler();
+        previousNewThread = RxJavaPlugins.getNewThreadSchedulerHandler();
+        RxJavaPlugins.setComputationSchedulerHandler(handler(COMPUTATION, previousComputation));
+        RxJavaPlugins.setIoSchedulerHandler(handler(IO, previousIo));
+        RxJavaPlugins.setSingleSchedulerHandler(handler(SINGLE, previousSingle));
+        RxJavaPlugins.setNewThreadSchedulerHandler(handler(NEW_THREAD, previousNewThread));
+        installed = true;
+    }
+
+    public static synchronized void uninstall() {
+        if (!installed) {
+            return;
+        }
+        RxJavaPlugins.setComputationSchedulerHandler(previousComputation);
+        RxJavaPlugins.setIoSchedulerHandler(previousIo);
+        RxJavaPlugins.setSingleSchedulerHandler(previousSingle);
+        RxJavaPlugins.setNewThreadSchedulerHandler(previousNewThread);
+        previousComputation = null;
+        previousIo = null;
+        previousSingle = null;
+        previousNewThread = null;
+        installed = false;
+    }
+
+    public static synchronized boolean isInstalled() {
+        return installed;
+    }
+
+    /**
+     * 包装自定义的调度器（如BoundedIoScheduler），指标登记在name下
+     */
+    public static InstrumentedScheduler wrap(String name, Scheduler scheduler) {
+        return new InstrumentedScheduler(scheduler, metrics(name));
+    }
+
+    /**
+     * @return name对应的指标，不存在时创建
+     */
+    public static SchedulerMetrics metrics(String name) {
+        SchedulerMetrics m = METRICS.get(name);
+        if (m == null) {
+            SchedulerMetrics created = new SchedulerMetrics(name);
+            m = METRICS.putIfAbsent(name, created);
+            if (m == null) {
+                m = created;
+            }
+        }
+        return m;
+    }
+
+    /**
+     * @return 所有已登记调度器的指标，按名称排序
+     */
+    public static Map<String, SchedulerMetrics> allMetrics() {
+        Map<String, SchedulerMetrics> sorted = new LinkedHashMap<String, SchedulerMetrics>();
+        for (String name : new TreeSet<String>(METRICS.keySet())) {
+            sorted.put(name, METRICS.get(name));
+        }
+        return Collections.unmodifiableMap(sorted);
+    }
+
+    private static Function<Scheduler, Scheduler> handler(final String name,
+                                                          final Function<? super Scheduler, ? extends Scheduler> previous) {
+        final SchedulerMetrics metrics = metrics(name);
+        return new Function<Scheduler, Scheduler>() {
+            volatile InstrumentedScheduler cached;
+
+            @Override
+            public Scheduler apply(Scheduler scheduler) throws Exception {
+                Scheduler target = previous != null ? previous.apply(scheduler) : scheduler;
+                InstrumentedScheduler c = cached;
+                if (c == null || c.delegate() != target) {
+                    c = new InstrumentedScheduler(target, metrics);
+                    cached = c;
+                }
+                return c;
+            }
+        };
+    }
+}
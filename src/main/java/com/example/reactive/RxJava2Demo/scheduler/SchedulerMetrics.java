@@ -0,0 +1,231 @@
+package com.example.reactive.RxJava2Demo.scheduler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description : 单个调度器的运行指标，由InstrumentedScheduler写入
+ * 等待时间 = 开始执行的时刻 - (提交时刻 + 指定的延时)，反映调度器排队造成的延迟；
+ * 执行时间是任务本身的耗时。两者对比可以判断延迟来自业务逻辑还是调度器排队。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午10:00
+ * @modified by:
+ */
+public final class SchedulerMetrics {
+
+    private final String name;
+
+    final AtomicLong scheduled = new AtomicLong();
+
+    final AtomicLong delayed = new AtomicLong();
+
+    final AtomicLong started = new AtomicLong();
+
+    final AtomicLong completed = new AtomicLong();
+
+    final AtomicLong failed = new AtomicLong();
+
+    final AtomicLong cancelled = new AtomicLong();
+
+    final AtomicLong rejected = new AtomicLong();
+
+    /** 已提交、无延时、尚未开始的任务 */
+    final AtomicLong queued = new AtomicLong();
+
+    /** 已提交、带延时、尚未开始的任务 */
+    final AtomicLong delayedPending = new AtomicLong();
+
+    final AtomicInteger active = new AtomicInteger();
+
+    final AtomicInteger peakActive = new AtomicInteger();
+
+    final AtomicLong workersCreated = new AtomicLong();
+
+    final Set<WorkerMetrics> liveWorkers = ConcurrentHashMap.newKeySet();
+
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+
+    private final LatencyHistogram executionTime = new LatencyHistogram();
+
+    public SchedulerMetrics(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long scheduledCount() {
+        return scheduled.get();
+    }
+
+    public long delayedCount() {
+        return delayed.get();
+    }
+
+    public long completedCount() {
+        return completed.get();
+    }
+
+    public long failedCount() {
+        return failed.get();
+    }
+
+    public long cancelledCount() {
+        return cancelled.get();
+    }
+
+    public long rejectedCount() {
+        return rejected.get();
+    }
+
+    public long queuedTasks() {
+        return queued.get();
+    }
+
+    public long delayedPendingTasks() {
+        return delayedPending.get();
+    }
+
+    /**
+     * @return 正在执行任务的线程数
+     */
+    public int activeThreads() {
+        return active.get();
+    }
+
+    public int peakActiveThreads() {
+        return peakActive.get();
+    }
+
+    public int liveWorkers() {
+        return liveWorkers.size();
+    }
+
+    public LatencyHistogram waitTime() {
+        return waitTime;
+    }
+
+    public LatencyHistogram executionTime() {
+        return executionTime;
+    }
+
+    void onStart() {
+        int a = active.incrementAndGet();
+        for (;;) {
+            int p = peakActive.get();
+            if (a <= p || peakActive.compareAndSet(p, a)) {
+                break;
+            }
+        }
+        started.incrementAndGet();
+    }
+
+    /**
+     * 清零计数与直方图，排队数、活跃数等当前状态不变
+     */
+    public void reset() {
+        scheduled.set(0L);
+        delayed.set(0L);
+        started.set(0L);
+        completed.set(0L);
+        failed.set(0L);
+        cancelled.set(0L);
+        rejected.set(0L);
+        workersCreated.set(0L);
+        peakActive.set(active.get());
+        waitTime.reset();
+        executionTime.reset();
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> m = new LinkedHashMap<String, Object>();
+        m.put("scheduled", scheduledCount());
+        m.put("delayed", delayedCount());
+        m.put("completed", completedCount());
+        m.put("failed", failedCount());
+        m.put("cancelled", cancelledCount());
+        m.put("rejected", rejectedCount());
+        m.put("queued", queuedTasks());
+        m.put("delayedPending", delayedPendingTasks());
+        m.put("activeThreads", activeThreads());
+        m.put("peakActiveThreads", peakActiveThreads());
+        m.put("workersCreated", workersCreated.get());
+        m.put("liveWorkers", liveWorkers());
+        m.put("waitTime", waitTime.toMap());
+        m.put("executionTime", executionTime.toMap());
+        return m;
+    }
+
+    /**
+     * @return 未dispose的Worker各自的指标
+     */
+    public List<Map<String, Object>> workers() {
+        List<Map<String, Object>> list = new ArrayList<Map<String, Object>>();
+        for (WorkerMetrics w : liveWorkers) {
+            list.add(w.toMap());
+        }
+        return list;
+    }
+
+    @Override
+    public String toString() {
+        return name + "{scheduled=" + scheduledCount()
+                + ", completed=" + completedCount()
+                + ", queued=" + queuedTasks()
+                + ", delayedPending=" + delayedPendingTasks()
+                + ", active=" + activeThreads()
+                + ", rejected=" + rejectedCount()
+                + ", liveWorkers=" + liveWorkers()
+                + ", wait[" + waitTime + "]"
+                + ", exec[" + executionTime + "]}";
+    }
+
+    /**
+     * 单个Worker的指标，Worker dispose后从liveWorkers移除
+     */
+    static final class WorkerMetrics {
+
+        private static final AtomicLong IDS = new AtomicLong();
+
+        final long id = IDS.incrementAndGet();
+
+        final AtomicLong scheduled = new AtomicLong();
+
+        final AtomicLong pending = new AtomicLong();
+
+        final AtomicLong completed = new AtomicLong();
+
+        final AtomicLong maxWaitNanos = new AtomicLong();
+
+        final AtomicLong totalExecutionNanos = new AtomicLong();
+
+        void onComplete(long waitNanos, long executionNanos) {
+            completed.incrementAndGet();
+            totalExecutionNanos.addAndGet(executionNanos);
+            for (;;) {
+                long m = maxWaitNanos.get();
+                if (waitNanos <= m || maxWaitNanos.compareAndSet(m, waitNanos)) {
+                    break;
+                }
+            }
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> m = new LinkedHashMap<String, Object>();
+            m.put("id", id);
+            m.put("scheduled", scheduled.get());
+            m.put("pending", pending.get());
+            m.put("completed", completed.get());
+            m.put("maxWaitMicros", maxWaitNanos.get() / 1000L);
+            m.put("totalExecutionMicros", totalExecutionNanos.get() / 1000L);
+            return m;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.reactive.RxJava2Demo.scheduler;
+
+import io.reactivex.Scheduler;
+import io.reactivex.annotations.NonNull;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description : 虚拟线程调度器，用于阻塞型任务
+ * Schedulers.io()每多一个同时阻塞的任务就多一个平台线程，几千个并发的sleep/IO意味着几千个线程栈。
+ * JVM支持虚拟线程（Java 21+）时，Worker的任务在虚拟线程上执行，阻塞时只挂起虚拟线程、释放载体线程；
+ * 不支持时退回Schedulers.io()，行为与原来相同。
+ * 虚拟线程的API通过反射查找，本类按Java 8编译，同一个jar在Java 8与Java 21上都能运行。
+ * Worker的顺序语义由Schedulers.from(Executor)保证：同一Worker的任务串行执行。
+ * @author: liuchuang
+ * @date: 2026/10/18 下午9:20
+ * @modified by:
+ */
+@Slf4j
+public final class VirtualThreadScheduler extends Scheduler {
+
+    private final Scheduler delegate;
+
+    /** 虚拟线程执行器，不支持虚拟线程时为null */
+    private final ExecutorService executor;
+
+    public VirtualThreadScheduler() {
+        this("RxVirtual-");
+    }
+
+    /**
+     * @param namePrefix 虚拟线程名前缀，后接从0开始的序号
+     */
+    public VirtualThreadScheduler(String namePrefix) {
+        ThreadFactory factory = virtualThreadFactory(namePrefix);
+        if (factory != null) {
+            executor = newThreadPerTaskExecutor(factory);
+        } else {
+            executor = null;
+        }
+        if (executor != null) {
+            delegate = Schedulers.from(executor);
+        } else {
+            log.debug("Virtual threads unavailable on Java {}, falling back to Schedulers.io()",
+                    System.getProperty("java.version"));
+            delegate = Schedulers.io();
+        }
+    }
+
+    /**
+     * @return 当前JVM是否支持虚拟线程
+     */
+    public static boolean isSupported() {
+        return virtualThreadFactory("probe-") != null;
+    }
+
+    /**
+     * @return 是否实际运行在虚拟线程上，false表示已退回io调度器
+     */
+    public boolean isVirtual() {
+        return executor != null;
+    }
+
+    @NonNull
+    @Override
+    public Worker createWorker() {
+        return delegate.createWorker();
+    }
+
+    @NonNull
+    @Override
+    public Disposable scheduleDirect(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
+        return delegate.scheduleDirect(run, delay, unit);
+    }
+
+    @NonNull
+    @Override
+    public Disposable schedulePeriodicallyDirect(@NonNull Runnable run, long initialDelay, long period,
+                                                 @NonNull TimeUnit unit) {
+        return delegate.schedulePeriodicallyDirect(run, initialDelay, period, unit);
+    }
+
+    /**
+     * 只关闭自己创建的虚拟线程执行器，退回io时不影响全局的Schedulers.io()
+     */
+    @Override
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Thread.ofVirtual().name(prefix, 0).factory()
+     */
+    private static ThreadFactory virtualThreadFactory(String namePrefix) {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Object builder = ofVirtual.invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Executors.newThreadPerTaskExecutor(factory)
+     */
+    private static ExecutorService newThreadPerTaskExecutor(ThreadFactory factory) {
+        try {
+            Method m = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) m.invoke(null, factory);
+        } catch (Exception ex) {
+            log.warn("Virtual thread executor unavailable: {}", ex.toString());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.reactive.RxJava2Demo.scheduler;
+
+import io.reactivex.Scheduler;
+import io.reactivex.annotations.NonNull;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Function;
+import io.reactivex.internal.disposables.EmptyDisposable;
+import io.reactivex.internal.disposables.SequentialDisposable;
+import io.reactivex.internal.functions.ObjectHelper;
+import io.reactivex.internal.queue.MpscLinkedQueue;
+import io.reactivex.internal.schedulers.ScheduledRunnable;
+import io.reactivex.plugins.RxJavaPlugins;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description : 基于工作窃取的computation调度器
+ * Schedulers.computation()在createWorker时轮流分配固定的单线程池，之后这条链上的任务只在这一个线程执行，
+ * 一条繁忙的链可以占满一个核，而其他线程空闲。
+ * 这里所有Worker共享一个asyncMode的ForkJoinPool，每个池线程有自己的任务双端队列，空闲线程从其他线程的队列尾部窃取任务。
+ * Worker自身是一个串行的任务队列：有任务时把自己提交到池中执行，同一时刻只在一个线程上运行，
+ * 任务按提交顺序执行且互不重叠，与Scheduler.Worker的约定一致；每执行BATCH个任务让出一次，避免长期独占池线程。
+ * 延时任务由单独的定时线程计时，到期后再进入所属Worker的队列。
+ * <pre>
+ *     WorkStealingScheduler scheduler = new WorkStealingScheduler();
+ *     RxJavaPlugins.setComputationSchedulerHandler(scheduler.handler());
+ * </pre>
+ * @author: liuchuang
+ * @date: 2026/10/18 下午9:00
+ * @modified by:
+ */
+public final class WorkStealingScheduler extends Scheduler {
+
+    /** Worker单次连续执行的任务数上限 */
+    static final int BATCH = 64;
+
+    private static final AtomicLong POOL_INDEX = new AtomicLong();
+
+    final ForkJoinPool pool;
+
+    final ScheduledExecutorService timer;
+
+    public WorkStealingScheduler() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public WorkStealingScheduler(int parallelism) {
+        ObjectHelper.verifyPositive(parallelism, "parallelism");
+        final String prefix = "RxWorkStealing-" + POOL_INDEX.incrementAndGet() + "-";
+        this.pool = new ForkJoinPool(parallelism, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            final AtomicInteger index = new AtomicInteger();
+
+            @Override
+            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                t.setName(prefix + index.incrementAndGet());
+                return t;
+            }
+        }, null, true);
+        this.timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, prefix + "timer");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    @NonNull
+    @Override
+    public Worker createWorker() {
+        return new WorkStealingWorker(pool, timer);
+    }
+
+    @Override
+    public void shutdown() {
+        pool.shutdownNow();
+        timer.shutdownNow();
+    }
+
+    /**
+     * @return 供RxJavaPlugins.setComputationSchedulerHandler使用，忽略默认调度器、返回本实例
+     */
+    public Function<Scheduler, Scheduler> handler() {
+        return new Function<Scheduler, Scheduler>() {
+            @Override
+            public Scheduler apply(Scheduler scheduler) {
+                return WorkStealingScheduler.this;
+            }
+        };
+    }
+
+    /**
+     * @return 池中被其他线程窃取的任务数（近似值）
+     */
+    public long stealCount() {
+        return pool.getStealCount();
+    }
+
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    static final class WorkStealingWorker extends Scheduler.Worker implements Runnable {
+
+        final ForkJoinPool pool;
+
+        final ScheduledExecutorService timer;
+
+        final MpscLinkedQueue<Runnable> queue = new MpscLinkedQueue<Runnable>();
+
+        final AtomicInteger wip = new AtomicInteger();
+
+        final CompositeDisposable tasks = new CompositeDisposable();
+
+        volatile boolean disposed;
+
+        WorkStealingWorker(ForkJoinPool pool, ScheduledExecutorService timer) {
+            this.pool = pool;
+            this.timer = timer;
+        }
+
+        @NonNull
+        @Override
+        public Disposable schedule(@NonNull Runnable run) {
+            return enqueue(RxJavaPlugins.onSchedule(run));
+        }
+
+        /**
+         * @param decoratedRun 已经过RxJavaPlugins.onSchedule的任务，延迟任务到期后也从这里入队，避免被钩子包装两次
+         */
+        private Disposable enqueue(Runnable decoratedRun) {
+            if (disposed) {
+                return EmptyDisposable.INSTANCE;
+            }
+            BooleanRunnable br = new BooleanRunnable(decoratedRun);
+            queue.offer(br);
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    pool.execute(this);
+                } catch (RejectedExecutionException ex) {
+                    disposed = true;
+                    queue.clear();
+                    RxJavaPlugins.onError(ex);
+                    return EmptyDisposable.INSTANCE;
+                }
+            }
+            return br;
+        }
+
+        @NonNull
+        @Override
+        public Disposable schedule(@NonNull Runnable run, long delay, @NonNull TimeUnit unit) {
+            if (delay <= 0) {
+                return schedule(run);
+            }
+            if (disposed) {
+                return EmptyDisposable.INSTANCE;
+            }
+            SequentialDisposable first = new SequentialDisposable();
+            final SequentialDisposable mar = new SequentialDisposable(first);
+            final Runnable decoratedRun = RxJavaPlugins.onSchedule(run);
+
+            ScheduledRunnable sr = new ScheduledRunnable(new Runnable() {
+                @Override
+                public void run() {
+                    mar.replace(enqueue(decoratedRun));
+                }
+            }, tasks);
+            tasks.add(sr);
+            try {
+                Future<?> f = timer.schedule((Callable<Object>) sr, delay, unit);
+                sr.setFuture(f);
+            } catch (RejectedExecutionException ex) {
+                disposed = true;
+                RxJavaPlugins.onError(ex);
+                return EmptyDisposable.INSTANCE;
+            }
+            first.replace(sr);
+            return mar;
+        }
+
+        @Override
+        public void dispose() {
+            if (!disposed) {
+                disposed = true;
+                tasks.dispose();
+                if (wip.getAndIncrement() == 0) {
+                    queue.clear();
+                }
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            int executed = 0;
+            final MpscLinkedQueue<Runnable> q = queue;
+            for (;;) {
+                for (;;) {
+                    if (disposed) {
+                        q.clear();
+                        return;
+                    }
+                    Runnable r = q.poll();
+                    if (r == null) {
+                        break;
+                    }
+                    r.run();
+                    if (++executed >= BATCH && !q.isEmpty()) {
+                        // wip仍大于0，重新入池期间不会有第二个线程执行本Worker
+                        try {
+                            pool.execute(this);
+                        } catch (RejectedExecutionException ex) {
+                            disposed = true;
+                            q.clear();
+                            RxJavaPlugins.onError(ex);
+                        }
+                        return;
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+    }
+
+    static final class BooleanRunnable extends AtomicInteger implements Runnable, Disposable {
+
+        private static final long serialVersionUID = -2421395018820541164L;
+
+        final Runnable actual;
+
+        BooleanRunnable(Runnable actual) {
+            this.actual = actual;
+        }
+
+        @Override
+        public void run() {
+            if (get() != 0) {
+                return;
+            }
+            try {
+                actual.run();
+            } catch (Throwable ex) {
+                RxJavaPlugins.onError(ex);
+            } finally {
+                lazySet(1);
+            }
+        }
+
+        @Override
+        public void dispose() {
+            lazySet(1);
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return get() != 0;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.reactive.config;
+
+import com.example.reactive.RxJava2Demo.scheduler.BoundedIoScheduler;
+import io.reactivex.Scheduler;
+import io.reactivex.functions.Function;
+import io.reactivex.plugins.RxJavaPlugins;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description : 调度器配置
+ * 按reactive.scheduler.io.*创建有界io调度器；replace-default=true时替换Schedulers.io()，容器关闭时恢复原来的钩子
+ * @author: liuchuang
+ * @date: 2026/10/18 下午9:40
+ * @modified by:
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(SchedulerProperties.class)
+public class SchedulerConfiguration implements DisposableBean {
+
+    private Function<? super Scheduler, ? extends Scheduler> previousIoHandler;
+
+    private boolean ioHandlerInstalled;
+
+    @Bean(destroyMethod = "shutdown")
+    public BoundedIoScheduler boundedIoScheduler(SchedulerProperties properties) {
+        SchedulerProperties.Io io = properties.getIo();
+        final BoundedIoScheduler scheduler = new BoundedIoScheduler(io.getMaxThreads(), io.getQueueCapacity(),
+                io.getKeepAliveSeconds(), TimeUnit.SECONDS, io.getRejectionPolicy());
+        if (io.isReplaceDefault()) {
+            previousIoHandler = RxJavaPlugins.getIoSchedulerHandler();
+            RxJavaPlugins.setIoSchedulerHandler(new Function<Scheduler, Scheduler>() {
+                @Override
+                public Scheduler apply(Scheduler s) {
+                    return scheduler;
+                }
+            });
+            ioHandlerInstalled = true;
+        }
+        log.info("Bounded io scheduler: maxThreads={}, queueCapacity={}, policy={}, replaceDefault={}",
+                io.getMaxThreads(), io.getQueueCapacity(), io.getRejectionPolicy(), io.isReplaceDefault());
+        return scheduler;
+    }
+
+    @Override
+    public void destroy() {
+        if (ioHandlerInstalled) {
+            RxJavaPlugins.setIoSchedulerHandler(previousIoHandler);
+            ioHandlerInstalled = false;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.reactive.config;
+
+import com.example.reactive.RxJava2Demo.scheduler.BoundedIoScheduler;
+import com.example.reactive.RxJava2Demo.scheduler.SchedulerInstrumentation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @description : 调度器指标配置
+ * 所有单例创建完成后再通过RxJavaPlugins安装包装，这样SchedulerConfiguration替换的io调度器也会被包装；
+ * reactive.scheduler.metrics.enabled=false时不安装
+ * @author: liuchuang
+ * @date: 2026/10/18 下午10:00
+ * @modified by:
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "reactive.scheduler.metrics", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class SchedulerMetricsConfiguration implements SmartInitializingSingleton, DisposableBean {
+
+    @Bean
+    public SchedulerMetricsEndpoint schedulerMetricsEndpoint(ObjectProvider<BoundedIoScheduler> boundedIoScheduler) {
+        return new SchedulerMetricsEndpoint(boundedIoScheduler.getIfAvailable());
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        SchedulerInstrumentation.install();
+        log.info("RxJava scheduler instrumentation installed");
+    }
+
+    @Override
+    public void destroy() {
+        SchedulerInstrumentation.uninstall();
+    }
+}
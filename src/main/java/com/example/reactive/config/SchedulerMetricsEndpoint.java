@@ -0,0 +1,74 @@
+package com.example.reactive.config;
+
+import com.example.reactive.RxJava2Demo.scheduler.BoundedIoScheduler;
+import com.example.reactive.RxJava2Demo.scheduler.SchedulerInstrumentation;
+import com.example.reactive.RxJava2Demo.scheduler.SchedulerMetrics;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedOperationParameter;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @description : 调度器指标，以JMX MBean发布（com.example.reactive:type=Schedulers）
+ * 也可以作为普通bean注入后直接读取
+ * @author: liuchuang
+ * @date: 2026/10/18 下午10:00
+ * @modified by:
+ */
+@ManagedResource(objectName = "com.example.reactive:type=Schedulers", description = "RxJava scheduler metrics")
+public class SchedulerMetricsEndpoint {
+
+    private final BoundedIoScheduler boundedIoScheduler;
+
+    public SchedulerMetricsEndpoint(BoundedIoScheduler boundedIoScheduler) {
+        this.boundedIoScheduler = boundedIoScheduler;
+    }
+
+    /**
+     * @return 各调度器的计数、排队数、活跃线程数、等待/执行时间分布
+     */
+    @ManagedAttribute(description = "Per-scheduler task counters and wait/execution time histograms")
+    public Map<String, Map<String, Object>> getSchedulers() {
+        Map<String, Map<String, Object>> m = new LinkedHashMap<String, Map<String, Object>>();
+        for (Map.Entry<String, SchedulerMetrics> e : SchedulerInstrumentation.allMetrics().entrySet()) {
+            m.put(e.getKey(), e.getValue().toMap());
+        }
+        return m;
+    }
+
+    @ManagedAttribute(description = "Bounded io scheduler pool and queue state")
+    public String getBoundedIo() {
+        return boundedIoScheduler != null ? boundedIoScheduler.toString() : "disabled";
+    }
+
+    @ManagedAttribute(description = "Whether the scheduler wrappers are installed through RxJavaPlugins")
+    public boolean isInstalled() {
+        return SchedulerInstrumentation.isInstalled();
+    }
+
+    @ManagedOperation(description = "Live workers of one scheduler")
+    @ManagedOperationParameter(name = "scheduler", description = "computation, io, single or newThread")
+    public List<Map<String, Object>> workers(String scheduler) {
+        return SchedulerInstrumentation.metrics(scheduler).workers();
+    }
+
+    @ManagedOperation(description = "Reset counters and histograms")
+    public void reset() {
+        for (SchedulerMetrics metrics : SchedulerInstrumentation.allMetrics().values()) {
+            metrics.reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (SchedulerMetrics metrics : SchedulerInstrumentation.allMetrics().values()) {
+            sb.append(metrics).append('\n');
+        }
+        return sb.append(getBoundedIo()).toString();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.reactive.config;
+
+import com.example.reactive.RxJava2Demo.scheduler.BoundedIoScheduler;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @description : 调度器配置，对应application.properties中的reactive.scheduler.*
+ * @author: liuchuang
+ * @date: 2026/10/18 下午9:40
+ * @modified by:
+ */
+@Data
+@ConfigurationProperties(prefix = "reactive.scheduler")
+public class SchedulerProperties {
+
+    private final Io io = new Io();
+
+    /**
+     * 有界io调度器
+     */
+    @Data
+    public static class Io {
+
+        /** 最大线程数 */
+        private int maxThreads = 64;
+
+        /** 线程都在忙时可排队的任务数 */
+        private int queueCapacity = 1024;
+
+        /** 空闲线程的存活秒数 */
+        private long keepAliveSeconds = 60;
+
+        /** 队列满时的处理方式 */
+        private BoundedIoScheduler.RejectionPolicy rejectionPolicy = BoundedIoScheduler.RejectionPolicy.CALLER_RUNS;
+
+        /** 是否通过RxJavaPlugins替换Schedulers.io() */
+        private boolean replaceDefault = false;
+    }
+}